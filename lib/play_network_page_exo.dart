@@ -14,6 +14,8 @@ import 'package:lin_player_ui/lin_player_ui.dart';
 import 'package:shared_preferences/shared_preferences.dart';
 import 'package:video_player/video_player.dart';
 import 'package:video_player_android/exo_tracks.dart' as vp_android;
+import 'package:video_player_android/video_player_android.dart'
+    show AndroidVideoPlayer;
 import 'package:video_player_platform_interface/video_player_platform_interface.dart';
 
 import 'play_network_page.dart';
@@ -3065,18 +3067,6 @@ class _ExoPlayNetworkPageState extends State<ExoPlayNetworkPage>
       }
       final streamUrl = await _buildStreamUrl();
       _resolvedStream = streamUrl;
-      final controller = VideoPlayerController.networkUrl(
-        Uri.parse(streamUrl),
-        httpHeaders: _embyHeaders(),
-        // Use platform view on Android to avoid color issues with some HDR/Dolby Vision sources.
-        // (Texture-based rendering may show green/purple tint on certain P8 files.)
-        viewType: _viewType,
-      );
-      _controller = controller;
-      await controller.initialize();
-      await _applyOrientationForMode();
-      await _applyExoSubtitleOptions();
-      await _maybeAutoSelectSubtitleTrack(controller);
       final cloudStart = _overrideStartPosition ?? widget.startPosition;
       final remoteStart = await remoteStartFuture;
       final localStart = await localStartFuture;
@@ -3091,6 +3081,37 @@ class _ExoPlayNetworkPageState extends State<ExoPlayNetworkPage>
           _overrideResumeImmediately || widget.resumeImmediately;
       _overrideStartPosition = null;
       _overrideResumeImmediately = false;
+      // TV SoCs drop frames on 4K HDR without tunneling; phones keep the
+      // regular path. Hardware decoders first, software only as a fallback.
+      AndroidVideoPlayer.rendererPolicy = vp_android.RendererPolicyMessage(
+        tunneling: widget.isTv,
+        preferHardwareDecoders: true,
+        decoderFallback: true,
+        asyncQueueing: true,
+      );
+      // Prepare the player directly at the resume position instead of seeking
+      // after the first frames; the hint flow still starts from the beginning,
+      // and only an immediate resume may fall back to the native record.
+      AndroidVideoPlayer.setStartOptions(
+        streamUrl,
+        startPosition: resumeImmediately ? start : Duration.zero,
+        resumeKey: widget.itemId,
+        resumeFromStore: resumeImmediately,
+      );
+      final controller = VideoPlayerController.networkUrl(
+        Uri.parse(streamUrl),
+        httpHeaders: _embyHeaders(),
+        // Use platform view on Android to avoid color issues with some HDR/Dolby Vision sources.
+        // (Texture-based rendering may show green/purple tint on certain P8 files.)
+        viewType: _viewType,
+      );
+      _controller = controller;
+      await controller.initialize();
+      await _applyOrientationForMode();
+      await _applyExoSubtitleOptions();
+      await _maybeAutoSelectSubtitleTrack(controller);
+      // ignore: unawaited_futures
+      _configureExoThumbnails(controller);
       Duration? resumeTarget;
       if (start != null && start > Duration.zero) {
         final target = _safeSeekTarget(start, controller.value.duration);
@@ -3342,6 +3363,73 @@ class _ExoPlayNetworkPageState extends State<ExoPlayNetworkPage>
     }
   }
 
+  // Seek previews: Emby serves BIF files and Jellyfin trickplay tile sheets
+  // (10x10 frames of 320px every 10 s by default); without either, frames are
+  // extracted from the stream.
+  Future<void> _configureExoThumbnails(VideoPlayerController controller) async {
+    final base = _baseUrl;
+    final token = _token;
+    if (base == null || token == null) return;
+    final itemId = widget.itemId;
+    final mediaSource = (_mediaSourceId ?? '').trim();
+    final sourceQuery = mediaSource.isEmpty ? '' : '&MediaSourceId=$mediaSource';
+    String? bifUrl;
+    String? tileUrlTemplate;
+    switch (widget.server?.serverType ?? widget.appState.serverType) {
+      case MediaServerType.emby:
+      case MediaServerType.uhd:
+        bifUrl = '$base/emby/Videos/$itemId/index.bif?width=320'
+            '&api_key=$token$sourceQuery';
+      case MediaServerType.jellyfin:
+        tileUrlTemplate = '$base/Videos/$itemId/Trickplay/320/{index}.jpg'
+            '?api_key=$token$sourceQuery';
+      case MediaServerType.plex:
+      case MediaServerType.webdav:
+        break;
+    }
+    try {
+      // ignore: invalid_use_of_visible_for_testing_member
+      final playerId = controller.playerId;
+      await vp_android.VideoPlayerInstanceApi(
+        messageChannelSuffix: playerId.toString(),
+      ).setThumbnailSource(
+        vp_android.ThumbnailSourceMessage(
+          bifUrl: bifUrl,
+          tileUrlTemplate: tileUrlTemplate,
+          tileColumns: tileUrlTemplate == null ? null : 10,
+          tileRows: tileUrlTemplate == null ? null : 10,
+          intervalMs: 10000,
+          maxWidth: 320,
+          keyframeFallback: true,
+          httpHeaders: _embyHeaders(),
+        ),
+      );
+    } catch (_) {}
+  }
+
+  // The native side only returns thumbnails that are already loaded, so keep
+  // asking briefly while it fetches the one under the scrub position.
+  Future<Uint8List?> _exoThumbnail(Duration position) async {
+    final controller = _controller;
+    if (controller == null || !controller.value.isInitialized) return null;
+    // ignore: invalid_use_of_visible_for_testing_member
+    final playerId = controller.playerId;
+    final api = vp_android.VideoPlayerInstanceApi(
+      messageChannelSuffix: playerId.toString(),
+    );
+    for (var attempt = 0; attempt < 10; attempt++) {
+      try {
+        final bytes = await api.getThumbnail(position.inMilliseconds);
+        if (bytes != null) return bytes;
+      } catch (_) {
+        return null;
+      }
+      await Future<void>.delayed(const Duration(milliseconds: 200));
+      if (!mounted || _controller != controller) return null;
+    }
+    return null;
+  }
+
   int _toTicks(Duration d) => d.inMicroseconds * 10;
 
   String get _localProgressKey {
@@ -3687,6 +3775,8 @@ class _ExoPlayNetworkPageState extends State<ExoPlayNetworkPage>
       VideoPlayerController controller, Duration target) async {
     if (!controller.value.isInitialized) return false;
     if (target <= Duration.zero) return true;
+    // Already started there (see AndroidVideoPlayer.setStartOptions).
+    if (_seekCloseEnough(controller.value.position, target)) return true;
 
     Future<void> attemptSeek() async {
       try {
@@ -5524,6 +5614,7 @@ class _ExoPlayNetworkPageState extends State<ExoPlayNetworkPage>
                                                 : null,
                                         onScrubStart: _onScrubStart,
                                         onScrubEnd: _onScrubEnd,
+                                        onRequestThumbnail: _exoThumbnail,
                                         onSeek: (pos) async {
                                           await controller.seekTo(pos);
                                           _maybeReportPlaybackProgress(
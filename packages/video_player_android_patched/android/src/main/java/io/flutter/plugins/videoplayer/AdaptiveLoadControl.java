@@ -0,0 +1,361 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.Timeline;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.common.util.Util;
+import androidx.media3.exoplayer.LoadControl;
+import androidx.media3.exoplayer.Renderer;
+import androidx.media3.exoplayer.analytics.PlayerId;
+import androidx.media3.exoplayer.source.MediaSource.MediaPeriodId;
+import androidx.media3.exoplayer.source.TrackGroupArray;
+import androidx.media3.exoplayer.trackselection.ExoTrackSelection;
+import androidx.media3.exoplayer.upstream.Allocator;
+import androidx.media3.exoplayer.upstream.BandwidthMeter;
+import androidx.media3.exoplayer.upstream.DefaultAllocator;
+import java.util.ArrayDeque;
+
+/**
+ * {@link LoadControl} that retunes the LinPlayer buffer preset from what it observes at runtime.
+ *
+ * <p>The decision logic mirrors {@link androidx.media3.exoplayer.DefaultLoadControl}, but the
+ * thresholds are recomputed from the selected track bitrate, the bandwidth estimate and the recent
+ * rebuffer history. The preset's durations are the lower bound: a slow or flaky network raises the
+ * buffer targets, and a fast network lowers the byte target so high-bitrate remuxes do not hold
+ * more heap than they need.
+ *
+ * <p>The back buffer is the exception: ExoPlayer reads it once, when the player is built, so it is
+ * decided in the constructor from the budget at that time and never retuned.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@OptIn(markerClass = UnstableApi.class)
+final class AdaptiveLoadControl implements LoadControl {
+  private static final int MB = LinPlayerBuffering.MB;
+
+  // Keep some bytes even for low-bitrate content so the allocator is not trimmed constantly.
+  private static final int MIN_TARGET_BYTES = 16 * MB;
+  // Always load when less than this is buffered, whatever the byte target says.
+  private static final long MIN_BUFFER_FLOOR_US = 500_000;
+  // Rebuffers older than this no longer influence the tuning.
+  private static final long REBUFFER_WINDOW_MS = 10 * 60 * 1000;
+  // Ignore byte/duration bitrate estimates until this much media is buffered.
+  private static final long MIN_MEASURE_DURATION_US = 2_000_000;
+
+  @NonNull private final LinPlayerBuffering.BufferDurations preset;
+  private final int maxTargetBytes;
+  private final double backRatio;
+  private final long backBufferUs;
+  @NonNull private final BandwidthMeter bandwidthMeter;
+  @NonNull private final LinPlayerMemoryGovernor memoryGovernor;
+  @NonNull private final DefaultAllocator allocator;
+
+  private final ArrayDeque<Long> rebufferTimesMs = new ArrayDeque<>();
+  private boolean inRebuffer;
+  private long selectedBitrate = Format.NO_VALUE;
+  private long measuredBitrate = Format.NO_VALUE;
+  private boolean isLoading;
+  @NonNull private Tuning tuning;
+
+  AdaptiveLoadControl(
+      @NonNull LinPlayerBuffering.BufferDurations preset,
+      int maxTargetBytes,
+      double backRatio,
+      @NonNull BandwidthMeter bandwidthMeter,
+      @NonNull LinPlayerMemoryGovernor memoryGovernor) {
+    this.preset = preset;
+    this.maxTargetBytes = maxTargetBytes;
+    this.backRatio = backRatio;
+    this.bandwidthMeter = bandwidthMeter;
+    this.memoryGovernor = memoryGovernor;
+    this.allocator = new DefaultAllocator(/* trimOnReset= */ true, C.DEFAULT_BUFFER_SEGMENT_SIZE);
+    final LinPlayerMemoryGovernor.Budget budget = memoryGovernor.currentBudget();
+    this.tuning =
+        Tuning.compute(
+            preset,
+            Math.min(maxTargetBytes, budget.targetMaxBytes),
+            budget.backBufferAllowed ? backRatio : 0,
+            Format.NO_VALUE,
+            0,
+            0);
+    this.backBufferUs = tuning.backBufferUs;
+    allocator.setTargetBufferSize(tuning.targetBytes);
+  }
+
+  @Override
+  public void onPrepared(@NonNull PlayerId playerId) {
+    reset(false);
+  }
+
+  @Override
+  public void onTracksSelected(
+      @NonNull PlayerId playerId,
+      @NonNull Timeline timeline,
+      @NonNull MediaPeriodId mediaPeriodId,
+      @NonNull Renderer[] renderers,
+      @NonNull TrackGroupArray trackGroups,
+      @NonNull ExoTrackSelection[] trackSelections) {
+    long bitrate = 0;
+    for (ExoTrackSelection selection : trackSelections) {
+      if (selection == null) continue;
+      final int formatBitrate = bitrateOf(selection.getSelectedFormat());
+      if (formatBitrate != Format.NO_VALUE) {
+        bitrate += formatBitrate;
+      }
+    }
+    selectedBitrate = bitrate > 0 ? bitrate : Format.NO_VALUE;
+    measuredBitrate = Format.NO_VALUE;
+    retune();
+  }
+
+  @Override
+  public void onStopped(@NonNull PlayerId playerId) {
+    reset(true);
+  }
+
+  @Override
+  public void onReleased(@NonNull PlayerId playerId) {
+    reset(true);
+  }
+
+  @NonNull
+  @Override
+  public Allocator getAllocator() {
+    return allocator;
+  }
+
+  @Override
+  public long getBackBufferDurationUs(@NonNull PlayerId playerId) {
+    return backBufferUs;
+  }
+
+  @Override
+  public boolean retainBackBufferFromKeyframe(@NonNull PlayerId playerId) {
+    return true;
+  }
+
+  @Override
+  public boolean shouldContinueLoading(@NonNull Parameters parameters) {
+    maybeMeasureBitrate(parameters.bufferedDurationUs);
+    retune();
+
+    final boolean targetBufferSizeReached =
+        allocator.getTotalBytesAllocated() >= tuning.targetBytes;
+    long minBufferUs = tuning.minBufferUs;
+    if (parameters.playbackSpeed > 1) {
+      final long mediaDurationMinBufferUs =
+          Util.getMediaDurationForPlayoutDuration(minBufferUs, parameters.playbackSpeed);
+      minBufferUs = Math.min(mediaDurationMinBufferUs, tuning.maxBufferUs);
+    }
+    minBufferUs = Math.max(minBufferUs, MIN_BUFFER_FLOOR_US);
+    if (parameters.bufferedDurationUs < minBufferUs) {
+      isLoading = !targetBufferSizeReached || parameters.bufferedDurationUs < MIN_BUFFER_FLOOR_US;
+    } else if (parameters.bufferedDurationUs >= tuning.maxBufferUs || targetBufferSizeReached) {
+      isLoading = false;
+    }
+    return isLoading;
+  }
+
+  @Override
+  public boolean shouldStartPlayback(@NonNull Parameters parameters) {
+    if (parameters.rebuffering && !inRebuffer) {
+      inRebuffer = true;
+      recordRebuffer(SystemClock.elapsedRealtime());
+    }
+    final long bufferedDurationUs =
+        Util.getPlayoutDurationForMediaDuration(
+            parameters.bufferedDurationUs, parameters.playbackSpeed);
+    long minBufferDurationUs =
+        parameters.rebuffering
+            ? tuning.bufferForPlaybackAfterRebufferUs
+            : tuning.bufferForPlaybackUs;
+    if (parameters.targetLiveOffsetUs != C.TIME_UNSET) {
+      minBufferDurationUs = Math.min(parameters.targetLiveOffsetUs / 2, minBufferDurationUs);
+    }
+    final boolean start =
+        minBufferDurationUs <= 0
+            || bufferedDurationUs >= minBufferDurationUs
+            || allocator.getTotalBytesAllocated() >= tuning.targetBytes;
+    if (start) {
+      inRebuffer = false;
+    }
+    return start;
+  }
+
+  private void reset(boolean resetAllocator) {
+    isLoading = false;
+    inRebuffer = false;
+    if (resetAllocator) {
+      allocator.reset();
+    }
+  }
+
+  private void recordRebuffer(long nowMs) {
+    rebufferTimesMs.addLast(nowMs);
+    while (rebufferTimesMs.size() > 16) {
+      rebufferTimesMs.removeFirst();
+    }
+  }
+
+  private int recentRebufferCount(long nowMs) {
+    while (!rebufferTimesMs.isEmpty() && nowMs - rebufferTimesMs.peekFirst() > REBUFFER_WINDOW_MS) {
+      rebufferTimesMs.removeFirst();
+    }
+    return rebufferTimesMs.size();
+  }
+
+  private void maybeMeasureBitrate(long bufferedDurationUs) {
+    if (selectedBitrate != Format.NO_VALUE || bufferedDurationUs < MIN_MEASURE_DURATION_US) {
+      return;
+    }
+    // Progressive containers rarely declare a bitrate; derive it from what is actually buffered.
+    final long bytes = allocator.getTotalBytesAllocated();
+    final long estimate = bytes * 8L * C.MICROS_PER_SECOND / bufferedDurationUs;
+    measuredBitrate =
+        measuredBitrate == Format.NO_VALUE ? estimate : (measuredBitrate * 3 + estimate) / 4;
+  }
+
+  private void retune() {
+    final long bitrate = selectedBitrate != Format.NO_VALUE ? selectedBitrate : measuredBitrate;
+    // Under memory pressure the governor shrinks the byte budget. The back buffer is not retuned.
+    final LinPlayerMemoryGovernor.Budget budget = memoryGovernor.currentBudget();
+    final Tuning next =
+        Tuning.compute(
+            preset,
+            Math.min(maxTargetBytes, budget.targetMaxBytes),
+            backRatio,
+            bitrate,
+            bandwidthMeter.getBitrateEstimate(),
+            recentRebufferCount(SystemClock.elapsedRealtime()));
+    if (next.targetBytes != tuning.targetBytes) {
+      allocator.setTargetBufferSize(next.targetBytes);
+    }
+    tuning = next;
+  }
+
+  private static int bitrateOf(@Nullable Format format) {
+    if (format == null) return Format.NO_VALUE;
+    if (format.averageBitrate != Format.NO_VALUE) return format.averageBitrate;
+    return format.bitrate;
+  }
+
+  /** Buffer thresholds derived from one set of observations. */
+  @VisibleForTesting
+  static final class Tuning {
+    // Upper bounds the adaptive thresholds may grow to.
+    private static final long MAX_MIN_BUFFER_US = 60_000_000;
+    private static final long MAX_BUFFER_FOR_PLAYBACK_US = 2_500_000;
+    private static final long MAX_BUFFER_AFTER_REBUFFER_US = 5_000_000;
+    // With this much bandwidth headroom the buffer refills quickly, so fewer bytes are held.
+    private static final double COMFORTABLE_HEADROOM = 2.0;
+    private static final long COMFORTABLE_AHEAD_US = 120_000_000;
+    private static final double STARVED_HEADROOM = 1.2;
+
+    final long minBufferUs;
+    final long maxBufferUs;
+    final long bufferForPlaybackUs;
+    final long bufferForPlaybackAfterRebufferUs;
+    final long backBufferUs;
+    final int targetBytes;
+
+    private Tuning(
+        long minBufferUs,
+        long maxBufferUs,
+        long bufferForPlaybackUs,
+        long bufferForPlaybackAfterRebufferUs,
+        long backBufferUs,
+        int targetBytes) {
+      this.minBufferUs = minBufferUs;
+      this.maxBufferUs = maxBufferUs;
+      this.bufferForPlaybackUs = bufferForPlaybackUs;
+      this.bufferForPlaybackAfterRebufferUs = bufferForPlaybackAfterRebufferUs;
+      this.backBufferUs = backBufferUs;
+      this.targetBytes = targetBytes;
+    }
+
+    /**
+     * Computes thresholds for the given preset and observations.
+     *
+     * @param bitrate bitrate of the selected tracks in bits/s, or {@link Format#NO_VALUE}.
+     * @param bandwidth bandwidth estimate in bits/s, or 0 if unknown.
+     * @param recentRebuffers number of rebuffers within the recent window.
+     */
+    @NonNull
+    static Tuning compute(
+        @NonNull LinPlayerBuffering.BufferDurations preset,
+        int maxTargetBytes,
+        double backRatio,
+        long bitrate,
+        long bandwidth,
+        int recentRebuffers) {
+      final boolean bitrateKnown = bitrate > 0;
+      final double headroom =
+          bitrateKnown && bandwidth > 0 ? (double) bandwidth / bitrate : COMFORTABLE_HEADROOM;
+
+      // 0 = preset as configured, 1 = most defensive buffering.
+      double pressure = Math.min(1.0, recentRebuffers * 0.35);
+      if (headroom < COMFORTABLE_HEADROOM) {
+        pressure =
+            Math.max(
+                pressure,
+                (COMFORTABLE_HEADROOM - headroom) / (COMFORTABLE_HEADROOM - STARVED_HEADROOM));
+      }
+      pressure = LinPlayerBuffering.clampDouble(pressure, 0.0, 1.0);
+
+      final long presetMinUs = preset.minBufferMs * 1000L;
+      final long maxBufferUs = preset.maxBufferMs * 1000L;
+      final long minBufferUs =
+          Math.min(
+              maxBufferUs, lerp(presetMinUs, Math.max(presetMinUs, MAX_MIN_BUFFER_US), pressure));
+      final long forPlaybackUs =
+          lerp(
+              preset.bufferForPlaybackMs * 1000L,
+              Math.max(preset.bufferForPlaybackMs * 1000L, MAX_BUFFER_FOR_PLAYBACK_US),
+              pressure);
+      final long afterRebufferUs =
+          lerp(
+              preset.bufferForPlaybackAfterRebufferMs * 1000L,
+              Math.max(
+                  preset.bufferForPlaybackAfterRebufferMs * 1000L, MAX_BUFFER_AFTER_REBUFFER_US),
+              pressure);
+
+      int targetBytes = maxTargetBytes;
+      if (bitrateKnown) {
+        // Hold enough bytes for the wanted duration, not the whole heap budget. On a comfortable
+        // network a couple of minutes refill quickly; when starved aim for the full max buffer.
+        final long comfortableUs =
+            Math.min(maxBufferUs, Math.max(minBufferUs * 2, COMFORTABLE_AHEAD_US));
+        final long wantedUs = lerp(comfortableUs, maxBufferUs, pressure);
+        final long wantedBytes = bitrate / 8 * wantedUs / C.MICROS_PER_SECOND;
+        targetBytes =
+            (int)
+                Math.max(
+                    Math.min(MIN_TARGET_BYTES, maxTargetBytes),
+                    Math.min(wantedBytes, maxTargetBytes));
+      }
+
+      final long backBytes = (long) (targetBytes * backRatio);
+      final long backBufferUs =
+          bitrateKnown
+              ? backBytes * 8 * C.MICROS_PER_SECOND / bitrate
+              // Rough mapping when the bitrate is unknown: 1MB ~= 1 second at ~8Mbps.
+              : backBytes / MB * C.MICROS_PER_SECOND;
+
+      return new Tuning(
+          minBufferUs, maxBufferUs, forPlaybackUs, afterRebufferUs, backBufferUs, targetBytes);
+    }
+
+    private static long lerp(long from, long to, double t) {
+      return from + Math.round((to - from) * t);
+    }
+  }
+}
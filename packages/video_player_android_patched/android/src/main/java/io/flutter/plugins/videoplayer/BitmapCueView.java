@@ -0,0 +1,88 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.media3.common.text.Cue;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Draws image-based subtitle cues (PGS, VobSub, DVB) at the position and size the cue requests,
+ * relative to this view's bounds.
+ */
+public final class BitmapCueView extends View {
+  @NonNull private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+  @NonNull private final RectF bounds = new RectF();
+  @NonNull private List<Cue> cues = Collections.emptyList();
+
+  public BitmapCueView(@NonNull Context context) {
+    super(context);
+    setWillNotDraw(false);
+  }
+
+  /** Replaces the cues on screen; cues without a bitmap are ignored. */
+  public void setCues(@NonNull List<Cue> cues) {
+    if (this.cues.equals(cues)) {
+      return;
+    }
+    this.cues = cues;
+    setVisibility(cues.isEmpty() ? GONE : VISIBLE);
+    invalidate();
+  }
+
+  @Override
+  protected void onDraw(@NonNull Canvas canvas) {
+    final int width = getWidth();
+    final int height = getHeight();
+    if (width == 0 || height == 0) {
+      return;
+    }
+    for (final Cue cue : cues) {
+      final Bitmap bitmap = cue.bitmap;
+      if (bitmap == null || bitmap.isRecycled()) {
+        continue;
+      }
+      computeBounds(cue, bitmap, width, height, bounds);
+      canvas.drawBitmap(bitmap, null, bounds, paint);
+    }
+  }
+
+  // Cue positions are fractions of the viewport; unset values fall back to bottom centre.
+  private static void computeBounds(
+      @NonNull Cue cue, @NonNull Bitmap bitmap, int width, int height, @NonNull RectF out) {
+    final float position = cue.position == Cue.DIMEN_UNSET ? 0.5f : cue.position;
+    final int positionAnchor =
+        cue.positionAnchor == Cue.TYPE_UNSET ? Cue.ANCHOR_TYPE_MIDDLE : cue.positionAnchor;
+    final float line = cue.line == Cue.DIMEN_UNSET ? 0.95f : cue.line;
+    final int lineAnchor = cue.lineAnchor == Cue.TYPE_UNSET ? Cue.ANCHOR_TYPE_END : cue.lineAnchor;
+
+    final float cueWidth = (cue.size == Cue.DIMEN_UNSET ? 0.5f : cue.size) * width;
+    final float cueHeight =
+        cue.bitmapHeight != Cue.DIMEN_UNSET
+            ? cue.bitmapHeight * height
+            : cueWidth * bitmap.getHeight() / Math.max(1, bitmap.getWidth());
+
+    final float left = anchor(position * width, cueWidth, positionAnchor);
+    final float top = anchor(line * height, cueHeight, lineAnchor);
+    out.set(left, top, left + cueWidth, top + cueHeight);
+  }
+
+  private static float anchor(float origin, float extent, int anchorType) {
+    if (anchorType == Cue.ANCHOR_TYPE_MIDDLE) {
+      return origin - extent / 2f;
+    }
+    if (anchorType == Cue.ANCHOR_TYPE_END) {
+      return origin - extent;
+    }
+    return origin;
+  }
+}
@@ -16,6 +16,10 @@ public abstract class ExoPlayerEventListener implements Player.Listener {
   private boolean isInitialized = false;
   protected final ExoPlayer exoPlayer;
   protected final VideoPlayerCallbacks events;
+  // The last selected audio track and its ID, so the ID string is only built when it changes.
+  private int selectedAudioGroup = -1;
+  private int selectedAudioTrack = -1;
+  @Nullable private String selectedAudioTrackId;
 
   protected enum RotationDegrees {
     ROTATE_0(0),
@@ -113,7 +117,7 @@ public abstract class ExoPlayerEventListener implements Player.Listener {
         // Find the selected track within this group
         for (int i = 0; i < group.length; i++) {
           if (group.isTrackSelected(i)) {
-            return groupIndex + "_" + i;
+            return selectedAudioTrackId(groupIndex, i);
           }
         }
       }
@@ -121,4 +125,16 @@ public abstract class ExoPlayerEventListener implements Player.Listener {
     }
     return null;
   }
+
+  @NonNull
+  private String selectedAudioTrackId(int groupIndex, int trackIndex) {
+    if (selectedAudioTrackId == null
+        || groupIndex != selectedAudioGroup
+        || trackIndex != selectedAudioTrack) {
+      selectedAudioGroup = groupIndex;
+      selectedAudioTrack = trackIndex;
+      selectedAudioTrackId = groupIndex + "_" + trackIndex;
+    }
+    return selectedAudioTrackId;
+  }
 }
@@ -0,0 +1,392 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.PlaybackParameters;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.drm.DrmSessionManagerProvider;
+import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.media3.exoplayer.upstream.LoadErrorHandlingPolicy;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A small pool of idle {@link ExoPlayer} instances shared by all video players.
+ *
+ * <p>Building an ExoPlayer starts a playback thread and creates renderers, a track selector and a
+ * load control. A disposed player is instead stopped, cleared and reset to defaults, and the next
+ * player checks it out. Decoders are still released on stop; what is kept is everything around
+ * them.
+ *
+ * <p>The media source factory of a built player cannot be replaced, so pooled players are built
+ * with a {@link SwitchableMediaSourceFactory} that delegates to the checked-out asset's factory.
+ * Renderers are fixed at build time too, so a player is only reused for the same {@link
+ * RendererPolicy}, and {@link #prewarm} builds for the policy acquired last. Idle players are
+ * dropped when the buffering preferences or renderer policy they were built with are no longer in
+ * use, and under memory pressure. Must be used from the main thread.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@OptIn(markerClass = UnstableApi.class)
+public final class ExoPlayerPool {
+  private static final String TAG = "ExoPlayerPool";
+
+  static final String KEY_ENABLED = LinPlayerBuffering.KEY_PREFIX + "exoPlayerPool_v1";
+
+  // The last renderer policy, kept across launches so the first prewarm builds a usable player.
+  private static final String PREFERENCES_NAME = "linplayer_exoplayer_pool";
+  private static final String KEY_LAST_RENDERER_POLICY = "lastRendererPolicy";
+
+  // Enough for switching episodes with a trailer preview alive; each idle player holds a thread.
+  @VisibleForTesting static final int MAX_IDLE = 2;
+
+  @Nullable private static ExoPlayerPool instance;
+
+  @NonNull
+  public static synchronized ExoPlayerPool get(@NonNull Context context) {
+    if (instance == null) {
+      final Context appContext = context.getApplicationContext();
+      instance = new ExoPlayerPool(appContext != null ? appContext : context);
+    }
+    return instance;
+  }
+
+  /** Releases the idle players of the shared pool, if it was ever created. */
+  static void releaseIdleShared() {
+    final ExoPlayerPool pool;
+    synchronized (ExoPlayerPool.class) {
+      pool = instance;
+    }
+    if (pool != null) {
+      pool.releaseIdle();
+    }
+  }
+
+  private static final class PooledPlayer {
+    @NonNull final ExoPlayer player;
+    @NonNull final DefaultTrackSelector trackSelector;
+    @NonNull final SwitchableMediaSourceFactory mediaSourceFactory;
+    @NonNull final LoadGate loadGate;
+    @NonNull final String configSignature;
+    @NonNull final String rendererSignature;
+
+    PooledPlayer(
+        @NonNull ExoPlayer player,
+        @NonNull DefaultTrackSelector trackSelector,
+        @NonNull SwitchableMediaSourceFactory mediaSourceFactory,
+        @NonNull LoadGate loadGate,
+        @NonNull String configSignature,
+        @NonNull String rendererSignature) {
+      this.player = player;
+      this.trackSelector = trackSelector;
+      this.mediaSourceFactory = mediaSourceFactory;
+      this.loadGate = loadGate;
+      this.configSignature = configSignature;
+      this.rendererSignature = rendererSignature;
+    }
+  }
+
+  @NonNull private final Context context;
+  @NonNull private final LinPlayerMemoryGovernor memoryGovernor;
+  @NonNull private final SharedPreferences preferences;
+  @NonNull private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  @NonNull private final ArrayDeque<PooledPlayer> idle = new ArrayDeque<>();
+  // Players handed out by acquire(), so that recycle() can reset them.
+  @NonNull private final Map<ExoPlayer, PooledPlayer> checkedOut = new IdentityHashMap<>();
+  @NonNull private RendererPolicy lastPolicy;
+
+  private ExoPlayerPool(@NonNull Context context) {
+    this.context = context;
+    this.memoryGovernor = LinPlayerMemoryGovernor.get(context);
+    this.preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    final RendererPolicy saved =
+        RendererPolicy.fromSignature(preferences.getString(KEY_LAST_RENDERER_POLICY, null));
+    this.lastPolicy = saved != null ? saved : RendererPolicy.DEFAULT;
+    memoryGovernor.addListener(
+        budget -> {
+          if (budget.level != LinPlayerMemoryGovernor.LEVEL_NORMAL) {
+            mainHandler.post(this::releaseIdle);
+          }
+        });
+  }
+
+  /** Whether pooling is enabled; it can be turned off with {@code exoPlayerPool_v1 = false}. */
+  static boolean isEnabled(@NonNull Context context) {
+    return LinPlayerBuffering.readFlutterBool(
+        LinPlayerBuffering.flutterPreferences(context), KEY_ENABLED, true);
+  }
+
+  /**
+   * Returns a provider that checks a player for {@code asset} out of this pool and returns it on
+   * dispose, or one that builds and releases a fresh player if pooling is disabled. Either way the
+   * player's track selector already holds the user's {@link TrackPreferences}.
+   */
+  @NonNull
+  public VideoPlayer.ExoPlayerProvider providerFor(@NonNull VideoAsset asset) {
+    return providerFor(asset, RendererPolicy.DEFAULT);
+  }
+
+  /** Like {@link #providerFor(VideoAsset)}, for players whose renderers follow {@code policy}. */
+  @NonNull
+  public VideoPlayer.ExoPlayerProvider providerFor(
+      @NonNull VideoAsset asset, @NonNull RendererPolicy policy) {
+    if (!isEnabled(context)) {
+      return new VideoPlayer.ExoPlayerProvider() {
+        @Nullable private LoadGate loadGate;
+
+        @NonNull
+        @Override
+        public ExoPlayer get() {
+          final DefaultTrackSelector trackSelector = new DefaultTrackSelector(context);
+          policy.applyTo(trackSelector);
+          TrackPreferences.fromPreferences(context).applyTo(trackSelector);
+          loadGate = new LoadGate(LinPlayerBuffering.createLoadControl(context));
+          return new ExoPlayer.Builder(context, policy.createRenderersFactory(context))
+              .setTrackSelector(trackSelector)
+              .setMediaSourceFactory(asset.getMediaSourceFactory(context))
+              .setLoadControl(loadGate)
+              .build();
+        }
+
+        @Nullable
+        @Override
+        public LoadGate loadGate(@NonNull ExoPlayer exoPlayer) {
+          return loadGate;
+        }
+      };
+    }
+    return new VideoPlayer.ExoPlayerProvider() {
+      @NonNull
+      @Override
+      public ExoPlayer get() {
+        return acquire(asset.getMediaSourceFactory(context), policy);
+      }
+
+      @Nullable
+      @Override
+      public LoadGate loadGate(@NonNull ExoPlayer exoPlayer) {
+        final PooledPlayer pooled = checkedOut.get(exoPlayer);
+        return pooled != null ? pooled.loadGate : null;
+      }
+
+      @Override
+      public void recycle(@NonNull ExoPlayer exoPlayer) {
+        ExoPlayerPool.this.recycle(exoPlayer);
+      }
+    };
+  }
+
+  /** Checks out an idle player, or builds one, that creates media sources with {@code factory}. */
+  @NonNull
+  ExoPlayer acquire(@NonNull MediaSource.Factory factory) {
+    return acquire(factory, RendererPolicy.DEFAULT);
+  }
+
+  @NonNull
+  ExoPlayer acquire(@NonNull MediaSource.Factory factory, @NonNull RendererPolicy policy) {
+    rememberPolicy(policy);
+    final String signature = LinPlayerBuffering.configSignature(context);
+    PooledPlayer pooled = null;
+    for (PooledPlayer candidate : idle) {
+      if (candidate.configSignature.equals(signature)
+          && candidate.rendererSignature.equals(policy.signature())) {
+        pooled = candidate;
+        break;
+      }
+    }
+    if (pooled != null) {
+      idle.remove(pooled);
+    } else {
+      // Players built for other buffering settings are never usable again, and those built for
+      // another renderer policy are unlikely to be; either would only hold an idle slot.
+      releaseIdleUnless(signature, policy.signature());
+      pooled = build(signature, policy);
+    }
+    policy.applyTo(pooled.trackSelector);
+    // Before the caller prepares, so the preferred tracks are the first ones buffered.
+    TrackPreferences.fromPreferences(context).applyTo(pooled.trackSelector);
+    pooled.mediaSourceFactory.setDelegate(factory);
+    checkedOut.put(pooled.player, pooled);
+    return pooled.player;
+  }
+
+  /** Returns a player from {@link #acquire}, keeping it idle if there is room, else releasing it. */
+  void recycle(@NonNull ExoPlayer player) {
+    final PooledPlayer pooled = checkedOut.remove(player);
+    if (pooled == null || !canKeep(pooled)) {
+      player.release();
+      return;
+    }
+    try {
+      reset(pooled);
+    } catch (RuntimeException e) {
+      Log.w(TAG, "Unable to reset player, releasing it", e);
+      player.release();
+      return;
+    }
+    idle.addLast(pooled);
+  }
+
+  /** Builds one idle player ahead of time so the first checkout skips setup. */
+  public void prewarm() {
+    if (!idle.isEmpty() || !isEnabled(context) || !hasMemoryForIdle()) {
+      return;
+    }
+    try {
+      idle.addLast(build(LinPlayerBuffering.configSignature(context), lastPolicy));
+    } catch (RuntimeException e) {
+      Log.w(TAG, "Unable to prewarm player", e);
+    }
+  }
+
+  /** Releases every idle player. Checked-out players are unaffected. */
+  public void releaseIdle() {
+    while (!idle.isEmpty()) {
+      idle.pollFirst().player.release();
+    }
+  }
+
+  @VisibleForTesting
+  int idleCount() {
+    return idle.size();
+  }
+
+  private void rememberPolicy(@NonNull RendererPolicy policy) {
+    if (policy.signature().equals(lastPolicy.signature())) {
+      return;
+    }
+    lastPolicy = policy.withoutTunneling();
+    preferences.edit().putString(KEY_LAST_RENDERER_POLICY, policy.signature()).apply();
+  }
+
+  private void releaseIdleUnless(
+      @NonNull String configSignature, @NonNull String rendererSignature) {
+    final Iterator<PooledPlayer> it = idle.iterator();
+    while (it.hasNext()) {
+      final PooledPlayer candidate = it.next();
+      if (!candidate.configSignature.equals(configSignature)
+          || !candidate.rendererSignature.equals(rendererSignature)) {
+        it.remove();
+        candidate.player.release();
+      }
+    }
+  }
+
+  @NonNull
+  private PooledPlayer build(@NonNull String signature, @NonNull RendererPolicy policy) {
+    final DefaultTrackSelector trackSelector = new DefaultTrackSelector(context);
+    final SwitchableMediaSourceFactory mediaSourceFactory = new SwitchableMediaSourceFactory();
+    final LoadGate loadGate = new LoadGate(LinPlayerBuffering.createLoadControl(context));
+    final ExoPlayer player =
+        new ExoPlayer.Builder(context, policy.createRenderersFactory(context))
+            .setTrackSelector(trackSelector)
+            .setMediaSourceFactory(mediaSourceFactory)
+            .setLoadControl(loadGate)
+            .build();
+    return new PooledPlayer(
+        player, trackSelector, mediaSourceFactory, loadGate, signature, policy.signature());
+  }
+
+  private boolean canKeep(@NonNull PooledPlayer pooled) {
+    return idle.size() < MAX_IDLE
+        && pooled.player.getPlayerError() == null
+        && isEnabled(context)
+        && hasMemoryForIdle()
+        && pooled.configSignature.equals(LinPlayerBuffering.configSignature(context));
+  }
+
+  private boolean hasMemoryForIdle() {
+    return memoryGovernor.currentBudget().level == LinPlayerMemoryGovernor.LEVEL_NORMAL;
+  }
+
+  private void reset(@NonNull PooledPlayer pooled) {
+    final ExoPlayer player = pooled.player;
+    player.stop();
+    player.clearMediaItems();
+    // Blocks until the renderer lets go of the surface, so the caller may release it afterwards.
+    player.clearVideoSurface();
+    player.setPlayWhenReady(false);
+    player.setRepeatMode(Player.REPEAT_MODE_OFF);
+    player.setVolume(1f);
+    player.setPlaybackParameters(PlaybackParameters.DEFAULT);
+    player.setPreloadConfiguration(ExoPlayer.PreloadConfiguration.DEFAULT);
+    pooled.trackSelector.setParameters(DefaultTrackSelector.Parameters.getDefaults(context));
+    pooled.mediaSourceFactory.setDelegate(null);
+    pooled.loadGate.reset();
+  }
+
+  /** A {@link MediaSource.Factory} whose delegate can be swapped after the player is built. */
+  @VisibleForTesting
+  static final class SwitchableMediaSourceFactory implements MediaSource.Factory {
+    @Nullable private MediaSource.Factory delegate;
+    @Nullable private DrmSessionManagerProvider drmSessionManagerProvider;
+    @Nullable private LoadErrorHandlingPolicy loadErrorHandlingPolicy;
+
+    void setDelegate(@Nullable MediaSource.Factory delegate) {
+      this.delegate = delegate;
+      if (delegate == null) {
+        return;
+      }
+      if (drmSessionManagerProvider != null) {
+        delegate.setDrmSessionManagerProvider(drmSessionManagerProvider);
+      }
+      if (loadErrorHandlingPolicy != null) {
+        delegate.setLoadErrorHandlingPolicy(loadErrorHandlingPolicy);
+      }
+    }
+
+    @NonNull
+    @Override
+    public MediaSource.Factory setDrmSessionManagerProvider(
+        @NonNull DrmSessionManagerProvider drmSessionManagerProvider) {
+      this.drmSessionManagerProvider = drmSessionManagerProvider;
+      if (delegate != null) {
+        delegate.setDrmSessionManagerProvider(drmSessionManagerProvider);
+      }
+      return this;
+    }
+
+    @NonNull
+    @Override
+    public MediaSource.Factory setLoadErrorHandlingPolicy(
+        @NonNull LoadErrorHandlingPolicy loadErrorHandlingPolicy) {
+      this.loadErrorHandlingPolicy = loadErrorHandlingPolicy;
+      if (delegate != null) {
+        delegate.setLoadErrorHandlingPolicy(loadErrorHandlingPolicy);
+      }
+      return this;
+    }
+
+    @NonNull
+    @Override
+    public @C.ContentType int[] getSupportedTypes() {
+      return delegate != null ? delegate.getSupportedTypes() : new int[] {C.CONTENT_TYPE_OTHER};
+    }
+
+    @NonNull
+    @Override
+    public MediaSource createMediaSource(@NonNull MediaItem mediaItem) {
+      if (delegate == null) {
+        throw new IllegalStateException("Pooled player used without a media source factory");
+      }
+      return delegate.createMediaSource(mediaItem);
+    }
+  }
+}
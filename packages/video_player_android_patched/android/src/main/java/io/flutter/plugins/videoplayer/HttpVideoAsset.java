@@ -15,6 +15,7 @@ import androidx.media3.common.util.UnstableApi;
 import androidx.media3.datasource.DataSource;
 import androidx.media3.datasource.DefaultDataSource;
 import androidx.media3.datasource.DefaultHttpDataSource;
+import androidx.media3.datasource.HttpDataSource;
 import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
 import androidx.media3.exoplayer.source.MediaSource;
 import java.util.Map;
@@ -60,6 +61,10 @@ final class HttpVideoAsset extends VideoAsset {
   @NonNull
   @Override
   public MediaSource.Factory getMediaSourceFactory(@NonNull Context context) {
+    if (LinPlayerHttp.isEnabled(context)) {
+      return buildMediaSourceFactory(
+          context, LinPlayerHttp.dataSourceFactory(httpHeaders, userAgent));
+    }
     return getMediaSourceFactory(context, new DefaultHttpDataSource.Factory());
   }
 
@@ -76,7 +81,31 @@ final class HttpVideoAsset extends VideoAsset {
   MediaSource.Factory getMediaSourceFactory(
       Context context, DefaultHttpDataSource.Factory initialFactory) {
     unstableUpdateDataSourceFactory(initialFactory, httpHeaders, userAgent);
-    DataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(context, initialFactory);
+    return buildMediaSourceFactory(context, initialFactory);
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @OptIn(markerClass = UnstableApi.class)
+  @NonNull
+  private MediaSource.Factory buildMediaSourceFactory(
+      @NonNull Context context, @NonNull HttpDataSource.Factory httpFactory) {
+    if (streamingFormat != StreamingFormat.UNKNOWN) {
+      return new DefaultMediaSourceFactory(context)
+          .setDataSourceFactory(new DefaultDataSource.Factory(context, httpFactory));
+    }
+    // Segments of adaptive streams are small and already fetched concurrently by the player, so
+    // only progressive files are split into parallel range requests.
+    final DataSource.Factory networkFactory =
+        ParallelRangeDataSource.isEnabled(context)
+            ? new ParallelRangeDataSource.Factory(httpFactory)
+            : httpFactory;
+    // Only progressive files are cached: adaptive manifests (especially live playlists) must
+    // always be refetched.
+    DataSource.Factory dataSourceFactory =
+        LinPlayerMediaCache.wrap(context, new DefaultDataSource.Factory(context, networkFactory));
+    if (IndexPrefetchDataSource.isEnabled(context)) {
+      dataSourceFactory = new IndexPrefetchDataSource.Factory(dataSourceFactory, httpFactory);
+    }
     return new DefaultMediaSourceFactory(context).setDataSourceFactory(dataSourceFactory);
   }
 
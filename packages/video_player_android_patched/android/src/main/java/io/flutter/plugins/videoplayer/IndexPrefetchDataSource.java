@@ -0,0 +1,411 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefetches the tail of a progressive HTTP file alongside its first bytes and serves later reads
+ * of that region from memory.
+ *
+ * <p>MP4 files without fast start keep their {@code moov} box at the end, and Matroska muxers
+ * usually write the Cues there. The extractor only learns that after reading the header, and then
+ * has to jump to the end and back before playback (or a resume seek) can start, each jump costing a
+ * new request. The first time a file is opened, a suffix range request ({@code Range: bytes=-N})
+ * for its last {@link #TAIL_BYTES} is sent in parallel, so that by the time the extractor asks for
+ * the index it is usually already in memory; afterwards a seek needs a single range request.
+ *
+ * <p>Servers that ignore the range, indexes that start before the prefetched tail, and prefetches
+ * that have not started or stall simply fall back to normal requests. Tails are dropped under
+ * memory pressure. The prefetch requests are reported to the player's transfer listeners, so the
+ * bandwidth meter sees them, but the tails are not written to {@link LinPlayerMediaCache}.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+final class IndexPrefetchDataSource implements DataSource {
+  static final String KEY_ENABLED = LinPlayerBuffering.KEY_PREFIX + "exoIndexPrefetch_v1";
+
+  // Covers the Cues of any film and the moov box of all but the longest MP4 files.
+  static final int TAIL_BYTES = 4 * LinPlayerBuffering.MB;
+  // How long a read of the tail waits for the server to answer the prefetch, about a round trip
+  // to a slow server, and then for its bytes, before making its own request. Once one read has
+  // timed out, later reads of the same tail no longer wait at all.
+  private static final long MAX_RANGE_WAIT_MS = 1_000;
+  private static final long MAX_WAIT_MS = 10_000;
+  // The current item and the one queued after it.
+  private static final int MAX_TAILS = 2;
+
+  // One thread per tail, so that one file's download never queues another file's prefetch.
+  private static final Executor PREFETCHER =
+      Executors.newFixedThreadPool(
+          MAX_TAILS,
+          runnable -> {
+            final Thread thread = new Thread(runnable, "LinPlayerIndexPrefetch");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private static final Tails SHARED_TAILS = new Tails(MAX_TAILS);
+
+  /** Whether file tails should be prefetched for progressive HTTP media. */
+  static boolean isEnabled(@NonNull Context context) {
+    return LinPlayerBuffering.readFlutterBool(
+        LinPlayerBuffering.flutterPreferences(context), KEY_ENABLED, true);
+  }
+
+  /** Drops prefetched tails for a memory governor decision. */
+  static void onMemoryBudgetChanged(@NonNull LinPlayerMemoryGovernor.Budget budget) {
+    if (budget.level >= LinPlayerMemoryGovernor.LEVEL_CRITICAL) {
+      SHARED_TAILS.trimTo(0);
+    } else if (budget.level >= LinPlayerMemoryGovernor.LEVEL_MODERATE) {
+      // Keep the most recently opened file, normally the one playing.
+      SHARED_TAILS.trimTo(1);
+    }
+  }
+
+  /** Creates {@link IndexPrefetchDataSource} instances. */
+  static final class Factory implements DataSource.Factory {
+    @NonNull private final DataSource.Factory upstreamFactory;
+    @NonNull private final DataSource.Factory prefetchFactory;
+    @NonNull private final Tails tails;
+    private final int tailBytes;
+    @NonNull private final Executor executor;
+
+    /**
+     * @param upstreamFactory factory for everything not served from a prefetched tail.
+     * @param prefetchFactory HTTP factory used for the suffix range requests.
+     */
+    Factory(
+        @NonNull DataSource.Factory upstreamFactory, @NonNull DataSource.Factory prefetchFactory) {
+      this(upstreamFactory, prefetchFactory, SHARED_TAILS, TAIL_BYTES, PREFETCHER);
+    }
+
+    @VisibleForTesting
+    Factory(
+        @NonNull DataSource.Factory upstreamFactory,
+        @NonNull DataSource.Factory prefetchFactory,
+        @NonNull Tails tails,
+        int tailBytes,
+        @NonNull Executor executor) {
+      this.upstreamFactory = upstreamFactory;
+      this.prefetchFactory = prefetchFactory;
+      this.tails = tails;
+      this.tailBytes = tailBytes;
+      this.executor = executor;
+    }
+
+    @NonNull
+    @Override
+    public DataSource createDataSource() {
+      return new IndexPrefetchDataSource(upstreamFactory.createDataSource(), this);
+    }
+  }
+
+  /** The prefetched tails of recently opened files, by URI. */
+  @VisibleForTesting
+  static final class Tails {
+    @NonNull private final Map<String, Tail> tails;
+
+    Tails(int maxTails) {
+      tails =
+          new LinkedHashMap<String, Tail>(maxTails, 0.75f, /* accessOrder= */ true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tail> eldest) {
+              return size() > maxTails;
+            }
+          };
+    }
+
+    /** Returns the tail of {@code key}, or {@code null} after registering {@code fresh} for it. */
+    @Nullable
+    synchronized Tail getOrPut(@NonNull String key, @NonNull Tail fresh) {
+      final Tail existing = tails.get(key);
+      if (existing == null) {
+        tails.put(key, fresh);
+      }
+      return existing;
+    }
+
+    /** Whether {@code tail} is still the tail of {@code key}. */
+    synchronized boolean holds(@NonNull String key, @NonNull Tail tail) {
+      return tails.get(key) == tail;
+    }
+
+    /** Drops all but the {@code count} most recently used tails. */
+    synchronized void trimTo(int count) {
+      final Iterator<Tail> it = tails.values().iterator();
+      while (tails.size() > count && it.hasNext()) {
+        it.next();
+        it.remove();
+      }
+    }
+  }
+
+  /** The last bytes of one file, filled in by the prefetcher. */
+  @VisibleForTesting
+  static final class Tail {
+    private final CountDownLatch rangeKnown = new CountDownLatch(1);
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private volatile long start = C.INDEX_UNSET;
+    private volatile long documentSize = C.LENGTH_UNSET;
+    @Nullable private volatile byte[] bytes;
+    // Set once the prefetch request is sent; until then reads do not wait for it.
+    private volatile boolean started;
+    // Set once a read timed out waiting for the prefetch; later reads only take what is there.
+    private volatile boolean stalled;
+
+    void onStarted() {
+      started = true;
+    }
+
+    void onRange(long start, long documentSize) {
+      this.start = start;
+      this.documentSize = documentSize;
+      rangeKnown.countDown();
+    }
+
+    void onLoaded(@NonNull byte[] bytes) {
+      this.bytes = bytes;
+      loaded.countDown();
+    }
+
+    void onFailed() {
+      rangeKnown.countDown();
+      loaded.countDown();
+    }
+
+    /**
+     * Returns the tail bytes if they cover {@code dataSpec}, waiting for the prefetch if needed, or
+     * {@code null} if the request has to go to the network.
+     */
+    @Nullable
+    byte[] awaitCovering(@NonNull DataSpec dataSpec) throws IOException {
+      if (!started || !await(rangeKnown, MAX_RANGE_WAIT_MS)) {
+        return null;
+      }
+      final long size = documentSize;
+      if (start == C.INDEX_UNSET || dataSpec.position < start || dataSpec.position >= size) {
+        return null;
+      }
+      if (dataSpec.length != C.LENGTH_UNSET && dataSpec.position + dataSpec.length > size) {
+        return null;
+      }
+      return await(loaded, MAX_WAIT_MS) ? bytes : null;
+    }
+
+    private boolean await(@NonNull CountDownLatch latch, long timeoutMs) throws IOException {
+      try {
+        if (latch.await(stalled ? 0 : timeoutMs, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+        stalled = true;
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+    }
+  }
+
+  @NonNull private final DataSource upstream;
+  @NonNull private final Factory factory;
+  @NonNull private final List<TransferListener> transferListeners = new ArrayList<>();
+
+  // Set while a read is served from a prefetched tail.
+  @Nullable private byte[] tailBytes;
+  private int tailReadOffset;
+  private int tailBytesRemaining;
+  @Nullable private Uri tailUri;
+  private boolean upstreamOpened;
+
+  private IndexPrefetchDataSource(@NonNull DataSource upstream, @NonNull Factory factory) {
+    this.upstream = upstream;
+    this.factory = factory;
+  }
+
+  @Override
+  public void addTransferListener(@NonNull TransferListener transferListener) {
+    transferListeners.add(transferListener);
+    upstream.addTransferListener(transferListener);
+  }
+
+  @Override
+  public long open(@NonNull DataSpec dataSpec) throws IOException {
+    if (isPrefetchable(dataSpec)) {
+      final String key = dataSpec.key != null ? dataSpec.key : dataSpec.uri.toString();
+      final Tail fresh = new Tail();
+      final Tail tail = factory.tails.getOrPut(key, fresh);
+      if (tail == null) {
+        // First open of this file: fetch the tail while the caller reads the start.
+        final List<TransferListener> listeners = new ArrayList<>(transferListeners);
+        factory.executor.execute(() -> prefetch(key, dataSpec, fresh, listeners));
+      } else {
+        final byte[] bytes = tail.awaitCovering(dataSpec);
+        if (bytes != null) {
+          final long length =
+              dataSpec.length != C.LENGTH_UNSET
+                  ? dataSpec.length
+                  : tail.documentSize - dataSpec.position;
+          tailBytes = bytes;
+          tailReadOffset = (int) (dataSpec.position - tail.start);
+          tailBytesRemaining = (int) length;
+          tailUri = dataSpec.uri;
+          return length;
+        }
+      }
+    }
+    upstreamOpened = true;
+    return upstream.open(dataSpec);
+  }
+
+  @Override
+  public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+    final byte[] bytes = tailBytes;
+    if (bytes == null) {
+      return upstream.read(buffer, offset, length);
+    }
+    if (length == 0) {
+      return 0;
+    }
+    if (tailBytesRemaining == 0) {
+      return C.RESULT_END_OF_INPUT;
+    }
+    final int read = Math.min(length, tailBytesRemaining);
+    System.arraycopy(bytes, tailReadOffset, buffer, offset, read);
+    tailReadOffset += read;
+    tailBytesRemaining -= read;
+    return read;
+  }
+
+  @Nullable
+  @Override
+  public Uri getUri() {
+    return tailBytes != null ? tailUri : upstream.getUri();
+  }
+
+  @NonNull
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return tailBytes != null ? Collections.emptyMap() : upstream.getResponseHeaders();
+  }
+
+  @Override
+  public void close() throws IOException {
+    tailBytes = null;
+    tailUri = null;
+    if (upstreamOpened) {
+      upstreamOpened = false;
+      upstream.close();
+    }
+  }
+
+  private static boolean isPrefetchable(@NonNull DataSpec dataSpec) {
+    final String scheme = dataSpec.uri.getScheme();
+    return dataSpec.httpMethod == DataSpec.HTTP_METHOD_GET
+        && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme));
+  }
+
+  private void prefetch(
+      @NonNull String key,
+      @NonNull DataSpec dataSpec,
+      @NonNull Tail tail,
+      @NonNull List<TransferListener> listeners) {
+    // Dropped while queued: the file is no longer one of the recent ones.
+    if (!factory.tails.holds(key, tail)) {
+      tail.onFailed();
+      return;
+    }
+    final Map<String, String> headers = new HashMap<>(dataSpec.httpRequestHeaders);
+    headers.put("Range", "bytes=-" + factory.tailBytes);
+    final DataSpec tailSpec =
+        new DataSpec.Builder()
+            .setUri(dataSpec.uri)
+            .setKey(dataSpec.key)
+            .setHttpRequestHeaders(headers)
+            .build();
+    final DataSource source = factory.prefetchFactory.createDataSource();
+    for (TransferListener listener : listeners) {
+      source.addTransferListener(listener);
+    }
+    tail.onStarted();
+    try {
+      final long length = source.open(tailSpec);
+      final long documentSize = documentSize(source.getResponseHeaders());
+      // A server that ignores the range answers with the whole file; give up on it.
+      if (length == C.LENGTH_UNSET
+          || length > factory.tailBytes
+          || documentSize == C.LENGTH_UNSET
+          || length > documentSize) {
+        tail.onFailed();
+        return;
+      }
+      tail.onRange(documentSize - length, documentSize);
+      final byte[] bytes = new byte[(int) length];
+      int filled = 0;
+      while (filled < bytes.length) {
+        final int read = source.read(bytes, filled, bytes.length - filled);
+        if (read == C.RESULT_END_OF_INPUT) {
+          throw new EOFException();
+        }
+        filled += read;
+      }
+      tail.onLoaded(bytes);
+    } catch (IOException e) {
+      tail.onFailed();
+    } finally {
+      try {
+        source.close();
+      } catch (IOException e) {
+        // Nothing left to clean up.
+      }
+    }
+  }
+
+  /** Returns the full size from a {@code Content-Range} response header, if there is one. */
+  @VisibleForTesting
+  static long documentSize(@NonNull Map<String, List<String>> headers) {
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      if (header.getKey() == null || !header.getKey().equalsIgnoreCase("Content-Range")) {
+        continue;
+      }
+      for (String value : header.getValue()) {
+        final int slash = value == null ? -1 : value.lastIndexOf('/');
+        if (slash < 0 || !value.toLowerCase(Locale.ROOT).startsWith("bytes")) {
+          continue;
+        }
+        try {
+          return Long.parseLong(value.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+          // "*" when the size is unknown.
+        }
+      }
+    }
+    return C.LENGTH_UNSET;
+  }
+}
@@ -7,44 +7,70 @@ package io.flutter.plugins.videoplayer;
 import android.content.Context;
 import android.content.SharedPreferences;
 import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.DefaultLoadControl;
 import androidx.media3.exoplayer.LoadControl;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
 
 /** LinPlayer-specific buffering policy for ExoPlayer. */
 public final class LinPlayerBuffering {
   private LinPlayerBuffering() {}
 
   private static final String SHARED_PREFERENCES_NAME = "FlutterSharedPreferences";
-  private static final String KEY_PREFIX = "flutter.";
+  static final String KEY_PREFIX = "flutter.";
   // Must match shared_preferences_android's DOUBLE_PREFIX constant.
   private static final String DOUBLE_PREFIX = "VGhpcyBpcyB0aGUgcHJlZml4IGZvciBEb3VibGUu";
 
-  private static final int MB = 1024 * 1024;
+  static final int MB = 1024 * 1024;
 
-  private static final int DEFAULT_TOTAL_MB = 500;
+  static final int DEFAULT_TOTAL_MB = 500;
   private static final double DEFAULT_BACK_RATIO = 0.05;
   private static final double MAX_BACK_RATIO = 0.30;
 
-  private static final String KEY_TOTAL_MB = KEY_PREFIX + "mpvCacheSizeMb_v1";
+  static final String KEY_TOTAL_MB = KEY_PREFIX + "mpvCacheSizeMb_v1";
   private static final String KEY_PRESET = KEY_PREFIX + "playbackBufferPreset_v1";
   private static final String KEY_BACK_RATIO = KEY_PREFIX + "playbackBufferBackRatio_v1";
+  private static final String KEY_ADAPTIVE = KEY_PREFIX + "exoAdaptiveBuffer_v1";
 
+  /** Returns the preferences file written by the Dart {@code shared_preferences} plugin. */
+  @NonNull
+  static SharedPreferences flutterPreferences(@NonNull Context context) {
+    return context.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @OptIn(markerClass = UnstableApi.class)
   @NonNull
   public static LoadControl createLoadControl(@NonNull Context context) {
-    final SharedPreferences prefs =
-        context.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+    final SharedPreferences prefs = flutterPreferences(context);
 
     final int totalMb = clampInt(readFlutterInt(prefs, KEY_TOTAL_MB, DEFAULT_TOTAL_MB), 200, 2048);
     final String presetId = readFlutterString(prefs, KEY_PRESET, "seekFast");
     final double defaultRatio = defaultBackRatioForPreset(presetId);
     final double backRatio = clampDouble(readFlutterDouble(prefs, KEY_BACK_RATIO, defaultRatio), 0.0, MAX_BACK_RATIO);
 
-    final int targetMb = Math.min(totalMb, exoTargetMaxMb());
-    final int targetBytes = targetMb * MB;
-    final int backMb = clampInt(Math.round((float) (targetMb * backRatio)), 0, targetMb);
-
+    final LinPlayerMemoryGovernor governor = LinPlayerMemoryGovernor.get(context);
     final BufferDurations durations = bufferDurationsForPreset(presetId, backRatio);
 
+    if (readFlutterBool(prefs, KEY_ADAPTIVE, true)) {
+      return new AdaptiveLoadControl(
+          durations,
+          totalMb * MB,
+          backRatio,
+          DefaultBandwidthMeter.getSingletonInstance(context),
+          governor);
+    }
+
+    // The static control cannot follow the governor, so size it from the budget at creation.
+    final LinPlayerMemoryGovernor.Budget budget = governor.currentBudget();
+    final int targetMb = Math.min(totalMb, budget.targetMaxBytes / MB);
+    final int targetBytes = targetMb * MB;
+    final int backMb =
+        budget.backBufferAllowed
+            ? clampInt(Math.round((float) (targetMb * backRatio)), 0, targetMb)
+            : 0;
+
     return new DefaultLoadControl.Builder()
         .setPrioritizeTimeOverSizeThresholds(false)
         .setTargetBufferBytes(targetBytes)
@@ -58,17 +84,23 @@ public final class LinPlayerBuffering {
         .build();
   }
 
-  private static int exoTargetMaxMb() {
-    // Safety: ExoPlayer buffering is memory-intensive. Cap it relative to heap size.
-    // We use a conservative fraction (25%) and clamp to a sane range.
-    final long maxBytes = Runtime.getRuntime().maxMemory();
-    if (maxBytes <= 0) return 256;
-    final int heapMb = (int) (maxBytes / MB);
-    final int capMb = Math.round(heapMb * 0.25f);
-    return clampInt(capMb, 64, 512);
+  /**
+   * Returns a string that changes whenever a preference read by {@link #createLoadControl} changes,
+   * so that players built with an outdated load control can be discarded.
+   */
+  @NonNull
+  static String configSignature(@NonNull Context context) {
+    final SharedPreferences prefs = flutterPreferences(context);
+    return readFlutterInt(prefs, KEY_TOTAL_MB, DEFAULT_TOTAL_MB)
+        + "|"
+        + readFlutterString(prefs, KEY_PRESET, "seekFast")
+        + "|"
+        + readFlutterDouble(prefs, KEY_BACK_RATIO, -1)
+        + "|"
+        + readFlutterBool(prefs, KEY_ADAPTIVE, true);
   }
 
-  private static final class BufferDurations {
+  static final class BufferDurations {
     final int minBufferMs;
     final int maxBufferMs;
     final int bufferForPlaybackMs;
@@ -84,7 +116,7 @@ public final class LinPlayerBuffering {
   }
 
   @NonNull
-  private static BufferDurations bufferDurationsForPreset(@NonNull String presetId, double backRatio) {
+  static BufferDurations bufferDurationsForPreset(@NonNull String presetId, double backRatio) {
     final String p = presetId.trim();
     if (p.equals("seekFast")) {
       return new BufferDurations(
@@ -124,15 +156,15 @@ public final class LinPlayerBuffering {
     return DEFAULT_BACK_RATIO;
   }
 
-  private static int clampInt(int v, int min, int max) {
+  static int clampInt(int v, int min, int max) {
     return Math.max(min, Math.min(max, v));
   }
 
-  private static double clampDouble(double v, double min, double max) {
+  static double clampDouble(double v, double min, double max) {
     return Math.max(min, Math.min(max, v));
   }
 
-  private static int readFlutterInt(@NonNull SharedPreferences prefs, @NonNull String key, int fallback) {
+  static int readFlutterInt(@NonNull SharedPreferences prefs, @NonNull String key, int fallback) {
     try {
       return (int) prefs.getLong(key, (long) fallback);
     } catch (ClassCastException e) {
@@ -148,13 +180,13 @@ public final class LinPlayerBuffering {
   }
 
   @NonNull
-  private static String readFlutterString(
+  static String readFlutterString(
       @NonNull SharedPreferences prefs, @NonNull String key, @NonNull String fallback) {
     final String s = prefs.getString(key, null);
     return s == null ? fallback : s;
   }
 
-  private static double readFlutterDouble(
+  static double readFlutterDouble(
       @NonNull SharedPreferences prefs, @NonNull String key, double fallback) {
     final String s = prefs.getString(key, null);
     if (s == null) return fallback;
@@ -165,4 +197,15 @@ public final class LinPlayerBuffering {
       return fallback;
     }
   }
+
+  static boolean readFlutterBool(
+      @NonNull SharedPreferences prefs, @NonNull String key, boolean fallback) {
+    try {
+      return prefs.getBoolean(key, fallback);
+    } catch (ClassCastException e) {
+      final String s = prefs.getString(key, null);
+      if (s == null) return fallback;
+      return Boolean.parseBoolean(s.trim());
+    }
+  }
 }
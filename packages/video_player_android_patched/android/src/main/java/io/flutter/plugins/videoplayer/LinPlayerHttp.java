@@ -0,0 +1,178 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.util.Clock;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DefaultDataSource;
+import androidx.media3.datasource.DefaultHttpDataSource;
+import androidx.media3.datasource.HttpDataSource;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Process-wide OkHttp stack for HTTP media, used instead of {@code DefaultHttpDataSource} when
+ * {@code exoOkHttp_v1} is enabled.
+ *
+ * <p>All players share one client, so segment and range requests reuse warm connections (HTTP/2
+ * where the server offers it) instead of handshaking again, and host lookups are cached for a few
+ * minutes.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@OptIn(markerClass = UnstableApi.class)
+final class LinPlayerHttp {
+  private LinPlayerHttp() {}
+
+  static final String KEY_ENABLED = LinPlayerBuffering.KEY_PREFIX + "exoOkHttp_v1";
+
+  // Matches DefaultHttpDataSource; the read timeout also bounds the wait for response headers.
+  private static final long CONNECT_TIMEOUT_MS = 8_000;
+  private static final long READ_TIMEOUT_MS = 8_000;
+  // A few players each keep a handful of connections to the same server alive between segments.
+  private static final int MAX_IDLE_CONNECTIONS = 8;
+  private static final long KEEP_ALIVE_MS = TimeUnit.MINUTES.toMillis(5);
+  private static final long DNS_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+  @Nullable private static OkHttpClient client;
+
+  /** Whether media should be loaded through the shared OkHttp client. */
+  static boolean isEnabled(@NonNull Context context) {
+    return LinPlayerBuffering.readFlutterBool(
+        LinPlayerBuffering.flutterPreferences(context), KEY_ENABLED, false);
+  }
+
+  /** Returns the shared client, building it on first use. */
+  @NonNull
+  static synchronized OkHttpClient client() {
+    if (client == null) {
+      client =
+          new OkHttpClient.Builder()
+              .connectionPool(
+                  new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MS, TimeUnit.MILLISECONDS))
+              .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+              .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+              .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+              .dns(new CachingDns(Dns.SYSTEM, DNS_TTL_MS, Clock.DEFAULT))
+              .followRedirects(true)
+              .followSslRedirects(true)
+              .build();
+    }
+    return client;
+  }
+
+  /** Returns a data source factory backed by the shared client. */
+  @NonNull
+  static HttpDataSource.Factory dataSourceFactory(
+      @NonNull Map<String, String> httpHeaders, @Nullable String userAgent) {
+    final OkHttpDataSource.Factory factory =
+        new OkHttpDataSource.Factory(client()).setUserAgent(userAgent);
+    if (!httpHeaders.isEmpty()) {
+      factory.setDefaultRequestProperties(httpHeaders);
+    }
+    return factory;
+  }
+
+  /**
+   * Returns a factory for any URI scheme that loads HTTP through the shared client if it is enabled
+   * when a data source is created.
+   *
+   * <p>HTTP requests carry {@code httpHeaders} and {@code userAgent}, as the media requests of the
+   * same asset do, so side files behind the same authentication load too.
+   */
+  @NonNull
+  static DataSource.Factory defaultDataSourceFactory(
+      @NonNull Context context,
+      @NonNull Map<String, String> httpHeaders,
+      @Nullable String userAgent) {
+    return () -> {
+      final HttpDataSource.Factory httpFactory;
+      if (isEnabled(context)) {
+        httpFactory = dataSourceFactory(httpHeaders, userAgent);
+      } else {
+        final DefaultHttpDataSource.Factory factory =
+            new DefaultHttpDataSource.Factory()
+                .setUserAgent(userAgent)
+                .setAllowCrossProtocolRedirects(true);
+        if (!httpHeaders.isEmpty()) {
+          factory.setDefaultRequestProperties(httpHeaders);
+        }
+        httpFactory = factory;
+      }
+      return new DefaultDataSource.Factory(context, httpFactory).createDataSource();
+    };
+  }
+
+  /**
+   * A {@link Dns} that remembers successful lookups for a fixed time, and keeps serving an expired
+   * answer if a fresh lookup fails, so a flaky resolver does not interrupt playback.
+   */
+  @VisibleForTesting
+  static final class CachingDns implements Dns {
+    private static final class Entry {
+      @NonNull final List<InetAddress> addresses;
+      final long expiresAtMs;
+
+      Entry(@NonNull List<InetAddress> addresses, long expiresAtMs) {
+        this.addresses = addresses;
+        this.expiresAtMs = expiresAtMs;
+      }
+    }
+
+    @NonNull private final Dns delegate;
+    private final long ttlMs;
+    @NonNull private final Clock clock;
+    @NonNull private final Map<String, Entry> entries = new HashMap<>();
+
+    CachingDns(@NonNull Dns delegate, long ttlMs, @NonNull Clock clock) {
+      this.delegate = delegate;
+      this.ttlMs = ttlMs;
+      this.clock = clock;
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String hostname) throws UnknownHostException {
+      final String key = hostname.toLowerCase(Locale.ROOT);
+      final long now = clock.elapsedRealtime();
+      final Entry cached;
+      synchronized (entries) {
+        cached = entries.get(key);
+      }
+      if (cached != null && now < cached.expiresAtMs) {
+        return cached.addresses;
+      }
+      final List<InetAddress> addresses;
+      try {
+        addresses = delegate.lookup(hostname);
+      } catch (UnknownHostException e) {
+        if (cached != null) {
+          return cached.addresses;
+        }
+        throw e;
+      }
+      synchronized (entries) {
+        entries.put(key, new Entry(addresses, now + ttlMs));
+      }
+      return addresses;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.database.StandaloneDatabaseProvider;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.CacheKeyFactory;
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
+import androidx.media3.datasource.cache.SimpleCache;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Process-wide on-disk cache for progressive HTTP media.
+ *
+ * <p>The cache is opt-in ({@code exoDiskCache_v1}) and sized from the same {@code
+ * mpvCacheSizeMb_v1} preference that drives the in-memory buffer. Entries are keyed by the media
+ * URL with volatile auth/session query parameters removed, so the same file streamed with a
+ * refreshed token still hits the cache.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@OptIn(markerClass = UnstableApi.class)
+final class LinPlayerMediaCache {
+  private LinPlayerMediaCache() {}
+
+  private static final String TAG = "LinPlayerMediaCache";
+  private static final String CACHE_DIR_NAME = "linplayer_media_cache";
+
+  static final String KEY_ENABLED = LinPlayerBuffering.KEY_PREFIX + "exoDiskCache_v1";
+
+  // Never let the cache take more than this fraction of the free space on the cache volume.
+  private static final double MAX_FREE_SPACE_FRACTION = 0.25;
+  private static final int MIN_CACHE_MB = 64;
+
+  // Query parameters that change between sessions without changing the underlying bytes.
+  private static final Set<String> VOLATILE_QUERY_PARAMS =
+      new HashSet<>(
+          Arrays.asList(
+              "api_key",
+              "apikey",
+              "access_token",
+              "token",
+              "x-emby-token",
+              "x-mediabrowser-token",
+              "x-plex-token",
+              "x-plex-client-identifier",
+              "x-plex-session-identifier",
+              "playsessionid",
+              "deviceid",
+              "x-emby-device-id"));
+
+  private static final CacheKeyFactory CACHE_KEY_FACTORY =
+      dataSpec -> dataSpec.key != null ? dataSpec.key : stableKeyForUri(dataSpec.uri);
+
+  private static final Object LOCK = new Object();
+  @Nullable private static SimpleCache cache;
+
+  /** Whether the user has enabled the on-disk cache. */
+  static boolean isEnabled(@NonNull Context context) {
+    final SharedPreferences prefs = LinPlayerBuffering.flutterPreferences(context);
+    return LinPlayerBuffering.readFlutterBool(prefs, KEY_ENABLED, false);
+  }
+
+  /**
+   * Wraps {@code upstreamFactory} with a cache-backed factory, or returns it unchanged if the cache
+   * is disabled or cannot be opened.
+   */
+  @NonNull
+  static DataSource.Factory wrap(
+      @NonNull Context context, @NonNull DataSource.Factory upstreamFactory) {
+    if (!isEnabled(context)) {
+      return upstreamFactory;
+    }
+    final Cache cache = getOrCreate(context);
+    if (cache == null) {
+      return upstreamFactory;
+    }
+    return new CacheDataSource.Factory()
+        .setCache(cache)
+        .setCacheKeyFactory(CACHE_KEY_FACTORY)
+        .setUpstreamDataSourceFactory(upstreamFactory)
+        .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+  }
+
+  /**
+   * Returns the shared cache instance, creating it on first use.
+   *
+   * <p>{@link SimpleCache} locks its directory, so only one instance may exist per process. The
+   * size limit is fixed when the cache is first opened; a changed preference takes effect on the
+   * next process start.
+   */
+  @Nullable
+  static Cache getOrCreate(@NonNull Context context) {
+    synchronized (LOCK) {
+      if (cache != null) {
+        return cache;
+      }
+      final Context appContext = context.getApplicationContext();
+      final File dir = new File(appContext.getCacheDir(), CACHE_DIR_NAME);
+      final long maxBytes = maxCacheBytes(appContext, dir);
+      try {
+        cache =
+            new SimpleCache(
+                dir,
+                new LeastRecentlyUsedCacheEvictor(maxBytes),
+                new StandaloneDatabaseProvider(appContext));
+      } catch (RuntimeException e) {
+        Log.w(TAG, "Unable to open media cache, continuing without it", e);
+        cache = null;
+      }
+      return cache;
+    }
+  }
+
+  private static long maxCacheBytes(@NonNull Context context, @NonNull File dir) {
+    final SharedPreferences prefs = LinPlayerBuffering.flutterPreferences(context);
+    final int configuredMb =
+        LinPlayerBuffering.clampInt(
+            LinPlayerBuffering.readFlutterInt(
+                prefs, LinPlayerBuffering.KEY_TOTAL_MB, LinPlayerBuffering.DEFAULT_TOTAL_MB),
+            200,
+            2048);
+    long maxBytes = (long) configuredMb * LinPlayerBuffering.MB;
+    final File volume = dir.exists() ? dir : dir.getParentFile();
+    final long usable = volume == null ? 0 : volume.getUsableSpace();
+    if (usable > 0) {
+      maxBytes = Math.min(maxBytes, (long) (usable * MAX_FREE_SPACE_FRACTION));
+    }
+    return Math.max(maxBytes, (long) MIN_CACHE_MB * LinPlayerBuffering.MB);
+  }
+
+  /**
+   * Returns a cache key for {@code uri} that ignores volatile auth/session query parameters.
+   *
+   * <p>Parameter order is preserved so keys stay readable in logs.
+   */
+  @VisibleForTesting
+  @NonNull
+  static String stableKeyForUri(@NonNull Uri uri) {
+    final String query = uri.getEncodedQuery();
+    if (query == null || query.isEmpty()) {
+      return uri.toString();
+    }
+    final StringBuilder kept = new StringBuilder();
+    for (String part : query.split("&")) {
+      if (part.isEmpty()) continue;
+      final int eq = part.indexOf('=');
+      final String name = Uri.decode(eq >= 0 ? part.substring(0, eq) : part);
+      if (VOLATILE_QUERY_PARAMS.contains(name.toLowerCase(Locale.ROOT))) continue;
+      if (kept.length() > 0) kept.append('&');
+      kept.append(part);
+    }
+    final String keptQuery = kept.length() == 0 ? null : kept.toString();
+    return uri.buildUpon().encodedQuery(keptQuery).build().toString();
+  }
+}
@@ -0,0 +1,223 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide governor for the memory ExoPlayer may use for buffering.
+ *
+ * <p>Combines {@link ComponentCallbacks2#onTrimMemory(int)} with sampled heap usage into a pressure
+ * level, and derives from it the largest buffer a player may hold and whether players built at that
+ * level get a back buffer; a live player keeps the back buffer it was built with. Pressure from a
+ * trim callback is released once the heap has stayed healthy for {@link #TRIM_HOLD_MS}, so the
+ * budget grows back after memory frees up.
+ */
+final class LinPlayerMemoryGovernor implements ComponentCallbacks2 {
+  private static final String TAG = "LinPlayerMemoryGovernor";
+
+  // Pressure levels, also sent to Dart as MemoryPressureEvent.level.
+  static final int LEVEL_NORMAL = 0;
+  static final int LEVEL_MODERATE = 1;
+  static final int LEVEL_CRITICAL = 2;
+
+  private static final int MB = LinPlayerBuffering.MB;
+  // Heap usage (of maxMemory) above which buffering is considered under pressure.
+  private static final double MODERATE_HEAP_RATIO = 0.70;
+  private static final double CRITICAL_HEAP_RATIO = 0.85;
+  private static final long SAMPLE_INTERVAL_MS = 1000;
+  private static final long TRIM_HOLD_MS = 30_000;
+
+  /** The buffer budget in effect at a given pressure level. */
+  static final class Budget {
+    final int level;
+    final int targetMaxBytes;
+    final boolean backBufferAllowed;
+
+    Budget(int level, int targetMaxBytes, boolean backBufferAllowed) {
+      this.level = level;
+      this.targetMaxBytes = targetMaxBytes;
+      this.backBufferAllowed = backBufferAllowed;
+    }
+  }
+
+  /** Notified, on an arbitrary thread, whenever the budget changes. */
+  interface Listener {
+    void onBudgetChanged(@NonNull Budget budget);
+  }
+
+  @Nullable private static LinPlayerMemoryGovernor instance;
+
+  @NonNull
+  static synchronized LinPlayerMemoryGovernor get(@NonNull Context context) {
+    if (instance == null) {
+      instance = new LinPlayerMemoryGovernor(Runtime.getRuntime().maxMemory());
+      final Context appContext = context.getApplicationContext();
+      (appContext != null ? appContext : context).registerComponentCallbacks(instance);
+    }
+    return instance;
+  }
+
+  private final long maxHeapBytes;
+  private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+  private int trimLevel = LEVEL_NORMAL;
+  private long trimAtMs;
+  private int heapLevel = LEVEL_NORMAL;
+  private long lastSampleMs = -SAMPLE_INTERVAL_MS;
+  @NonNull private Budget budget;
+
+  @VisibleForTesting
+  LinPlayerMemoryGovernor(long maxHeapBytes) {
+    this.maxHeapBytes = maxHeapBytes;
+    this.budget = budgetFor(LEVEL_NORMAL);
+  }
+
+  void addListener(@NonNull Listener listener) {
+    listeners.add(listener);
+  }
+
+  void removeListener(@NonNull Listener listener) {
+    listeners.remove(listener);
+  }
+
+  /** Returns the current budget, resampling the heap if the last sample is stale. */
+  @NonNull
+  Budget currentBudget() {
+    final long now = SystemClock.elapsedRealtime();
+    final Runtime runtime = Runtime.getRuntime();
+    onHeapSample(now, runtime.totalMemory() - runtime.freeMemory());
+    synchronized (this) {
+      return budget;
+    }
+  }
+
+  @VisibleForTesting
+  @NonNull
+  synchronized Budget currentBudgetForTest() {
+    return budget;
+  }
+
+  /**
+   * The buffer size a single player may target when there is no pressure.
+   *
+   * <p>ExoPlayer buffering is memory-intensive, so this is a conservative fraction (25%) of the
+   * heap, clamped to a sane range.
+   */
+  int baseTargetMaxBytes() {
+    if (maxHeapBytes <= 0) return 256 * MB;
+    final int heapMb = (int) (maxHeapBytes / MB);
+    return LinPlayerBuffering.clampInt(Math.round(heapMb * 0.25f), 64, 512) * MB;
+  }
+
+  @VisibleForTesting
+  void onHeapSample(long nowMs, long usedBytes) {
+    final Budget changed;
+    synchronized (this) {
+      if (nowMs - lastSampleMs < SAMPLE_INTERVAL_MS) {
+        return;
+      }
+      lastSampleMs = nowMs;
+      final double ratio = maxHeapBytes > 0 ? (double) usedBytes / maxHeapBytes : 0;
+      if (ratio >= CRITICAL_HEAP_RATIO) {
+        heapLevel = LEVEL_CRITICAL;
+      } else if (ratio >= MODERATE_HEAP_RATIO) {
+        heapLevel = LEVEL_MODERATE;
+      } else {
+        heapLevel = LEVEL_NORMAL;
+        if (trimLevel != LEVEL_NORMAL && nowMs - trimAtMs >= TRIM_HOLD_MS) {
+          trimLevel = LEVEL_NORMAL;
+        }
+      }
+      changed = updateBudgetLocked();
+    }
+    notifyIfChanged(changed);
+  }
+
+  @VisibleForTesting
+  void onTrimLevel(long nowMs, int level) {
+    final Budget changed;
+    synchronized (this) {
+      trimAtMs = nowMs;
+      trimLevel = Math.max(trimLevel, level);
+      changed = updateBudgetLocked();
+    }
+    notifyIfChanged(changed);
+  }
+
+  // Returns the new budget if the level changed, null otherwise.
+  @Nullable
+  private Budget updateBudgetLocked() {
+    final int level = Math.max(trimLevel, heapLevel);
+    if (level == budget.level) {
+      return null;
+    }
+    budget = budgetFor(level);
+    return budget;
+  }
+
+  @NonNull
+  private Budget budgetFor(int level) {
+    final int base = baseTargetMaxBytes();
+    switch (level) {
+      case LEVEL_CRITICAL:
+        return new Budget(level, Math.max(16 * MB, base / 4), false);
+      case LEVEL_MODERATE:
+        return new Budget(level, Math.max(32 * MB, base / 2), false);
+      default:
+        return new Budget(LEVEL_NORMAL, base, true);
+    }
+  }
+
+  private void notifyIfChanged(@Nullable Budget changed) {
+    if (changed == null) {
+      return;
+    }
+    Log.i(
+        TAG,
+        "Buffer budget now "
+            + (changed.targetMaxBytes / MB)
+            + "MB, back-buffer "
+            + (changed.backBufferAllowed ? "allowed" : "off")
+            + " for new players (level "
+            + changed.level
+            + ")");
+    for (Listener listener : listeners) {
+      listener.onBudgetChanged(changed);
+    }
+  }
+
+  @Override
+  public void onTrimMemory(int level) {
+    final int pressure;
+    if (level >= TRIM_MEMORY_COMPLETE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+      pressure = LEVEL_CRITICAL;
+    } else if (level >= TRIM_MEMORY_MODERATE
+        || level == TRIM_MEMORY_RUNNING_LOW
+        || level == TRIM_MEMORY_RUNNING_MODERATE) {
+      pressure = LEVEL_MODERATE;
+    } else {
+      // UI_HIDDEN and BACKGROUND say nothing about memory being short.
+      return;
+    }
+    onTrimLevel(SystemClock.elapsedRealtime(), pressure);
+  }
+
+  @Override
+  public void onLowMemory() {
+    onTrimLevel(SystemClock.elapsedRealtime(), LEVEL_CRITICAL);
+  }
+
+  @Override
+  public void onConfigurationChanged(@NonNull Configuration newConfig) {}
+}
@@ -0,0 +1,231 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Process-wide arbiter that shares buffer memory, decoders and bandwidth between live players.
+ *
+ * <p>Players are foreground by default. Background players, such as hover previews, each get a
+ * small buffer slice, stop loading while any foreground player is short of buffer, and are
+ * suspended once every decoder slot is taken. The most recently demoted or registered background
+ * players keep their slots, since those are the ones the user is looking at. Foreground players
+ * split what is left of the {@link LinPlayerMemoryGovernor} budget.
+ */
+final class LinPlayerResourceArbiter {
+  private static final int MB = LinPlayerBuffering.MB;
+  // Video decoders kept active at once. Devices commonly allow more hardware instances, but each
+  // one also holds output buffers, and a preview grid never needs more than a few at a time.
+  @VisibleForTesting static final int MAX_ACTIVE_DECODERS = 4;
+  private static final int MIN_BACKGROUND_BYTES = 4 * MB;
+  private static final int MAX_BACKGROUND_BYTES = 16 * MB;
+
+  /** What one player may use. */
+  static final class Grant {
+    final int maxBufferBytes;
+    // Stop loading beyond a minimal buffer, leaving the network to foreground players.
+    final boolean yieldBandwidth;
+    // Paused, with its video decoder released and no loading at all.
+    final boolean suspended;
+
+    Grant(int maxBufferBytes, boolean yieldBandwidth, boolean suspended) {
+      this.maxBufferBytes = maxBufferBytes;
+      this.yieldBandwidth = yieldBandwidth;
+      this.suspended = suspended;
+    }
+
+    boolean sameAs(@Nullable Grant other) {
+      return other != null
+          && other.maxBufferBytes == maxBufferBytes
+          && other.yieldBandwidth == yieldBandwidth
+          && other.suspended == suspended;
+    }
+  }
+
+  /**
+   * Notified, on the thread that caused the change, whenever a player's grant changes. Grants
+   * reach a claimant one at a time and in order, so it must not wait on another player's callback.
+   */
+  interface Claimant {
+    void onGrantChanged(@NonNull Grant grant);
+  }
+
+  /** One player's registration with the arbiter. */
+  final class Claim {
+    @NonNull private final Claimant claimant;
+    // Held while a grant is delivered, so that deliveries from different threads do not overlap.
+    @NonNull private final Object deliveryLock = new Object();
+    private boolean background;
+    private boolean starving;
+    private long order;
+    @Nullable private Grant grant;
+    // The grant the claimant was last told about; guarded by deliveryLock.
+    @Nullable private Grant delivered;
+
+    private Claim(@NonNull Claimant claimant, long order) {
+      this.claimant = claimant;
+      this.order = order;
+    }
+
+    /** Moves the player to the background, or back to the foreground. */
+    void setBackground(boolean background) {
+      update(
+          () -> {
+            if (this.background == background) return false;
+            this.background = background;
+            order = ++sequence;
+            return true;
+          });
+    }
+
+    /** Records whether the player is short of buffer; see {@link LoadGate}. */
+    void setStarving(boolean starving) {
+      update(
+          () -> {
+            if (this.starving == starving) return false;
+            this.starving = starving;
+            // Only a foreground player's buffer changes anyone else's grant.
+            return !background;
+          });
+    }
+
+    /** Removes the player, handing its share to the others. */
+    void release() {
+      update(() -> claims.remove(this));
+    }
+
+    // Tells the claimant about its newest grant, if it has not been told yet. Re-reading the grant
+    // here, rather than taking the one computed by the caller, keeps an update that finishes late
+    // from overwriting a newer grant with a stale one.
+    private void deliver() {
+      synchronized (deliveryLock) {
+        final Grant latest;
+        synchronized (LinPlayerResourceArbiter.this) {
+          latest = grant;
+        }
+        if (latest == null || latest == delivered) {
+          return;
+        }
+        delivered = latest;
+        claimant.onGrantChanged(latest);
+      }
+    }
+
+    @VisibleForTesting
+    @Nullable
+    Grant grant() {
+      synchronized (LinPlayerResourceArbiter.this) {
+        return grant;
+      }
+    }
+  }
+
+  private interface Change {
+    // Returns whether grants need to be recomputed.
+    boolean apply();
+  }
+
+  @Nullable private static LinPlayerResourceArbiter instance;
+
+  @NonNull
+  static synchronized LinPlayerResourceArbiter get(@NonNull Context context) {
+    if (instance == null) {
+      instance = new LinPlayerResourceArbiter(LinPlayerMemoryGovernor.get(context));
+    }
+    return instance;
+  }
+
+  private final List<Claim> claims = new ArrayList<>();
+  private long sequence;
+  private int budgetBytes;
+
+  @VisibleForTesting
+  LinPlayerResourceArbiter(@NonNull LinPlayerMemoryGovernor memoryGovernor) {
+    budgetBytes = memoryGovernor.currentBudget().targetMaxBytes;
+    memoryGovernor.addListener(
+        budget ->
+            update(
+                () -> {
+                  if (budget.targetMaxBytes == budgetBytes) return false;
+                  budgetBytes = budget.targetMaxBytes;
+                  return true;
+                }));
+  }
+
+  /** Registers a foreground player and sends it its first grant. */
+  @NonNull
+  Claim register(@NonNull Claimant claimant) {
+    final Claim[] added = new Claim[1];
+    update(
+        () -> {
+          added[0] = new Claim(claimant, ++sequence);
+          claims.add(added[0]);
+          return true;
+        });
+    return added[0];
+  }
+
+  private void update(@NonNull Change change) {
+    final List<Claim> changed = new ArrayList<>();
+    synchronized (this) {
+      if (!change.apply()) {
+        return;
+      }
+      allocateLocked(changed);
+    }
+    // Outside the lock: claimants may call back into the arbiter.
+    for (Claim claim : changed) {
+      claim.deliver();
+    }
+  }
+
+  // Recomputes every grant and adds the claims whose grant changed to {@code changed}.
+  private void allocateLocked(@NonNull List<Claim> changed) {
+    int foregroundCount = 0;
+    boolean foregroundStarving = false;
+    final List<Claim> background = new ArrayList<>();
+    for (Claim claim : claims) {
+      if (claim.background) {
+        background.add(claim);
+      } else {
+        foregroundCount++;
+        foregroundStarving |= claim.starving;
+      }
+    }
+    // Newest first: those are the previews the user is looking at.
+    Collections.sort(background, (a, b) -> Long.compare(b.order, a.order));
+    final int backgroundSlots =
+        Math.min(background.size(), Math.max(0, MAX_ACTIVE_DECODERS - foregroundCount));
+    final int backgroundBytes =
+        LinPlayerBuffering.clampInt(budgetBytes / 16, MIN_BACKGROUND_BYTES, MAX_BACKGROUND_BYTES);
+    final int foregroundBytes =
+        foregroundCount == 0
+            ? 0
+            : Math.max(
+                backgroundBytes,
+                (budgetBytes - backgroundSlots * backgroundBytes) / foregroundCount);
+
+    for (Claim claim : claims) {
+      final Grant next;
+      if (claim.background) {
+        final boolean active = background.indexOf(claim) < backgroundSlots;
+        next = new Grant(backgroundBytes, foregroundStarving, !active);
+      } else {
+        next = new Grant(foregroundBytes, false, false);
+      }
+      if (!next.sameAs(claim.grant)) {
+        claim.grant = next;
+        changed.add(claim);
+      }
+    }
+  }
+}
@@ -0,0 +1,161 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.Timeline;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.LoadControl;
+import androidx.media3.exoplayer.Renderer;
+import androidx.media3.exoplayer.analytics.PlayerId;
+import androidx.media3.exoplayer.source.MediaSource.MediaPeriodId;
+import androidx.media3.exoplayer.source.TrackGroupArray;
+import androidx.media3.exoplayer.trackselection.ExoTrackSelection;
+import androidx.media3.exoplayer.upstream.Allocator;
+
+/**
+ * {@link LoadControl} that holds a player's loading within the share granted to it by {@link
+ * LinPlayerResourceArbiter}.
+ *
+ * <p>The wrapped control still makes every buffering decision; the gate can only say no on top of
+ * it. It also reports when its player is short of buffer, so that background players can yield
+ * the network to it. Grants are written from any thread and read on the playback thread.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@OptIn(markerClass = UnstableApi.class)
+public final class LoadGate implements LoadControl {
+  /** Notified on the playback thread when the player starts or stops being short of buffer. */
+  interface StarvationListener {
+    void onStarvingChanged(boolean starving);
+  }
+
+  // A player that wants to load with less than this buffered needs the network now.
+  private static final long STARVING_BUFFER_US = 5_000_000;
+  // Never hold a player below this, whatever its grant, or playback could not start at all.
+  private static final long MIN_BUFFER_US = 1_000_000;
+
+  @NonNull private final LoadControl delegate;
+
+  private volatile int maxBufferBytes = Integer.MAX_VALUE;
+  private volatile boolean yielding;
+  private volatile boolean suspended;
+  @Nullable private volatile StarvationListener starvationListener;
+  // Accessed on the playback thread only.
+  private boolean starving;
+
+  LoadGate(@NonNull LoadControl delegate) {
+    this.delegate = delegate;
+  }
+
+  /** Applies a grant from the arbiter. */
+  void apply(@NonNull LinPlayerResourceArbiter.Grant grant) {
+    maxBufferBytes = grant.maxBufferBytes;
+    yielding = grant.yieldBandwidth;
+    suspended = grant.suspended;
+  }
+
+  /** Whether the wrapped control keeps a back buffer, which is fixed once the player is built. */
+  boolean keepsBackBuffer() {
+    return delegate.getBackBufferDurationUs(PlayerId.UNSET) > 0;
+  }
+
+  void setStarvationListener(@Nullable StarvationListener listener) {
+    starvationListener = listener;
+  }
+
+  /** Lifts every limit, for a player going back into the pool. */
+  void reset() {
+    starvationListener = null;
+    maxBufferBytes = Integer.MAX_VALUE;
+    yielding = false;
+    suspended = false;
+  }
+
+  @Override
+  public boolean shouldContinueLoading(@NonNull Parameters parameters) {
+    final boolean wanted = delegate.shouldContinueLoading(parameters);
+    updateStarving(wanted && parameters.bufferedDurationUs < STARVING_BUFFER_US);
+    if (!wanted || suspended) {
+      return false;
+    }
+    if (parameters.bufferedDurationUs < MIN_BUFFER_US) {
+      return true;
+    }
+    return !yielding && getAllocator().getTotalBytesAllocated() < maxBufferBytes;
+  }
+
+  @Override
+  public boolean shouldStartPlayback(@NonNull Parameters parameters) {
+    // A capped player may never reach the wrapped control's duration threshold.
+    return delegate.shouldStartPlayback(parameters)
+        || getAllocator().getTotalBytesAllocated() >= maxBufferBytes;
+  }
+
+  @Override
+  public boolean shouldContinuePreloading(
+      @NonNull Timeline timeline, @NonNull MediaPeriodId mediaPeriodId, long bufferedDurationUs) {
+    return !suspended
+        && !yielding
+        && delegate.shouldContinuePreloading(timeline, mediaPeriodId, bufferedDurationUs);
+  }
+
+  private void updateStarving(boolean nowStarving) {
+    if (nowStarving == starving) {
+      return;
+    }
+    starving = nowStarving;
+    final StarvationListener listener = starvationListener;
+    if (listener != null) {
+      listener.onStarvingChanged(nowStarving);
+    }
+  }
+
+  @Override
+  public void onPrepared(@NonNull PlayerId playerId) {
+    delegate.onPrepared(playerId);
+  }
+
+  @Override
+  public void onTracksSelected(
+      @NonNull PlayerId playerId,
+      @NonNull Timeline timeline,
+      @NonNull MediaPeriodId mediaPeriodId,
+      @NonNull Renderer[] renderers,
+      @NonNull TrackGroupArray trackGroups,
+      @NonNull ExoTrackSelection[] trackSelections) {
+    delegate.onTracksSelected(
+        playerId, timeline, mediaPeriodId, renderers, trackGroups, trackSelections);
+  }
+
+  @Override
+  public void onStopped(@NonNull PlayerId playerId) {
+    updateStarving(false);
+    delegate.onStopped(playerId);
+  }
+
+  @Override
+  public void onReleased(@NonNull PlayerId playerId) {
+    updateStarving(false);
+    delegate.onReleased(playerId);
+  }
+
+  @NonNull
+  @Override
+  public Allocator getAllocator() {
+    return delegate.getAllocator();
+  }
+
+  @Override
+  public long getBackBufferDurationUs(@NonNull PlayerId playerId) {
+    return delegate.getBackBufferDurationUs(playerId);
+  }
+
+  @Override
+  public boolean retainBackBufferFromKeyframe(@NonNull PlayerId playerId) {
+    return delegate.retainBackBufferFromKeyframe(playerId);
+  }
+}
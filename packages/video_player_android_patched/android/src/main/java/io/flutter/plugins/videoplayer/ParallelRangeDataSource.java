@@ -0,0 +1,410 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * An HTTP {@link DataSource} for large progressive files that reads ahead over several connections
+ * at once.
+ *
+ * <p>The request is first opened normally. If the server accepts byte ranges and at least {@link
+ * #MIN_PARALLEL_BYTES} remain, the first chunk is read from that connection while the following
+ * chunks are fetched as separate range requests, a few at a time, and handed out in order. The
+ * number of requests in flight follows the measured throughput (see {@link WindowController}), so
+ * servers and proxies that cap each connection no longer cap playback. Anything else is passed
+ * through untouched.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+final class ParallelRangeDataSource implements DataSource {
+  static final String KEY_ENABLED = LinPlayerBuffering.KEY_PREFIX + "exoParallelRange_v1";
+
+  static final long MIN_PARALLEL_BYTES = 16L * LinPlayerBuffering.MB;
+  static final int CHUNK_BYTES = 2 * LinPlayerBuffering.MB;
+
+  /** Runs the range requests of all players. Threads are only kept while requests are running. */
+  private static final ExecutorService LOADER =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "LinPlayerRangeLoader");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Whether large progressive files may be loaded over parallel range requests. Off unless the app
+   * opts in: each source holds up to {@link WindowController#MAX_SIZE} chunks outside the load
+   * control's allocator, where the memory governor cannot see or trim them.
+   */
+  static boolean isEnabled(@NonNull Context context) {
+    return LinPlayerBuffering.readFlutterBool(
+        LinPlayerBuffering.flutterPreferences(context), KEY_ENABLED, false);
+  }
+
+  /** Creates {@link ParallelRangeDataSource} instances on top of an HTTP data source factory. */
+  static final class Factory implements DataSource.Factory {
+    @NonNull private final DataSource.Factory upstreamFactory;
+
+    Factory(@NonNull DataSource.Factory upstreamFactory) {
+      this.upstreamFactory = upstreamFactory;
+    }
+
+    @NonNull
+    @Override
+    public DataSource createDataSource() {
+      return new ParallelRangeDataSource(
+          upstreamFactory, LOADER, MIN_PARALLEL_BYTES, CHUNK_BYTES);
+    }
+  }
+
+  /** One range request, downloaded into memory on the executor. */
+  private final class Chunk implements Callable<byte[]> {
+    @NonNull private final DataSpec spec;
+    final int length;
+    @NonNull final FutureTask<byte[]> data = new FutureTask<>(this);
+    // Written before the task completes, so visible to anyone who has waited for it.
+    long downloadMs;
+    boolean consumerWaited;
+    int readOffset;
+
+    Chunk(@NonNull DataSpec spec, int length) {
+      this.spec = spec;
+      this.length = length;
+    }
+
+    @NonNull
+    @Override
+    public byte[] call() throws IOException {
+      final long startMs = SystemClock.elapsedRealtime();
+      final byte[] bytes = new byte[length];
+      final DataSource source = createUpstream();
+      try {
+        source.open(spec);
+        int filled = 0;
+        while (filled < length) {
+          if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException();
+          }
+          final int read = source.read(bytes, filled, length - filled);
+          if (read == C.RESULT_END_OF_INPUT) {
+            throw new EOFException();
+          }
+          filled += read;
+        }
+      } finally {
+        source.close();
+      }
+      downloadMs = SystemClock.elapsedRealtime() - startMs;
+      return bytes;
+    }
+  }
+
+  @NonNull private final DataSource.Factory upstreamFactory;
+  @NonNull private final ExecutorService executor;
+  private final long minParallelBytes;
+  private final int chunkBytes;
+  @NonNull private final List<TransferListener> transferListeners = new ArrayList<>();
+  @NonNull private final WindowController window = new WindowController();
+  @NonNull private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+
+  @Nullable private DataSource primary;
+  @Nullable private Uri uri;
+  @NonNull private Map<String, List<String>> responseHeaders = Collections.emptyMap();
+
+  // Only meaningful while reading in parallel.
+  private boolean parallel;
+  @Nullable private DataSpec rangeSpec;
+  private long primaryBytesRemaining;
+  private long nextChunkPosition;
+  private long endPosition;
+
+  @VisibleForTesting
+  ParallelRangeDataSource(
+      @NonNull DataSource.Factory upstreamFactory,
+      @NonNull ExecutorService executor,
+      long minParallelBytes,
+      int chunkBytes) {
+    this.upstreamFactory = upstreamFactory;
+    this.executor = executor;
+    this.minParallelBytes = minParallelBytes;
+    this.chunkBytes = chunkBytes;
+  }
+
+  @Override
+  public void addTransferListener(@NonNull TransferListener transferListener) {
+    transferListeners.add(transferListener);
+  }
+
+  @Override
+  public long open(@NonNull DataSpec dataSpec) throws IOException {
+    final DataSource source = createUpstream();
+    primary = source;
+    final long length = source.open(dataSpec);
+    uri = source.getUri();
+    responseHeaders = source.getResponseHeaders();
+
+    parallel =
+        dataSpec.httpMethod == DataSpec.HTTP_METHOD_GET
+            && length != C.LENGTH_UNSET
+            && length >= minParallelBytes
+            && acceptsRanges(responseHeaders);
+    if (parallel) {
+      // Follow-up requests go straight to where any redirects led.
+      rangeSpec = uri != null ? dataSpec.withUri(uri) : dataSpec;
+      primaryBytesRemaining = Math.min(chunkBytes, length);
+      nextChunkPosition = dataSpec.position + primaryBytesRemaining;
+      endPosition = dataSpec.position + length;
+      fillWindow();
+    }
+    return length;
+  }
+
+  @Override
+  public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    if (!parallel) {
+      return requirePrimary().read(buffer, offset, length);
+    }
+    if (primaryBytesRemaining > 0) {
+      final int read =
+          requirePrimary().read(buffer, offset, (int) Math.min(length, primaryBytesRemaining));
+      if (read == C.RESULT_END_OF_INPUT) {
+        throw new EOFException();
+      }
+      primaryBytesRemaining -= read;
+      if (primaryBytesRemaining == 0) {
+        closePrimary();
+      }
+      return read;
+    }
+
+    final Chunk chunk = chunks.peekFirst();
+    if (chunk == null) {
+      return C.RESULT_END_OF_INPUT;
+    }
+    if (chunk.readOffset == 0 && !chunk.data.isDone()) {
+      chunk.consumerWaited = true;
+    }
+    final byte[] data = await(chunk.data);
+    final int read = Math.min(length, chunk.length - chunk.readOffset);
+    System.arraycopy(data, chunk.readOffset, buffer, offset, read);
+    chunk.readOffset += read;
+    if (chunk.readOffset == chunk.length) {
+      chunks.removeFirst();
+      window.onChunkConsumed(chunk.consumerWaited, chunk.length, chunk.downloadMs);
+      fillWindow();
+    }
+    return read;
+  }
+
+  @Nullable
+  @Override
+  public Uri getUri() {
+    return uri;
+  }
+
+  @NonNull
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return responseHeaders;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Chunk chunk : chunks) {
+      chunk.data.cancel(/* mayInterruptIfRunning= */ true);
+    }
+    chunks.clear();
+    parallel = false;
+    rangeSpec = null;
+    uri = null;
+    responseHeaders = Collections.emptyMap();
+    closePrimary();
+  }
+
+  private void closePrimary() throws IOException {
+    final DataSource source = primary;
+    primary = null;
+    if (source != null) {
+      source.close();
+    }
+  }
+
+  @NonNull
+  private DataSource requirePrimary() {
+    if (primary == null) {
+      throw new IllegalStateException("Data source is not open");
+    }
+    return primary;
+  }
+
+  @NonNull
+  private DataSource createUpstream() {
+    final DataSource source = upstreamFactory.createDataSource();
+    for (TransferListener listener : transferListeners) {
+      source.addTransferListener(listener);
+    }
+    return source;
+  }
+
+  private void fillWindow() {
+    final DataSpec spec = rangeSpec;
+    if (spec == null) {
+      return;
+    }
+    while (chunks.size() < window.size() && nextChunkPosition < endPosition) {
+      final long position = nextChunkPosition;
+      final int length = (int) Math.min(chunkBytes, endPosition - position);
+      final Chunk chunk = new Chunk(spec.subrange(position - spec.position, length), length);
+      chunks.addLast(chunk);
+      executor.execute(chunk.data);
+      nextChunkPosition += length;
+    }
+  }
+
+  @NonNull
+  private static byte[] await(@NonNull FutureTask<byte[]> data) throws IOException {
+    try {
+      return data.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  @VisibleForTesting
+  static boolean acceptsRanges(@NonNull Map<String, List<String>> headers) {
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      final String name = header.getKey();
+      if (name == null) {
+        continue;
+      }
+      if (name.equalsIgnoreCase("Content-Range")) {
+        return true;
+      }
+      if (name.equalsIgnoreCase("Accept-Ranges")) {
+        for (String value : header.getValue()) {
+          if (value != null && value.toLowerCase(Locale.ROOT).contains("bytes")) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Decides how many range requests are kept in flight.
+   *
+   * <p>It starts at two. While the reader keeps catching up with the downloads it adds a request,
+   * and once every request has finished a chunk at the new width it checks whether the aggregate
+   * throughput (requests times the average per-request throughput) actually grew; if not, the
+   * connection was already saturated and the extra request is dropped again for a while. When the
+   * reader has not had to wait for a long stretch, one request is dropped to spare the server.
+   */
+  @VisibleForTesting
+  static final class WindowController {
+    static final int MIN_SIZE = 1;
+    static final int MAX_SIZE = 4;
+    private static final int INITIAL_SIZE = 2;
+    // An added request must raise aggregate throughput by this factor to be kept.
+    private static final double MIN_GAIN = 1.15;
+    private static final double THROUGHPUT_SMOOTHING = 0.3;
+    private static final int SHRINK_AFTER_UNSTARVED_CHUNKS = 8;
+    private static final int GROWTH_COOLDOWN_CHUNKS = 16;
+
+    private int size = INITIAL_SIZE;
+    // Smoothed bytes per second of a single range request; 0 until the first measurement.
+    private double requestThroughput;
+    // Aggregate throughput before the last growth, while that growth is being evaluated.
+    private double throughputBeforeGrowth;
+    private int chunksSinceResize;
+    private int unstarvedChunks;
+    private int growthCooldownChunks;
+
+    int size() {
+      return size;
+    }
+
+    void onChunkConsumed(boolean consumerWaited, long bytes, long downloadMs) {
+      if (downloadMs > 0) {
+        final double throughput = bytes * 1000.0 / downloadMs;
+        requestThroughput =
+            requestThroughput == 0
+                ? throughput
+                : requestThroughput + THROUGHPUT_SMOOTHING * (throughput - requestThroughput);
+      }
+      chunksSinceResize++;
+      if (growthCooldownChunks > 0) {
+        growthCooldownChunks--;
+      }
+      final double aggregate = requestThroughput * size;
+
+      if (throughputBeforeGrowth > 0) {
+        if (chunksSinceResize < size) {
+          return;
+        }
+        if (aggregate < throughputBeforeGrowth * MIN_GAIN) {
+          resize(size - 1);
+          growthCooldownChunks = GROWTH_COOLDOWN_CHUNKS;
+        }
+        throughputBeforeGrowth = 0;
+        return;
+      }
+
+      if (consumerWaited) {
+        unstarvedChunks = 0;
+        if (size < MAX_SIZE
+            && growthCooldownChunks == 0
+            && chunksSinceResize >= size
+            && aggregate > 0) {
+          throughputBeforeGrowth = aggregate;
+          resize(size + 1);
+        }
+      } else if (++unstarvedChunks >= SHRINK_AFTER_UNSTARVED_CHUNKS && size > MIN_SIZE) {
+        resize(size - 1);
+      }
+    }
+
+    private void resize(int newSize) {
+      size = newSize;
+      chunksSinceResize = 0;
+      unstarvedChunks = 0;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+import androidx.media3.exoplayer.source.MediaLoadData;
+
+/**
+ * Collects playback quality metrics for one video player from {@link AnalyticsListener} callbacks.
+ *
+ * <p>Times are taken from {@link AnalyticsListener.EventTime#realtimeMs}, so they are measured on
+ * the same clock as {@code startRealtimeMs}. A stall only counts as a rebuffer once playback has
+ * been ready, while playback is requested and not right after a seek. Must be used from the
+ * player's application thread.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+final class PlaybackMetricsCollector implements AnalyticsListener {
+  private final long startRealtimeMs;
+
+  private long playRequestedRealtimeMs = C.TIME_UNSET;
+  private long timeToFirstFrameMs = C.TIME_UNSET;
+  private long joinLatencyMs = C.TIME_UNSET;
+
+  private boolean playWhenReady = false;
+  private boolean readyOnce = false;
+  private boolean seeking = false;
+  private long rebufferStartRealtimeMs = C.TIME_UNSET;
+  private long rebufferCount = 0;
+  private long rebufferDurationMs = 0;
+
+  private long droppedFrames = 0;
+  private long bitrateSwitchCount = 0;
+  @Nullable private Format videoFormat;
+  @Nullable private Long bandwidthEstimate;
+  @Nullable private String videoDecoderName;
+  @Nullable private String audioDecoderName;
+
+  // Bumped on every change, so periodic summaries can be skipped when nothing happened.
+  private int version = 0;
+
+  PlaybackMetricsCollector(long startRealtimeMs) {
+    this.startRealtimeMs = startRealtimeMs;
+  }
+
+  /** Returns a counter that changes whenever any metric does. */
+  int version() {
+    return version;
+  }
+
+  /** Returns the metrics so far, counting a stall in progress up to {@code nowRealtimeMs}. */
+  @NonNull
+  PlaybackMetricsMessage snapshot(long nowRealtimeMs) {
+    long stalledMs = rebufferDurationMs;
+    if (rebufferStartRealtimeMs != C.TIME_UNSET) {
+      stalledMs += Math.max(0, nowRealtimeMs - rebufferStartRealtimeMs);
+    }
+    final Format format = videoFormat;
+    return new PlaybackMetricsMessage(
+        timeToFirstFrameMs == C.TIME_UNSET ? null : timeToFirstFrameMs,
+        joinLatencyMs == C.TIME_UNSET ? null : joinLatencyMs,
+        rebufferCount,
+        stalledMs,
+        droppedFrames,
+        bitrateSwitchCount,
+        format == null || format.bitrate == Format.NO_VALUE ? null : (long) format.bitrate,
+        bandwidthEstimate,
+        videoDecoderName,
+        audioDecoderName);
+  }
+
+  @Override
+  public void onPlayWhenReadyChanged(
+      @NonNull EventTime eventTime, boolean playWhenReady, int reason) {
+    this.playWhenReady = playWhenReady;
+    if (playWhenReady && playRequestedRealtimeMs == C.TIME_UNSET) {
+      playRequestedRealtimeMs = eventTime.realtimeMs;
+    }
+    if (!playWhenReady) {
+      // Waiting for data while paused is not a stall.
+      endRebuffer(eventTime.realtimeMs);
+    }
+  }
+
+  @Override
+  public void onIsPlayingChanged(@NonNull EventTime eventTime, boolean isPlaying) {
+    if (!isPlaying || joinLatencyMs != C.TIME_UNSET) {
+      return;
+    }
+    final long requested =
+        playRequestedRealtimeMs == C.TIME_UNSET ? startRealtimeMs : playRequestedRealtimeMs;
+    joinLatencyMs = Math.max(0, eventTime.realtimeMs - requested);
+    version++;
+  }
+
+  @Override
+  public void onPlaybackStateChanged(@NonNull EventTime eventTime, int state) {
+    switch (state) {
+      case Player.STATE_READY:
+        readyOnce = true;
+        seeking = false;
+        endRebuffer(eventTime.realtimeMs);
+        break;
+      case Player.STATE_BUFFERING:
+        if (readyOnce
+            && playWhenReady
+            && !seeking
+            && rebufferStartRealtimeMs == C.TIME_UNSET) {
+          rebufferStartRealtimeMs = eventTime.realtimeMs;
+          rebufferCount++;
+          version++;
+        }
+        break;
+      default:
+        // Ended or idle.
+        endRebuffer(eventTime.realtimeMs);
+        break;
+    }
+  }
+
+  @Override
+  public void onPositionDiscontinuity(
+      @NonNull EventTime eventTime,
+      @NonNull Player.PositionInfo oldPosition,
+      @NonNull Player.PositionInfo newPosition,
+      int reason) {
+    if (reason == Player.DISCONTINUITY_REASON_SEEK) {
+      // Buffering after a seek is expected; a stall already in progress ends here.
+      seeking = true;
+      endRebuffer(eventTime.realtimeMs);
+    }
+  }
+
+  @Override
+  public void onRenderedFirstFrame(
+      @NonNull EventTime eventTime, @NonNull Object output, long renderTimeMs) {
+    if (timeToFirstFrameMs == C.TIME_UNSET) {
+      timeToFirstFrameMs = Math.max(0, eventTime.realtimeMs - startRealtimeMs);
+      version++;
+    }
+  }
+
+  @Override
+  public void onDroppedVideoFrames(
+      @NonNull EventTime eventTime, int droppedFrames, long elapsedMs) {
+    this.droppedFrames += droppedFrames;
+    version++;
+  }
+
+  @Override
+  public void onDownstreamFormatChanged(
+      @NonNull EventTime eventTime, @NonNull MediaLoadData mediaLoadData) {
+    final Format format = mediaLoadData.trackFormat;
+    if (format == null || !isVideo(mediaLoadData, format)) {
+      return;
+    }
+    final Format previous = videoFormat;
+    if (previous != null && isSwitch(previous, format)) {
+      bitrateSwitchCount++;
+    }
+    videoFormat = format;
+    version++;
+  }
+
+  @Override
+  public void onBandwidthEstimate(
+      @NonNull EventTime eventTime,
+      int totalLoadTimeMs,
+      long totalBytesLoaded,
+      long bitrateEstimate) {
+    bandwidthEstimate = bitrateEstimate;
+    version++;
+  }
+
+  @Override
+  public void onVideoDecoderInitialized(
+      @NonNull EventTime eventTime,
+      @NonNull String decoderName,
+      long initializedTimestampMs,
+      long initializationDurationMs) {
+    videoDecoderName = decoderName;
+    version++;
+  }
+
+  @Override
+  public void onAudioDecoderInitialized(
+      @NonNull EventTime eventTime,
+      @NonNull String decoderName,
+      long initializedTimestampMs,
+      long initializationDurationMs) {
+    audioDecoderName = decoderName;
+    version++;
+  }
+
+  private void endRebuffer(long nowRealtimeMs) {
+    if (rebufferStartRealtimeMs == C.TIME_UNSET) {
+      return;
+    }
+    rebufferDurationMs += Math.max(0, nowRealtimeMs - rebufferStartRealtimeMs);
+    rebufferStartRealtimeMs = C.TIME_UNSET;
+    version++;
+  }
+
+  // Muxed streams report their formats as the default track type.
+  private static boolean isVideo(@NonNull MediaLoadData mediaLoadData, @NonNull Format format) {
+    return mediaLoadData.trackType == C.TRACK_TYPE_VIDEO
+        || (mediaLoadData.trackType == C.TRACK_TYPE_DEFAULT && format.height != Format.NO_VALUE);
+  }
+
+  private static boolean isSwitch(@NonNull Format previous, @NonNull Format next) {
+    if (previous.bitrate != Format.NO_VALUE || next.bitrate != Format.NO_VALUE) {
+      return previous.bitrate != next.bitrate;
+    }
+    return previous.height != next.height;
+  }
+}
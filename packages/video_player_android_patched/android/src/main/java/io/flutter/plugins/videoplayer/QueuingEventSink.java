@@ -4,6 +4,11 @@
 
 package io.flutter.plugins.videoplayer;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import java.util.ArrayList;
 
 /**
@@ -12,19 +17,87 @@ import java.util.ArrayList;
  * <p>It delivers messages immediately when downstream is available, but it queues messages before
  * the delegate event sink is set with setDelegate.
  *
+ * <p>In batching mode, state updates are instead collected and delivered once per frame, or after
+ * {@link #MAX_FLUSH_DELAY_MS} when no frame comes (app in the background, screen off). Consecutive
+ * state updates of the same kind are coalesced so that only the latest is sent. Any other event
+ * (completion, errors, end of stream, initialization and other one-off events) is delivered
+ * immediately, together with everything queued before it. Before a delegate is set, the oldest
+ * state updates are dropped to keep the queue at {@link #MAX_QUEUED_EVENTS}; one-off events are
+ * always kept, so they alone may exceed it.
+ *
  * <p>This class is not thread-safe. All calls must be done on the same thread or synchronized
  * externally.
  */
 final class QueuingEventSink {
+  @VisibleForTesting static final int MAX_QUEUED_EVENTS = 64;
+
+  /** Schedules a flush of batched events. */
+  interface FlushScheduler {
+    void schedule(@NonNull Runnable flush);
+  }
+
+  private static final long MAX_FLUSH_DELAY_MS = 100;
+
+  /** Flushes on the next frame, or after {@link #MAX_FLUSH_DELAY_MS} if no frame comes first. */
+  private static final class NextFrameScheduler implements FlushScheduler {
+    private final Handler handler = new Handler(Looper.myLooper());
+
+    @Override
+    public void schedule(@NonNull Runnable flush) {
+      final Runnable once =
+          new Runnable() {
+            private boolean ran = false;
+
+            @Override
+            public void run() {
+              if (ran) {
+                return;
+              }
+              ran = true;
+              handler.removeCallbacks(this);
+              flush.run();
+            }
+          };
+      Choreographer.getInstance().postFrameCallback(frameTimeNanos -> once.run());
+      handler.postDelayed(once, MAX_FLUSH_DELAY_MS);
+    }
+  }
+
   private PigeonEventSink<PlatformVideoEvent> delegate;
   private final ArrayList<Object> eventQueue = new ArrayList<>();
+  private final FlushScheduler scheduler;
+  private final boolean batching;
+  private boolean flushScheduled = false;
   private boolean done = false;
 
+  public QueuingEventSink() {
+    this(null, false);
+  }
+
+  private QueuingEventSink(FlushScheduler scheduler, boolean batching) {
+    this.scheduler = scheduler;
+    this.batching = batching;
+  }
+
+  /** Returns a sink that coalesces events and delivers them once per frame. */
+  static QueuingEventSink batching() {
+    return new QueuingEventSink(new NextFrameScheduler(), true);
+  }
+
+  @VisibleForTesting
+  static QueuingEventSink batching(@NonNull FlushScheduler scheduler) {
+    return new QueuingEventSink(scheduler, true);
+  }
+
   public void setDelegate(PigeonEventSink<PlatformVideoEvent> delegate) {
     this.delegate = delegate;
     maybeFlush();
   }
 
+  public boolean hasDelegate() {
+    return delegate != null;
+  }
+
   public void endOfStream() {
     enqueue(new EndOfStreamEvent());
     maybeFlush();
@@ -37,8 +110,13 @@ final class QueuingEventSink {
   }
 
   public void success(PlatformVideoEvent event) {
-    enqueue(event);
-    maybeFlush();
+    if (batching && isStateUpdate(event)) {
+      enqueueCoalesced(event);
+      scheduleFlush();
+    } else {
+      enqueue(event);
+      maybeFlush();
+    }
   }
 
   private void enqueue(Object event) {
@@ -48,6 +126,60 @@ final class QueuingEventSink {
     eventQueue.add(event);
   }
 
+  private void enqueueCoalesced(PlatformVideoEvent event) {
+    if (done) {
+      return;
+    }
+    final int last = eventQueue.size() - 1;
+    if (last >= 0 && canReplace(eventQueue.get(last), event)) {
+      eventQueue.set(last, event);
+      return;
+    }
+    eventQueue.add(event);
+    if (eventQueue.size() > MAX_QUEUED_EVENTS) {
+      dropOldestStateUpdate();
+    }
+  }
+
+  // Whether a queued event is fully superseded by a newer one of the same kind.
+  private static boolean canReplace(Object queued, PlatformVideoEvent newer) {
+    return queued.getClass() == newer.getClass() && isStateUpdate(queued);
+  }
+
+  // Events that only report the latest state, which makes older ones safe to coalesce or drop.
+  private static boolean isStateUpdate(Object event) {
+    if (event instanceof PlaybackStateChangeEvent) {
+      // Completion is a one-off signal on the Dart side and must never be swallowed.
+      return ((PlaybackStateChangeEvent) event).getState() != PlatformPlaybackState.ENDED;
+    }
+    return event instanceof IsPlayingStateEvent
+        || event instanceof PlaybackProgressEvent
+        || event instanceof PlaybackMetricsEvent
+        || event instanceof AudioTrackChangedEvent
+        || event instanceof MemoryPressureEvent;
+  }
+
+  private void dropOldestStateUpdate() {
+    for (int i = 0; i < eventQueue.size(); i++) {
+      if (isStateUpdate(eventQueue.get(i))) {
+        eventQueue.remove(i);
+        return;
+      }
+    }
+  }
+
+  private void scheduleFlush() {
+    if (delegate == null || flushScheduled) {
+      return;
+    }
+    flushScheduled = true;
+    scheduler.schedule(
+        () -> {
+          flushScheduled = false;
+          maybeFlush();
+        });
+  }
+
   private void maybeFlush() {
     if (delegate == null) {
       return;
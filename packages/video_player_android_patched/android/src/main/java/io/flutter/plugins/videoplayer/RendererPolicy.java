@@ -0,0 +1,147 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DefaultRenderersFactory;
+import androidx.media3.exoplayer.RenderersFactory;
+import androidx.media3.exoplayer.mediacodec.MediaCodecInfo;
+import androidx.media3.exoplayer.mediacodec.MediaCodecSelector;
+import androidx.media3.exoplayer.mediacodec.MediaCodecUtil;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How a player's renderers choose and drive decoders.
+ *
+ * <p>Everything except tunneling is fixed when the player is built, so {@link #signature()} is
+ * part of the configuration that pooled players must match. Tunneling is a track selection
+ * parameter and is applied to each checkout with {@link #applyTo}.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+public final class RendererPolicy {
+  /** ExoPlayer's own behaviour: platform decoder order, no fallback, no tunneling. */
+  @NonNull
+  public static final RendererPolicy DEFAULT = new RendererPolicy(false, false, false, false);
+
+  final boolean tunneling;
+  final boolean preferHardwareDecoders;
+  final boolean decoderFallback;
+  final boolean asyncQueueing;
+
+  @VisibleForTesting
+  RendererPolicy(
+      boolean tunneling,
+      boolean preferHardwareDecoders,
+      boolean decoderFallback,
+      boolean asyncQueueing) {
+    this.tunneling = tunneling;
+    this.preferHardwareDecoders = preferHardwareDecoders;
+    this.decoderFallback = decoderFallback;
+    this.asyncQueueing = asyncQueueing;
+  }
+
+  @NonNull
+  static RendererPolicy fromMessage(@Nullable RendererPolicyMessage message) {
+    if (message == null) {
+      return DEFAULT;
+    }
+    return new RendererPolicy(
+        message.getTunneling(),
+        message.getPreferHardwareDecoders(),
+        message.getDecoderFallback(),
+        message.getAsyncQueueing());
+  }
+
+  /**
+   * Returns this policy without tunneling, for players that render into a {@code SurfaceTexture}.
+   * Tunneled decoders draw straight to a display layer, which a texture cannot show.
+   */
+  @NonNull
+  public RendererPolicy withoutTunneling() {
+    return tunneling
+        ? new RendererPolicy(false, preferHardwareDecoders, decoderFallback, asyncQueueing)
+        : this;
+  }
+
+  /** Returns the policy, without tunneling, whose {@link #signature()} is {@code signature}. */
+  @Nullable
+  static RendererPolicy fromSignature(@Nullable String signature) {
+    if (signature == null) {
+      return null;
+    }
+    for (int bits = 0; bits < 8; bits++) {
+      final RendererPolicy policy =
+          new RendererPolicy(false, (bits & 1) != 0, (bits & 2) != 0, (bits & 4) != 0);
+      if (policy.signature().equals(signature)) {
+        return policy;
+      }
+    }
+    return null;
+  }
+
+  /** Identifies the renderer settings a player is built with. */
+  @NonNull
+  String signature() {
+    return "hw="
+        + preferHardwareDecoders
+        + ";fallback="
+        + decoderFallback
+        + ";async="
+        + asyncQueueing;
+  }
+
+  @NonNull
+  RenderersFactory createRenderersFactory(@NonNull Context context) {
+    final DefaultRenderersFactory factory =
+        new DefaultRenderersFactory(context).setEnableDecoderFallback(decoderFallback);
+    if (preferHardwareDecoders) {
+      factory.setMediaCodecSelector(HARDWARE_FIRST);
+    }
+    if (asyncQueueing) {
+      factory.forceEnableMediaCodecAsynchronousQueueing();
+    }
+    return factory;
+  }
+
+  /** Sets the tunneling parameter of {@code trackSelector} to match this policy. */
+  void applyTo(@NonNull DefaultTrackSelector trackSelector) {
+    if (trackSelector.getParameters().tunnelingEnabled == tunneling) {
+      return;
+    }
+    trackSelector.setParameters(
+        trackSelector.buildUponParameters().setTunnelingEnabled(tunneling));
+  }
+
+  /** Keeps the platform's order within each group, so preferred hardware decoders stay first. */
+  @VisibleForTesting
+  @NonNull
+  static List<MediaCodecInfo> hardwareFirst(@NonNull List<MediaCodecInfo> decoders) {
+    final List<MediaCodecInfo> ranked = new ArrayList<>(decoders.size());
+    for (MediaCodecInfo decoder : decoders) {
+      if (decoder.hardwareAccelerated) {
+        ranked.add(decoder);
+      }
+    }
+    for (MediaCodecInfo decoder : decoders) {
+      if (!decoder.hardwareAccelerated) {
+        ranked.add(decoder);
+      }
+    }
+    return ranked;
+  }
+
+  private static final MediaCodecSelector HARDWARE_FIRST =
+      (mimeType, requiresSecureDecoder, requiresTunnelingDecoder) ->
+          hardwareFirst(
+              MediaCodecUtil.getDecoderInfos(
+                  mimeType, requiresSecureDecoder, requiresTunnelingDecoder));
+}
@@ -0,0 +1,203 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide record of where playback of each media item stopped, so that it can be prepared
+ * directly at that offset the next time.
+ *
+ * <p>Updates are kept in memory and written out together a few seconds after the first unsaved
+ * change, or right away by {@link #flush()}. Each entry is one short string; the oldest entries are
+ * dropped beyond {@link #MAX_ENTRIES}.
+ */
+final class ResumePositionStore {
+  static final String KEY_ENABLED = LinPlayerBuffering.KEY_PREFIX + "exoResumePlayback_v1";
+
+  private static final String PREFERENCES_NAME = "linplayer_resume_positions";
+  static final int MAX_ENTRIES = 500;
+  private static final long FLUSH_DELAY_MS = 10_000;
+  // Positions this close to the start are not worth resuming from.
+  static final long MIN_RESUME_POSITION_MS = 10_000;
+  // Playback this close to the end (or past this fraction) counts as finished.
+  private static final long FINISHED_REMAINING_MS = 30_000;
+  private static final double FINISHED_FRACTION = 0.95;
+
+  private static final class Entry {
+    final long positionMs;
+    final long savedAtMs;
+
+    Entry(long positionMs, long savedAtMs) {
+      this.positionMs = positionMs;
+      this.savedAtMs = savedAtMs;
+    }
+
+    @NonNull
+    String encode() {
+      return positionMs + "@" + savedAtMs;
+    }
+
+    @Nullable
+    static Entry decode(@Nullable Object value) {
+      if (!(value instanceof String)) {
+        return null;
+      }
+      final String encoded = (String) value;
+      final int at = encoded.indexOf('@');
+      try {
+        return new Entry(
+            Long.parseLong(encoded.substring(0, at)), Long.parseLong(encoded.substring(at + 1)));
+      } catch (RuntimeException e) {
+        return null;
+      }
+    }
+  }
+
+  @Nullable private static ResumePositionStore instance;
+
+  /** Whether playback should start where it last stopped. */
+  static boolean isEnabled(@NonNull Context context) {
+    return LinPlayerBuffering.readFlutterBool(
+        LinPlayerBuffering.flutterPreferences(context), KEY_ENABLED, true);
+  }
+
+  @NonNull
+  static synchronized ResumePositionStore get(@NonNull Context context) {
+    if (instance == null) {
+      final Context appContext = context.getApplicationContext();
+      instance =
+          new ResumePositionStore(
+              (appContext != null ? appContext : context)
+                  .getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE),
+              new Handler(Looper.getMainLooper()));
+    }
+    return instance;
+  }
+
+  @NonNull private final SharedPreferences preferences;
+  @NonNull private final Handler handler;
+  @NonNull private final Runnable flushTask = this::flush;
+  // Guarded by this.
+  @NonNull private final Map<String, Entry> entries = new HashMap<>();
+  @NonNull private final Map<String, Entry> unsaved = new HashMap<>();
+  private boolean flushScheduled;
+
+  @VisibleForTesting
+  ResumePositionStore(@NonNull SharedPreferences preferences, @NonNull Handler handler) {
+    this.preferences = preferences;
+    this.handler = handler;
+    for (Map.Entry<String, ?> stored : preferences.getAll().entrySet()) {
+      final Entry entry = Entry.decode(stored.getValue());
+      if (entry != null) {
+        entries.put(stored.getKey(), entry);
+      }
+    }
+  }
+
+  /** Returns the position to resume {@code key} from, or {@link C#TIME_UNSET} if there is none. */
+  synchronized long positionFor(@NonNull String key) {
+    final Entry entry = entries.get(key);
+    return entry == null ? C.TIME_UNSET : entry.positionMs;
+  }
+
+  /**
+   * Records that playback of {@code key} is at {@code positionMs}. Positions near the start are
+   * dropped, and positions near the end of a known {@code durationMs} clear the entry.
+   */
+  synchronized void update(@NonNull String key, long positionMs, long durationMs) {
+    final boolean finished =
+        durationMs != C.TIME_UNSET
+            && durationMs > 0
+            && (positionMs >= durationMs * FINISHED_FRACTION
+                || durationMs - positionMs <= FINISHED_REMAINING_MS);
+    if (finished || positionMs < MIN_RESUME_POSITION_MS) {
+      remove(key);
+      return;
+    }
+    final Entry current = entries.get(key);
+    if (current != null && current.positionMs == positionMs) {
+      return;
+    }
+    final Entry entry = new Entry(positionMs, System.currentTimeMillis());
+    entries.put(key, entry);
+    unsaved.put(key, entry);
+    scheduleFlush();
+  }
+
+  /** Forgets the position of {@code key}, for example once it played to the end. */
+  synchronized void remove(@NonNull String key) {
+    if (entries.remove(key) == null) {
+      return;
+    }
+    // A null entry marks a pending removal.
+    unsaved.put(key, null);
+    scheduleFlush();
+  }
+
+  /** Writes out pending changes now. */
+  void flush() {
+    final Map<String, Entry> changes;
+    final List<String> evicted;
+    synchronized (this) {
+      handler.removeCallbacks(flushTask);
+      flushScheduled = false;
+      if (unsaved.isEmpty()) {
+        return;
+      }
+      changes = new HashMap<>(unsaved);
+      unsaved.clear();
+      evicted = evictOldest();
+    }
+    final SharedPreferences.Editor editor = preferences.edit();
+    for (Map.Entry<String, Entry> change : changes.entrySet()) {
+      if (change.getValue() == null) {
+        editor.remove(change.getKey());
+      } else {
+        editor.putString(change.getKey(), change.getValue().encode());
+      }
+    }
+    for (String key : evicted) {
+      editor.remove(key);
+    }
+    editor.apply();
+  }
+
+  private void scheduleFlush() {
+    if (!flushScheduled) {
+      flushScheduled = true;
+      handler.postDelayed(flushTask, FLUSH_DELAY_MS);
+    }
+  }
+
+  @NonNull
+  private List<String> evictOldest() {
+    final List<String> evicted = new ArrayList<>();
+    while (entries.size() > MAX_ENTRIES) {
+      String oldestKey = null;
+      long oldestAtMs = Long.MAX_VALUE;
+      for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+        if (entry.getValue().savedAtMs < oldestAtMs) {
+          oldestAtMs = entry.getValue().savedAtMs;
+          oldestKey = entry.getKey();
+        }
+      }
+      entries.remove(oldestKey);
+      evicted.add(oldestKey);
+    }
+    return evicted;
+  }
+}
@@ -0,0 +1,162 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.text.Cue;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSourceUtil;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.extractor.text.CuesWithTiming;
+import androidx.media3.extractor.text.DefaultSubtitleParserFactory;
+import androidx.media3.extractor.text.SubtitleParser;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An external subtitle file parsed up front, so that it can be shown next to running playback
+ * instead of being merged into the media item, which would need the player to be prepared again.
+ *
+ * <p>The cues are flattened into a timeline of segments between consecutive cue boundaries, each
+ * holding the cues visible throughout it, so that looking up the cues at a position is a binary
+ * search.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+final class SideloadedSubtitle {
+  // Larger files are not subtitles a user picked by hand; leave those to the player.
+  private static final int MAX_SIZE_BYTES = 16 * 1024 * 1024;
+
+  private static final SubtitleParser.Factory PARSER_FACTORY = new DefaultSubtitleParserFactory();
+
+  /** Loads and parses sideloaded subtitles off the main thread, one file at a time. */
+  static final ExecutorService LOADER =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "LinPlayerSubtitleLoader");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // Segment i starts at segmentStartsUs[i] and ends where segment i + 1 starts.
+  @NonNull private final long[] segmentStartsUs;
+  @NonNull private final List<List<Cue>> segmentCues;
+
+  private SideloadedSubtitle(
+      @NonNull long[] segmentStartsUs, @NonNull List<List<Cue>> segmentCues) {
+    this.segmentStartsUs = segmentStartsUs;
+    this.segmentCues = segmentCues;
+  }
+
+  /** Whether a subtitle with {@code format} can be parsed without the player. */
+  static boolean isSupported(@NonNull Format format) {
+    return format.sampleMimeType != null && PARSER_FACTORY.supportsFormat(format);
+  }
+
+  /** Reads {@code uri} with {@code dataSourceFactory} and parses it. Blocks on I/O. */
+  @NonNull
+  static SideloadedSubtitle load(
+      @NonNull DataSource.Factory dataSourceFactory, @NonNull Uri uri, @NonNull Format format)
+      throws IOException {
+    final DataSource dataSource = dataSourceFactory.createDataSource();
+    final byte[] data;
+    try {
+      final long length = dataSource.open(new DataSpec(uri));
+      if (length != C.LENGTH_UNSET && length > MAX_SIZE_BYTES) {
+        throw new IOException("Subtitle file too large: " + length + " bytes");
+      }
+      data = DataSourceUtil.readToEnd(dataSource);
+    } finally {
+      dataSource.close();
+    }
+    return parse(data, format);
+  }
+
+  @VisibleForTesting
+  @NonNull
+  static SideloadedSubtitle parse(@NonNull byte[] data, @NonNull Format format) {
+    final List<CuesWithTiming> events = new ArrayList<>();
+    PARSER_FACTORY
+        .create(format)
+        .parse(data, SubtitleParser.OutputOptions.allCues(), events::add);
+    return fromEvents(events);
+  }
+
+  @NonNull
+  private static SideloadedSubtitle fromEvents(@NonNull List<CuesWithTiming> events) {
+    // Events without a duration last until the next event starts.
+    final TreeSet<Long> starts = new TreeSet<>();
+    for (final CuesWithTiming event : events) {
+      starts.add(event.startTimeUs);
+    }
+    final TreeSet<Long> boundaries = new TreeSet<>(starts);
+    final long[] endsUs = new long[events.size()];
+    for (int i = 0; i < events.size(); i++) {
+      final CuesWithTiming event = events.get(i);
+      if (event.durationUs != C.TIME_UNSET) {
+        endsUs[i] = event.startTimeUs + event.durationUs;
+      } else {
+        final Long next = starts.higher(event.startTimeUs);
+        endsUs[i] = next != null ? next : Long.MAX_VALUE;
+      }
+      boundaries.add(endsUs[i]);
+    }
+
+    final long[] segmentStartsUs = new long[boundaries.size()];
+    int index = 0;
+    for (final long boundary : boundaries) {
+      segmentStartsUs[index++] = boundary;
+    }
+    final List<List<Cue>> segmentCues = new ArrayList<>(segmentStartsUs.length);
+    for (int i = 0; i < segmentStartsUs.length; i++) {
+      segmentCues.add(new ArrayList<>());
+    }
+    for (int i = 0; i < events.size(); i++) {
+      final CuesWithTiming event = events.get(i);
+      final int first = Arrays.binarySearch(segmentStartsUs, event.startTimeUs);
+      for (int segment = first;
+          segment < segmentStartsUs.length && segmentStartsUs[segment] < endsUs[i];
+          segment++) {
+        segmentCues.get(segment).addAll(event.cues);
+      }
+    }
+    for (int i = 0; i < segmentCues.size(); i++) {
+      final List<Cue> cues = segmentCues.get(i);
+      segmentCues.set(
+          i, cues.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(cues));
+    }
+    return new SideloadedSubtitle(segmentStartsUs, segmentCues);
+  }
+
+  /** Returns the cues visible at {@code timeUs}. */
+  @NonNull
+  List<Cue> cuesAt(long timeUs) {
+    final int segment = segmentAt(timeUs);
+    return segment < 0 ? Collections.emptyList() : segmentCues.get(segment);
+  }
+
+  /** Returns when the visible cues next change after {@code timeUs}, or {@link C#TIME_UNSET}. */
+  long nextChangeUs(long timeUs) {
+    final int next = segmentAt(timeUs) + 1;
+    return next < segmentStartsUs.length ? segmentStartsUs[next] : C.TIME_UNSET;
+  }
+
+  // The index of the last segment starting at or before timeUs, or -1 before the first cue.
+  private int segmentAt(long timeUs) {
+    final int found = Arrays.binarySearch(segmentStartsUs, timeUs);
+    return found >= 0 ? found : -found - 2;
+  }
+}
@@ -0,0 +1,213 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.text.Layout;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextUtils;
+import android.text.style.AbsoluteSizeSpan;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.StrikethroughSpan;
+import android.text.style.StyleSpan;
+import android.text.style.TypefaceSpan;
+import android.text.style.UnderlineSpan;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.text.Cue;
+import androidx.media3.common.text.CueGroup;
+import androidx.media3.common.text.HorizontalTextInVerticalContextSpan;
+import androidx.media3.common.text.RubySpan;
+import androidx.media3.common.text.TextEmphasisSpan;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the subtitles on screen, derived from a {@link CueGroup} or a list of
+ * sideloaded cues.
+ *
+ * <p>Text cues are joined into one styled {@link CharSequence} that keeps the spans produced by the
+ * subtitle parser (bold, italic, colours), along with the alignment and vertical placement of the
+ * first text cue. Bitmap cues (PGS, VobSub, DVB) are kept as-is for {@link BitmapCueView}.
+ */
+final class SubtitleFrame {
+  static final SubtitleFrame EMPTY =
+      new SubtitleFrame("", null, /* top= */ false, Collections.emptyList());
+
+  @NonNull final CharSequence text;
+  @Nullable final Layout.Alignment alignment;
+  // Whether the text sits at the top of the video rather than the bottom.
+  final boolean top;
+  @NonNull final List<Cue> bitmapCues;
+
+  private SubtitleFrame(
+      @NonNull CharSequence text,
+      @Nullable Layout.Alignment alignment,
+      boolean top,
+      @NonNull List<Cue> bitmapCues) {
+    this.text = text;
+    this.alignment = alignment;
+    this.top = top;
+    this.bitmapCues = bitmapCues;
+  }
+
+  @NonNull
+  static SubtitleFrame from(@NonNull CueGroup cueGroup) {
+    return from(cueGroup.cues);
+  }
+
+  @NonNull
+  static SubtitleFrame from(@NonNull List<Cue> cues) {
+    if (cues.isEmpty()) {
+      return EMPTY;
+    }
+    final SpannableStringBuilder text = new SpannableStringBuilder();
+    Cue firstTextCue = null;
+    List<Cue> bitmapCues = Collections.emptyList();
+    for (final Cue cue : cues) {
+      if (cue.bitmap != null) {
+        if (bitmapCues.isEmpty()) {
+          bitmapCues = new ArrayList<>();
+        }
+        bitmapCues.add(cue);
+        continue;
+      }
+      if (cue.text == null) {
+        continue;
+      }
+      final CharSequence line = trim(cue.text);
+      if (line.length() == 0) {
+        continue;
+      }
+      if (text.length() > 0) {
+        text.append('\n');
+      }
+      text.append(line);
+      if (firstTextCue == null) {
+        firstTextCue = cue;
+      }
+    }
+    if (firstTextCue == null) {
+      return bitmapCues.isEmpty() ? EMPTY : new SubtitleFrame("", null, false, bitmapCues);
+    }
+    return new SubtitleFrame(text, firstTextCue.textAlignment, isTop(firstTextCue), bitmapCues);
+  }
+
+  /** The text without styling, as exposed to Dart for the texture view overlay. */
+  @NonNull
+  String plainText() {
+    return text.toString();
+  }
+
+  boolean isEmpty() {
+    return text.length() == 0 && bitmapCues.isEmpty();
+  }
+
+  /** Whether {@code other} would render identically, so re-rendering can be skipped. */
+  boolean sameAs(@NonNull SubtitleFrame other) {
+    if (this == other) {
+      return true;
+    }
+    return top == other.top
+        && alignment == other.alignment
+        && TextUtils.equals(text, other.text)
+        && sameSpans(text, other.text)
+        && bitmapCues.equals(other.bitmapCues);
+  }
+
+  private static boolean isTop(@NonNull Cue cue) {
+    if (cue.line == Cue.DIMEN_UNSET) {
+      return false;
+    }
+    if (cue.lineType == Cue.LINE_TYPE_FRACTION) {
+      return cue.line < 0.5f;
+    }
+    // Non-negative line numbers count from the top, negative ones from the bottom.
+    return cue.line >= 0;
+  }
+
+  @NonNull
+  private static CharSequence trim(@NonNull CharSequence text) {
+    int start = 0;
+    int end = text.length();
+    while (start < end && Character.isWhitespace(text.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+      end--;
+    }
+    return start == 0 && end == text.length() ? text : text.subSequence(start, end);
+  }
+
+  // Span objects do not implement equals, so compare their type, extent and attributes.
+  private static boolean sameSpans(@NonNull CharSequence a, @NonNull CharSequence b) {
+    final boolean aSpanned = a instanceof Spanned;
+    final boolean bSpanned = b instanceof Spanned;
+    final Object[] aSpans = aSpanned ? ((Spanned) a).getSpans(0, a.length(), Object.class) : null;
+    final Object[] bSpans = bSpanned ? ((Spanned) b).getSpans(0, b.length(), Object.class) : null;
+    final int aCount = aSpans == null ? 0 : aSpans.length;
+    final int bCount = bSpans == null ? 0 : bSpans.length;
+    if (aCount != bCount) {
+      return false;
+    }
+    for (int i = 0; i < aCount; i++) {
+      final Spanned as = (Spanned) a;
+      final Spanned bs = (Spanned) b;
+      if (aSpans[i].getClass() != bSpans[i].getClass()
+          || as.getSpanStart(aSpans[i]) != bs.getSpanStart(bSpans[i])
+          || as.getSpanEnd(aSpans[i]) != bs.getSpanEnd(bSpans[i])
+          || !sameAttributes(aSpans[i], bSpans[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Whether two spans of the same class style their text the same way. Covers the spans subtitle
+  // parsers produce; any other span is only the same if it says so through equals.
+  private static boolean sameAttributes(@NonNull Object a, @NonNull Object b) {
+    if (a instanceof ForegroundColorSpan) {
+      return ((ForegroundColorSpan) a).getForegroundColor()
+          == ((ForegroundColorSpan) b).getForegroundColor();
+    }
+    if (a instanceof BackgroundColorSpan) {
+      return ((BackgroundColorSpan) a).getBackgroundColor()
+          == ((BackgroundColorSpan) b).getBackgroundColor();
+    }
+    if (a instanceof AbsoluteSizeSpan) {
+      return ((AbsoluteSizeSpan) a).getSize() == ((AbsoluteSizeSpan) b).getSize()
+          && ((AbsoluteSizeSpan) a).getDip() == ((AbsoluteSizeSpan) b).getDip();
+    }
+    if (a instanceof RelativeSizeSpan) {
+      return ((RelativeSizeSpan) a).getSizeChange() == ((RelativeSizeSpan) b).getSizeChange();
+    }
+    if (a instanceof StyleSpan) {
+      return ((StyleSpan) a).getStyle() == ((StyleSpan) b).getStyle();
+    }
+    if (a instanceof TypefaceSpan) {
+      return TextUtils.equals(((TypefaceSpan) a).getFamily(), ((TypefaceSpan) b).getFamily());
+    }
+    if (a instanceof RubySpan) {
+      return ((RubySpan) a).rubyText.equals(((RubySpan) b).rubyText)
+          && ((RubySpan) a).position == ((RubySpan) b).position;
+    }
+    if (a instanceof TextEmphasisSpan) {
+      final TextEmphasisSpan ae = (TextEmphasisSpan) a;
+      final TextEmphasisSpan be = (TextEmphasisSpan) b;
+      return ae.markShape == be.markShape
+          && ae.markFill == be.markFill
+          && ae.position == be.position;
+    }
+    if (a instanceof UnderlineSpan
+        || a instanceof StrikethroughSpan
+        || a instanceof HorizontalTextInVerticalContextSpan) {
+      return true;
+    }
+    return a.equals(b);
+  }
+}
@@ -0,0 +1,138 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The user's track preferences, applied to a player's track selector before it is prepared.
+ *
+ * <p>Selecting tracks up front means ExoPlayer buffers the wanted audio and subtitles from the
+ * start, instead of buffering its defaults and switching once Dart selects the preferred ones.
+ * Languages come from the app's own settings; the video limits are LinPlayer-only keys.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+final class TrackPreferences {
+  private static final String KEY_AUDIO_LANGUAGE =
+      LinPlayerBuffering.KEY_PREFIX + "preferredAudioLang_v1";
+  private static final String KEY_SUBTITLE_LANGUAGE =
+      LinPlayerBuffering.KEY_PREFIX + "preferredSubtitleLang_v1";
+  @VisibleForTesting
+  static final String KEY_MAX_VIDEO_HEIGHT =
+      LinPlayerBuffering.KEY_PREFIX + "exoMaxVideoHeight_v1";
+  @VisibleForTesting
+  static final String KEY_MAX_VIDEO_BITRATE_KBPS =
+      LinPlayerBuffering.KEY_PREFIX + "exoMaxVideoBitrateKbps_v1";
+
+  // Matches the Dart side, which falls back to Simplified and then any Chinese subtitle.
+  private static final List<String> DEFAULT_SUBTITLE_LANGUAGES = Arrays.asList("zh-hans", "zh");
+
+  @NonNull final List<String> audioLanguages;
+  @NonNull final List<String> subtitleLanguages;
+  final boolean subtitlesOff;
+  final int maxVideoHeight;
+  final int maxVideoBitrate;
+
+  @VisibleForTesting
+  TrackPreferences(
+      @NonNull List<String> audioLanguages,
+      @NonNull List<String> subtitleLanguages,
+      boolean subtitlesOff,
+      int maxVideoHeight,
+      int maxVideoBitrate) {
+    this.audioLanguages = audioLanguages;
+    this.subtitleLanguages = subtitleLanguages;
+    this.subtitlesOff = subtitlesOff;
+    this.maxVideoHeight = maxVideoHeight;
+    this.maxVideoBitrate = maxVideoBitrate;
+  }
+
+  @NonNull
+  static TrackPreferences fromPreferences(@NonNull Context context) {
+    final SharedPreferences prefs = LinPlayerBuffering.flutterPreferences(context);
+    final String audio =
+        normalize(LinPlayerBuffering.readFlutterString(prefs, KEY_AUDIO_LANGUAGE, ""));
+    final String subtitle =
+        normalize(LinPlayerBuffering.readFlutterString(prefs, KEY_SUBTITLE_LANGUAGE, ""));
+    final int maxHeight = LinPlayerBuffering.readFlutterInt(prefs, KEY_MAX_VIDEO_HEIGHT, 0);
+    final int maxKbps = LinPlayerBuffering.readFlutterInt(prefs, KEY_MAX_VIDEO_BITRATE_KBPS, 0);
+    final boolean subtitlesOff = subtitle.equals("off");
+    final List<String> subtitleLanguages;
+    if (subtitlesOff) {
+      subtitleLanguages = Collections.emptyList();
+    } else if (isDefault(subtitle)) {
+      subtitleLanguages = DEFAULT_SUBTITLE_LANGUAGES;
+    } else {
+      subtitleLanguages = languagesFor(subtitle);
+    }
+    return new TrackPreferences(
+        languagesFor(audio),
+        subtitleLanguages,
+        subtitlesOff,
+        maxHeight > 0 ? maxHeight : Integer.MAX_VALUE,
+        maxKbps > 0 && maxKbps < Integer.MAX_VALUE / 1000 ? maxKbps * 1000 : Integer.MAX_VALUE);
+  }
+
+  /**
+   * Sets the preferred languages and video limits on {@code trackSelector}.
+   *
+   * <p>The limits are soft: a source with no variant inside them still plays its smallest one.
+   */
+  void applyTo(@NonNull DefaultTrackSelector trackSelector) {
+    trackSelector.setParameters(
+        trackSelector
+            .buildUponParameters()
+            .setPreferredAudioLanguages(audioLanguages.toArray(new String[0]))
+            .setPreferredTextLanguages(subtitleLanguages.toArray(new String[0]))
+            .setTrackTypeDisabled(C.TRACK_TYPE_TEXT, subtitlesOff)
+            .setMaxVideoSize(Integer.MAX_VALUE, maxVideoHeight)
+            .setMaxVideoBitrate(maxVideoBitrate));
+  }
+
+  @NonNull
+  private static String normalize(@NonNull String preference) {
+    return preference.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static boolean isDefault(@NonNull String preference) {
+    return preference.isEmpty() || preference.equals("default");
+  }
+
+  // The settings offer ISO 639-2 codes, which ExoPlayer normalizes itself, plus the script tags
+  // used by Chinese releases, which it does not.
+  @NonNull
+  private static List<String> languagesFor(@NonNull String preference) {
+    if (isDefault(preference)) {
+      return Collections.emptyList();
+    }
+    switch (preference) {
+      case "zhs":
+      case "chs":
+      case "hans":
+      case "zh-cn":
+      case "zh-sg":
+        return Arrays.asList("zh-hans", "zh");
+      case "zht":
+      case "cht":
+      case "hant":
+      case "zh-tw":
+      case "zh-hk":
+        return Arrays.asList("zh-hant", "zh");
+      default:
+        return Collections.singletonList(preference);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.Tracks;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The audio and subtitle tracks of one {@link Tracks} value in the form sent to Dart.
+ *
+ * <p>Kept until the tracks change, so that listing tracks does not walk every group and allocate
+ * new messages on each call.
+ */
+final class TrackSnapshot {
+  @NonNull final Tracks tracks;
+  // Converted on first use, since selecting a track only needs the groups.
+  @Nullable private NativeAudioTrackData audioTracks;
+  @Nullable private List<ExoPlayerSubtitleTrackData> subtitleTracks;
+
+  TrackSnapshot(@Nullable Tracks tracks) {
+    this.tracks = tracks != null ? tracks : Tracks.EMPTY;
+  }
+
+  @NonNull
+  NativeAudioTrackData audioTracks() {
+    if (audioTracks == null) {
+      convert();
+    }
+    return audioTracks;
+  }
+
+  /** The player's own text tracks; sideloaded ones are listed by VideoPlayer after these. */
+  @NonNull
+  List<ExoPlayerSubtitleTrackData> subtitleTracks() {
+    if (subtitleTracks == null) {
+      convert();
+    }
+    return subtitleTracks;
+  }
+
+  private void convert() {
+    final List<ExoPlayerAudioTrackData> audio = new ArrayList<>();
+    final List<ExoPlayerSubtitleTrackData> text = new ArrayList<>();
+    for (int groupIndex = 0; groupIndex < tracks.getGroups().size(); groupIndex++) {
+      final Tracks.Group group = tracks.getGroups().get(groupIndex);
+      final int type = group.getType();
+      if (type != C.TRACK_TYPE_AUDIO && type != C.TRACK_TYPE_TEXT) {
+        continue;
+      }
+      for (int trackIndex = 0; trackIndex < group.length; trackIndex++) {
+        final Format format = group.getTrackFormat(trackIndex);
+        final boolean isSelected = group.isTrackSelected(trackIndex);
+        if (type == C.TRACK_TYPE_AUDIO) {
+          audio.add(
+              new ExoPlayerAudioTrackData(
+                  (long) groupIndex,
+                  (long) trackIndex,
+                  format.label,
+                  format.language,
+                  isSelected,
+                  format.bitrate != Format.NO_VALUE ? (long) format.bitrate : null,
+                  format.sampleRate != Format.NO_VALUE ? (long) format.sampleRate : null,
+                  format.channelCount != Format.NO_VALUE ? (long) format.channelCount : null,
+                  format.codecs));
+        } else {
+          text.add(
+              new ExoPlayerSubtitleTrackData(
+                  (long) groupIndex,
+                  (long) trackIndex,
+                  format.label,
+                  format.language,
+                  isSelected,
+                  format.codecs,
+                  format.sampleMimeType));
+        }
+      }
+    }
+    audioTracks = new NativeAudioTrackData(Collections.unmodifiableList(audio));
+    subtitleTracks = Collections.unmodifiableList(text);
+  }
+
+  /**
+   * Returns the group at {@code groupIndex} after checking that it has {@code type} and a track at
+   * {@code trackIndex}.
+   *
+   * @throws IllegalArgumentException if it does not, with a message starting with {@code action}.
+   */
+  @NonNull
+  Tracks.Group requireGroup(
+      long groupIndex, long trackIndex, @C.TrackType int type, @NonNull String action) {
+    final int groupCount = tracks.getGroups().size();
+    if (groupIndex < 0 || groupIndex >= groupCount) {
+      throw new IllegalArgumentException(
+          action
+              + ": groupIndex "
+              + groupIndex
+              + " is out of bounds (available groups: "
+              + groupCount
+              + ")");
+    }
+    final Tracks.Group group = tracks.getGroups().get((int) groupIndex);
+    if (group.getType() != type) {
+      throw new IllegalArgumentException(
+          action
+              + ": group at index "
+              + groupIndex
+              + " is not "
+              + (type == C.TRACK_TYPE_AUDIO ? "an audio" : "a subtitle")
+              + " track (type: "
+              + group.getType()
+              + ")");
+    }
+    if (trackIndex < 0 || (int) trackIndex >= group.length) {
+      throw new IllegalArgumentException(
+          action
+              + ": trackIndex "
+              + trackIndex
+              + " is out of bounds (available tracks in group: "
+              + group.length
+              + ")");
+    }
+    return group;
+  }
+}
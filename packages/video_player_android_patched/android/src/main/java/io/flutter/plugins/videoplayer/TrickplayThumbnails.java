@@ -0,0 +1,559 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
+import androidx.media3.common.ParserException;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSourceUtil;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.HttpDataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Seek preview thumbnails for one media item, from a BIF file, from trickplay tile sheets, or
+ * extracted from the media itself.
+ *
+ * <p>Lookups never block: a thumbnail that is not loaded yet is requested from a background thread
+ * and the lookup returns {@code null}, so the caller asks again on its next scrub update. Downloads
+ * are decoded there into JPEG thumbnails kept in a process-wide cache bounded by their size in
+ * bytes. A BIF file is read whole once and its frames are cached one by one; frames evicted from
+ * the cache are read back with range requests. While scrubbing through extracted frames or evicted
+ * BIF frames only the latest requested position is loaded.
+ */
+// TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+@UnstableApi
+final class TrickplayThumbnails {
+  private static final String TAG = "TrickplayThumbnails";
+
+  // BIF files and tile sheets larger than this are not thumbnails; give up on them.
+  private static final int MAX_FILE_BYTES = 32 * LinPlayerBuffering.MB;
+  private static final int JPEG_QUALITY = 80;
+  private static final long DEFAULT_INTERVAL_MS = 10_000;
+  // A BIF file is only cached whole when its frames fit in this share of the cache.
+  private static final int BIF_CACHE_SHARE = 4;
+  // After a network error the remote thumbnails are retried after this, times the failure count.
+  private static final long RETRY_DELAY_MS = 5_000;
+  private static final int MAX_TRANSIENT_FAILURES = 5;
+
+  private static final byte[] BIF_MAGIC = {
+    (byte) 0x89, 0x42, 0x49, 0x46, 0x0d, 0x0a, 0x1a, 0x0a
+  };
+  private static final int BIF_HEADER_BYTES = 64;
+
+  private static final ExecutorService LOADER =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "LinPlayerThumbnailLoader");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** Encoded thumbnails of recently viewed media, shared by all players. */
+  private static final LruCache<String, Piece> CACHE =
+      new LruCache<String, Piece>(cacheSizeBytes()) {
+        @Override
+        protected int sizeOf(String key, Piece piece) {
+          return piece.data.length;
+        }
+      };
+
+  /** The JPEG thumbnails of one download: a BIF file, a tile sheet or an extracted frame. */
+  @VisibleForTesting
+  static final class Piece {
+    @NonNull final byte[] data;
+    // Thumbnail i is data[offsets[i]..offsets[i + 1]).
+    @NonNull private final int[] offsets;
+    // When thumbnail i starts, in milliseconds; only known for BIF files.
+    @Nullable private final long[] timesMs;
+
+    Piece(@NonNull byte[] data, @NonNull int[] offsets, @Nullable long[] timesMs) {
+      this.data = data;
+      this.offsets = offsets;
+      this.timesMs = timesMs;
+    }
+
+    /** A piece holding the single thumbnail {@code jpeg}. */
+    @NonNull
+    static Piece of(@NonNull byte[] jpeg) {
+      return new Piece(jpeg, new int[] {0, jpeg.length}, null);
+    }
+
+    int count() {
+      return offsets.length - 1;
+    }
+
+    /** Returns thumbnail {@code index}, or {@code null} if there is none. */
+    @Nullable
+    byte[] thumbnail(int index) {
+      if (index < 0 || index >= count() || offsets[index + 1] <= offsets[index]) {
+        return null;
+      }
+      return Arrays.copyOfRange(data, offsets[index], offsets[index + 1]);
+    }
+
+    /** Returns the index of the thumbnail shown at {@code positionMs} of a BIF file. */
+    int indexAt(long positionMs) {
+      return timesMs != null ? BifIndex.indexAt(timesMs, positionMs) : C.INDEX_UNSET;
+    }
+  }
+
+  /** Where the frames of a BIF file are and when each is shown, without the frames themselves. */
+  private static final class BifIndex {
+    @NonNull final int[] offsets;
+    @NonNull final long[] timesMs;
+
+    BifIndex(@NonNull int[] offsets, @NonNull long[] timesMs) {
+      this.offsets = offsets;
+      this.timesMs = timesMs;
+    }
+
+    static int indexAt(@NonNull long[] timesMs, long positionMs) {
+      final int found = Arrays.binarySearch(timesMs, positionMs);
+      return found >= 0 ? found : Math.max(0, -found - 2);
+    }
+  }
+
+  /** Trims the shared cache for a memory governor decision. */
+  static void onMemoryBudgetChanged(@NonNull LinPlayerMemoryGovernor.Budget budget) {
+    if (budget.level >= LinPlayerMemoryGovernor.LEVEL_CRITICAL) {
+      CACHE.evictAll();
+    } else if (budget.level >= LinPlayerMemoryGovernor.LEVEL_MODERATE) {
+      CACHE.trimToSize(CACHE.maxSize() / 2);
+    }
+  }
+
+  @NonNull private final Context context;
+  @NonNull private final ThumbnailSourceMessage source;
+  @NonNull private final DataSource.Factory dataSourceFactory;
+  @Nullable private final Uri mediaUri;
+  @NonNull private final Executor executor;
+  @NonNull private final LruCache<String, Piece> cache;
+  // Cache keys of the downloaded thumbnails and of the extracted frames.
+  @NonNull private final String remoteKey;
+  @NonNull private final String framesKey;
+  private final long intervalMs;
+
+  // Guarded by this.
+  @NonNull private final Set<String> loading = new HashSet<>();
+  private long wantedFrameSlot = C.INDEX_UNSET;
+  private boolean frameExtractionQueued;
+  private int wantedBifFrame = C.INDEX_UNSET;
+  private boolean bifFrameQueued;
+  private int remoteFailures;
+  private long remoteRetryAtMs;
+  // Set once the BIF file was read, so that evicted frames can be read back one at a time.
+  @Nullable private volatile BifIndex bifIndex;
+  // Set once the BIF file or a tile sheet is unusable, or keeps failing to load; extracted frames
+  // are used from then on.
+  private volatile boolean remoteFailed;
+  private volatile boolean released;
+  // Only used on the loader thread.
+  @Nullable private MediaMetadataRetriever retriever;
+
+  /**
+   * @param dataSourceFactory reads BIF files and tile sheets.
+   * @param mediaUri the media to extract frames from, if allowed by {@code source}.
+   */
+  TrickplayThumbnails(
+      @NonNull Context context,
+      @NonNull ThumbnailSourceMessage source,
+      @NonNull DataSource.Factory dataSourceFactory,
+      @Nullable Uri mediaUri) {
+    this(context, source, dataSourceFactory, mediaUri, LOADER, CACHE);
+  }
+
+  @VisibleForTesting
+  TrickplayThumbnails(
+      @NonNull Context context,
+      @NonNull ThumbnailSourceMessage source,
+      @NonNull DataSource.Factory dataSourceFactory,
+      @Nullable Uri mediaUri,
+      @NonNull Executor executor,
+      @NonNull LruCache<String, Piece> cache) {
+    this.context = context;
+    this.source = source;
+    this.dataSourceFactory = dataSourceFactory;
+    this.mediaUri = mediaUri;
+    this.executor = executor;
+    this.cache = cache;
+    intervalMs = source.getIntervalMs() > 0 ? source.getIntervalMs() : DEFAULT_INTERVAL_MS;
+    remoteKey =
+        source.getBifUrl() != null
+            ? "bif:" + source.getBifUrl()
+            : "tiles:" + source.getTileUrlTemplate();
+    framesKey = "frames:" + mediaUri + "@" + source.getMaxWidth() + "/" + intervalMs;
+  }
+
+  /**
+   * Returns the JPEG thumbnail for {@code positionMs} if it is loaded, and otherwise starts loading
+   * it and returns {@code null}.
+   */
+  @Nullable
+  byte[] thumbnailAt(long positionMs) {
+    if (released) {
+      return null;
+    }
+    final long position = Math.max(0, positionMs);
+    if (!remoteFailed && source.getBifUrl() != null) {
+      return bifThumbnailAt(position);
+    }
+    if (!remoteFailed && hasTiles()) {
+      return tileThumbnailAt(position);
+    }
+    if (source.getKeyframeFallback() && mediaUri != null) {
+      return frameAt(position);
+    }
+    return null;
+  }
+
+  /** Stops loading and releases the frame extractor. Cached thumbnails are kept. */
+  void release() {
+    released = true;
+    executor.execute(
+        () -> {
+          if (retriever != null) {
+            try {
+              retriever.release();
+            } catch (Exception e) {
+              // Already unusable.
+            }
+            retriever = null;
+          }
+        });
+  }
+
+  @Nullable
+  private byte[] bifThumbnailAt(long positionMs) {
+    final BifIndex index = bifIndex;
+    if (index == null) {
+      load(remoteKey, () -> readBif(positionMs));
+      return null;
+    }
+    final int frame = BifIndex.indexAt(index.timesMs, positionMs);
+    if (frame >= index.timesMs.length) {
+      return null;
+    }
+    final Piece piece = cache.get(remoteKey + "#" + frame);
+    if (piece != null) {
+      return piece.thumbnail(0);
+    }
+    synchronized (this) {
+      wantedBifFrame = frame;
+      if (bifFrameQueued) {
+        return null;
+      }
+      bifFrameQueued = true;
+    }
+    executor.execute(this::readWantedBifFrame);
+    return null;
+  }
+
+  private boolean hasTiles() {
+    return source.getTileUrlTemplate() != null
+        && source.getTileColumns() != null
+        && source.getTileColumns() > 0
+        && source.getTileRows() != null
+        && source.getTileRows() > 0;
+  }
+
+  @Nullable
+  private byte[] tileThumbnailAt(long positionMs) {
+    final int columns = (int) (long) source.getTileColumns();
+    final int rows = (int) (long) source.getTileRows();
+    long index = positionMs / intervalMs;
+    if (source.getThumbnailCount() != null && source.getThumbnailCount() > 0) {
+      index = Math.min(index, source.getThumbnailCount() - 1);
+    }
+    final int perSheet = columns * rows;
+    final long sheet = index / perSheet;
+    final String key = remoteKey + "#" + sheet;
+    final Piece piece = cache.get(key);
+    if (piece != null) {
+      return piece.thumbnail((int) (index % perSheet));
+    }
+    final String url = source.getTileUrlTemplate().replace("{index}", Long.toString(sheet));
+    load(key, () -> cache.put(key, splitSheet(download(Uri.parse(url)), columns, rows)));
+    return null;
+  }
+
+  @Nullable
+  private byte[] frameAt(long positionMs) {
+    final long slot = positionMs / intervalMs;
+    final Piece piece = cache.get(framesKey + "#" + slot);
+    if (piece != null) {
+      return piece.thumbnail(0);
+    }
+    synchronized (this) {
+      wantedFrameSlot = slot;
+      if (frameExtractionQueued) {
+        return null;
+      }
+      frameExtractionQueued = true;
+    }
+    executor.execute(this::extractWantedFrame);
+    return null;
+  }
+
+  private interface RemoteLoader {
+    void load() throws IOException;
+  }
+
+  // Loads remote thumbnails, unless they are already loading or a failed load is not due for a
+  // retry yet.
+  private void load(@NonNull String key, @NonNull RemoteLoader loader) {
+    synchronized (this) {
+      if (SystemClock.elapsedRealtime() < remoteRetryAtMs || !loading.add(key)) {
+        return;
+      }
+    }
+    executor.execute(
+        () -> {
+          try {
+            if (!released) {
+              loader.load();
+              synchronized (this) {
+                remoteFailures = 0;
+              }
+            }
+          } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Failed to load thumbnails: " + e);
+            onRemoteFailure(e);
+          } finally {
+            synchronized (this) {
+              loading.remove(key);
+            }
+          }
+        });
+  }
+
+  // Gives up on the remote thumbnails when the file is unusable or the server refuses it, and
+  // otherwise retries after a growing delay, so one network error does not cost them for good.
+  private synchronized void onRemoteFailure(@NonNull Exception e) {
+    remoteFailures++;
+    if (isPermanentFailure(e) || remoteFailures >= MAX_TRANSIENT_FAILURES) {
+      remoteFailed = true;
+    } else {
+      remoteRetryAtMs = SystemClock.elapsedRealtime() + RETRY_DELAY_MS * remoteFailures;
+    }
+  }
+
+  private static boolean isPermanentFailure(@NonNull Exception e) {
+    if (e instanceof HttpDataSource.InvalidResponseCodeException) {
+      final int code = ((HttpDataSource.InvalidResponseCodeException) e).responseCode;
+      return code >= 400 && code < 500;
+    }
+    return e instanceof ParserException || e instanceof RuntimeException;
+  }
+
+  // Reads the whole BIF file once. Its frames are cached if they fit comfortably, and otherwise
+  // only the one wanted now; the rest are read back on demand.
+  private void readBif(long positionMs) throws IOException {
+    final Piece piece = parseBif(download(Uri.parse(source.getBifUrl())));
+    if (piece.data.length <= cache.maxSize() / BIF_CACHE_SHARE) {
+      for (int i = 0; i < piece.count(); i++) {
+        cacheBifFrame(i, piece.thumbnail(i));
+      }
+    } else {
+      final int frame = piece.indexAt(positionMs);
+      cacheBifFrame(frame, piece.thumbnail(frame));
+    }
+    bifIndex = new BifIndex(piece.offsets, piece.timesMs);
+  }
+
+  private void readWantedBifFrame() {
+    final int frame;
+    synchronized (this) {
+      frame = wantedBifFrame;
+      bifFrameQueued = false;
+    }
+    final BifIndex index = bifIndex;
+    if (released || index == null || cache.get(remoteKey + "#" + frame) != null) {
+      return;
+    }
+    final int start = index.offsets[frame];
+    final int length = index.offsets[frame + 1] - start;
+    try {
+      cacheBifFrame(frame, length > 0 ? read(Uri.parse(source.getBifUrl()), start, length) : null);
+    } catch (IOException | RuntimeException e) {
+      // The next lookup of this frame tries again.
+      Log.w(TAG, "Failed to load a thumbnail: " + e);
+    }
+  }
+
+  private void cacheBifFrame(int frame, @Nullable byte[] jpeg) {
+    cache.put(remoteKey + "#" + frame, Piece.of(jpeg != null ? jpeg : new byte[0]));
+  }
+
+  @NonNull
+  private byte[] download(@NonNull Uri uri) throws IOException {
+    return read(uri, 0, C.LENGTH_UNSET);
+  }
+
+  @NonNull
+  private byte[] read(@NonNull Uri uri, long position, long length) throws IOException {
+    final DataSource dataSource = dataSourceFactory.createDataSource();
+    try {
+      final long opened =
+          dataSource.open(
+              new DataSpec.Builder()
+                  .setUri(uri)
+                  .setPosition(position)
+                  .setLength(length)
+                  .setHttpRequestHeaders(source.getHttpHeaders())
+                  .build());
+      if (opened != C.LENGTH_UNSET && opened > MAX_FILE_BYTES) {
+        throw ParserException.createForUnsupportedContainerFeature(
+            "Thumbnail file too large: " + opened + " bytes");
+      }
+      return DataSourceUtil.readToEnd(dataSource);
+    } finally {
+      dataSource.close();
+    }
+  }
+
+  /** Parses a BIF file, whose frames are JPEG images already. */
+  @VisibleForTesting
+  @NonNull
+  static Piece parseBif(@NonNull byte[] data) throws IOException {
+    if (data.length < BIF_HEADER_BYTES
+        || !Arrays.equals(Arrays.copyOf(data, BIF_MAGIC.length), BIF_MAGIC)) {
+      throw ParserException.createForMalformedContainer("Not a BIF file", null);
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    final long count = buffer.getInt(12) & 0xffffffffL;
+    final long separationMs = buffer.getInt(16) & 0xffffffffL;
+    // The index has one entry per frame and a terminating entry holding the end of the last frame.
+    if (count > (data.length - BIF_HEADER_BYTES) / 8 - 1) {
+      throw ParserException.createForMalformedContainer("Truncated BIF index", null);
+    }
+    final int frames = (int) count;
+    final int[] offsets = new int[frames + 1];
+    final long[] timesMs = new long[frames];
+    for (int i = 0; i <= frames; i++) {
+      final int entry = BIF_HEADER_BYTES + i * 8;
+      final long offset = buffer.getInt(entry + 4) & 0xffffffffL;
+      if (offset > data.length || (i > 0 && offset < offsets[i - 1])) {
+        throw ParserException.createForMalformedContainer("Invalid BIF frame offset", null);
+      }
+      offsets[i] = (int) offset;
+      if (i < frames) {
+        timesMs[i] = (buffer.getInt(entry) & 0xffffffffL) * (separationMs > 0 ? separationMs : 1000);
+      }
+    }
+    return new Piece(data, offsets, timesMs);
+  }
+
+  /** Cuts a tile sheet into JPEG thumbnails, row by row. */
+  @NonNull
+  private static Piece splitSheet(@NonNull byte[] sheetData, int columns, int rows)
+      throws IOException {
+    final Bitmap sheet = BitmapFactory.decodeByteArray(sheetData, 0, sheetData.length);
+    if (sheet == null) {
+      throw ParserException.createForMalformedContainer("Undecodable tile sheet", null);
+    }
+    try {
+      final int tileWidth = sheet.getWidth() / columns;
+      final int tileHeight = sheet.getHeight() / rows;
+      if (tileWidth <= 0 || tileHeight <= 0) {
+        throw ParserException.createForMalformedContainer("Tile sheet smaller than its grid", null);
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(sheetData.length);
+      final int[] offsets = new int[columns * rows + 1];
+      for (int i = 0; i < columns * rows; i++) {
+        final Bitmap tile =
+            Bitmap.createBitmap(
+                sheet, (i % columns) * tileWidth, (i / columns) * tileHeight, tileWidth, tileHeight);
+        tile.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        tile.recycle();
+        offsets[i + 1] = out.size();
+      }
+      return new Piece(out.toByteArray(), offsets, null);
+    } finally {
+      sheet.recycle();
+    }
+  }
+
+  private void extractWantedFrame() {
+    final long slot;
+    synchronized (this) {
+      slot = wantedFrameSlot;
+      frameExtractionQueued = false;
+    }
+    final String key = framesKey + "#" + slot;
+    if (released || cache.get(key) != null) {
+      return;
+    }
+    try {
+      final Bitmap frame =
+          retriever().getFrameAtTime(
+              slot * intervalMs * 1000, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+      if (frame == null) {
+        return;
+      }
+      final Bitmap scaled = scaleToWidth(frame, (int) source.getMaxWidth());
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+      if (scaled != frame) {
+        scaled.recycle();
+      }
+      frame.recycle();
+      cache.put(key, Piece.of(out.toByteArray()));
+    } catch (RuntimeException e) {
+      Log.w(TAG, "Failed to extract a thumbnail: " + e);
+    }
+  }
+
+  @NonNull
+  private MediaMetadataRetriever retriever() {
+    if (retriever == null) {
+      final MediaMetadataRetriever created = new MediaMetadataRetriever();
+      final String scheme = mediaUri.getScheme();
+      if ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) {
+        created.setDataSource(mediaUri.toString(), source.getHttpHeaders());
+      } else {
+        created.setDataSource(context, mediaUri);
+      }
+      retriever = created;
+    }
+    return retriever;
+  }
+
+  @NonNull
+  private static Bitmap scaleToWidth(@NonNull Bitmap frame, int maxWidth) {
+    if (maxWidth <= 0 || frame.getWidth() <= maxWidth) {
+      return frame;
+    }
+    final int height = Math.max(1, frame.getHeight() * maxWidth / frame.getWidth());
+    return Bitmap.createScaledBitmap(frame, maxWidth, height, /* filter= */ true);
+  }
+
+  // A sixteenth of the heap, between 4 and 16 MB: thumbnails are only needed while scrubbing.
+  private static int cacheSizeBytes() {
+    final long target = Runtime.getRuntime().maxMemory() / 16;
+    return (int) Math.max(4L * LinPlayerBuffering.MB, Math.min(16L * LinPlayerBuffering.MB, target));
+  }
+}
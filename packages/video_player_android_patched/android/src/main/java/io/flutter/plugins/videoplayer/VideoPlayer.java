@@ -11,8 +11,14 @@ import android.graphics.Typeface;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
+import android.text.Layout;
+import android.util.Log;
 import android.util.TypedValue;
+import android.view.Gravity;
 import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -24,13 +30,16 @@ import androidx.media3.common.PlaybackParameters;
 import androidx.media3.common.TrackGroup;
 import androidx.media3.common.TrackSelectionOverride;
 import androidx.media3.common.Tracks;
-import androidx.media3.common.text.Cue;
 import androidx.media3.common.text.CueGroup;
 import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
 import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.source.MediaSource;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
 import io.flutter.view.TextureRegistry.SurfaceProducer;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,31 +49,141 @@ import java.util.List;
  * <p>It provides methods to control playback, adjust volume, and handle seeking.
  */
 public abstract class VideoPlayer implements VideoPlayerInstanceApi {
+  private static final String TAG = "VideoPlayer";
+
   @NonNull protected final VideoPlayerCallbacks videoPlayerEvents;
   @Nullable protected final SurfaceProducer surfaceProducer;
   @Nullable private DisposeHandler disposeHandler;
   @NonNull protected ExoPlayer exoPlayer;
+  @NonNull private final ExoPlayerProvider exoPlayerProvider;
+  @NonNull private final ExoPlayerEventListener exoPlayerEventListener;
   // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
   @UnstableApi @Nullable protected DefaultTrackSelector trackSelector;
 
   // Subtitle state for LinPlayer.
   @NonNull private final Handler mainHandler = new Handler(Looper.getMainLooper());
   @Nullable private TextView platformSubtitleView;
+  @Nullable private BitmapCueView platformSubtitleBitmapView;
   @NonNull private String subtitleText = "";
-  @Nullable private Runnable pendingSubtitleUpdate;
+  // The frame on screen and the latest one scheduled, which subtitleUpdateTask renders.
+  @NonNull private SubtitleFrame renderedSubtitleFrame = SubtitleFrame.EMPTY;
+  @NonNull private SubtitleFrame pendingSubtitleFrame = SubtitleFrame.EMPTY;
+  @NonNull private final Runnable subtitleUpdateTask = this::applyPendingSubtitleFrame;
   private long subtitleDelayMs = 0;
   private double subtitleFontSize = 18.0;
   private double subtitleBottomPadding = 24.0;
   private boolean subtitleBold = false;
   private boolean disposed = false;
 
+  // Playlist state for LinPlayer. Queued items are preloaded this far ahead of their start.
+  private static final long QUEUE_PRELOAD_DURATION_US = 15_000_000;
+  @Nullable private MediaSourceResolver mediaSourceResolver;
+
+  // Progress push state for LinPlayer; replaces Dart polling of position and buffered position.
+  private long progressIntervalMs = 0;
+  private long lastProgressPositionMs = C.TIME_UNSET;
+  private long lastProgressBufferedMs = C.TIME_UNSET;
+  private float lastProgressSpeed = 0f;
+  // Seeks requested through seekTo, sent with each progress push so that Dart can drop pushes
+  // sampled before its latest seek.
+  private long seekCount = 0;
+  @NonNull private final Runnable progressTicker = this::onProgressTick;
+
+  // Playback metrics for LinPlayer; a summary is pushed at most this often while anything changed.
+  private static final long METRICS_SUMMARY_INTERVAL_MS = 10_000;
+  @NonNull private final PlaybackMetricsCollector metricsCollector;
+  private int lastMetricsSummaryVersion = -1;
+  @NonNull private final Runnable metricsTicker = this::onMetricsTick;
+
+  // Sideloaded subtitle state for LinPlayer. These are listed after the player's own text tracks
+  // under SIDELOADED_GROUP_INDEX and drawn from the playback position, leaving the player as is.
+  static final long SIDELOADED_GROUP_INDEX = -1;
+  private static final long SIDELOADED_MAX_TICK_MS = 200;
+  @Nullable private DataSource.Factory subtitleDataSourceFactory;
+  @NonNull private final List<SideloadedTrack> sideloadedTracks = new ArrayList<>();
+  private int activeSideloadedIndex = C.INDEX_UNSET;
+  @NonNull private final Runnable sideloadedTicker = this::onSideloadedTick;
+
+  // Resume positions for LinPlayer. The current item's position is handed to the store this often;
+  // the store batches the writes. Queued items keep their keys, "" for none, until they play.
+  private static final long RESUME_RECORD_INTERVAL_MS = 5_000;
+  @Nullable private ResumePositionStore resumeStore;
+  @Nullable private String resumeKey;
+  @NonNull private final ArrayDeque<String> queuedResumeKeys = new ArrayDeque<>();
+  @NonNull private final Runnable resumeTicker = this::onResumeTick;
+
+  // Track lists for LinPlayer, converted once per change and pushed to Dart; the subtitle list also
+  // covers sideloaded tracks, so it is dropped when those change as well.
+  @Nullable private TrackSnapshot trackSnapshot;
+  @Nullable private NativeSubtitleTrackData subtitleTrackData;
+  private long trackSnapshotVersion = 0;
+
+  // Resource share for LinPlayer, granted by LinPlayerResourceArbiter and enforced by the load gate.
+  // A suspended player stays paused until its grant returns, then resumes if it was playing.
+  @Nullable private final LoadGate loadGate;
+  @Nullable private LinPlayerResourceArbiter.Claim resourceClaim;
+  private boolean suspended = false;
+  private boolean resumeAfterSuspension = false;
+
+  // Seek preview thumbnails of the current item for LinPlayer, set from Dart.
+  @Nullable private ThumbnailsFactory thumbnailsFactory;
+  @UnstableApi @Nullable private TrickplayThumbnails thumbnails;
+
+  @UnstableApi
+  private static final class SideloadedTrack {
+    @NonNull final Format format;
+    // Null until the file has been loaded and parsed.
+    @Nullable SideloadedSubtitle subtitle;
+
+    SideloadedTrack(@NonNull Format format) {
+      this.format = format;
+    }
+  }
+
+  @NonNull
+  private final androidx.media3.common.Player.Listener playlistListener =
+      new androidx.media3.common.Player.Listener() {
+        @Override
+        public void onMediaItemTransition(@Nullable MediaItem mediaItem, int reason) {
+          if (mediaItem == null
+              || (reason != androidx.media3.common.Player.MEDIA_ITEM_TRANSITION_REASON_AUTO
+                  && reason != androidx.media3.common.Player.MEDIA_ITEM_TRANSITION_REASON_SEEK)) {
+            return;
+          }
+          onQueueAdvanced(
+              reason == androidx.media3.common.Player.MEDIA_ITEM_TRANSITION_REASON_AUTO);
+        }
+      };
+
+  @NonNull
+  private final androidx.media3.common.Player.Listener tracksListener =
+      new androidx.media3.common.Player.Listener() {
+        @Override
+        public void onTracksChanged(@NonNull Tracks tracks) {
+          trackSnapshot = new TrackSnapshot(tracks);
+          onTrackListsChanged();
+        }
+      };
+
   @NonNull
   private final androidx.media3.common.Player.Listener subtitleListener =
       new androidx.media3.common.Player.Listener() {
         @Override
         public void onCues(@NonNull CueGroup cueGroup) {
-          final String text = cueGroupToText(cueGroup);
-          scheduleSubtitleUpdate(text);
+          if (activeSideloadedIndex != C.INDEX_UNSET) {
+            return;
+          }
+          scheduleSubtitleUpdate(SubtitleFrame.from(cueGroup), Math.max(0, subtitleDelayMs));
+        }
+
+        @Override
+        public void onPositionDiscontinuity(
+            @NonNull androidx.media3.common.Player.PositionInfo oldPosition,
+            @NonNull androidx.media3.common.Player.PositionInfo newPosition,
+            int reason) {
+          if (activeSideloadedIndex != C.INDEX_UNSET) {
+            restartSideloadedTicker();
+          }
         }
       };
 
@@ -77,6 +196,40 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
      */
     @NonNull
     ExoPlayer get();
+
+    /**
+     * Gives back a player returned by {@link #get()} once the video player is disposed.
+     *
+     * <p>Listeners added by the video player have already been removed. The default releases it.
+     *
+     * @param exoPlayer the player to give back.
+     */
+    default void recycle(@NonNull ExoPlayer exoPlayer) {
+      exoPlayer.release();
+    }
+
+    /**
+     * Returns the gate on the load control of a player returned by {@link #get()}, or null if it
+     * was built without one. The default returns null.
+     */
+    @Nullable
+    default LoadGate loadGate(@NonNull ExoPlayer exoPlayer) {
+      return null;
+    }
+  }
+
+  /** Creates the media source for an item passed to {@link #enqueueMediaItem}. */
+  public interface MediaSourceResolver {
+    @NonNull
+    MediaSource resolve(@NonNull CreationOptions options);
+  }
+
+  /** Creates the thumbnails for a source passed to {@link #setThumbnailSource}. */
+  interface ThumbnailsFactory {
+    // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+    @UnstableApi
+    @NonNull
+    TrickplayThumbnails create(@NonNull ThumbnailSourceMessage source, @Nullable Uri mediaUri);
   }
 
   /** A handler to run when dispose is called. */
@@ -84,6 +237,21 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     void onDispose();
   }
 
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  public VideoPlayer(
+      @NonNull VideoPlayerCallbacks events,
+      @NonNull MediaItem mediaItem,
+      @NonNull VideoPlayerOptions options,
+      @Nullable SurfaceProducer surfaceProducer,
+      @NonNull ExoPlayerProvider exoPlayerProvider) {
+    this(events, mediaItem, options, surfaceProducer, exoPlayerProvider, C.TIME_UNSET);
+  }
+
+  /**
+   * Creates a player that is prepared at {@code startPositionMs}, or at the default position if it
+   * is {@link C#TIME_UNSET}, so that nothing is buffered from the start only to be thrown away.
+   */
   // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
   @UnstableApi
   // Error thrown for this-escape warning on JDK 21+ due to https://bugs.openjdk.org/browse/JDK-8015831.
@@ -94,27 +262,68 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
       @NonNull MediaItem mediaItem,
       @NonNull VideoPlayerOptions options,
       @Nullable SurfaceProducer surfaceProducer,
-      @NonNull ExoPlayerProvider exoPlayerProvider) {
+      @NonNull ExoPlayerProvider exoPlayerProvider,
+      long startPositionMs) {
     this.videoPlayerEvents = events;
     this.surfaceProducer = surfaceProducer;
+    this.exoPlayerProvider = exoPlayerProvider;
     exoPlayer = exoPlayerProvider.get();
+    loadGate = exoPlayerProvider.loadGate(exoPlayer);
+    metricsCollector = new PlaybackMetricsCollector(SystemClock.elapsedRealtime());
+    exoPlayer.addAnalyticsListener(metricsCollector);
 
     // Try to get the track selector from the ExoPlayer if it was built with one
     if (exoPlayer.getTrackSelector() instanceof DefaultTrackSelector) {
       trackSelector = (DefaultTrackSelector) exoPlayer.getTrackSelector();
     }
 
-    exoPlayer.setMediaItem(mediaItem);
+    if (startPositionMs == C.TIME_UNSET) {
+      exoPlayer.setMediaItem(mediaItem);
+    } else {
+      exoPlayer.setMediaItem(mediaItem, startPositionMs);
+    }
     exoPlayer.prepare();
-    exoPlayer.addListener(createExoPlayerEventListener(exoPlayer, surfaceProducer));
+    exoPlayerEventListener = createExoPlayerEventListener(exoPlayer, surfaceProducer);
+    // Ahead of the event listener, so Dart has the new lists when it hears of the change.
+    exoPlayer.addListener(tracksListener);
+    exoPlayer.addListener(exoPlayerEventListener);
     exoPlayer.addListener(subtitleListener);
+    exoPlayer.addListener(playlistListener);
     setAudioAttributes(exoPlayer, options.mixWithOthers);
+    mainHandler.postDelayed(metricsTicker, METRICS_SUMMARY_INTERVAL_MS);
   }
 
   public void setDisposeHandler(@Nullable DisposeHandler handler) {
     disposeHandler = handler;
   }
 
+  public void setMediaSourceResolver(@Nullable MediaSourceResolver resolver) {
+    mediaSourceResolver = resolver;
+  }
+
+  /**
+   * Sets the data source used to read files passed to {@link #addSubtitleSource}. Without one,
+   * sideloaded subtitles are merged into the media item, which prepares the player again.
+   */
+  public void setSubtitleDataSourceFactory(@Nullable DataSource.Factory factory) {
+    subtitleDataSourceFactory = factory;
+  }
+
+  void setThumbnailsFactory(@Nullable ThumbnailsFactory factory) {
+    thumbnailsFactory = factory;
+  }
+
+  /**
+   * Records the playback position of the current item under {@code key}, and of each item enqueued
+   * later under its own resume key, so that it can be resumed from there.
+   */
+  void setResumeTracking(@NonNull ResumePositionStore store, @NonNull String key) {
+    resumeStore = store;
+    resumeKey = key;
+    mainHandler.removeCallbacks(resumeTicker);
+    mainHandler.postDelayed(resumeTicker, RESUME_RECORD_INTERVAL_MS);
+  }
+
   @NonNull
   protected abstract ExoPlayerEventListener createExoPlayerEventListener(
       @NonNull ExoPlayer exoPlayer, @Nullable SurfaceProducer surfaceProducer);
@@ -127,11 +336,16 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
 
   @Override
   public void play() {
+    if (suspended) {
+      resumeAfterSuspension = true;
+      return;
+    }
     exoPlayer.play();
   }
 
   @Override
   public void pause() {
+    resumeAfterSuspension = false;
     exoPlayer.pause();
   }
 
@@ -168,6 +382,9 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
   @Override
   public void seekTo(long position) {
     exoPlayer.seekTo(position);
+    seekCount++;
+    // Push the new position on the next tick even if it happens to equal the last one.
+    lastProgressPositionMs = C.TIME_UNSET;
   }
 
   @NonNull
@@ -175,43 +392,9 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     return exoPlayer;
   }
 
-  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
-  @UnstableApi
   @Override
   public @NonNull NativeAudioTrackData getAudioTracks() {
-    List<ExoPlayerAudioTrackData> audioTracks = new ArrayList<>();
-
-    // Get the current tracks from ExoPlayer
-    Tracks tracks = exoPlayer.getCurrentTracks();
-
-    // Iterate through all track groups
-    for (int groupIndex = 0; groupIndex < tracks.getGroups().size(); groupIndex++) {
-      Tracks.Group group = tracks.getGroups().get(groupIndex);
-
-      // Only process audio tracks
-      if (group.getType() == C.TRACK_TYPE_AUDIO) {
-        for (int trackIndex = 0; trackIndex < group.length; trackIndex++) {
-          Format format = group.getTrackFormat(trackIndex);
-          boolean isSelected = group.isTrackSelected(trackIndex);
-
-          // Create audio track data with metadata
-          ExoPlayerAudioTrackData audioTrack =
-              new ExoPlayerAudioTrackData(
-                  (long) groupIndex,
-                  (long) trackIndex,
-                  format.label,
-                  format.language,
-                  isSelected,
-                  format.bitrate != Format.NO_VALUE ? (long) format.bitrate : null,
-                  format.sampleRate != Format.NO_VALUE ? (long) format.sampleRate : null,
-                  format.channelCount != Format.NO_VALUE ? (long) format.channelCount : null,
-                  format.codecs != null ? format.codecs : null);
-
-          audioTracks.add(audioTrack);
-        }
-      }
-    }
-    return new NativeAudioTrackData(audioTracks);
+    return trackSnapshot().audioTracks();
   }
 
   // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
@@ -222,38 +405,15 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
       throw new IllegalStateException("Cannot select audio track: track selector is null");
     }
 
-    // Get current tracks
-    Tracks tracks = exoPlayer.getCurrentTracks();
+    Tracks.Group group =
+        trackSnapshot()
+            .requireGroup(
+                groupIndex, trackIndex, C.TRACK_TYPE_AUDIO, "Cannot select audio track");
 
-    if (groupIndex < 0 || groupIndex >= tracks.getGroups().size()) {
-      throw new IllegalArgumentException(
-          "Cannot select audio track: groupIndex "
-              + groupIndex
-              + " is out of bounds (available groups: "
-              + tracks.getGroups().size()
-              + ")");
-    }
-
-    Tracks.Group group = tracks.getGroups().get((int) groupIndex);
-
-    // Verify it's an audio track
-    if (group.getType() != C.TRACK_TYPE_AUDIO) {
-      throw new IllegalArgumentException(
-          "Cannot select audio track: group at index "
-              + groupIndex
-              + " is not an audio track (type: "
-              + group.getType()
-              + ")");
-    }
-
-    // Verify the track index is valid
-    if (trackIndex < 0 || (int) trackIndex >= group.length) {
-      throw new IllegalArgumentException(
-          "Cannot select audio track: trackIndex "
-              + trackIndex
-              + " is out of bounds (available tracks in group: "
-              + group.length
-              + ")");
+    // Reselecting the playing track would change nothing; confirm it without a new selection.
+    if (group.isTrackSelected((int) trackIndex)) {
+      videoPlayerEvents.onAudioTrackChanged(groupIndex + "_" + trackIndex);
+      return;
     }
 
     // Get the track group and create a selection override
@@ -265,41 +425,31 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
         trackSelector.buildUponParameters().setOverrideForType(override).build());
   }
 
-  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
-  @UnstableApi
   @Override
   public @NonNull NativeSubtitleTrackData getSubtitleTracks() {
-    List<ExoPlayerSubtitleTrackData> subtitleTracks = new ArrayList<>();
-
-    // Get the current tracks from ExoPlayer
-    Tracks tracks = exoPlayer.getCurrentTracks();
-
-    // Iterate through all track groups
-    for (int groupIndex = 0; groupIndex < tracks.getGroups().size(); groupIndex++) {
-      Tracks.Group group = tracks.getGroups().get(groupIndex);
-
-      // Only process text/subtitle tracks
-      if (group.getType() == C.TRACK_TYPE_TEXT) {
-        for (int trackIndex = 0; trackIndex < group.length; trackIndex++) {
-          Format format = group.getTrackFormat(trackIndex);
-          boolean isSelected = group.isTrackSelected(trackIndex);
-
-          // Create subtitle track data with metadata
-          ExoPlayerSubtitleTrackData subtitleTrack =
-              new ExoPlayerSubtitleTrackData(
-                  (long) groupIndex,
-                  (long) trackIndex,
-                  format.label,
-                  format.language,
-                  isSelected,
-                  format.codecs != null ? format.codecs : null,
-                  format.sampleMimeType != null ? format.sampleMimeType : null);
-
-          subtitleTracks.add(subtitleTrack);
-        }
-      }
+    if (subtitleTrackData != null) {
+      return subtitleTrackData;
     }
-    return new NativeSubtitleTrackData(subtitleTracks);
+    final TrackSnapshot snapshot = trackSnapshot();
+    if (sideloadedTracks.isEmpty()) {
+      subtitleTrackData = new NativeSubtitleTrackData(snapshot.subtitleTracks());
+      return subtitleTrackData;
+    }
+    List<ExoPlayerSubtitleTrackData> subtitleTracks = new ArrayList<>(snapshot.subtitleTracks());
+    for (int i = 0; i < sideloadedTracks.size(); i++) {
+      final Format format = sideloadedTracks.get(i).format;
+      subtitleTracks.add(
+          new ExoPlayerSubtitleTrackData(
+              SIDELOADED_GROUP_INDEX,
+              (long) i,
+              format.label,
+              format.language,
+              i == activeSideloadedIndex,
+              null,
+              format.sampleMimeType));
+    }
+    subtitleTrackData = new NativeSubtitleTrackData(subtitleTracks);
+    return subtitleTrackData;
   }
 
   // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
@@ -310,45 +460,30 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
       throw new IllegalStateException("Cannot select subtitle track: track selector is null");
     }
 
-    // Get current tracks
-    Tracks tracks = exoPlayer.getCurrentTracks();
-
-    if (groupIndex < 0 || groupIndex >= tracks.getGroups().size()) {
-      throw new IllegalArgumentException(
-          "Cannot select subtitle track: groupIndex "
-              + groupIndex
-              + " is out of bounds (available groups: "
-              + tracks.getGroups().size()
-              + ")");
-    }
-
-    Tracks.Group group = tracks.getGroups().get((int) groupIndex);
-
-    // Verify it's a text track
-    if (group.getType() != C.TRACK_TYPE_TEXT) {
-      throw new IllegalArgumentException(
-          "Cannot select subtitle track: group at index "
-              + groupIndex
-              + " is not a subtitle track (type: "
-              + group.getType()
-              + ")");
+    if (groupIndex == SIDELOADED_GROUP_INDEX) {
+      if (trackIndex < 0 || trackIndex >= sideloadedTracks.size()) {
+        throw new IllegalArgumentException(
+            "Cannot select subtitle track: trackIndex "
+                + trackIndex
+                + " is out of bounds (sideloaded tracks: "
+                + sideloadedTracks.size()
+                + ")");
+      }
+      activateSideloaded((int) trackIndex);
+      return;
     }
 
-    // Verify the track index is valid
-    if (trackIndex < 0 || (int) trackIndex >= group.length) {
-      throw new IllegalArgumentException(
-          "Cannot select subtitle track: trackIndex "
-              + trackIndex
-              + " is out of bounds (available tracks in group: "
-              + group.length
-              + ")");
-    }
+    Tracks.Group group =
+        trackSnapshot()
+            .requireGroup(
+                groupIndex, trackIndex, C.TRACK_TYPE_TEXT, "Cannot select subtitle track");
 
     // Get the track group and create a selection override
     TrackGroup trackGroup = group.getMediaTrackGroup();
     TrackSelectionOverride override = new TrackSelectionOverride(trackGroup, (int) trackIndex);
 
     // Apply the track selection override and ensure subtitles are enabled.
+    deactivateSideloaded();
     trackSelector.setParameters(
         trackSelector
             .buildUponParameters()
@@ -357,6 +492,25 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
             .build());
   }
 
+  // The tracks as of the last change. Built on first use when no change has been seen yet.
+  @NonNull
+  private TrackSnapshot trackSnapshot() {
+    if (trackSnapshot == null) {
+      trackSnapshot = new TrackSnapshot(exoPlayer.getCurrentTracks());
+    }
+    return trackSnapshot;
+  }
+
+  // Rebuilds what getSubtitleTracks returns and sends the new lists to Dart.
+  private void onTrackListsChanged() {
+    subtitleTrackData = null;
+    trackSnapshotVersion++;
+    if (!disposed && videoPlayerEvents.hasListener()) {
+      videoPlayerEvents.onTracksSnapshot(
+          trackSnapshotVersion, getAudioTracks(), getSubtitleTracks());
+    }
+  }
+
   // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
   @UnstableApi
   @Override
@@ -364,6 +518,7 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     if (trackSelector == null) {
       throw new IllegalStateException("Cannot deselect subtitle track: track selector is null");
     }
+    deactivateSideloaded();
 
     // Clear any explicit overrides and disable text track selection.
     trackSelector.setParameters(
@@ -422,6 +577,80 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     subBuilder.setSelectionFlags(C.SELECTION_FLAG_DEFAULT);
     final MediaItem.SubtitleConfiguration sub = subBuilder.build();
 
+    final Format format =
+        new Format.Builder()
+            .setSampleMimeType(sub.mimeType)
+            .setLanguage(sub.language)
+            .setLabel(sub.label)
+            .setSelectionFlags(C.SELECTION_FLAG_DEFAULT)
+            .build();
+    if (subtitleDataSourceFactory != null && SideloadedSubtitle.isSupported(format)) {
+      sideloadSubtitle(subtitleDataSourceFactory, sub, format);
+      return;
+    }
+    mergeSubtitleSource(current, sub);
+  }
+
+  // Parses the file off the main thread and shows it without touching the player. If that fails,
+  // the subtitle is merged into the media item instead.
+  @UnstableApi
+  private void sideloadSubtitle(
+      @NonNull DataSource.Factory dataSourceFactory,
+      @NonNull MediaItem.SubtitleConfiguration sub,
+      @NonNull Format format) {
+    final SideloadedTrack track = new SideloadedTrack(format);
+    sideloadedTracks.add(track);
+    activateSideloaded(sideloadedTracks.size() - 1);
+    SideloadedSubtitle.LOADER.execute(
+        () -> {
+          SideloadedSubtitle subtitle = null;
+          try {
+            subtitle = SideloadedSubtitle.load(dataSourceFactory, sub.uri, format);
+          } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Unable to sideload subtitle, merging it into the media item", e);
+          }
+          final SideloadedSubtitle loaded = subtitle;
+          mainHandler.post(() -> onSideloadedSubtitleLoaded(track, loaded, sub));
+        });
+  }
+
+  @UnstableApi
+  private void onSideloadedSubtitleLoaded(
+      @NonNull SideloadedTrack track,
+      @Nullable SideloadedSubtitle subtitle,
+      @NonNull MediaItem.SubtitleConfiguration sub) {
+    final int index = sideloadedTracks.indexOf(track);
+    if (disposed || index < 0) {
+      // Disposed, or the media item it was added for has already been left.
+      return;
+    }
+    if (subtitle != null) {
+      track.subtitle = subtitle;
+      if (index == activeSideloadedIndex) {
+        restartSideloadedTicker();
+      }
+      return;
+    }
+    if (index == activeSideloadedIndex) {
+      deactivateSideloaded();
+    } else if (activeSideloadedIndex > index) {
+      activeSideloadedIndex--;
+    }
+    sideloadedTracks.remove(index);
+    onTrackListsChanged();
+    final MediaItem current = exoPlayer.getCurrentMediaItem();
+    if (current != null) {
+      mergeSubtitleSource(current, sub);
+    }
+  }
+
+  // Adds the subtitle to the media item's configurations. The player has to be prepared again,
+  // which drops the buffer.
+  @UnstableApi
+  private void mergeSubtitleSource(
+      @NonNull MediaItem current, @NonNull MediaItem.SubtitleConfiguration sub) {
+    // The merged track is selected by default, so it replaces any sideloaded one on screen.
+    deactivateSideloaded();
     final List<MediaItem.SubtitleConfiguration> subs = new ArrayList<>();
     if (current.localConfiguration != null && current.localConfiguration.subtitleConfigurations != null) {
       subs.addAll(current.localConfiguration.subtitleConfigurations);
@@ -432,7 +661,14 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     final boolean playWhenReady = exoPlayer.getPlayWhenReady();
 
     final MediaItem updated = current.buildUpon().setSubtitleConfigurations(subs).build();
-    exoPlayer.setMediaItem(updated, pos);
+    if (exoPlayer.getMediaItemCount() > 1) {
+      // Replace only the current item so that queued items survive.
+      final int index = exoPlayer.getCurrentMediaItemIndex();
+      exoPlayer.replaceMediaItem(index, updated);
+      exoPlayer.seekTo(index, pos);
+    } else {
+      exoPlayer.setMediaItem(updated, pos);
+    }
     exoPlayer.prepare();
     exoPlayer.setPlayWhenReady(playWhenReady);
 
@@ -442,39 +678,351 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     }
   }
 
+  @UnstableApi
+  private void activateSideloaded(int index) {
+    activeSideloadedIndex = index;
+    onTrackListsChanged();
+    // The player's own text track would be drawn over the sideloaded cues.
+    if (trackSelector != null) {
+      trackSelector.setParameters(
+          trackSelector
+              .buildUponParameters()
+              .clearOverridesOfType(C.TRACK_TYPE_TEXT)
+              .setTrackTypeDisabled(C.TRACK_TYPE_TEXT, true)
+              .build());
+    }
+    restartSideloadedTicker();
+  }
+
+  private void deactivateSideloaded() {
+    if (activeSideloadedIndex == C.INDEX_UNSET) {
+      return;
+    }
+    activeSideloadedIndex = C.INDEX_UNSET;
+    mainHandler.removeCallbacks(sideloadedTicker);
+    scheduleSubtitleUpdate(SubtitleFrame.EMPTY, 0);
+    onTrackListsChanged();
+  }
+
+  // Sideloaded subtitles belong to the media item they were added for.
+  private void clearSideloaded() {
+    deactivateSideloaded();
+    if (!sideloadedTracks.isEmpty()) {
+      sideloadedTracks.clear();
+      onTrackListsChanged();
+    }
+  }
+
+  private void restartSideloadedTicker() {
+    mainHandler.removeCallbacks(sideloadedTicker);
+    if (!disposed) {
+      mainHandler.post(sideloadedTicker);
+    }
+  }
+
+  // Shows the cues at the current position, then waits until they change or the position may have
+  // jumped, whichever is sooner.
+  @UnstableApi
+  private void onSideloadedTick() {
+    if (disposed || activeSideloadedIndex == C.INDEX_UNSET) {
+      return;
+    }
+    final SideloadedSubtitle subtitle = sideloadedTracks.get(activeSideloadedIndex).subtitle;
+    if (subtitle == null) {
+      return;
+    }
+    final long timeUs = (exoPlayer.getCurrentPosition() - subtitleDelayMs) * 1000;
+    scheduleSubtitleUpdate(SubtitleFrame.from(subtitle.cuesAt(timeUs)), 0);
+
+    long delayMs = SIDELOADED_MAX_TICK_MS;
+    final long nextChangeUs = subtitle.nextChangeUs(timeUs);
+    if (nextChangeUs != C.TIME_UNSET && exoPlayer.isPlaying()) {
+      final float speed = Math.max(0.1f, exoPlayer.getPlaybackParameters().speed);
+      delayMs = Math.min(delayMs, (long) ((nextChangeUs - timeUs) / 1000 / speed) + 1);
+    }
+    mainHandler.postDelayed(sideloadedTicker, delayMs);
+  }
+
+  @Override
+  public void setProgressUpdateInterval(long intervalMs) {
+    progressIntervalMs = Math.max(0, intervalMs);
+    mainHandler.removeCallbacks(progressTicker);
+    // Force the next tick to send, so a new listener gets a value straight away.
+    lastProgressPositionMs = C.TIME_UNSET;
+    if (progressIntervalMs > 0 && !disposed) {
+      mainHandler.post(progressTicker);
+    }
+  }
+
+  private void onProgressTick() {
+    if (disposed || progressIntervalMs <= 0) {
+      return;
+    }
+    if (videoPlayerEvents.hasListener()) {
+      final long position = exoPlayer.getCurrentPosition();
+      final long buffered = exoPlayer.getBufferedPosition();
+      final float speed = exoPlayer.getPlaybackParameters().speed;
+      if (position != lastProgressPositionMs
+          || buffered != lastProgressBufferedMs
+          || speed != lastProgressSpeed) {
+        lastProgressPositionMs = position;
+        lastProgressBufferedMs = buffered;
+        lastProgressSpeed = speed;
+        videoPlayerEvents.onPlaybackProgress(position, buffered, speed, seekCount);
+      }
+    }
+    mainHandler.postDelayed(progressTicker, progressIntervalMs);
+  }
+
+  @UnstableApi
+  @Override
+  public @NonNull PlaybackMetricsMessage getPlaybackMetrics() {
+    return metricsCollector.snapshot(SystemClock.elapsedRealtime());
+  }
+
+  @UnstableApi
+  private void onMetricsTick() {
+    if (disposed) {
+      return;
+    }
+    final int version = metricsCollector.version();
+    if (videoPlayerEvents.hasListener() && version != lastMetricsSummaryVersion) {
+      lastMetricsSummaryVersion = version;
+      videoPlayerEvents.onPlaybackMetrics(getPlaybackMetrics());
+    }
+    mainHandler.postDelayed(metricsTicker, METRICS_SUMMARY_INTERVAL_MS);
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  @Override
+  public void enqueueMediaItem(@NonNull CreationOptions options) {
+    if (mediaSourceResolver == null) {
+      throw new IllegalStateException("Cannot enqueue media item: no media source resolver");
+    }
+    exoPlayer.addMediaSource(mediaSourceResolver.resolve(options));
+    final String key = options.getResumeKey();
+    queuedResumeKeys.addLast(key != null ? key : "");
+    // Let the player prepare and buffer the next item while the current one is still playing.
+    exoPlayer.setPreloadConfiguration(
+        new ExoPlayer.PreloadConfiguration(QUEUE_PRELOAD_DURATION_US));
+  }
+
+  @Override
+  public void clearQueuedMediaItems() {
+    final int next = exoPlayer.getCurrentMediaItemIndex() + 1;
+    final int count = exoPlayer.getMediaItemCount();
+    if (next < count) {
+      exoPlayer.removeMediaItems(next, count);
+    }
+    queuedResumeKeys.clear();
+  }
+
+  // Drops the items that have already played, so the current item is always first.
+  private void onQueueAdvanced(boolean playedToEnd) {
+    clearSideloaded();
+    // The thumbnails were for the previous item; Dart sets the next item's source.
+    releaseThumbnails();
+    final int index = exoPlayer.getCurrentMediaItemIndex();
+    if (index > 0) {
+      exoPlayer.removeMediaItems(0, index);
+    }
+    if (resumeStore != null && resumeKey != null && playedToEnd) {
+      resumeStore.remove(resumeKey);
+    }
+    for (int i = 0; i < index && !queuedResumeKeys.isEmpty(); i++) {
+      final String key = queuedResumeKeys.pollFirst();
+      resumeKey = key.isEmpty() ? null : key;
+    }
+    final long duration = exoPlayer.getDuration();
+    videoPlayerEvents.onMediaItemTransition(
+        duration == C.TIME_UNSET ? 0 : duration, exoPlayer.getMediaItemCount() - 1);
+  }
+
+  private void onResumeTick() {
+    recordResumePosition();
+    mainHandler.postDelayed(resumeTicker, RESUME_RECORD_INTERVAL_MS);
+  }
+
+  private void recordResumePosition() {
+    if (resumeStore != null && resumeKey != null) {
+      resumeStore.update(resumeKey, exoPlayer.getCurrentPosition(), exoPlayer.getDuration());
+    }
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  @Override
+  public void setThumbnailSource(@Nullable ThumbnailSourceMessage source) {
+    releaseThumbnails();
+    if (source == null || thumbnailsFactory == null) {
+      return;
+    }
+    final MediaItem item = exoPlayer.getCurrentMediaItem();
+    thumbnails =
+        thumbnailsFactory.create(
+            source,
+            item != null && item.localConfiguration != null ? item.localConfiguration.uri : null);
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  @Override
+  public @Nullable byte[] getThumbnail(long positionMs) {
+    return thumbnails != null ? thumbnails.thumbnailAt(positionMs) : null;
+  }
+
+  @UnstableApi
+  private void releaseThumbnails() {
+    if (thumbnails != null) {
+      thumbnails.release();
+      thumbnails = null;
+    }
+  }
+
+  /**
+   * Forwards a memory governor decision to Dart and trims the thumbnail cache and the prefetched
+   * file tails. May be called from any thread.
+   *
+   * <p>The back buffer reported is the one this player was built with; ExoPlayer cannot drop it
+   * from a live player.
+   */
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  void onMemoryBudgetChanged(@NonNull LinPlayerMemoryGovernor.Budget budget) {
+    TrickplayThumbnails.onMemoryBudgetChanged(budget);
+    IndexPrefetchDataSource.onMemoryBudgetChanged(budget);
+    final boolean backBufferEnabled = loadGate != null && loadGate.keepsBackBuffer();
+    mainHandler.post(
+        () -> {
+          if (disposed) return;
+          videoPlayerEvents.onMemoryPressureChanged(
+              budget.level, budget.targetMaxBytes, backBufferEnabled);
+        });
+  }
+
+  /** Registers this player with the arbiter that grants it buffer, decoder and network shares. */
+  void setResourceClaim(@NonNull LinPlayerResourceArbiter.Claim claim) {
+    resourceClaim = claim;
+    if (loadGate != null) {
+      loadGate.setStarvationListener(claim::setStarving);
+    }
+  }
+
+  @Override
+  public void setBackground(boolean background) {
+    if (resourceClaim != null) {
+      resourceClaim.setBackground(background);
+    }
+  }
+
+  void onResourceGrantChanged(@NonNull LinPlayerResourceArbiter.Grant grant) {
+    if (loadGate != null) {
+      loadGate.apply(grant);
+    }
+    mainHandler.post(
+        () -> {
+          if (!disposed) setSuspended(grant.suspended);
+        });
+  }
+
+  // Releases the video decoder of a suspended player by disabling its video renderer. It is paused
+  // as well, since it may not load and would otherwise fail as stuck buffering.
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @OptIn(markerClass = UnstableApi.class)
+  private void setSuspended(boolean suspend) {
+    if (suspend == suspended) return;
+    suspended = suspend;
+    if (trackSelector != null) {
+      trackSelector.setParameters(
+          trackSelector.buildUponParameters().setTrackTypeDisabled(C.TRACK_TYPE_VIDEO, suspend));
+    }
+    if (suspend) {
+      resumeAfterSuspension = exoPlayer.getPlayWhenReady();
+      exoPlayer.pause();
+    } else if (resumeAfterSuspension) {
+      resumeAfterSuspension = false;
+      exoPlayer.play();
+    }
+  }
+
   public void setPlatformSubtitleView(@Nullable TextView view) {
     platformSubtitleView = view;
     if (view == null) return;
     mainHandler.post(
         () -> {
           applySubtitleStyle(view);
-          updateSubtitleText(subtitleText);
+          renderSubtitleText(view, renderedSubtitleFrame, /* force= */ true);
         });
   }
 
-  private void scheduleSubtitleUpdate(@NonNull String text) {
+  /** Sets the view that draws image-based subtitles in platform view mode. */
+  public void setPlatformSubtitleBitmapView(@Nullable BitmapCueView view) {
+    platformSubtitleBitmapView = view;
+    if (view == null) return;
+    mainHandler.post(() -> view.setCues(renderedSubtitleFrame.bitmapCues));
+  }
+
+  private void scheduleSubtitleUpdate(@NonNull SubtitleFrame frame, long delayMs) {
     if (disposed) return;
-    final long delay = Math.max(0, subtitleDelayMs);
-    final Runnable task = () -> updateSubtitleText(text);
-    final Runnable prev = pendingSubtitleUpdate;
-    pendingSubtitleUpdate = task;
-    if (prev != null) {
-      mainHandler.removeCallbacks(prev);
-    }
-    if (delay <= 0) {
-      mainHandler.post(task);
+    // Renderers re-emit identical cue groups on every sample; skip those before touching views.
+    if (frame.sameAs(pendingSubtitleFrame)) return;
+    pendingSubtitleFrame = frame;
+    mainHandler.removeCallbacks(subtitleUpdateTask);
+    if (delayMs <= 0) {
+      mainHandler.post(subtitleUpdateTask);
     } else {
-      mainHandler.postDelayed(task, delay);
+      mainHandler.postDelayed(subtitleUpdateTask, delayMs);
     }
   }
 
-  private void updateSubtitleText(@NonNull String text) {
+  private void applyPendingSubtitleFrame() {
     if (disposed) return;
-    subtitleText = text;
-    final TextView view = platformSubtitleView;
-    if (view == null) return;
-    view.setText(text);
-    view.setVisibility(text.isEmpty() ? View.GONE : View.VISIBLE);
+    final SubtitleFrame frame = pendingSubtitleFrame;
+    if (frame == renderedSubtitleFrame) return;
+    final SubtitleFrame previous = renderedSubtitleFrame;
+    renderedSubtitleFrame = frame;
+    subtitleText = frame.plainText();
+    final TextView textView = platformSubtitleView;
+    if (textView != null && !frame.sameAs(previous)) {
+      renderSubtitleText(textView, frame, /* force= */ false);
+    }
+    final BitmapCueView bitmapView = platformSubtitleBitmapView;
+    if (bitmapView != null) {
+      bitmapView.setCues(frame.bitmapCues);
+    }
+  }
+
+  // Keeps the parser's spans and the cue's alignment and vertical placement.
+  private static void renderSubtitleText(
+      @NonNull TextView view, @NonNull SubtitleFrame frame, boolean force) {
+    view.setText(frame.text);
+    view.setVisibility(frame.text.length() == 0 ? View.GONE : View.VISIBLE);
+
+    final int horizontal = horizontalGravity(frame);
+    final int vertical = frame.top ? Gravity.TOP : Gravity.BOTTOM;
+    if (force || view.getGravity() != (horizontal | Gravity.CENTER_VERTICAL)) {
+      view.setGravity(horizontal | Gravity.CENTER_VERTICAL);
+    }
+    final ViewGroup.LayoutParams params = view.getLayoutParams();
+    if (params instanceof FrameLayout.LayoutParams) {
+      final FrameLayout.LayoutParams frameParams = (FrameLayout.LayoutParams) params;
+      final int gravity = vertical | Gravity.CENTER_HORIZONTAL;
+      if (force || frameParams.gravity != gravity) {
+        frameParams.gravity = gravity;
+        view.setLayoutParams(frameParams);
+      }
+    }
+  }
+
+  private static int horizontalGravity(@NonNull SubtitleFrame frame) {
+    if (frame.alignment == Layout.Alignment.ALIGN_NORMAL) {
+      return Gravity.START;
+    }
+    if (frame.alignment == Layout.Alignment.ALIGN_OPPOSITE) {
+      return Gravity.END;
+    }
+    return Gravity.CENTER_HORIZONTAL;
   }
 
   private void applySubtitleStyle(@NonNull TextView view) {
@@ -510,33 +1058,27 @@ public abstract class VideoPlayer implements VideoPlayerInstanceApi {
     return null;
   }
 
-  @NonNull
-  private static String cueGroupToText(@NonNull CueGroup cueGroup) {
-    final StringBuilder sb = new StringBuilder();
-    for (final Cue cue : cueGroup.cues) {
-      if (cue.text == null) {
-        continue;
-      }
-      final String line = cue.text.toString().trim();
-      if (line.isEmpty()) {
-        continue;
-      }
-      if (sb.length() > 0) {
-        sb.append('\n');
-      }
-      sb.append(line);
-    }
-    return sb.toString();
-  }
-
   public void dispose() {
     disposed = true;
     mainHandler.removeCallbacksAndMessages(null);
+    if (resumeStore != null) {
+      recordResumePosition();
+      resumeStore.flush();
+    }
+    releaseThumbnails();
+    if (loadGate != null) {
+      loadGate.setStarvationListener(null);
+    }
+    exoPlayer.removeListener(tracksListener);
+    exoPlayer.removeListener(exoPlayerEventListener);
+    exoPlayer.removeAnalyticsListener(metricsCollector);
     exoPlayer.removeListener(subtitleListener);
+    exoPlayer.removeListener(playlistListener);
     platformSubtitleView = null;
+    platformSubtitleBitmapView = null;
     if (disposeHandler != null) {
       disposeHandler.onDispose();
     }
-    exoPlayer.release();
+    exoPlayerProvider.recycle(exoPlayer);
   }
 }
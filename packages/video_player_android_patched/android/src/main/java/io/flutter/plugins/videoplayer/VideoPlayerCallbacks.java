@@ -26,4 +26,21 @@ public interface VideoPlayerCallbacks {
   void onIsPlayingStateUpdate(boolean isPlaying);
 
   void onAudioTrackChanged(@Nullable String selectedTrackId);
+
+  void onMemoryPressureChanged(int level, long targetBufferBytes, boolean backBufferEnabled);
+
+  void onMediaItemTransition(long durationMs, int queuedItemCount);
+
+  void onPlaybackProgress(
+      long positionMs, long bufferedPositionMs, double playbackSpeed, long seekCount);
+
+  void onPlaybackMetrics(@NonNull PlaybackMetricsMessage metrics);
+
+  void onTracksSnapshot(
+      long version,
+      @NonNull NativeAudioTrackData audioTracks,
+      @NonNull NativeSubtitleTrackData subtitleTracks);
+
+  /** Whether anything is listening for events, so periodic updates can be skipped otherwise. */
+  boolean hasListener();
 }
@@ -14,7 +14,7 @@ final class VideoPlayerEventCallbacks implements VideoPlayerCallbacks {
 
   static VideoPlayerEventCallbacks bindTo(
       @NonNull BinaryMessenger binaryMessenger, @NonNull String identifier) {
-    QueuingEventSink eventSink = new QueuingEventSink();
+    QueuingEventSink eventSink = QueuingEventSink.batching();
     VideoEventsStreamHandler.Companion.register(
         binaryMessenger,
         new VideoEventsStreamHandler() {
@@ -68,4 +68,40 @@ final class VideoPlayerEventCallbacks implements VideoPlayerCallbacks {
   public void onAudioTrackChanged(@Nullable String selectedTrackId) {
     eventSink.success(new AudioTrackChangedEvent(selectedTrackId));
   }
+
+  @Override
+  public void onMemoryPressureChanged(
+      int level, long targetBufferBytes, boolean backBufferEnabled) {
+    eventSink.success(new MemoryPressureEvent(level, targetBufferBytes, backBufferEnabled));
+  }
+
+  @Override
+  public void onMediaItemTransition(long durationMs, int queuedItemCount) {
+    eventSink.success(new MediaItemTransitionEvent(durationMs, queuedItemCount));
+  }
+
+  @Override
+  public void onPlaybackProgress(
+      long positionMs, long bufferedPositionMs, double playbackSpeed, long seekCount) {
+    eventSink.success(
+        new PlaybackProgressEvent(positionMs, bufferedPositionMs, playbackSpeed, seekCount));
+  }
+
+  @Override
+  public void onPlaybackMetrics(@NonNull PlaybackMetricsMessage metrics) {
+    eventSink.success(new PlaybackMetricsEvent(metrics));
+  }
+
+  @Override
+  public void onTracksSnapshot(
+      long version,
+      @NonNull NativeAudioTrackData audioTracks,
+      @NonNull NativeSubtitleTrackData subtitleTracks) {
+    eventSink.success(new TracksSnapshotEvent(version, audioTracks, subtitleTracks));
+  }
+
+  @Override
+  public boolean hasListener() {
+    return eventSink.hasDelegate();
+  }
 }
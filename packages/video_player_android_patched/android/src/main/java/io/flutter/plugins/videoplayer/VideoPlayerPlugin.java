@@ -5,11 +5,14 @@
 package io.flutter.plugins.videoplayer;
 
 import android.content.Context;
+import android.os.Looper;
 import android.util.LongSparseArray;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.OptIn;
+import androidx.media3.common.C;
 import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
 import io.flutter.FlutterInjector;
 import io.flutter.Log;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
@@ -73,11 +76,20 @@ public class VideoPlayerPlugin implements FlutterPlugin, AndroidVideoPlayerApi {
     // be replaced with just asserting that videoPlayers.isEmpty().
     // https://github.com/flutter/flutter/issues/20989 tracks this.
     disposeAllPlayers();
+    ExoPlayerPool.releaseIdleShared();
   }
 
   @Override
   public void initialize() {
     disposeAllPlayers();
+    // Build a player while the main thread is idle so the first video starts faster.
+    final ExoPlayerPool pool = ExoPlayerPool.get(flutterState.applicationContext);
+    Looper.myQueue()
+        .addIdleHandler(
+            () -> {
+              pool.prewarm();
+              return false;
+            });
   }
 
   @OptIn(markerClass = UnstableApi.class)
@@ -92,9 +104,11 @@ public class VideoPlayerPlugin implements FlutterPlugin, AndroidVideoPlayerApi {
             flutterState.applicationContext,
             VideoPlayerEventCallbacks.bindTo(flutterState.binaryMessenger, streamInstance),
             videoAsset,
-            sharedOptions);
+            sharedOptions,
+            RendererPolicy.fromMessage(options.getRendererPolicy()),
+            startPositionFor(options, flutterState.applicationContext));
 
-    registerPlayerInstance(videoPlayer, id);
+    registerPlayerInstance(videoPlayer, id, options);
     return id;
   }
 
@@ -105,16 +119,22 @@ public class VideoPlayerPlugin implements FlutterPlugin, AndroidVideoPlayerApi {
 
     long id = nextPlayerIdentifier++;
     final String streamInstance = Long.toString(id);
-    TextureRegistry.SurfaceProducer handle = flutterState.textureRegistry.createSurfaceProducer();
+    // Keep the same surface while the app is in the background instead of having the engine
+    // destroy and recreate it, which would detach the decoder and show a black frame on return.
+    TextureRegistry.SurfaceProducer handle =
+        flutterState.textureRegistry.createSurfaceProducer(
+            TextureRegistry.SurfaceLifecycle.manual);
     VideoPlayer videoPlayer =
         TextureVideoPlayer.create(
             flutterState.applicationContext,
             VideoPlayerEventCallbacks.bindTo(flutterState.binaryMessenger, streamInstance),
             handle,
             videoAsset,
-            sharedOptions);
+            sharedOptions,
+            RendererPolicy.fromMessage(options.getRendererPolicy()),
+            startPositionFor(options, flutterState.applicationContext));
 
-    registerPlayerInstance(videoPlayer, id);
+    registerPlayerInstance(videoPlayer, id, options);
     return new TexturePlayerIds(id, handle.id());
   }
 
@@ -145,18 +165,65 @@ public class VideoPlayerPlugin implements FlutterPlugin, AndroidVideoPlayerApi {
     }
   }
 
-  private void registerPlayerInstance(VideoPlayer player, long id) {
+  @OptIn(markerClass = UnstableApi.class)
+  private void registerPlayerInstance(
+      VideoPlayer player, long id, @NonNull CreationOptions creationOptions) {
     // Set up the instance-specific API handler, and make sure it is removed when the player is
     // disposed.
     BinaryMessenger messenger = flutterState.binaryMessenger;
     final String channelSuffix = Long.toString(id);
     VideoPlayerInstanceApi.Companion.setUp(messenger, player, channelSuffix);
+    final Context context = flutterState.applicationContext;
+    player.setMediaSourceResolver(
+        options -> {
+          final VideoAsset asset = videoAssetWithOptions(options);
+          return asset.getMediaSourceFactory(context).createMediaSource(asset.getMediaItem());
+        });
+    // Subtitles and thumbnails usually sit behind the same authentication as the media itself.
+    final DataSource.Factory sideFileFactory =
+        LinPlayerHttp.defaultDataSourceFactory(
+            context, creationOptions.getHttpHeaders(), creationOptions.getUserAgent());
+    player.setSubtitleDataSourceFactory(sideFileFactory);
+    player.setThumbnailsFactory(
+        (source, mediaUri) -> new TrickplayThumbnails(context, source, sideFileFactory, mediaUri));
+    final LinPlayerMemoryGovernor governor =
+        LinPlayerMemoryGovernor.get(flutterState.applicationContext);
+    final LinPlayerMemoryGovernor.Listener memoryListener = player::onMemoryBudgetChanged;
+    governor.addListener(memoryListener);
+    final LinPlayerResourceArbiter.Claim resourceClaim =
+        LinPlayerResourceArbiter.get(context).register(player::onResourceGrantChanged);
+    player.setResourceClaim(resourceClaim);
+    final String resumeKey = creationOptions.getResumeKey();
+    if (resumeKey != null && ResumePositionStore.isEnabled(context)) {
+      player.setResumeTracking(ResumePositionStore.get(context), resumeKey);
+    }
     player.setDisposeHandler(
-        () -> VideoPlayerInstanceApi.Companion.setUp(messenger, null, channelSuffix));
+        () -> {
+          VideoPlayerInstanceApi.Companion.setUp(messenger, null, channelSuffix);
+          governor.removeListener(memoryListener);
+          resourceClaim.release();
+        });
 
     videoPlayers.put(id, player);
   }
 
+  // Where the player is prepared: the requested position, or the remembered one if Dart asked
+  // for it. C.TIME_UNSET starts from the beginning.
+  private static long startPositionFor(
+      @NonNull CreationOptions options, @NonNull Context context) {
+    final Long startPositionMs = options.getStartPositionMs();
+    if (startPositionMs != null) {
+      return startPositionMs > 0 ? startPositionMs : C.TIME_UNSET;
+    }
+    final String resumeKey = options.getResumeKey();
+    if (resumeKey == null
+        || !Boolean.TRUE.equals(options.getResumeFromStore())
+        || !ResumePositionStore.isEnabled(context)) {
+      return C.TIME_UNSET;
+    }
+    return ResumePositionStore.get(context).positionFor(resumeKey);
+  }
+
   @NonNull
   private VideoPlayer getPlayer(long playerId) {
     VideoPlayer player = videoPlayers.get(playerId);
@@ -17,6 +17,7 @@ import androidx.annotation.OptIn;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
 import io.flutter.plugin.platform.PlatformView;
+import io.flutter.plugins.videoplayer.BitmapCueView;
 import io.flutter.plugins.videoplayer.VideoPlayer;
 
 /**
@@ -28,6 +29,7 @@ public final class PlatformVideoView implements PlatformView {
   @NonNull private final ExoPlayer exoPlayer;
   @NonNull private final FrameLayout containerView;
   @NonNull private final SurfaceView surfaceView;
+  @NonNull private final BitmapCueView subtitleBitmapView;
   @NonNull private final TextView subtitleView;
 
   /**
@@ -47,6 +49,14 @@ public final class PlatformVideoView implements PlatformView {
         new FrameLayout.LayoutParams(
             FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
 
+    subtitleBitmapView = new BitmapCueView(context);
+    subtitleBitmapView.setVisibility(View.GONE);
+    containerView.addView(
+        subtitleBitmapView,
+        new FrameLayout.LayoutParams(
+            FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+    videoPlayer.setPlatformSubtitleBitmapView(subtitleBitmapView);
+
     subtitleView = new TextView(context);
     subtitleView.setTextColor(Color.WHITE);
     subtitleView.setShadowLayer(6f, 2f, 2f, Color.BLACK);
@@ -120,6 +130,7 @@ public final class PlatformVideoView implements PlatformView {
   @Override
   public void dispose() {
     videoPlayer.setPlatformSubtitleView(null);
+    videoPlayer.setPlatformSubtitleBitmapView(null);
     surfaceView.getHolder().getSurface().release();
   }
 }
@@ -8,11 +8,13 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
 import io.flutter.plugins.videoplayer.ExoPlayerEventListener;
-import io.flutter.plugins.videoplayer.LinPlayerBuffering;
+import io.flutter.plugins.videoplayer.ExoPlayerPool;
+import io.flutter.plugins.videoplayer.RendererPolicy;
 import io.flutter.plugins.videoplayer.VideoAsset;
 import io.flutter.plugins.videoplayer.VideoPlayer;
 import io.flutter.plugins.videoplayer.VideoPlayerCallbacks;
@@ -32,7 +34,24 @@ public class PlatformViewVideoPlayer extends VideoPlayer {
       @NonNull MediaItem mediaItem,
       @NonNull VideoPlayerOptions options,
       @NonNull ExoPlayerProvider exoPlayerProvider) {
-    super(events, mediaItem, options, /* surfaceProducer */ null, exoPlayerProvider);
+    this(events, mediaItem, options, exoPlayerProvider, C.TIME_UNSET);
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  private PlatformViewVideoPlayer(
+      @NonNull VideoPlayerCallbacks events,
+      @NonNull MediaItem mediaItem,
+      @NonNull VideoPlayerOptions options,
+      @NonNull ExoPlayerProvider exoPlayerProvider,
+      long startPositionMs) {
+    super(
+        events,
+        mediaItem,
+        options,
+        /* surfaceProducer */ null,
+        exoPlayerProvider,
+        startPositionMs);
   }
 
   /**
@@ -52,20 +71,29 @@ public class PlatformViewVideoPlayer extends VideoPlayer {
       @NonNull VideoPlayerCallbacks events,
       @NonNull VideoAsset asset,
       @NonNull VideoPlayerOptions options) {
+    return create(context, events, asset, options, RendererPolicy.DEFAULT, C.TIME_UNSET);
+  }
+
+  /**
+   * Creates a platform view video player whose decoders follow {@code rendererPolicy}, prepared at
+   * {@code startPositionMs} unless it is {@link C#TIME_UNSET}.
+   */
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  @NonNull
+  public static PlatformViewVideoPlayer create(
+      @NonNull Context context,
+      @NonNull VideoPlayerCallbacks events,
+      @NonNull VideoAsset asset,
+      @NonNull VideoPlayerOptions options,
+      @NonNull RendererPolicy rendererPolicy,
+      long startPositionMs) {
     return new PlatformViewVideoPlayer(
         events,
         asset.getMediaItem(),
         options,
-        () -> {
-          androidx.media3.exoplayer.trackselection.DefaultTrackSelector trackSelector =
-              new androidx.media3.exoplayer.trackselection.DefaultTrackSelector(context);
-          ExoPlayer.Builder builder =
-              new ExoPlayer.Builder(context)
-                  .setTrackSelector(trackSelector)
-                  .setMediaSourceFactory(asset.getMediaSourceFactory(context))
-                  .setLoadControl(LinPlayerBuffering.createLoadControl(context));
-          return builder.build();
-        });
+        ExoPlayerPool.get(context).providerFor(asset, rendererPolicy),
+        startPositionMs);
   }
 
   @NonNull
@@ -10,11 +10,13 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
 import io.flutter.plugins.videoplayer.ExoPlayerEventListener;
-import io.flutter.plugins.videoplayer.LinPlayerBuffering;
+import io.flutter.plugins.videoplayer.ExoPlayerPool;
+import io.flutter.plugins.videoplayer.RendererPolicy;
 import io.flutter.plugins.videoplayer.VideoAsset;
 import io.flutter.plugins.videoplayer.VideoPlayer;
 import io.flutter.plugins.videoplayer.VideoPlayerCallbacks;
@@ -29,8 +31,10 @@ import io.flutter.view.TextureRegistry.SurfaceProducer;
  * the texture.
  */
 public final class TextureVideoPlayer extends VideoPlayer implements SurfaceProducer.Callback {
-  // True when the ExoPlayer instance has a null surface.
-  private boolean needsSurface = true;
+  // The producer surface the decoder renders to, or null while it has none.
+  @Nullable private Surface attachedSurface;
+  // True once disposed; the ExoPlayer may already be serving another video player from the pool.
+  private boolean released = false;
   /**
    * Creates a texture video player.
    *
@@ -50,21 +54,35 @@ public final class TextureVideoPlayer extends VideoPlayer implements SurfaceProd
       @NonNull SurfaceProducer surfaceProducer,
       @NonNull VideoAsset asset,
       @NonNull VideoPlayerOptions options) {
+    return create(
+        context, events, surfaceProducer, asset, options, RendererPolicy.DEFAULT, C.TIME_UNSET);
+  }
+
+  /**
+   * Creates a texture video player whose decoders follow {@code rendererPolicy}, prepared at
+   * {@code startPositionMs} unless it is {@link C#TIME_UNSET}.
+   *
+   * <p>Tunneling is never used: a tunneled decoder renders to a display layer, not to the
+   * texture.
+   */
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  @NonNull
+  public static TextureVideoPlayer create(
+      @NonNull Context context,
+      @NonNull VideoPlayerCallbacks events,
+      @NonNull SurfaceProducer surfaceProducer,
+      @NonNull VideoAsset asset,
+      @NonNull VideoPlayerOptions options,
+      @NonNull RendererPolicy rendererPolicy,
+      long startPositionMs) {
     return new TextureVideoPlayer(
         events,
         surfaceProducer,
         asset.getMediaItem(),
         options,
-        () -> {
-          androidx.media3.exoplayer.trackselection.DefaultTrackSelector trackSelector =
-              new androidx.media3.exoplayer.trackselection.DefaultTrackSelector(context);
-          ExoPlayer.Builder builder =
-              new ExoPlayer.Builder(context)
-                  .setTrackSelector(trackSelector)
-                  .setMediaSourceFactory(asset.getMediaSourceFactory(context))
-                  .setLoadControl(LinPlayerBuffering.createLoadControl(context));
-          return builder.build();
-        });
+        ExoPlayerPool.get(context).providerFor(asset, rendererPolicy.withoutTunneling()),
+        startPositionMs);
   }
 
   // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
@@ -76,13 +94,23 @@ public final class TextureVideoPlayer extends VideoPlayer implements SurfaceProd
       @NonNull MediaItem mediaItem,
       @NonNull VideoPlayerOptions options,
       @NonNull ExoPlayerProvider exoPlayerProvider) {
-    super(events, mediaItem, options, surfaceProducer, exoPlayerProvider);
+    this(events, surfaceProducer, mediaItem, options, exoPlayerProvider, C.TIME_UNSET);
+  }
+
+  // TODO: Migrate to stable API, see https://github.com/flutter/flutter/issues/147039.
+  @UnstableApi
+  private TextureVideoPlayer(
+      @NonNull VideoPlayerCallbacks events,
+      @NonNull SurfaceProducer surfaceProducer,
+      @NonNull MediaItem mediaItem,
+      @NonNull VideoPlayerOptions options,
+      @NonNull ExoPlayerProvider exoPlayerProvider,
+      long startPositionMs) {
+    super(events, mediaItem, options, surfaceProducer, exoPlayerProvider, startPositionMs);
 
     surfaceProducer.setCallback(this);
 
-    Surface surface = surfaceProducer.getSurface();
-    this.exoPlayer.setVideoSurface(surface);
-    needsSurface = surface == null;
+    attachSurface(surfaceProducer.getSurface());
   }
 
   @NonNull
@@ -100,21 +128,30 @@ public final class TextureVideoPlayer extends VideoPlayer implements SurfaceProd
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
   public void onSurfaceAvailable() {
-    if (needsSurface) {
-      // TextureVideoPlayer must always set a surfaceProducer.
-      assert surfaceProducer != null;
-      exoPlayer.setVideoSurface(surfaceProducer.getSurface());
-      needsSurface = false;
-    }
+    if (released) return;
+    // TextureVideoPlayer must always set a surfaceProducer.
+    assert surfaceProducer != null;
+    attachSurface(surfaceProducer.getSurface());
   }
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
   public void onSurfaceCleanup() {
+    if (released) return;
+    // The surface is about to become invalid; the decoder must not keep rendering into it.
     exoPlayer.setVideoSurface(null);
-    needsSurface = true;
+    attachedSurface = null;
+  }
+
+  // Every output change reaches the renderer, which may reconfigure or even recreate its decoder,
+  // so the surface is only handed over when it actually changes.
+  private void attachSurface(@Nullable Surface surface) {
+    if (surface == null || surface == attachedSurface) return;
+    exoPlayer.setVideoSurface(surface);
+    attachedSurface = surface;
   }
 
   public void dispose() {
+    released = true;
     // Super must be called first to ensure the player is released before the surface.
     super.dispose();
 
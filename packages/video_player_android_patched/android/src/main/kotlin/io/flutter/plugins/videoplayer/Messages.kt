@@ -426,7 +426,25 @@ data class CreationOptions (
   val uri: String,
   val formatHint: PlatformVideoFormat? = null,
   val httpHeaders: Map<String, String>,
-  val userAgent: String? = null
+  val userAgent: String? = null,
+  /**
+   * Identifies the media for resuming; the player records its position under
+   * this key.
+   */
+  val resumeKey: String? = null,
+  /**
+   * Where to start playback, in milliseconds. The player is prepared there
+   * directly instead of buffering from the start and seeking afterwards.
+   */
+  val startPositionMs: Long? = null,
+  /** Decoder and renderer settings; defaults are used when absent. */
+  val rendererPolicy: RendererPolicyMessage? = null,
+  /**
+   * Starts from the position recorded under [resumeKey] when
+   * [startPositionMs] is absent. Only when true: a missing start otherwise
+   * plays from the beginning.
+   */
+  val resumeFromStore: Boolean? = null
 )
  {
   companion object {
@@ -435,7 +453,11 @@ data class CreationOptions (
       val formatHint = pigeonVar_list[1] as PlatformVideoFormat?
       val httpHeaders = pigeonVar_list[2] as Map<String, String>
       val userAgent = pigeonVar_list[3] as String?
-      return CreationOptions(uri, formatHint, httpHeaders, userAgent)
+      val resumeKey = pigeonVar_list[4] as String?
+      val startPositionMs = pigeonVar_list[5] as Long?
+      val rendererPolicy = pigeonVar_list[6] as RendererPolicyMessage?
+      val resumeFromStore = pigeonVar_list[7] as Boolean?
+      return CreationOptions(uri, formatHint, httpHeaders, userAgent, resumeKey, startPositionMs, rendererPolicy, resumeFromStore)
     }
   }
   fun toList(): List<Any?> {
@@ -444,6 +466,10 @@ data class CreationOptions (
       formatHint,
       httpHeaders,
       userAgent,
+      resumeKey,
+      startPositionMs,
+      rendererPolicy,
+      resumeFromStore,
     )
   }
   override fun equals(other: Any?): Boolean {
@@ -663,6 +689,401 @@ data class NativeAudioTrackData (
 
   override fun hashCode(): Int = toList().hashCode()
 }
+
+/**
+ * Sent when the native memory governor changes the buffer budget.
+ *
+ * [level] is 0 (normal), 1 (moderate) or 2 (critical).
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class MemoryPressureEvent (
+  val level: Long,
+  /** The largest number of bytes a player may buffer at this level. */
+  val targetBufferBytes: Long,
+  /**
+   * Whether this player keeps a back buffer.
+   *
+   * This is decided when the player is built, so a live player keeps its back buffer under
+   * pressure; players built while the level is not 0 do not get one.
+   */
+  val backBufferEnabled: Boolean
+) : PlatformVideoEvent()
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): MemoryPressureEvent {
+      val level = pigeonVar_list[0] as Long
+      val targetBufferBytes = pigeonVar_list[1] as Long
+      val backBufferEnabled = pigeonVar_list[2] as Boolean
+      return MemoryPressureEvent(level, targetBufferBytes, backBufferEnabled)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      level,
+      targetBufferBytes,
+      backBufferEnabled,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is MemoryPressureEvent) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * Sent when playback moves on to a queued media item.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class MediaItemTransitionEvent (
+  /** The duration of the new item in milliseconds, or 0 if not yet known. */
+  val duration: Long,
+  /** The number of items still queued after the new item. */
+  val queuedItemCount: Long
+) : PlatformVideoEvent()
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): MediaItemTransitionEvent {
+      val duration = pigeonVar_list[0] as Long
+      val queuedItemCount = pigeonVar_list[1] as Long
+      return MediaItemTransitionEvent(duration, queuedItemCount)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      duration,
+      queuedItemCount,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is MediaItemTransitionEvent) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * Periodic playback progress, sent while a listener is attached and something changed.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class PlaybackProgressEvent (
+  /** The playback position in milliseconds. */
+  val position: Long,
+  /** The buffered position in milliseconds. */
+  val bufferedPosition: Long,
+  /** The current playback speed. */
+  val playbackSpeed: Double,
+  /**
+   * How many seeks the player had handled when this was sampled.
+   *
+   * Pushes sampled before the latest seek carry a lower count.
+   */
+  val seekCount: Long
+) : PlatformVideoEvent()
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): PlaybackProgressEvent {
+      val position = pigeonVar_list[0] as Long
+      val bufferedPosition = pigeonVar_list[1] as Long
+      val playbackSpeed = pigeonVar_list[2] as Double
+      val seekCount = pigeonVar_list[3] as Long
+      return PlaybackProgressEvent(position, bufferedPosition, playbackSpeed, seekCount)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      position,
+      bufferedPosition,
+      playbackSpeed,
+      seekCount,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is PlaybackProgressEvent) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * Playback quality metrics collected since the player was created.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class PlaybackMetricsMessage (
+  /** Milliseconds from creation to the first rendered video frame, if rendered yet. */
+  val timeToFirstFrame: Long? = null,
+  /** Milliseconds from the first play request until playback started, if it has. */
+  val joinLatency: Long? = null,
+  /** The number of stalls during playback, excluding seeks and startup. */
+  val rebufferCount: Long,
+  /** The total time spent stalled, in milliseconds. */
+  val rebufferDuration: Long,
+  /** The number of video frames dropped by the renderer. */
+  val droppedFrames: Long,
+  /** The number of video format switches after the first video format. */
+  val bitrateSwitchCount: Long,
+  /** The bitrate of the current video format in bits per second, if known. */
+  val videoBitrate: Long? = null,
+  /** The latest network bandwidth estimate in bits per second, if any. */
+  val bandwidthEstimate: Long? = null,
+  /** The name of the video decoder in use, if any. */
+  val videoDecoderName: String? = null,
+  /** The name of the audio decoder in use, if any. */
+  val audioDecoderName: String? = null
+)
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): PlaybackMetricsMessage {
+      val timeToFirstFrame = pigeonVar_list[0] as Long?
+      val joinLatency = pigeonVar_list[1] as Long?
+      val rebufferCount = pigeonVar_list[2] as Long
+      val rebufferDuration = pigeonVar_list[3] as Long
+      val droppedFrames = pigeonVar_list[4] as Long
+      val bitrateSwitchCount = pigeonVar_list[5] as Long
+      val videoBitrate = pigeonVar_list[6] as Long?
+      val bandwidthEstimate = pigeonVar_list[7] as Long?
+      val videoDecoderName = pigeonVar_list[8] as String?
+      val audioDecoderName = pigeonVar_list[9] as String?
+      return PlaybackMetricsMessage(timeToFirstFrame, joinLatency, rebufferCount, rebufferDuration, droppedFrames, bitrateSwitchCount, videoBitrate, bandwidthEstimate, videoDecoderName, audioDecoderName)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      timeToFirstFrame,
+      joinLatency,
+      rebufferCount,
+      rebufferDuration,
+      droppedFrames,
+      bitrateSwitchCount,
+      videoBitrate,
+      bandwidthEstimate,
+      videoDecoderName,
+      audioDecoderName,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is PlaybackMetricsMessage) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * Periodic summary of playback metrics, sent while a listener is attached.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class PlaybackMetricsEvent (
+  val metrics: PlaybackMetricsMessage
+) : PlatformVideoEvent()
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): PlaybackMetricsEvent {
+      val metrics = pigeonVar_list[0] as PlaybackMetricsMessage
+      return PlaybackMetricsEvent(metrics)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      metrics,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is PlaybackMetricsEvent) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * Where to get seek preview thumbnails for the current media item.
+ *
+ * A BIF file is used when [bifUrl] is set, otherwise tile sheets when
+ * [tileUrlTemplate] is set. Without either, or when they fail to load,
+ * frames are extracted from the media itself if [keyframeFallback] is set.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class ThumbnailSourceMessage (
+  /** URL of a BIF index file (Emby, Plex). */
+  val bifUrl: String? = null,
+  /**
+   * URL of a tile sheet (Jellyfin trickplay), with `{index}` standing for the
+   * sheet number.
+   */
+  val tileUrlTemplate: String? = null,
+  /** The number of thumbnails per row of a tile sheet. */
+  val tileColumns: Long? = null,
+  /** The number of thumbnail rows per tile sheet. */
+  val tileRows: Long? = null,
+  /** The total number of thumbnails in the tile sheets, if known. */
+  val thumbnailCount: Long? = null,
+  /** Milliseconds between thumbnails of tile sheets and extracted frames. */
+  val intervalMs: Long,
+  /** The width extracted frames are scaled down to, in pixels. */
+  val maxWidth: Long,
+  /** Whether to extract frames from the media when there is no other source. */
+  val keyframeFallback: Boolean,
+  val httpHeaders: Map<String, String>
+)
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): ThumbnailSourceMessage {
+      val bifUrl = pigeonVar_list[0] as String?
+      val tileUrlTemplate = pigeonVar_list[1] as String?
+      val tileColumns = pigeonVar_list[2] as Long?
+      val tileRows = pigeonVar_list[3] as Long?
+      val thumbnailCount = pigeonVar_list[4] as Long?
+      val intervalMs = pigeonVar_list[5] as Long
+      val maxWidth = pigeonVar_list[6] as Long
+      val keyframeFallback = pigeonVar_list[7] as Boolean
+      val httpHeaders = pigeonVar_list[8] as Map<String, String>
+      return ThumbnailSourceMessage(bifUrl, tileUrlTemplate, tileColumns, tileRows, thumbnailCount, intervalMs, maxWidth, keyframeFallback, httpHeaders)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      bifUrl,
+      tileUrlTemplate,
+      tileColumns,
+      tileRows,
+      thumbnailCount,
+      intervalMs,
+      maxWidth,
+      keyframeFallback,
+      httpHeaders,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is ThumbnailSourceMessage) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * How the player picks and drives video decoders.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class RendererPolicyMessage (
+  /**
+   * Requests tunneled playback, where the decoder renders straight to the
+   * display in sync with audio. Only used with platform views on devices whose
+   * decoders support it.
+   */
+  val tunneling: Boolean,
+  /** Ranks hardware decoders ahead of software ones for every format. */
+  val preferHardwareDecoders: Boolean,
+  /** Tries the next decoder when the first one fails to initialize. */
+  val decoderFallback: Boolean,
+  /** Feeds MediaCodec asynchronously from a dedicated thread. */
+  val asyncQueueing: Boolean
+)
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): RendererPolicyMessage {
+      val tunneling = pigeonVar_list[0] as Boolean
+      val preferHardwareDecoders = pigeonVar_list[1] as Boolean
+      val decoderFallback = pigeonVar_list[2] as Boolean
+      val asyncQueueing = pigeonVar_list[3] as Boolean
+      return RendererPolicyMessage(tunneling, preferHardwareDecoders, decoderFallback, asyncQueueing)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      tunneling,
+      preferHardwareDecoders,
+      decoderFallback,
+      asyncQueueing,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is RendererPolicyMessage) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
+
+/**
+ * Sent with every track change, carrying the full track lists.
+ *
+ * Generated class from Pigeon that represents data sent in messages.
+ */
+data class TracksSnapshotEvent (
+  /** Increases with every snapshot, so stale ones can be told apart. */
+  val version: Long,
+  /** The audio tracks, as returned by `getAudioTracks`. */
+  val audioTracks: NativeAudioTrackData,
+  /** The subtitle tracks, as returned by `getSubtitleTracks`. */
+  val subtitleTracks: NativeSubtitleTrackData
+) : PlatformVideoEvent()
+ {
+  companion object {
+    fun fromList(pigeonVar_list: List<Any?>): TracksSnapshotEvent {
+      val version = pigeonVar_list[0] as Long
+      val audioTracks = pigeonVar_list[1] as NativeAudioTrackData
+      val subtitleTracks = pigeonVar_list[2] as NativeSubtitleTrackData
+      return TracksSnapshotEvent(version, audioTracks, subtitleTracks)
+    }
+  }
+  fun toList(): List<Any?> {
+    return listOf(
+      version,
+      audioTracks,
+      subtitleTracks,
+    )
+  }
+  override fun equals(other: Any?): Boolean {
+    if (other !is TracksSnapshotEvent) {
+      return false
+    }
+    if (this === other) {
+      return true
+    }
+    return MessagesPigeonUtils.deepEquals(toList(), other.toList())  }
+
+  override fun hashCode(): Int = toList().hashCode()
+}
 private open class MessagesPigeonCodec : StandardMessageCodec() {
   override fun readValueOfType(type: Byte, buffer: ByteBuffer): Any? {
     return when (type) {
@@ -746,6 +1167,46 @@ private open class MessagesPigeonCodec : StandardMessageCodec() {
           NativeAudioTrackData.fromList(it)
         }
       }
+      145.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          MemoryPressureEvent.fromList(it)
+        }
+      }
+      146.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          MediaItemTransitionEvent.fromList(it)
+        }
+      }
+      147.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          PlaybackProgressEvent.fromList(it)
+        }
+      }
+      148.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          PlaybackMetricsMessage.fromList(it)
+        }
+      }
+      149.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          PlaybackMetricsEvent.fromList(it)
+        }
+      }
+      150.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          ThumbnailSourceMessage.fromList(it)
+        }
+      }
+      151.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          RendererPolicyMessage.fromList(it)
+        }
+      }
+      152.toByte() -> {
+        return (readValue(buffer) as? List<Any?>)?.let {
+          TracksSnapshotEvent.fromList(it)
+        }
+      }
       else -> super.readValueOfType(type, buffer)
     }
   }
@@ -815,6 +1276,38 @@ private open class MessagesPigeonCodec : StandardMessageCodec() {
         stream.write(144)
         writeValue(stream, value.toList())
       }
+      is MemoryPressureEvent -> {
+        stream.write(145)
+        writeValue(stream, value.toList())
+      }
+      is MediaItemTransitionEvent -> {
+        stream.write(146)
+        writeValue(stream, value.toList())
+      }
+      is PlaybackProgressEvent -> {
+        stream.write(147)
+        writeValue(stream, value.toList())
+      }
+      is PlaybackMetricsMessage -> {
+        stream.write(148)
+        writeValue(stream, value.toList())
+      }
+      is PlaybackMetricsEvent -> {
+        stream.write(149)
+        writeValue(stream, value.toList())
+      }
+      is ThumbnailSourceMessage -> {
+        stream.write(150)
+        writeValue(stream, value.toList())
+      }
+      is RendererPolicyMessage -> {
+        stream.write(151)
+        writeValue(stream, value.toList())
+      }
+      is TracksSnapshotEvent -> {
+        stream.write(152)
+        writeValue(stream, value.toList())
+      }
       else -> super.writeValue(stream, value)
     }
   }
@@ -983,6 +1476,33 @@ interface VideoPlayerInstanceApi {
   fun setSubtitleStyle(style: SubtitleStyleMessage)
   /** Adds an external subtitle source (e.g. .srt/.ass/.vtt) to the current media item. */
   fun addSubtitleSource(uri: String, mimeType: String?, language: String?, label: String?)
+  /**
+   * Queues a media item to play after the current one.
+   *
+   * Queued items are preloaded in the background so the transition is near-gapless.
+   */
+  fun enqueueMediaItem(options: CreationOptions)
+  /** Removes all queued media items after the current one. */
+  fun clearQueuedMediaItems()
+  /** Sets how often [PlaybackProgressEvent]s are sent, in milliseconds. 0 disables them. */
+  fun setProgressUpdateInterval(intervalMs: Long)
+  /** Returns the playback metrics collected so far. */
+  fun getPlaybackMetrics(): PlaybackMetricsMessage
+  /** Sets where seek preview thumbnails come from, or clears them if null. */
+  fun setThumbnailSource(source: ThumbnailSourceMessage?)
+  /**
+   * Returns the JPEG thumbnail for [positionMs] if it is loaded.
+   *
+   * Otherwise starts loading it and returns null; call again while scrubbing.
+   */
+  fun getThumbnail(positionMs: Long): ByteArray?
+  /**
+   * Marks this player as a background preview, or as a foreground player again.
+   *
+   * Background players get a small share of the buffer budget, stop loading while
+   * a foreground player is buffering, and are paused when no decoder is left for them.
+   */
+  fun setBackground(background: Boolean)
 
   companion object {
     /** The codec used by VideoPlayerInstanceApi. */
@@ -1283,6 +1803,126 @@ interface VideoPlayerInstanceApi {
           channel.setMessageHandler(null)
         }
       }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.enqueueMediaItem$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val optionsArg = args[0] as CreationOptions
+            val wrapped: List<Any?> = try {
+              api.enqueueMediaItem(optionsArg)
+              listOf(null)
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.clearQueuedMediaItems$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { _, reply ->
+            val wrapped: List<Any?> = try {
+              api.clearQueuedMediaItems()
+              listOf(null)
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.setProgressUpdateInterval$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val intervalMsArg = args[0] as Long
+            val wrapped: List<Any?> = try {
+              api.setProgressUpdateInterval(intervalMsArg)
+              listOf(null)
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.getPlaybackMetrics$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { _, reply ->
+            val wrapped: List<Any?> = try {
+              listOf(api.getPlaybackMetrics())
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.setThumbnailSource$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val sourceArg = args[0] as ThumbnailSourceMessage?
+            val wrapped: List<Any?> = try {
+              api.setThumbnailSource(sourceArg)
+              listOf(null)
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.getThumbnail$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val positionMsArg = args[0] as Long
+            val wrapped: List<Any?> = try {
+              listOf(api.getThumbnail(positionMsArg))
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+      run {
+        val channel = BasicMessageChannel<Any?>(binaryMessenger, "dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.setBackground$separatedMessageChannelSuffix", codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val backgroundArg = args[0] as Boolean
+            val wrapped: List<Any?> = try {
+              api.setBackground(backgroundArg)
+              listOf(null)
+            } catch (exception: Throwable) {
+              MessagesPigeonUtils.wrapError(exception)
+            }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
     }
   }
 }
@@ -0,0 +1,83 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.media3.common.Format;
+import org.junit.Test;
+
+public final class AdaptiveLoadControlTest {
+  private static final int MB = 1024 * 1024;
+  private static final int MAX_TARGET_BYTES = 256 * MB;
+
+  private static final LinPlayerBuffering.BufferDurations SEEK_FAST =
+      LinPlayerBuffering.bufferDurationsForPreset("seekFast", 0.05);
+
+  @Test
+  public void unknownBitrateKeepsPresetAndFullByteBudget() {
+    AdaptiveLoadControl.Tuning tuning =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.05, Format.NO_VALUE, 0, 0);
+
+    assertEquals(SEEK_FAST.minBufferMs * 1000L, tuning.minBufferUs);
+    assertEquals(SEEK_FAST.maxBufferMs * 1000L, tuning.maxBufferUs);
+    assertEquals(SEEK_FAST.bufferForPlaybackMs * 1000L, tuning.bufferForPlaybackUs);
+    assertEquals(MAX_TARGET_BYTES, tuning.targetBytes);
+  }
+
+  @Test
+  public void rebuffersRaiseStartupAndMinBufferThresholds() {
+    AdaptiveLoadControl.Tuning calm =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.05, 8_000_000, 40_000_000, 0);
+    AdaptiveLoadControl.Tuning flaky =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.05, 8_000_000, 40_000_000, 2);
+
+    assertTrue(flaky.minBufferUs > calm.minBufferUs);
+    assertTrue(flaky.bufferForPlaybackAfterRebufferUs > calm.bufferForPlaybackAfterRebufferUs);
+    assertTrue(flaky.targetBytes >= calm.targetBytes);
+  }
+
+  @Test
+  public void lowBandwidthHeadroomBehavesLikeRebuffering() {
+    AdaptiveLoadControl.Tuning starved =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.05, 8_000_000, 9_000_000, 0);
+
+    assertTrue(starved.minBufferUs > SEEK_FAST.minBufferMs * 1000L);
+  }
+
+  @Test
+  public void fastNetworkHoldsOnlyWhatTheBitrateNeeds() {
+    // 8 Mbps with plenty of bandwidth: two minutes ahead is ~114MB, well under the budget.
+    AdaptiveLoadControl.Tuning tuning =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.05, 8_000_000, 100_000_000, 0);
+
+    assertEquals(120_000_000L, tuning.targetBytes);
+  }
+
+  @Test
+  public void highBitrateNeverExceedsTheHeapBudget() {
+    AdaptiveLoadControl.Tuning tuning =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.05, 80_000_000, 60_000_000, 3);
+
+    assertEquals(MAX_TARGET_BYTES, tuning.targetBytes);
+  }
+
+  @Test
+  public void backBufferUsesTheMeasuredBitrate() {
+    AdaptiveLoadControl.Tuning tuning =
+        AdaptiveLoadControl.Tuning.compute(
+            SEEK_FAST, MAX_TARGET_BYTES, 0.10, 8_000_000, 100_000_000, 0);
+
+    long backBytes = (long) (tuning.targetBytes * 0.10);
+    assertEquals(backBytes * 8 * 1_000_000L / 8_000_000, tuning.backBufferUs);
+  }
+}
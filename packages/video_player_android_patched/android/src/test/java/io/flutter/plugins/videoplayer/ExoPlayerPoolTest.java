@@ -0,0 +1,62 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.media3.common.MediaItem;
+import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.upstream.LoadErrorHandlingPolicy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class ExoPlayerPoolTest {
+  private static final MediaItem MEDIA_ITEM = MediaItem.fromUri("https://flutter.dev/movie.mp4");
+
+  @Test
+  public void switchableFactoryDelegatesToTheCurrentFactory() {
+    ExoPlayerPool.SwitchableMediaSourceFactory factory =
+        new ExoPlayerPool.SwitchableMediaSourceFactory();
+    MediaSource.Factory first = mock(MediaSource.Factory.class);
+    MediaSource.Factory second = mock(MediaSource.Factory.class);
+    MediaSource firstSource = mock(MediaSource.class);
+    MediaSource secondSource = mock(MediaSource.class);
+    when(first.createMediaSource(MEDIA_ITEM)).thenReturn(firstSource);
+    when(second.createMediaSource(MEDIA_ITEM)).thenReturn(secondSource);
+
+    factory.setDelegate(first);
+    assertSame(firstSource, factory.createMediaSource(MEDIA_ITEM));
+
+    factory.setDelegate(second);
+    assertSame(secondSource, factory.createMediaSource(MEDIA_ITEM));
+  }
+
+  @Test
+  public void switchableFactoryThrowsWithoutADelegate() {
+    ExoPlayerPool.SwitchableMediaSourceFactory factory =
+        new ExoPlayerPool.SwitchableMediaSourceFactory();
+
+    assertThrows(IllegalStateException.class, () -> factory.createMediaSource(MEDIA_ITEM));
+  }
+
+  @Test
+  public void switchableFactoryReappliesPlayerConfigurationToNewDelegates() {
+    ExoPlayerPool.SwitchableMediaSourceFactory factory =
+        new ExoPlayerPool.SwitchableMediaSourceFactory();
+    LoadErrorHandlingPolicy policy = mock(LoadErrorHandlingPolicy.class);
+    factory.setLoadErrorHandlingPolicy(policy);
+
+    MediaSource.Factory delegate = mock(MediaSource.Factory.class);
+    factory.setDelegate(delegate);
+
+    verify(delegate).setLoadErrorHandlingPolicy(policy);
+  }
+}
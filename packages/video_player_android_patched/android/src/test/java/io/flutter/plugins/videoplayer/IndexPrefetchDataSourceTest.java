@@ -0,0 +1,199 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import android.net.Uri;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSourceUtil;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import androidx.media3.test.utils.FakeDataSet;
+import androidx.media3.test.utils.FakeDataSource;
+import androidx.media3.test.utils.TestUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class IndexPrefetchDataSourceTest {
+  private static final Uri URI = Uri.parse("https://media.example.com/movie.mp4");
+  private static final int TAIL_BYTES = 1000;
+
+  private final byte[] content = TestUtil.buildTestData(10_000);
+  private final FakeDataSet dataSet = new FakeDataSet().setData(URI, content);
+  private final AtomicInteger playbackOpens = new AtomicInteger();
+  private final AtomicInteger prefetchOpens = new AtomicInteger();
+  private final IndexPrefetchDataSource.Tails tails = new IndexPrefetchDataSource.Tails(2);
+
+  /** A fake server, optionally answering suffix ranges like most HTTP servers do. */
+  private final class FakeServer implements DataSource {
+    private final boolean suffixRanges;
+    @Nullable private final AtomicInteger opens;
+    private final FakeDataSource files = new FakeDataSource(dataSet);
+    private Map<String, List<String>> responseHeaders = Collections.emptyMap();
+
+    FakeServer(boolean suffixRanges, @Nullable AtomicInteger opens) {
+      this.suffixRanges = suffixRanges;
+      this.opens = opens;
+    }
+
+    @Override
+    public void addTransferListener(TransferListener transferListener) {}
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+      if (opens != null) {
+        opens.incrementAndGet();
+      }
+      final String range = dataSpec.httpRequestHeaders.get("Range");
+      if (!suffixRanges || range == null || !range.startsWith("bytes=-")) {
+        return files.open(dataSpec);
+      }
+      final long start = Math.max(0, content.length - Long.parseLong(range.substring(7)));
+      responseHeaders =
+          Collections.singletonMap(
+              "content-range",
+              Collections.singletonList(
+                  "bytes " + start + "-" + (content.length - 1) + "/" + content.length));
+      return files.open(dataSpec.buildUpon().setPosition(start).build());
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      return files.read(buffer, offset, length);
+    }
+
+    @Nullable
+    @Override
+    public Uri getUri() {
+      return files.getUri();
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+      return responseHeaders;
+    }
+
+    @Override
+    public void close() throws IOException {
+      files.close();
+    }
+  }
+
+  private DataSource.Factory factory(boolean suffixRanges) {
+    return factory(suffixRanges, Runnable::run);
+  }
+
+  private DataSource.Factory factory(boolean suffixRanges, Executor executor) {
+    return new IndexPrefetchDataSource.Factory(
+        () -> new FakeServer(/* suffixRanges= */ false, playbackOpens),
+        () -> new FakeServer(suffixRanges, prefetchOpens),
+        tails,
+        TAIL_BYTES,
+        executor);
+  }
+
+  private static byte[] read(DataSource.Factory factory, long position, long length)
+      throws IOException {
+    DataSource source = factory.createDataSource();
+    try {
+      source.open(
+          new DataSpec.Builder().setUri(URI).setPosition(position).setLength(length).build());
+      return DataSourceUtil.readToEnd(source);
+    } finally {
+      source.close();
+    }
+  }
+
+  @Test
+  public void servesReadsOfThePrefetchedTailFromMemory() throws Exception {
+    DataSource.Factory factory = factory(/* suffixRanges= */ true);
+
+    assertArrayEquals(Arrays.copyOfRange(content, 0, 100), read(factory, 0, 100));
+    assertArrayEquals(Arrays.copyOfRange(content, 9500, 9600), read(factory, 9500, 100));
+    assertArrayEquals(
+        Arrays.copyOfRange(content, 9200, content.length), read(factory, 9200, C.LENGTH_UNSET));
+
+    assertEquals(1, playbackOpens.get());
+  }
+
+  @Test
+  public void readsBeforeTheTailGoToTheNetwork() throws Exception {
+    DataSource.Factory factory = factory(/* suffixRanges= */ true);
+    read(factory, 0, 100);
+
+    assertArrayEquals(Arrays.copyOfRange(content, 8500, 9500), read(factory, 8500, 1000));
+    assertEquals(2, playbackOpens.get());
+  }
+
+  @Test
+  public void fallsBackWhenTheServerIgnoresTheRange() throws Exception {
+    DataSource.Factory factory = factory(/* suffixRanges= */ false);
+    read(factory, 0, 100);
+
+    assertArrayEquals(Arrays.copyOfRange(content, 9500, 9600), read(factory, 9500, 100));
+    assertEquals(2, playbackOpens.get());
+  }
+
+  @Test
+  public void trimmedTailsAreFetchedAgain() throws Exception {
+    DataSource.Factory factory = factory(/* suffixRanges= */ true);
+    read(factory, 0, 100);
+    tails.trimTo(0);
+
+    assertArrayEquals(Arrays.copyOfRange(content, 9500, 9600), read(factory, 9500, 100));
+    assertEquals(2, playbackOpens.get());
+  }
+
+  @Test
+  public void doesNotWaitForAPrefetchThatHasNotStarted() throws Exception {
+    List<Runnable> queued = new ArrayList<>();
+    DataSource.Factory factory = factory(/* suffixRanges= */ true, queued::add);
+    read(factory, 0, 100);
+
+    assertArrayEquals(Arrays.copyOfRange(content, 9500, 9600), read(factory, 9500, 100));
+    assertEquals(2, playbackOpens.get());
+    assertEquals(1, queued.size());
+  }
+
+  @Test
+  public void skipsQueuedPrefetchesOfDroppedTails() throws Exception {
+    List<Runnable> queued = new ArrayList<>();
+    DataSource.Factory factory = factory(/* suffixRanges= */ true, queued::add);
+    read(factory, 0, 100);
+    tails.trimTo(0);
+
+    queued.get(0).run();
+
+    assertEquals(0, prefetchOpens.get());
+  }
+
+  @Test
+  public void readsDocumentSizeFromContentRange() {
+    assertEquals(
+        12345,
+        IndexPrefetchDataSource.documentSize(
+            Collections.singletonMap(
+                "Content-Range", Collections.singletonList("bytes 100-199/12345"))));
+    assertEquals(
+        C.LENGTH_UNSET,
+        IndexPrefetchDataSource.documentSize(
+            Collections.singletonMap("Content-Range", Collections.singletonList("bytes 0-9/*"))));
+    assertEquals(C.LENGTH_UNSET, IndexPrefetchDataSource.documentSize(Collections.emptyMap()));
+  }
+}
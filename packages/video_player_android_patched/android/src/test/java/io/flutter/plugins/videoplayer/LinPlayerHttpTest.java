@@ -0,0 +1,108 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+import androidx.media3.test.utils.FakeClock;
+import androidx.test.core.app.ApplicationProvider;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import okhttp3.Dns;
+import okhttp3.Protocol;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class LinPlayerHttpTest {
+  private static final long TTL_MS = 60_000;
+
+  private static List<InetAddress> address(int lastOctet) throws UnknownHostException {
+    return Collections.singletonList(
+        InetAddress.getByAddress(new byte[] {10, 0, 0, (byte) lastOctet}));
+  }
+
+  @Test
+  public void disabledByDefault() {
+    Context context = ApplicationProvider.getApplicationContext();
+
+    assertFalse(LinPlayerHttp.isEnabled(context));
+  }
+
+  @Test
+  public void enabledByPreference() {
+    Context context = ApplicationProvider.getApplicationContext();
+    LinPlayerBuffering.flutterPreferences(context)
+        .edit()
+        .putBoolean(LinPlayerHttp.KEY_ENABLED, true)
+        .commit();
+
+    assertTrue(LinPlayerHttp.isEnabled(context));
+  }
+
+  @Test
+  public void sharesOneClientThatOffersHttp2() {
+    assertSame(LinPlayerHttp.client(), LinPlayerHttp.client());
+    assertTrue(LinPlayerHttp.client().protocols().contains(Protocol.HTTP_2));
+    assertTrue(
+        LinPlayerHttp.dataSourceFactory(Collections.emptyMap(), "LinPlayer")
+            instanceof OkHttpDataSource.Factory);
+  }
+
+  @Test
+  public void cachingDnsReusesLookupsUntilTheyExpire() throws Exception {
+    Dns delegate = mock(Dns.class);
+    when(delegate.lookup("media.example.com")).thenReturn(address(1), address(2));
+    FakeClock clock = new FakeClock(0);
+    LinPlayerHttp.CachingDns dns = new LinPlayerHttp.CachingDns(delegate, TTL_MS, clock);
+
+    assertEquals(address(1), dns.lookup("media.example.com"));
+    clock.advanceTime(TTL_MS - 1);
+    assertEquals(address(1), dns.lookup("MEDIA.example.com"));
+    verify(delegate, times(1)).lookup("media.example.com");
+
+    clock.advanceTime(1);
+    assertEquals(address(2), dns.lookup("media.example.com"));
+  }
+
+  @Test
+  public void cachingDnsFallsBackToAnExpiredAnswer() throws Exception {
+    Dns delegate = mock(Dns.class);
+    when(delegate.lookup("media.example.com"))
+        .thenReturn(address(1))
+        .thenThrow(new UnknownHostException("media.example.com"));
+    FakeClock clock = new FakeClock(0);
+    LinPlayerHttp.CachingDns dns = new LinPlayerHttp.CachingDns(delegate, TTL_MS, clock);
+
+    dns.lookup("media.example.com");
+    clock.advanceTime(TTL_MS);
+
+    assertEquals(address(1), dns.lookup("media.example.com"));
+  }
+
+  @Test
+  public void cachingDnsRethrowsWithoutAnAnswer() throws Exception {
+    Dns delegate = mock(Dns.class);
+    when(delegate.lookup("media.example.com"))
+        .thenThrow(new UnknownHostException("media.example.com"));
+    LinPlayerHttp.CachingDns dns =
+        new LinPlayerHttp.CachingDns(delegate, TTL_MS, new FakeClock(0));
+
+    assertThrows(UnknownHostException.class, () -> dns.lookup("media.example.com"));
+  }
+}
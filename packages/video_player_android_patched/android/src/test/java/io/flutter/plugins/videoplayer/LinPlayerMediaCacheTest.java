@@ -0,0 +1,59 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import android.content.Context;
+import android.net.Uri;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DefaultHttpDataSource;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class LinPlayerMediaCacheTest {
+  @Test
+  public void stableKeyRemovesVolatileQueryParameters() {
+    Uri uri =
+        Uri.parse(
+            "https://emby.example/Videos/42/stream?static=true&api_key=abc&PlaySessionId=1&MediaSourceId=7");
+
+    assertEquals(
+        "https://emby.example/Videos/42/stream?static=true&MediaSourceId=7",
+        LinPlayerMediaCache.stableKeyForUri(uri));
+  }
+
+  @Test
+  public void stableKeyIsTokenIndependent() {
+    Uri first = Uri.parse("https://plex.example/library/parts/1/file.mkv?X-Plex-Token=one");
+    Uri second = Uri.parse("https://plex.example/library/parts/1/file.mkv?X-Plex-Token=two");
+
+    assertEquals(
+        LinPlayerMediaCache.stableKeyForUri(first), LinPlayerMediaCache.stableKeyForUri(second));
+    assertEquals(
+        "https://plex.example/library/parts/1/file.mkv", LinPlayerMediaCache.stableKeyForUri(first));
+  }
+
+  @Test
+  public void stableKeyKeepsUrlsWithoutQuery() {
+    Uri uri = Uri.parse("https://dav.example/media/movie.mp4");
+
+    assertEquals(uri.toString(), LinPlayerMediaCache.stableKeyForUri(uri));
+  }
+
+  @Test
+  public void cacheIsDisabledByDefault() {
+    Context context = ApplicationProvider.getApplicationContext();
+    DataSource.Factory upstream = new DefaultHttpDataSource.Factory();
+
+    assertFalse(LinPlayerMediaCache.isEnabled(context));
+    assertSame(upstream, LinPlayerMediaCache.wrap(context, upstream));
+  }
+}
@@ -0,0 +1,83 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public final class LinPlayerMemoryGovernorTest {
+  private static final long MB = 1024L * 1024;
+  private static final long MAX_HEAP = 512 * MB;
+
+  @Test
+  public void baseBudgetIsAQuarterOfTheHeapWithBackBuffer() {
+    LinPlayerMemoryGovernor governor = new LinPlayerMemoryGovernor(MAX_HEAP);
+    governor.onHeapSample(0, 100 * MB);
+
+    LinPlayerMemoryGovernor.Budget budget = governor.currentBudgetForTest();
+    assertEquals(LinPlayerMemoryGovernor.LEVEL_NORMAL, budget.level);
+    assertEquals(128 * MB, budget.targetMaxBytes);
+    assertTrue(budget.backBufferAllowed);
+  }
+
+  @Test
+  public void highHeapUsageShrinksBudgetAndDropsBackBuffer() {
+    LinPlayerMemoryGovernor governor = new LinPlayerMemoryGovernor(MAX_HEAP);
+    List<LinPlayerMemoryGovernor.Budget> changes = new ArrayList<>();
+    governor.addListener(changes::add);
+
+    governor.onHeapSample(0, (long) (MAX_HEAP * 0.75));
+    governor.onHeapSample(1000, (long) (MAX_HEAP * 0.90));
+
+    assertEquals(2, changes.size());
+    assertEquals(LinPlayerMemoryGovernor.LEVEL_MODERATE, changes.get(0).level);
+    assertEquals(64 * MB, changes.get(0).targetMaxBytes);
+    assertFalse(changes.get(0).backBufferAllowed);
+    assertEquals(LinPlayerMemoryGovernor.LEVEL_CRITICAL, changes.get(1).level);
+    assertEquals(32 * MB, changes.get(1).targetMaxBytes);
+  }
+
+  @Test
+  public void heapSamplesAreThrottled() {
+    LinPlayerMemoryGovernor governor = new LinPlayerMemoryGovernor(MAX_HEAP);
+    governor.onHeapSample(0, 10 * MB);
+    governor.onHeapSample(500, (long) (MAX_HEAP * 0.90));
+
+    assertEquals(
+        LinPlayerMemoryGovernor.LEVEL_NORMAL, governor.currentBudgetForTest().level);
+  }
+
+  @Test
+  public void trimPressureIsHeldThenReleasedOnceTheHeapIsHealthy() {
+    LinPlayerMemoryGovernor governor = new LinPlayerMemoryGovernor(MAX_HEAP);
+    governor.onTrimLevel(0, LinPlayerMemoryGovernor.LEVEL_CRITICAL);
+
+    governor.onHeapSample(10_000, 10 * MB);
+    assertEquals(
+        LinPlayerMemoryGovernor.LEVEL_CRITICAL, governor.currentBudgetForTest().level);
+
+    governor.onHeapSample(30_000, 10 * MB);
+    LinPlayerMemoryGovernor.Budget budget = governor.currentBudgetForTest();
+    assertEquals(LinPlayerMemoryGovernor.LEVEL_NORMAL, budget.level);
+    assertTrue(budget.backBufferAllowed);
+  }
+
+  @Test
+  public void listenersAreOnlyNotifiedOnLevelChanges() {
+    LinPlayerMemoryGovernor governor = new LinPlayerMemoryGovernor(MAX_HEAP);
+    List<LinPlayerMemoryGovernor.Budget> changes = new ArrayList<>();
+    governor.addListener(changes::add);
+
+    governor.onTrimLevel(0, LinPlayerMemoryGovernor.LEVEL_MODERATE);
+    governor.onTrimLevel(100, LinPlayerMemoryGovernor.LEVEL_MODERATE);
+
+    assertEquals(1, changes.size());
+  }
+}
@@ -0,0 +1,85 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.os.SystemClock;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class LinPlayerResourceArbiterTest {
+  private static final int MB = 1024 * 1024;
+
+  private LinPlayerResourceArbiter arbiter;
+
+  @Before
+  public void setUp() {
+    LinPlayerMemoryGovernor governor = new LinPlayerMemoryGovernor(512L * MB);
+    // A healthy heap, so the budget is the 128MB base.
+    governor.onHeapSample(SystemClock.elapsedRealtime(), 0);
+    arbiter = new LinPlayerResourceArbiter(governor);
+  }
+
+  @Test
+  public void aSingleForegroundPlayerGetsTheWholeBudget() {
+    List<LinPlayerResourceArbiter.Grant> grants = new ArrayList<>();
+
+    arbiter.register(grants::add);
+
+    assertEquals(1, grants.size());
+    assertEquals(128 * MB, grants.get(0).maxBufferBytes);
+    assertFalse(grants.get(0).yieldBandwidth);
+    assertFalse(grants.get(0).suspended);
+  }
+
+  @Test
+  public void theOldestBackgroundPlayersAreSuspendedOnceDecodersRunOut() {
+    LinPlayerResourceArbiter.Claim main = arbiter.register(grant -> {});
+    List<LinPlayerResourceArbiter.Claim> previews = new ArrayList<>();
+    for (int i = 0; i < LinPlayerResourceArbiter.MAX_ACTIVE_DECODERS; i++) {
+      LinPlayerResourceArbiter.Claim preview = arbiter.register(grant -> {});
+      preview.setBackground(true);
+      previews.add(preview);
+    }
+
+    assertTrue(previews.get(0).grant().suspended);
+    for (int i = 1; i < previews.size(); i++) {
+      assertFalse(previews.get(i).grant().suspended);
+      assertEquals(8 * MB, previews.get(i).grant().maxBufferBytes);
+    }
+    assertEquals((128 - 3 * 8) * MB, main.grant().maxBufferBytes);
+
+    previews.get(3).release();
+
+    assertFalse(previews.get(0).grant().suspended);
+  }
+
+  @Test
+  public void backgroundPlayersYieldWhileTheForegroundIsStarving() {
+    LinPlayerResourceArbiter.Claim main = arbiter.register(grant -> {});
+    List<LinPlayerResourceArbiter.Grant> previewGrants = new ArrayList<>();
+    LinPlayerResourceArbiter.Claim preview = arbiter.register(previewGrants::add);
+    preview.setBackground(true);
+
+    main.setStarving(true);
+    assertTrue(preview.grant().yieldBandwidth);
+
+    // A starving preview changes nothing for anyone.
+    int notified = previewGrants.size();
+    preview.setStarving(true);
+    assertEquals(notified, previewGrants.size());
+
+    main.setStarving(false);
+    assertFalse(preview.grant().yieldBandwidth);
+  }
+}
@@ -0,0 +1,144 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.Player;
+import androidx.media3.common.Timeline;
+import androidx.media3.exoplayer.analytics.AnalyticsListener.EventTime;
+import androidx.media3.exoplayer.source.MediaLoadData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class PlaybackMetricsCollectorTest {
+  private static final long START_MS = 10_000;
+
+  private final PlaybackMetricsCollector collector = new PlaybackMetricsCollector(START_MS);
+
+  private static EventTime at(long realtimeMs) {
+    return new EventTime(
+        realtimeMs,
+        Timeline.EMPTY,
+        /* windowIndex= */ 0,
+        /* mediaPeriodId= */ null,
+        /* eventPlaybackPositionMs= */ 0,
+        Timeline.EMPTY,
+        /* currentWindowIndex= */ 0,
+        /* currentMediaPeriodId= */ null,
+        /* currentPlaybackPositionMs= */ 0,
+        /* totalBufferedDurationMs= */ 0);
+  }
+
+  private static MediaLoadData videoLoad(int bitrate) {
+    return new MediaLoadData(
+        C.DATA_TYPE_MEDIA,
+        C.TRACK_TYPE_VIDEO,
+        new Format.Builder().setAverageBitrate(bitrate).setPeakBitrate(bitrate).build(),
+        C.SELECTION_REASON_ADAPTIVE,
+        /* trackSelectionData= */ null,
+        /* mediaStartTimeMs= */ 0,
+        /* mediaEndTimeMs= */ 0);
+  }
+
+  private static Player.PositionInfo positionAt(long positionMs) {
+    return new Player.PositionInfo(
+        null, 0, null, null, 0, positionMs, positionMs, C.INDEX_UNSET, C.INDEX_UNSET);
+  }
+
+  private void startPlayback() {
+    collector.onPlayWhenReadyChanged(
+        at(START_MS + 100), true, Player.PLAY_WHEN_READY_CHANGE_REASON_USER_REQUEST);
+    collector.onPlaybackStateChanged(at(START_MS + 100), Player.STATE_BUFFERING);
+    collector.onRenderedFirstFrame(at(START_MS + 600), new Object(), 0);
+    collector.onPlaybackStateChanged(at(START_MS + 700), Player.STATE_READY);
+    collector.onIsPlayingChanged(at(START_MS + 700), true);
+  }
+
+  @Test
+  public void startupMetricsAreUnsetUntilPlaybackStarts() {
+    PlaybackMetricsMessage metrics = collector.snapshot(START_MS + 1000);
+
+    assertNull(metrics.getTimeToFirstFrame());
+    assertNull(metrics.getJoinLatency());
+    assertEquals(0L, metrics.getRebufferCount());
+  }
+
+  @Test
+  public void measuresTimeToFirstFrameAndJoinLatency() {
+    startPlayback();
+
+    PlaybackMetricsMessage metrics = collector.snapshot(START_MS + 1000);
+    assertEquals(Long.valueOf(600), metrics.getTimeToFirstFrame());
+    assertEquals(Long.valueOf(600), metrics.getJoinLatency());
+    // Startup buffering is not a rebuffer.
+    assertEquals(0L, metrics.getRebufferCount());
+  }
+
+  @Test
+  public void countsStallsDuringPlayback() {
+    startPlayback();
+
+    collector.onPlaybackStateChanged(at(START_MS + 5000), Player.STATE_BUFFERING);
+    assertEquals(1L, collector.snapshot(START_MS + 5500).getRebufferCount());
+    assertEquals(500L, collector.snapshot(START_MS + 5500).getRebufferDuration());
+
+    collector.onPlaybackStateChanged(at(START_MS + 6000), Player.STATE_READY);
+    PlaybackMetricsMessage metrics = collector.snapshot(START_MS + 9000);
+    assertEquals(1L, metrics.getRebufferCount());
+    assertEquals(1000L, metrics.getRebufferDuration());
+  }
+
+  @Test
+  public void ignoresBufferingAfterSeeksAndWhilePaused() {
+    startPlayback();
+
+    collector.onPositionDiscontinuity(
+        at(START_MS + 2000), positionAt(0), positionAt(60_000), Player.DISCONTINUITY_REASON_SEEK);
+    collector.onPlaybackStateChanged(at(START_MS + 2000), Player.STATE_BUFFERING);
+    collector.onPlaybackStateChanged(at(START_MS + 2500), Player.STATE_READY);
+
+    collector.onPlayWhenReadyChanged(
+        at(START_MS + 3000), false, Player.PLAY_WHEN_READY_CHANGE_REASON_USER_REQUEST);
+    collector.onPlaybackStateChanged(at(START_MS + 3000), Player.STATE_BUFFERING);
+
+    assertEquals(0L, collector.snapshot(START_MS + 4000).getRebufferCount());
+  }
+
+  @Test
+  public void tracksFormatsFramesAndDecoders() {
+    collector.onDownstreamFormatChanged(at(START_MS), videoLoad(2_000_000));
+    collector.onDownstreamFormatChanged(at(START_MS), videoLoad(2_000_000));
+    collector.onDownstreamFormatChanged(at(START_MS), videoLoad(4_000_000));
+    collector.onDroppedVideoFrames(at(START_MS), 3, 1000);
+    collector.onDroppedVideoFrames(at(START_MS), 2, 1000);
+    collector.onBandwidthEstimate(at(START_MS), 100, 1000, 8_000_000);
+    collector.onVideoDecoderInitialized(at(START_MS), "c2.video", 0, 10);
+    collector.onAudioDecoderInitialized(at(START_MS), "c2.audio", 0, 10);
+
+    PlaybackMetricsMessage metrics = collector.snapshot(START_MS);
+    assertEquals(1L, metrics.getBitrateSwitchCount());
+    assertEquals(Long.valueOf(4_000_000), metrics.getVideoBitrate());
+    assertEquals(5L, metrics.getDroppedFrames());
+    assertEquals(Long.valueOf(8_000_000), metrics.getBandwidthEstimate());
+    assertEquals("c2.video", metrics.getVideoDecoderName());
+    assertEquals("c2.audio", metrics.getAudioDecoderName());
+  }
+
+  @Test
+  public void versionChangesWithMetrics() {
+    int before = collector.version();
+
+    collector.onDroppedVideoFrames(at(START_MS), 1, 1000);
+
+    assertNotEquals(before, collector.version());
+  }
+}
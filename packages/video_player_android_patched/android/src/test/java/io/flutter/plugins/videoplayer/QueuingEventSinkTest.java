@@ -0,0 +1,142 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public final class QueuingEventSinkTest {
+  @Mock private PigeonEventSink<PlatformVideoEvent> mockDelegate;
+  @Captor private ArgumentCaptor<PlatformVideoEvent> eventCaptor;
+
+  @Rule public MockitoRule initRule = MockitoJUnit.rule();
+
+  private final List<Runnable> scheduledFlushes = new ArrayList<>();
+  private QueuingEventSink sink;
+
+  @Before
+  public void setUp() {
+    sink = QueuingEventSink.batching(scheduledFlushes::add);
+  }
+
+  private void runScheduledFlushes() {
+    final List<Runnable> flushes = new ArrayList<>(scheduledFlushes);
+    scheduledFlushes.clear();
+    for (Runnable flush : flushes) {
+      flush.run();
+    }
+  }
+
+  @Test
+  public void unbatchedSinkDeliversImmediately() {
+    QueuingEventSink immediate = new QueuingEventSink();
+    immediate.setDelegate(mockDelegate);
+
+    immediate.success(new IsPlayingStateEvent(true));
+    immediate.success(new IsPlayingStateEvent(false));
+
+    verify(mockDelegate, times(2)).success(any());
+  }
+
+  @Test
+  public void batchedEventsAreDeliveredOnTheNextFlush() {
+    sink.setDelegate(mockDelegate);
+
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.BUFFERING));
+    verify(mockDelegate, never()).success(any());
+    assertEquals(1, scheduledFlushes.size());
+
+    runScheduledFlushes();
+    verify(mockDelegate).success(new PlaybackStateChangeEvent(PlatformPlaybackState.BUFFERING));
+  }
+
+  @Test
+  public void consecutiveStateUpdatesAreCoalesced() {
+    sink.setDelegate(mockDelegate);
+
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.BUFFERING));
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.READY));
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.BUFFERING));
+    sink.success(new IsPlayingStateEvent(false));
+    sink.success(new IsPlayingStateEvent(true));
+    runScheduledFlushes();
+
+    verify(mockDelegate, times(2)).success(eventCaptor.capture());
+    assertEquals(
+        new PlaybackStateChangeEvent(PlatformPlaybackState.BUFFERING),
+        eventCaptor.getAllValues().get(0));
+    assertEquals(new IsPlayingStateEvent(true), eventCaptor.getAllValues().get(1));
+  }
+
+  @Test
+  public void completionIsNeverCoalescedAway() {
+    sink.setDelegate(mockDelegate);
+
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.ENDED));
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.IDLE));
+    runScheduledFlushes();
+
+    InOrder inOrder = inOrder(mockDelegate);
+    inOrder.verify(mockDelegate).success(new PlaybackStateChangeEvent(PlatformPlaybackState.ENDED));
+    inOrder.verify(mockDelegate).success(new PlaybackStateChangeEvent(PlatformPlaybackState.IDLE));
+  }
+
+  @Test
+  public void oneOffEventsFlushQueuedEventsImmediatelyInOrder() {
+    sink.setDelegate(mockDelegate);
+
+    sink.success(new IsPlayingStateEvent(false));
+    sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.ENDED));
+
+    // No frame has to arrive, e.g. for audio finishing with the screen off.
+    InOrder inOrder = inOrder(mockDelegate);
+    inOrder.verify(mockDelegate).success(new IsPlayingStateEvent(false));
+    inOrder.verify(mockDelegate).success(new PlaybackStateChangeEvent(PlatformPlaybackState.ENDED));
+  }
+
+  @Test
+  public void errorsFlushQueuedEventsImmediatelyInOrder() {
+    sink.setDelegate(mockDelegate);
+
+    sink.success(new IsPlayingStateEvent(true));
+    sink.error("code", "message", null);
+
+    InOrder inOrder = inOrder(mockDelegate);
+    inOrder.verify(mockDelegate).success(new IsPlayingStateEvent(true));
+    inOrder.verify(mockDelegate).error("code", "message", null);
+  }
+
+  @Test
+  public void queueBeforeListenIsBoundedWithoutDroppingInitialization() {
+    sink.success(new InitializationEvent(1000L, 1920L, 1080L, 0L));
+    for (int i = 0; i < QueuingEventSink.MAX_QUEUED_EVENTS * 2; i++) {
+      sink.success(new IsPlayingStateEvent(i % 2 == 0));
+      sink.success(new PlaybackStateChangeEvent(PlatformPlaybackState.BUFFERING));
+    }
+
+    sink.setDelegate(mockDelegate);
+
+    verify(mockDelegate, times(QueuingEventSink.MAX_QUEUED_EVENTS))
+        .success(eventCaptor.capture());
+    assertEquals(
+        new InitializationEvent(1000L, 1920L, 1080L, 0L), eventCaptor.getAllValues().get(0));
+  }
+}
@@ -0,0 +1,62 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class RendererPolicyTest {
+  @Test
+  public void missingMessageUsesTheDefaultPolicy() {
+    assertSame(RendererPolicy.DEFAULT, RendererPolicy.fromMessage(null));
+  }
+
+  @Test
+  public void tunnelingDoesNotChangeTheSignature() {
+    RendererPolicy tunneled =
+        RendererPolicy.fromMessage(new RendererPolicyMessage(true, true, true, false));
+
+    RendererPolicy texture = tunneled.withoutTunneling();
+
+    assertFalse(texture.tunneling);
+    assertTrue(texture.preferHardwareDecoders);
+    assertEquals(tunneled.signature(), texture.signature());
+    assertNotEquals(RendererPolicy.DEFAULT.signature(), tunneled.signature());
+  }
+
+  @Test
+  public void policiesAreRestoredFromTheirSignature() {
+    RendererPolicy policy = new RendererPolicy(true, true, false, true);
+
+    RendererPolicy restored = RendererPolicy.fromSignature(policy.signature());
+
+    assertEquals(policy.signature(), restored.signature());
+    assertFalse(restored.tunneling);
+    assertNull(RendererPolicy.fromSignature("hw=maybe"));
+  }
+
+  @Test
+  public void appliesTunnelingToTheTrackSelector() {
+    DefaultTrackSelector trackSelector =
+        new DefaultTrackSelector(ApplicationProvider.getApplicationContext());
+
+    new RendererPolicy(true, false, false, false).applyTo(trackSelector);
+    assertTrue(trackSelector.getParameters().tunnelingEnabled);
+
+    RendererPolicy.DEFAULT.applyTo(trackSelector);
+    assertFalse(trackSelector.getParameters().tunnelingEnabled);
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.media3.common.C;
+import androidx.test.core.app.ApplicationProvider;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class ResumePositionStoreTest {
+  private static final long DURATION_MS = 60 * 60_000;
+
+  private SharedPreferences preferences;
+  private ResumePositionStore store;
+
+  @Before
+  public void setUp() {
+    Context context = ApplicationProvider.getApplicationContext();
+    preferences = context.getSharedPreferences("resume_test", Context.MODE_PRIVATE);
+    store = new ResumePositionStore(preferences, new Handler(Looper.getMainLooper()));
+  }
+
+  @Test
+  public void enabledByDefault() {
+    assertTrue(ResumePositionStore.isEnabled(ApplicationProvider.getApplicationContext()));
+  }
+
+  @Test
+  public void batchesWritesUntilTheFlushDelay() {
+    store.update("a", 60_000, DURATION_MS);
+    store.update("a", 65_000, DURATION_MS);
+    store.update("b", 120_000, DURATION_MS);
+
+    assertEquals(65_000, store.positionFor("a"));
+    assertFalse(preferences.contains("a"));
+
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(10));
+
+    ResumePositionStore reloaded =
+        new ResumePositionStore(preferences, new Handler(Looper.getMainLooper()));
+    assertEquals(65_000, reloaded.positionFor("a"));
+    assertEquals(120_000, reloaded.positionFor("b"));
+  }
+
+  @Test
+  public void flushWritesImmediately() {
+    store.update("a", 60_000, DURATION_MS);
+
+    store.flush();
+
+    assertTrue(preferences.contains("a"));
+  }
+
+  @Test
+  public void forgetsItemsThatFinishedOrBarelyStarted() {
+    store.update("finished", 60_000, DURATION_MS);
+    store.update("finished", DURATION_MS - 10_000, DURATION_MS);
+    store.update("started", 5_000, DURATION_MS);
+    store.flush();
+
+    assertEquals(C.TIME_UNSET, store.positionFor("finished"));
+    assertEquals(C.TIME_UNSET, store.positionFor("started"));
+    assertFalse(preferences.contains("finished"));
+  }
+
+  @Test
+  public void keepsPositionsWhenTheDurationIsUnknown() {
+    store.update("live", DURATION_MS, C.TIME_UNSET);
+
+    assertEquals(DURATION_MS, store.positionFor("live"));
+  }
+
+  @Test
+  public void evictsTheOldestEntries() {
+    for (int i = 0; i <= ResumePositionStore.MAX_ENTRIES; i++) {
+      preferences.edit().putString("item" + i, "60000@" + i).commit();
+    }
+    store = new ResumePositionStore(preferences, new Handler(Looper.getMainLooper()));
+
+    store.update("newest", 60_000, DURATION_MS);
+    store.flush();
+
+    assertEquals(C.TIME_UNSET, store.positionFor("item0"));
+    assertEquals(C.TIME_UNSET, store.positionFor("item1"));
+    assertEquals(60_000, store.positionFor("item2"));
+    assertEquals(60_000, store.positionFor("newest"));
+    assertFalse(preferences.contains("item0"));
+  }
+}
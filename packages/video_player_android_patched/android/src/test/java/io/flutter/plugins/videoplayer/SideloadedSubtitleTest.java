@@ -0,0 +1,93 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.MimeTypes;
+import androidx.media3.common.text.Cue;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class SideloadedSubtitleTest {
+  private static final Format SUBRIP =
+      new Format.Builder().setSampleMimeType(MimeTypes.APPLICATION_SUBRIP).build();
+
+  private static final String OVERLAPPING_SRT =
+      "1\n"
+          + "00:00:01,000 --> 00:00:04,000\n"
+          + "First\n"
+          + "\n"
+          + "2\n"
+          + "00:00:03,000 --> 00:00:05,000\n"
+          + "Second\n"
+          + "\n"
+          + "3\n"
+          + "00:00:07,000 --> 00:00:08,000\n"
+          + "Third\n";
+
+  private static SideloadedSubtitle parse(String srt) {
+    return SideloadedSubtitle.parse(srt.getBytes(StandardCharsets.UTF_8), SUBRIP);
+  }
+
+  private static String text(List<Cue> cues) {
+    final StringBuilder builder = new StringBuilder();
+    for (Cue cue : cues) {
+      if (builder.length() > 0) {
+        builder.append('|');
+      }
+      builder.append(cue.text);
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void supportsCommonTextFormats() {
+    assertTrue(SideloadedSubtitle.isSupported(SUBRIP));
+    assertTrue(
+        SideloadedSubtitle.isSupported(
+            new Format.Builder().setSampleMimeType(MimeTypes.TEXT_VTT).build()));
+    assertFalse(SideloadedSubtitle.isSupported(new Format.Builder().build()));
+  }
+
+  @Test
+  public void looksUpCuesByPosition() {
+    SideloadedSubtitle subtitle = parse(OVERLAPPING_SRT);
+
+    assertEquals("", text(subtitle.cuesAt(0)));
+    assertEquals("First", text(subtitle.cuesAt(1_000_000)));
+    assertEquals("First|Second", text(subtitle.cuesAt(3_500_000)));
+    assertEquals("Second", text(subtitle.cuesAt(4_000_000)));
+    assertEquals("", text(subtitle.cuesAt(6_000_000)));
+    assertEquals("Third", text(subtitle.cuesAt(7_999_999)));
+    assertEquals("", text(subtitle.cuesAt(60_000_000)));
+  }
+
+  @Test
+  public void reportsTheNextChange() {
+    SideloadedSubtitle subtitle = parse(OVERLAPPING_SRT);
+
+    assertEquals(1_000_000, subtitle.nextChangeUs(0));
+    assertEquals(3_000_000, subtitle.nextChangeUs(1_500_000));
+    assertEquals(7_000_000, subtitle.nextChangeUs(5_000_000));
+    assertEquals(C.TIME_UNSET, subtitle.nextChangeUs(8_000_000));
+  }
+
+  @Test
+  public void emptyFileHasNoCues() {
+    SideloadedSubtitle subtitle = parse("");
+
+    assertTrue(subtitle.cuesAt(1_000_000).isEmpty());
+    assertEquals(C.TIME_UNSET, subtitle.nextChangeUs(0));
+  }
+}
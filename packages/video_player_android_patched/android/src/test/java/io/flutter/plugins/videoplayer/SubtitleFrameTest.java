@@ -0,0 +1,128 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import androidx.media3.common.text.Cue;
+import androidx.media3.common.text.CueGroup;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class SubtitleFrameTest {
+  private static CueGroup group(Cue... cues) {
+    return new CueGroup(Arrays.asList(cues), /* presentationTimeUs= */ 0);
+  }
+
+  private static Cue textCue(CharSequence text) {
+    return new Cue.Builder().setText(text).build();
+  }
+
+  @Test
+  public void emptyGroupIsEmptyFrame() {
+    assertSame(SubtitleFrame.EMPTY, SubtitleFrame.from(new CueGroup(Collections.emptyList(), 0)));
+  }
+
+  @Test
+  public void joinsTrimmedTextCuesAndKeepsSpans() {
+    SpannableString bold = new SpannableString(" Hello ");
+    bold.setSpan(new StyleSpan(Typeface.BOLD), 1, 6, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+    SubtitleFrame frame = SubtitleFrame.from(group(textCue(bold), textCue("  "), textCue("World")));
+
+    assertEquals("Hello\nWorld", frame.plainText());
+    StyleSpan[] spans = ((Spanned) frame.text).getSpans(0, frame.text.length(), StyleSpan.class);
+    assertEquals(1, spans.length);
+    assertEquals(0, ((Spanned) frame.text).getSpanStart(spans[0]));
+    assertEquals(5, ((Spanned) frame.text).getSpanEnd(spans[0]));
+  }
+
+  @Test
+  public void takesPlacementFromTheFirstTextCue() {
+    Cue top =
+        new Cue.Builder()
+            .setText("Sign")
+            .setLine(0.1f, Cue.LINE_TYPE_FRACTION)
+            .setTextAlignment(Layout.Alignment.ALIGN_NORMAL)
+            .build();
+
+    SubtitleFrame frame = SubtitleFrame.from(group(top, textCue("Dialogue")));
+
+    assertTrue(frame.top);
+    assertEquals(Layout.Alignment.ALIGN_NORMAL, frame.alignment);
+    assertFalse(SubtitleFrame.from(group(textCue("Dialogue"))).top);
+  }
+
+  @Test
+  public void negativeLineNumbersCountFromTheBottom() {
+    Cue bottom = new Cue.Builder().setText("Line").setLine(-1f, Cue.LINE_TYPE_NUMBER).build();
+
+    assertFalse(SubtitleFrame.from(group(bottom)).top);
+  }
+
+  @Test
+  public void separatesBitmapCues() {
+    Bitmap bitmap = Bitmap.createBitmap(4, 2, Bitmap.Config.ARGB_8888);
+    Cue image = new Cue.Builder().setBitmap(bitmap).setPosition(0.5f).setSize(0.8f).build();
+
+    SubtitleFrame frame = SubtitleFrame.from(group(image));
+
+    assertEquals("", frame.plainText());
+    assertEquals(Collections.singletonList(image), frame.bitmapCues);
+    assertFalse(frame.isEmpty());
+  }
+
+  @Test
+  public void sameAsMatchesIdenticalGroups() {
+    SubtitleFrame first = SubtitleFrame.from(group(textCue("Hello")));
+    SubtitleFrame second = SubtitleFrame.from(group(textCue("Hello")));
+
+    assertTrue(first.sameAs(second));
+    assertFalse(first.sameAs(SubtitleFrame.from(group(textCue("Bye")))));
+    assertFalse(first.sameAs(SubtitleFrame.EMPTY));
+  }
+
+  @Test
+  public void sameAsDistinguishesStyling() {
+    SpannableString italic = new SpannableString("Hello");
+    italic.setSpan(new StyleSpan(Typeface.ITALIC), 0, 5, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+    SubtitleFrame plain = SubtitleFrame.from(group(textCue("Hello")));
+    SubtitleFrame styled = SubtitleFrame.from(group(textCue(italic)));
+
+    assertFalse(plain.sameAs(styled));
+  }
+
+  @Test
+  public void sameAsComparesSpanAttributes() {
+    SubtitleFrame red = SubtitleFrame.from(group(textCue(colored("Hello", Color.RED))));
+    SubtitleFrame alsoRed = SubtitleFrame.from(group(textCue(colored("Hello", Color.RED))));
+    SubtitleFrame yellow = SubtitleFrame.from(group(textCue(colored("Hello", Color.YELLOW))));
+
+    assertTrue(red.sameAs(alsoRed));
+    assertFalse(red.sameAs(yellow));
+  }
+
+  private static SpannableString colored(String text, int color) {
+    SpannableString s = new SpannableString(text);
+    s.setSpan(new ForegroundColorSpan(color), 0, text.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+    return s;
+  }
+}
@@ -108,6 +108,36 @@ public final class TextureVideoPlayerTest {
     videoPlayer.dispose();
   }
 
+  @Test
+  public void onSurfaceAvailableKeepsAnAttachedSurface() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+
+    verify(mockProducer).setCallback(callbackCaptor.capture());
+    reset(mockExoPlayer);
+    callbackCaptor.getValue().onSurfaceAvailable();
+
+    // The producer still has the same surface, so the renderer is left alone.
+    verify(mockExoPlayer, never()).setVideoSurface(any());
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void missingProducerSurfaceIsAttachedWhenAvailable() {
+    Surface surface = mock(Surface.class);
+    when(mockProducer.getSurface()).thenReturn(null, surface);
+    VideoPlayer videoPlayer = createVideoPlayer();
+
+    verify(mockExoPlayer, never()).setVideoSurface(any());
+
+    verify(mockProducer).setCallback(callbackCaptor.capture());
+    callbackCaptor.getValue().onSurfaceAvailable();
+
+    verify(mockExoPlayer).setVideoSurface(surface);
+
+    videoPlayer.dispose();
+  }
+
   @Test
   public void onSurfaceProducerCleanupDoesNotStopOrPauseVideo() {
     VideoPlayer videoPlayer = createVideoPlayer();
@@ -0,0 +1,69 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.media3.common.C;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class TrackPreferencesTest {
+  @Test
+  public void defaultsPreferChineseSubtitlesWithoutVideoLimits() {
+    Context context = ApplicationProvider.getApplicationContext();
+
+    TrackPreferences preferences = TrackPreferences.fromPreferences(context);
+
+    assertEquals(Collections.emptyList(), preferences.audioLanguages);
+    assertEquals(Arrays.asList("zh-hans", "zh"), preferences.subtitleLanguages);
+    assertFalse(preferences.subtitlesOff);
+    assertEquals(Integer.MAX_VALUE, preferences.maxVideoHeight);
+    assertEquals(Integer.MAX_VALUE, preferences.maxVideoBitrate);
+  }
+
+  @Test
+  public void appliesTheAppSettingsToTheTrackSelector() {
+    Context context = ApplicationProvider.getApplicationContext();
+    LinPlayerBuffering.flutterPreferences(context)
+        .edit()
+        .putString(LinPlayerBuffering.KEY_PREFIX + "preferredAudioLang_v1", " JPN ")
+        .putString(LinPlayerBuffering.KEY_PREFIX + "preferredSubtitleLang_v1", "off")
+        .putLong(TrackPreferences.KEY_MAX_VIDEO_HEIGHT, 1080)
+        .putLong(TrackPreferences.KEY_MAX_VIDEO_BITRATE_KBPS, 8000)
+        .commit();
+    DefaultTrackSelector trackSelector = new DefaultTrackSelector(context);
+
+    TrackPreferences.fromPreferences(context).applyTo(trackSelector);
+
+    DefaultTrackSelector.Parameters parameters = trackSelector.getParameters();
+    assertEquals(Collections.singletonList("ja"), parameters.preferredAudioLanguages);
+    assertTrue(parameters.disabledTrackTypes.contains(C.TRACK_TYPE_TEXT));
+    assertEquals(1080, parameters.maxVideoHeight);
+    assertEquals(8_000_000, parameters.maxVideoBitrate);
+  }
+
+  @Test
+  public void mapsChineseScriptTags() {
+    Context context = ApplicationProvider.getApplicationContext();
+    LinPlayerBuffering.flutterPreferences(context)
+        .edit()
+        .putString(LinPlayerBuffering.KEY_PREFIX + "preferredSubtitleLang_v1", "cht")
+        .commit();
+
+    TrackPreferences preferences = TrackPreferences.fromPreferences(context);
+
+    assertEquals(Arrays.asList("zh-hant", "zh"), preferences.subtitleLanguages);
+  }
+}
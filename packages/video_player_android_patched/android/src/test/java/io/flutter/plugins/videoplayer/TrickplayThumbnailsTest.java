@@ -0,0 +1,134 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.videoplayer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import android.net.Uri;
+import android.util.LruCache;
+import androidx.media3.test.utils.FakeDataSet;
+import androidx.media3.test.utils.FakeDataSource;
+import androidx.test.core.app.ApplicationProvider;
+import io.flutter.plugins.videoplayer.TrickplayThumbnails.Piece;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class TrickplayThumbnailsTest {
+  private static final String BIF_URL = "https://media.example.com/Videos/1/index.bif";
+  private static final byte[][] FRAMES = {{1, 1, 1}, {2, 2}, {3, 3, 3, 3}};
+
+  // A BIF file with FRAMES at 0, 10 and 20 seconds.
+  private static byte[] buildBif() {
+    int size = 64 + (FRAMES.length + 1) * 8;
+    for (byte[] frame : FRAMES) {
+      size += frame.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put(new byte[] {(byte) 0x89, 0x42, 0x49, 0x46, 0x0d, 0x0a, 0x1a, 0x0a});
+    buffer.putInt(0);
+    buffer.putInt(FRAMES.length);
+    buffer.putInt(10_000);
+    buffer.position(64);
+    int offset = 64 + (FRAMES.length + 1) * 8;
+    for (int i = 0; i < FRAMES.length; i++) {
+      buffer.putInt(i);
+      buffer.putInt(offset);
+      offset += FRAMES[i].length;
+    }
+    buffer.putInt(0xffffffff);
+    buffer.putInt(offset);
+    for (byte[] frame : FRAMES) {
+      buffer.put(frame);
+    }
+    return buffer.array();
+  }
+
+  private static ThumbnailSourceMessage bifSource() {
+    return new ThumbnailSourceMessage(
+        BIF_URL, null, null, null, null, 10_000L, 320L, false, Collections.emptyMap());
+  }
+
+  @Test
+  public void parsesBifFrames() throws Exception {
+    Piece piece = TrickplayThumbnails.parseBif(buildBif());
+
+    assertEquals(3, piece.count());
+    assertEquals(0, piece.indexAt(0));
+    assertEquals(0, piece.indexAt(9_999));
+    assertEquals(1, piece.indexAt(10_000));
+    assertEquals(2, piece.indexAt(3_600_000));
+    assertArrayEquals(FRAMES[1], piece.thumbnail(1));
+    assertNull(piece.thumbnail(3));
+  }
+
+  @Test
+  public void rejectsFilesThatAreNotBif() {
+    byte[] data = buildBif();
+    data[1] = 'X';
+
+    assertThrows(IOException.class, () -> TrickplayThumbnails.parseBif(data));
+  }
+
+  @Test
+  public void returnsBifThumbnailsOnceLoaded() {
+    FakeDataSet dataSet = new FakeDataSet().setData(Uri.parse(BIF_URL), buildBif());
+    TrickplayThumbnails thumbnails =
+        new TrickplayThumbnails(
+            ApplicationProvider.getApplicationContext(),
+            bifSource(),
+            new FakeDataSource.Factory().setFakeDataSet(dataSet),
+            /* mediaUri= */ null,
+            Runnable::run,
+            new LruCache<>(1024 * 1024));
+
+    // The first lookup starts the download, which the direct executor completes at once.
+    assertNull(thumbnails.thumbnailAt(15_000));
+    assertArrayEquals(FRAMES[1], thumbnails.thumbnailAt(15_000));
+    assertArrayEquals(FRAMES[2], thumbnails.thumbnailAt(25_000));
+  }
+
+  @Test
+  public void readsBifFramesBackWhenTheFileDoesNotFitTheCache() {
+    FakeDataSet dataSet = new FakeDataSet().setData(Uri.parse(BIF_URL), buildBif());
+    TrickplayThumbnails thumbnails =
+        new TrickplayThumbnails(
+            ApplicationProvider.getApplicationContext(),
+            bifSource(),
+            new FakeDataSource.Factory().setFakeDataSet(dataSet),
+            /* mediaUri= */ null,
+            Runnable::run,
+            new LruCache<>(16));
+
+    // Only the frame wanted while the file was read is cached; others are read by range.
+    assertNull(thumbnails.thumbnailAt(15_000));
+    assertArrayEquals(FRAMES[1], thumbnails.thumbnailAt(15_000));
+    assertNull(thumbnails.thumbnailAt(25_000));
+    assertArrayEquals(FRAMES[2], thumbnails.thumbnailAt(25_000));
+  }
+
+  @Test
+  public void returnsNothingWhenTheSourceFailsWithoutFallback() {
+    TrickplayThumbnails thumbnails =
+        new TrickplayThumbnails(
+            ApplicationProvider.getApplicationContext(),
+            bifSource(),
+            new FakeDataSource.Factory().setFakeDataSet(new FakeDataSet()),
+            Uri.parse("https://media.example.com/Videos/1/stream"),
+            Runnable::run,
+            new LruCache<>(1024 * 1024));
+
+    assertNull(thumbnails.thumbnailAt(15_000));
+    assertNull(thumbnails.thumbnailAt(15_000));
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
+import java.util.Collections;
 import java.util.Map;
 import org.junit.Before;
 import org.junit.Rule;
@@ -88,4 +89,67 @@ public final class VideoPlayerEventCallbacksTest {
     IsPlayingStateEvent expected = new IsPlayingStateEvent(true);
     assertEquals(expected, actual);
   }
+
+  @Test
+  public void onMemoryPressureChanged() {
+    eventCallbacks.onMemoryPressureChanged(2, 16L * 1024 * 1024, false);
+
+    verify(mockEventSink).success(eventCaptor.capture());
+
+    PlatformVideoEvent actual = eventCaptor.getValue();
+    MemoryPressureEvent expected = new MemoryPressureEvent(2L, 16L * 1024 * 1024, false);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void onMediaItemTransition() {
+    eventCallbacks.onMediaItemTransition(1_440_000L, 3);
+
+    verify(mockEventSink).success(eventCaptor.capture());
+
+    PlatformVideoEvent actual = eventCaptor.getValue();
+    MediaItemTransitionEvent expected = new MediaItemTransitionEvent(1_440_000L, 3L);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void onPlaybackProgress() {
+    eventCallbacks.onPlaybackProgress(1000L, 5000L, 1.5, 2L);
+
+    verify(mockEventSink).success(eventCaptor.capture());
+
+    PlatformVideoEvent actual = eventCaptor.getValue();
+    PlaybackProgressEvent expected = new PlaybackProgressEvent(1000L, 5000L, 1.5, 2L);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void onPlaybackMetrics() {
+    PlaybackMetricsMessage metrics =
+        new PlaybackMetricsMessage(
+            800L, 1200L, 2L, 3500L, 14L, 3L, 4_000_000L, 12_000_000L, "c2.decoder", null);
+    eventCallbacks.onPlaybackMetrics(metrics);
+
+    verify(mockEventSink).success(eventCaptor.capture());
+
+    PlatformVideoEvent actual = eventCaptor.getValue();
+    PlaybackMetricsEvent expected = new PlaybackMetricsEvent(metrics);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void onTracksSnapshot() {
+    NativeAudioTrackData audio =
+        new NativeAudioTrackData(
+            Collections.singletonList(
+                new ExoPlayerAudioTrackData(0L, 0L, "English", "en", true, null, null, 2L, null)));
+    NativeSubtitleTrackData subtitles = new NativeSubtitleTrackData(Collections.emptyList());
+    eventCallbacks.onTracksSnapshot(4L, audio, subtitles);
+
+    verify(mockEventSink).success(eventCaptor.capture());
+
+    PlatformVideoEvent actual = eventCaptor.getValue();
+    TracksSnapshotEvent expected = new TracksSnapshotEvent(4L, audio, subtitles);
+    assertEquals(expected, actual);
+  }
 }
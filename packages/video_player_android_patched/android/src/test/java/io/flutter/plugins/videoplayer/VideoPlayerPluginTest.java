@@ -36,6 +36,7 @@ public class VideoPlayerPluginTest {
   public void setUp() {
     MockitoAnnotations.openMocks(this);
     when(mockTextureRegistry.createSurfaceProducer()).thenReturn(mockSurfaceProducer);
+    when(mockTextureRegistry.createSurfaceProducer(any())).thenReturn(mockSurfaceProducer);
 
     FlutterPlugin.FlutterPluginBinding binding = mock(FlutterPlugin.FlutterPluginBinding.class);
     when(binding.getApplicationContext()).thenReturn(mock(Context.class));
@@ -73,7 +74,7 @@ public class VideoPlayerPluginTest {
     try (MockedStatic<PlatformViewVideoPlayer> mockedPlatformViewVideoPlayerStatic =
         mockStatic(PlatformViewVideoPlayer.class)) {
       mockedPlatformViewVideoPlayerStatic
-          .when(() -> PlatformViewVideoPlayer.create(any(), any(), any(), any()))
+          .when(() -> PlatformViewVideoPlayer.create(any(), any(), any(), any(), any(), anyLong()))
           .thenReturn(mock(PlatformViewVideoPlayer.class));
 
       final CreationOptions options =
@@ -81,6 +82,10 @@ public class VideoPlayerPluginTest {
               "https://flutter.github.io/assets-for-api-docs/assets/videos/bee.mp4",
               null,
               new HashMap<>(),
+              null,
+              null,
+              null,
+              null,
               null);
 
       final long playerId = plugin.createForPlatformView(options);
@@ -95,7 +100,7 @@ public class VideoPlayerPluginTest {
     try (MockedStatic<TextureVideoPlayer> mockedTextureVideoPlayerStatic =
         mockStatic(TextureVideoPlayer.class)) {
       mockedTextureVideoPlayerStatic
-          .when(() -> TextureVideoPlayer.create(any(), any(), any(), any(), any()))
+          .when(() -> TextureVideoPlayer.create(any(), any(), any(), any(), any(), any(), anyLong()))
           .thenReturn(mock(TextureVideoPlayer.class));
 
       final CreationOptions options =
@@ -103,12 +108,17 @@ public class VideoPlayerPluginTest {
               "https://flutter.github.io/assets-for-api-docs/assets/videos/bee.mp4",
               null,
               new HashMap<>(),
+              null,
+              null,
+              null,
+              null,
               null);
 
       final TexturePlayerIds ids = plugin.createForTextureView(options);
 
       final LongSparseArray<VideoPlayer> videoPlayers = getVideoPlayers();
       assertTrue(videoPlayers.get(ids.getPlayerId()) instanceof TextureVideoPlayer);
+      verify(mockTextureRegistry).createSurfaceProducer(TextureRegistry.SurfaceLifecycle.manual);
     }
   }
 }
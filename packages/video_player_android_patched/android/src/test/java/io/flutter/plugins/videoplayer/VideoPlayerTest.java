@@ -7,12 +7,16 @@ package io.flutter.plugins.videoplayer;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
+import static org.robolectric.Shadows.shadowOf;
 
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.media3.common.AudioAttributes;
@@ -24,12 +28,16 @@ import androidx.media3.common.Player;
 import androidx.media3.common.TrackGroup;
 import androidx.media3.common.TrackSelectionOverride;
 import androidx.media3.common.Tracks;
+import androidx.media3.datasource.DataSource;
 import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.source.MediaSource;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
 import com.google.common.collect.ImmutableList;
 import io.flutter.plugins.videoplayer.platformview.PlatformViewExoPlayerEventListener;
 import io.flutter.view.TextureRegistry.SurfaceProducer;
 import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Rule;
@@ -241,6 +249,158 @@ public final class VideoPlayerTest {
     verify(mockExoPlayer).release();
   }
 
+  @Test
+  public void disposeRemovesListenersAndRecyclesThroughTheProvider() {
+    final ExoPlayer[] recycled = new ExoPlayer[1];
+    VideoPlayer videoPlayer =
+        new TestVideoPlayer(
+            mockEvents,
+            fakeVideoAsset.getMediaItem(),
+            new VideoPlayerOptions(),
+            null,
+            new VideoPlayer.ExoPlayerProvider() {
+              @NonNull
+              @Override
+              public ExoPlayer get() {
+                return mockExoPlayer;
+              }
+
+              @Override
+              public void recycle(@NonNull ExoPlayer exoPlayer) {
+                recycled[0] = exoPlayer;
+              }
+            });
+    verify(mockExoPlayer, times(4)).addListener(listenerCaptor.capture());
+
+    videoPlayer.dispose();
+
+    for (Player.Listener listener : listenerCaptor.getAllValues()) {
+      verify(mockExoPlayer).removeListener(listener);
+    }
+    verify(mockExoPlayer, never()).release();
+    assertEquals(mockExoPlayer, recycled[0]);
+  }
+
+  @Test
+  public void enqueueMediaItemAddsResolvedSourceAndEnablesPreloading() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    MediaSource mockSource = mock(MediaSource.class);
+    CreationOptions options =
+        new CreationOptions(
+            "https://flutter.dev/next.mp4", null, new HashMap<>(), null, null, null, null);
+    videoPlayer.setMediaSourceResolver(resolved -> mockSource);
+
+    videoPlayer.enqueueMediaItem(options);
+
+    verify(mockExoPlayer).addMediaSource(mockSource);
+    verify(mockExoPlayer).setPreloadConfiguration(any(ExoPlayer.PreloadConfiguration.class));
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void enqueueMediaItemWithoutResolverThrows() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    CreationOptions options =
+        new CreationOptions(
+            "https://flutter.dev/next.mp4", null, new HashMap<>(), null, null, null, null);
+
+    assertThrows(IllegalStateException.class, () -> videoPlayer.enqueueMediaItem(options));
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void clearQueuedMediaItemsKeepsTheCurrentItem() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    when(mockExoPlayer.getCurrentMediaItemIndex()).thenReturn(0);
+    when(mockExoPlayer.getMediaItemCount()).thenReturn(3);
+
+    videoPlayer.clearQueuedMediaItems();
+
+    verify(mockExoPlayer).removeMediaItems(1, 3);
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void automaticTransitionDropsPlayedItemsAndNotifies() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    verify(mockExoPlayer, times(4)).addListener(listenerCaptor.capture());
+    Player.Listener playlistListener = listenerCaptor.getAllValues().get(3);
+    when(mockExoPlayer.getCurrentMediaItemIndex()).thenReturn(1);
+    when(mockExoPlayer.getMediaItemCount()).thenReturn(2);
+    when(mockExoPlayer.getDuration()).thenReturn(1_440_000L);
+
+    playlistListener.onMediaItemTransition(
+        fakeVideoAsset.getMediaItem(), Player.MEDIA_ITEM_TRANSITION_REASON_AUTO);
+
+    verify(mockExoPlayer).removeMediaItems(0, 1);
+    verify(mockEvents).onMediaItemTransition(1_440_000L, 1);
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void progressIsPushedOnlyWhenListenedToAndChanged() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    when(mockEvents.hasListener()).thenReturn(true);
+    when(mockExoPlayer.getCurrentPosition()).thenReturn(1000L);
+    when(mockExoPlayer.getBufferedPosition()).thenReturn(5000L);
+    when(mockExoPlayer.getPlaybackParameters()).thenReturn(PlaybackParameters.DEFAULT);
+
+    videoPlayer.setProgressUpdateInterval(250);
+    shadowOf(Looper.getMainLooper()).idle();
+    verify(mockEvents).onPlaybackProgress(1000L, 5000L, 1.0, 0L);
+
+    // Nothing changed, so the next tick sends nothing.
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(250));
+    verify(mockEvents, times(1)).onPlaybackProgress(anyLong(), anyLong(), anyDouble(), anyLong());
+
+    when(mockExoPlayer.getCurrentPosition()).thenReturn(1250L);
+    when(mockEvents.hasListener()).thenReturn(false);
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(250));
+    verify(mockEvents, times(1)).onPlaybackProgress(anyLong(), anyLong(), anyDouble(), anyLong());
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void progressCarriesTheSeekCount() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    when(mockEvents.hasListener()).thenReturn(true);
+    when(mockExoPlayer.getCurrentPosition()).thenReturn(1000L);
+    when(mockExoPlayer.getBufferedPosition()).thenReturn(5000L);
+    when(mockExoPlayer.getPlaybackParameters()).thenReturn(PlaybackParameters.DEFAULT);
+    videoPlayer.setProgressUpdateInterval(250);
+    shadowOf(Looper.getMainLooper()).idle();
+
+    // Seeking to where playback already is still pushes, with the new count.
+    videoPlayer.seekTo(1000L);
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(250));
+
+    verify(mockEvents).onPlaybackProgress(1000L, 5000L, 1.0, 1L);
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void resumeTrackingRecordsThePositionPeriodicallyAndOnDispose() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    ResumePositionStore store = mock(ResumePositionStore.class);
+    when(mockExoPlayer.getCurrentPosition()).thenReturn(60_000L);
+    when(mockExoPlayer.getDuration()).thenReturn(3_600_000L);
+
+    videoPlayer.setResumeTracking(store, "episode-1");
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(5));
+    verify(store).update("episode-1", 60_000L, 3_600_000L);
+
+    when(mockExoPlayer.getCurrentPosition()).thenReturn(61_000L);
+    videoPlayer.dispose();
+    verify(store).update("episode-1", 61_000L, 3_600_000L);
+    verify(store).flush();
+  }
+
   // Helper method to set the length field on a mocked Tracks.Group
   private void setGroupLength(Tracks.Group group, int length) {
     try {
@@ -364,6 +524,49 @@ public final class VideoPlayerTest {
     videoPlayer.dispose();
   }
 
+  @Test
+  public void trackListsAreReusedUntilTheTracksChange() {
+    Tracks mockTracks = mock(Tracks.class);
+    when(mockTracks.getGroups()).thenReturn(ImmutableList.of());
+    when(mockExoPlayer.getCurrentTracks()).thenReturn(mockTracks);
+    when(mockEvents.hasListener()).thenReturn(true);
+
+    VideoPlayer videoPlayer = createVideoPlayer();
+    verify(mockExoPlayer, times(4)).addListener(listenerCaptor.capture());
+    Player.Listener tracksListener = listenerCaptor.getAllValues().get(0);
+
+    NativeAudioTrackData first = videoPlayer.getAudioTracks();
+    assertSame(first, videoPlayer.getAudioTracks());
+    assertSame(videoPlayer.getSubtitleTracks(), videoPlayer.getSubtitleTracks());
+
+    tracksListener.onTracksChanged(mockTracks);
+
+    NativeAudioTrackData second = videoPlayer.getAudioTracks();
+    assertNotSame(first, second);
+    verify(mockEvents).onTracksSnapshot(eq(1L), same(second), any(NativeSubtitleTrackData.class));
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void suspendedPlayerStaysPausedUntilItsGrantReturns() {
+    VideoPlayer videoPlayer = createVideoPlayer();
+    when(mockExoPlayer.getPlayWhenReady()).thenReturn(true);
+
+    videoPlayer.onResourceGrantChanged(new LinPlayerResourceArbiter.Grant(0, false, true));
+    shadowOf(Looper.getMainLooper()).idle();
+    verify(mockExoPlayer).pause();
+
+    videoPlayer.play();
+    verify(mockExoPlayer, never()).play();
+
+    videoPlayer.onResourceGrantChanged(new LinPlayerResourceArbiter.Grant(0, false, false));
+    shadowOf(Looper.getMainLooper()).idle();
+    verify(mockExoPlayer).play();
+
+    videoPlayer.dispose();
+  }
+
   @Test
   public void testGetAudioTracks_withNullValues() {
     Tracks mockTracks = mock(Tracks.class);
@@ -620,4 +823,43 @@ public final class VideoPlayerTest {
 
     videoPlayer.dispose();
   }
+
+  @Test
+  public void sideloadedSubtitleIsListedWithoutPreparingAgain() {
+    when(mockExoPlayer.getCurrentMediaItem()).thenReturn(fakeVideoAsset.getMediaItem());
+    when(mockExoPlayer.getCurrentTracks()).thenReturn(Tracks.EMPTY);
+    when(mockExoPlayer.getTrackSelector())
+        .thenReturn(mock(DefaultTrackSelector.class, RETURNS_DEEP_STUBS));
+    VideoPlayer videoPlayer = createVideoPlayer();
+    videoPlayer.setSubtitleDataSourceFactory(mock(DataSource.Factory.class));
+
+    videoPlayer.addSubtitleSource("/sdcard/episode.srt", null, "en", "English");
+
+    // Only the prepare from construction; the buffer is left alone.
+    verify(mockExoPlayer, times(1)).prepare();
+    verify(mockExoPlayer, never()).setMediaItem(any(MediaItem.class), anyLong());
+    List<ExoPlayerSubtitleTrackData> tracks = videoPlayer.getSubtitleTracks().getExoPlayerTracks();
+    assertNotNull(tracks);
+    assertEquals(1, tracks.size());
+    assertEquals(VideoPlayer.SIDELOADED_GROUP_INDEX, tracks.get(0).getGroupIndex());
+    assertEquals("English", tracks.get(0).getLabel());
+    assertTrue(tracks.get(0).isSelected());
+
+    videoPlayer.deselectSubtitleTrack();
+    assertFalse(videoPlayer.getSubtitleTracks().getExoPlayerTracks().get(0).isSelected());
+
+    videoPlayer.dispose();
+  }
+
+  @Test
+  public void selectingMissingSideloadedSubtitleThrows() {
+    when(mockExoPlayer.getTrackSelector()).thenReturn(mock(DefaultTrackSelector.class));
+    VideoPlayer videoPlayer = createVideoPlayer();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> videoPlayer.selectSubtitleTrack(VideoPlayer.SIDELOADED_GROUP_INDEX, 0));
+
+    videoPlayer.dispose();
+  }
 }
@@ -1,6 +1,16 @@
 export 'src/messages.g.dart'
     show
+        CreationOptions,
         ExoPlayerSubtitleTrackData,
+        MediaItemTransitionEvent,
+        MemoryPressureEvent,
         NativeSubtitleTrackData,
+        PlaybackMetricsEvent,
+        PlaybackMetricsMessage,
+        PlatformVideoEvent,
+        PlatformVideoFormat,
+        RendererPolicyMessage,
         SubtitleStyleMessage,
+        ThumbnailSourceMessage,
+        TracksSnapshotEvent,
         VideoPlayerInstanceApi;
@@ -49,6 +49,33 @@ class AndroidVideoPlayer extends VideoPlayerPlatform {
 
   final Map<int, _PlayerInstance> _players = <int, _PlayerInstance>{};
 
+  static final Map<String, _StartOptions> _pendingStartOptions =
+      <String, _StartOptions>{};
+
+  /// Sets where the next player created for [uri] starts.
+  ///
+  /// `VideoPlayerController` has no way to pass these, so they are held here
+  /// and picked up by the next [createWithOptions] call for the same URI.
+  ///
+  /// With a [resumeKey], the player records its position under that key while
+  /// it plays. Without a [startPosition] it starts from the beginning, or,
+  /// with [resumeFromStore], where it last stopped.
+  static void setStartOptions(
+    String uri, {
+    Duration? startPosition,
+    String? resumeKey,
+    bool resumeFromStore = false,
+  }) {
+    _pendingStartOptions[uri] =
+        _StartOptions(startPosition, resumeKey, resumeFromStore);
+  }
+
+  /// Decoder settings for players created from now on; `null` keeps
+  /// ExoPlayer's defaults.
+  ///
+  /// Tunneling only takes effect for [VideoViewType.platformView] players.
+  static RendererPolicyMessage? rendererPolicy;
+
   /// Registers this class as the default instance of [PathProviderPlatform].
   static void registerWith() {
     VideoPlayerPlatform.instance = AndroidVideoPlayer();
@@ -109,11 +136,16 @@ class AndroidVideoPlayer extends VideoPlayerPlatform {
     if (uri == null) {
       throw ArgumentError('Unable to construct a video asset from $options');
     }
+    final _StartOptions? start = _pendingStartOptions.remove(uri);
     final pigeonCreationOptions = CreationOptions(
       uri: uri,
       httpHeaders: httpHeaders,
       userAgent: userAgent,
       formatHint: formatHint,
+      resumeKey: start?.resumeKey,
+      startPositionMs: start?.startPosition?.inMilliseconds,
+      rendererPolicy: rendererPolicy,
+      resumeFromStore: start?.resumeFromStore,
     );
 
     final int playerId;
@@ -202,6 +234,36 @@ class AndroidVideoPlayer extends VideoPlayerPlatform {
     return _playerWith(id: playerId).videoEvents();
   }
 
+  /// Returns a stream of LinPlayer-specific native events for [playerId],
+  /// such as [MemoryPressureEvent], [MediaItemTransitionEvent],
+  /// [PlaybackMetricsEvent] and [TracksSnapshotEvent], which have no
+  /// [VideoEvent] equivalent.
+  ///
+  /// The stream is a broadcast stream and closes when the player is disposed.
+  Stream<PlatformVideoEvent> nativeEventsFor(int playerId) {
+    return _playerWith(id: playerId).nativeEvents();
+  }
+
+  /// Marks [playerId] as a background player, such as a hover preview, or as
+  /// a foreground player again.
+  ///
+  /// Players are foreground when created. Background players get a small
+  /// share of the buffer budget, stop loading while a foreground player is
+  /// buffering, and are paused once no decoder is left for them; they resume
+  /// when one frees up.
+  Future<void> setBackground(int playerId, bool background) {
+    return _playerWith(id: playerId).setBackground(background);
+  }
+
+  /// Returns the audio and subtitle tracks last pushed for [playerId], or null
+  /// if none have arrived since the player was created or changed items.
+  ///
+  /// Unlike [VideoPlayerInstanceApi.getSubtitleTracks] this does not cross the
+  /// platform channel; listen to [nativeEventsFor] for updates.
+  TracksSnapshotEvent? tracksSnapshotFor(int playerId) {
+    return _playerWith(id: playerId).tracksSnapshot;
+  }
+
   @override
   Widget buildView(int playerId) {
     return buildViewWithOptions(VideoViewOptions(playerId: playerId));
@@ -286,6 +348,15 @@ class AndroidVideoPlayer extends VideoPlayerPlatform {
   }
 }
 
+/// Start options set by [AndroidVideoPlayer.setStartOptions].
+class _StartOptions {
+  _StartOptions(this.startPosition, this.resumeKey, this.resumeFromStore);
+
+  final Duration? startPosition;
+  final String? resumeKey;
+  final bool resumeFromStore;
+}
+
 /// An instance of a video player, corresponding to a single player ID in
 /// [AndroidVideoPlayer].
 class _PlayerInstance {
@@ -308,12 +379,28 @@ class _PlayerInstance {
   final VideoPlayerInstanceApi _api;
   final StreamController<VideoEvent> _eventStreamController =
       StreamController<VideoEvent>();
+  final StreamController<PlatformVideoEvent> _nativeEventStreamController =
+      StreamController<PlatformVideoEvent>.broadcast();
   late final StreamSubscription<dynamic> _eventSubscription;
+  // How often the native side pushes position and buffer updates.
+  static const int _progressUpdateIntervalMs = 250;
+
   bool _isDisposed = false;
-  Timer? _bufferPollingTimer;
   int _lastBufferPosition = -1;
+  bool _isPlaying = false;
+  // The last pushed position, and when it arrived, for extrapolating
+  // getPosition() without a platform channel round trip.
+  int? _pushedPosition;
+  double _pushedSpeed = 1.0;
+  final Stopwatch _sincePushedPosition = Stopwatch();
+  // Seeks requested so far; pushes sampled before the latest one are stale.
+  int _seekCount = 0;
   bool _isBuffering = false;
   Completer<void>? _audioTrackSelectionCompleter;
+  // The latest track lists pushed by the native side; they are pushed before
+  // the matching AudioTrackChangedEvent, so they are current by the time an
+  // audio track selection completes.
+  TracksSnapshotEvent? _tracksSnapshot;
 
   final VideoPlayerViewState viewState;
 
@@ -338,19 +425,48 @@ class _PlayerInstance {
   }
 
   Future<void> seekTo(Duration position) {
+    // The pushed position is stale until a progress event sampled after
+    // this seek arrives.
+    _pushedPosition = null;
+    _seekCount++;
     return _api.seekTo(position.inMilliseconds);
   }
 
   Future<Duration> getPosition() async {
+    final int? position = _extrapolatedPosition();
+    if (position != null) {
+      return Duration(milliseconds: position);
+    }
     return Duration(milliseconds: await _api.getCurrentPosition());
   }
 
+  // The last pushed position advanced by the time since it arrived, or null
+  // if no position has been pushed since the last seek or item change.
+  int? _extrapolatedPosition() {
+    final int? pushed = _pushedPosition;
+    if (pushed == null || !_isPlaying) {
+      return pushed;
+    }
+    return pushed +
+        (_sincePushedPosition.elapsedMilliseconds * _pushedSpeed).round();
+  }
+
   Stream<VideoEvent> videoEvents() {
     return _eventStreamController.stream;
   }
 
-  Future<NativeAudioTrackData> getAudioTracks() {
-    return _api.getAudioTracks();
+  Stream<PlatformVideoEvent> nativeEvents() {
+    return _nativeEventStreamController.stream;
+  }
+
+  TracksSnapshotEvent? get tracksSnapshot => _tracksSnapshot;
+
+  Future<void> setBackground(bool background) {
+    return _api.setBackground(background);
+  }
+
+  Future<NativeAudioTrackData> getAudioTracks() async {
+    return _tracksSnapshot?.audioTracks ?? await _api.getAudioTracks();
   }
 
   Future<void> selectAudioTrack(String trackId) async {
@@ -386,8 +502,8 @@ class _PlayerInstance {
 
   Future<void> dispose() async {
     _isDisposed = true;
-    _bufferPollingTimer?.cancel();
     await _eventSubscription.cancel();
+    await _nativeEventStreamController.close();
   }
 
   void _setBuffering(bool buffering) {
@@ -437,17 +553,18 @@ class _PlayerInstance {
           ),
         );
 
-        // Start polling for buffer position, since there is no buffer position
-        // event to listen to.
-        _bufferPollingTimer = Timer.periodic(const Duration(seconds: 1), (
-          Timer timer,
-        ) async {
-          final int position = await _api.getBufferedPosition();
-          if (!_isDisposed) {
-            _updateBufferPosition(position);
-          }
-        });
+        // Ask the native side to push position and buffer updates, instead of
+        // polling for them.
+        _api.setProgressUpdateInterval(_progressUpdateIntervalMs);
       case IsPlayingStateEvent _:
+        if (_pushedPosition != null) {
+          // Re-anchor extrapolation at the moment playback starts or stops.
+          _pushedPosition = _extrapolatedPosition();
+          _sincePushedPosition
+            ..reset()
+            ..start();
+        }
+        _isPlaying = event.isPlaying;
         _eventStreamController.add(
           VideoEvent(
             eventType: VideoEventType.isPlayingStateUpdate,
@@ -487,6 +604,35 @@ class _PlayerInstance {
             !_audioTrackSelectionCompleter!.isCompleted) {
           _audioTrackSelectionCompleter!.complete();
         }
+      case MemoryPressureEvent _:
+      case PlaybackMetricsEvent _:
+        _nativeEventStreamController.add(event);
+      case MediaItemTransitionEvent _:
+        // The buffered position restarts with the new item, and its tracks
+        // arrive in a later snapshot.
+        _lastBufferPosition = -1;
+        _pushedPosition = null;
+        _tracksSnapshot = null;
+        _nativeEventStreamController.add(event);
+      case TracksSnapshotEvent _:
+        // Versions only grow per player; ignore anything older than what
+        // is already cached.
+        if (event.version > (_tracksSnapshot?.version ?? -1)) {
+          _tracksSnapshot = event;
+        }
+        _nativeEventStreamController.add(event);
+      case PlaybackProgressEvent _:
+        // Sampled before the latest seek, possibly still queued natively
+        // while the seek was sent.
+        if (event.seekCount < _seekCount) {
+          return;
+        }
+        _pushedPosition = event.position;
+        _pushedSpeed = event.playbackSpeed;
+        _sincePushedPosition
+          ..reset()
+          ..start();
+        _updateBufferPosition(event.bufferedPosition);
     }
   }
 
@@ -464,6 +464,10 @@ class CreationOptions {
     this.formatHint,
     required this.httpHeaders,
     this.userAgent,
+    this.resumeKey,
+    this.startPositionMs,
+    this.rendererPolicy,
+    this.resumeFromStore,
   });
 
   String uri;
@@ -474,12 +478,32 @@ class CreationOptions {
 
   String? userAgent;
 
+  /// Identifies the media for resuming; the player records its position under
+  /// this key.
+  String? resumeKey;
+
+  /// Where to start playback, in milliseconds. The player is prepared there
+  /// directly instead of buffering from the start and seeking afterwards.
+  int? startPositionMs;
+
+  /// Decoder and renderer settings; defaults are used when absent.
+  RendererPolicyMessage? rendererPolicy;
+
+  /// Starts from the position recorded under [resumeKey] when
+  /// [startPositionMs] is absent. Only when true: a missing start otherwise
+  /// plays from the beginning.
+  bool? resumeFromStore;
+
   List<Object?> _toList() {
     return <Object?>[
       uri,
       formatHint,
       httpHeaders,
       userAgent,
+      resumeKey,
+      startPositionMs,
+      rendererPolicy,
+      resumeFromStore,
     ];
   }
 
@@ -493,6 +517,10 @@ class CreationOptions {
       formatHint: result[1] as PlatformVideoFormat?,
       httpHeaders: (result[2] as Map<Object?, Object?>?)!.cast<String, String>(),
       userAgent: result[3] as String?,
+      resumeKey: result[4] as String?,
+      startPositionMs: result[5] as int?,
+      rendererPolicy: result[6] as RendererPolicyMessage?,
+      resumeFromStore: result[7] as bool?,
     );
   }
 
@@ -810,6 +838,530 @@ class NativeAudioTrackData {
 ;
 }
 
+/// Sent when the native memory governor changes the buffer budget.
+///
+/// [level] is 0 (normal), 1 (moderate) or 2 (critical).
+class MemoryPressureEvent extends PlatformVideoEvent {
+  MemoryPressureEvent({
+    required this.level,
+    required this.targetBufferBytes,
+    required this.backBufferEnabled,
+  });
+
+  int level;
+
+  /// The largest number of bytes a player may buffer at this level.
+  int targetBufferBytes;
+
+  /// Whether this player keeps a back buffer.
+  ///
+  /// This is decided when the player is built, so a live player keeps its
+  /// back buffer under pressure; players built while the level is not 0 do
+  /// not get one.
+  bool backBufferEnabled;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      level,
+      targetBufferBytes,
+      backBufferEnabled,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static MemoryPressureEvent decode(Object result) {
+    result as List<Object?>;
+    return MemoryPressureEvent(
+      level: result[0]! as int,
+      targetBufferBytes: result[1]! as int,
+      backBufferEnabled: result[2]! as bool,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! MemoryPressureEvent || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// Sent when playback moves on to a queued media item.
+class MediaItemTransitionEvent extends PlatformVideoEvent {
+  MediaItemTransitionEvent({
+    required this.duration,
+    required this.queuedItemCount,
+  });
+
+  /// The duration of the new item in milliseconds, or 0 if not yet known.
+  int duration;
+
+  /// The number of items still queued after the new item.
+  int queuedItemCount;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      duration,
+      queuedItemCount,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static MediaItemTransitionEvent decode(Object result) {
+    result as List<Object?>;
+    return MediaItemTransitionEvent(
+      duration: result[0]! as int,
+      queuedItemCount: result[1]! as int,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! MediaItemTransitionEvent || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// Periodic playback progress, sent while a listener is attached and something changed.
+class PlaybackProgressEvent extends PlatformVideoEvent {
+  PlaybackProgressEvent({
+    required this.position,
+    required this.bufferedPosition,
+    required this.playbackSpeed,
+    required this.seekCount,
+  });
+
+  /// The playback position in milliseconds.
+  int position;
+
+  /// The buffered position in milliseconds.
+  int bufferedPosition;
+
+  /// The current playback speed.
+  double playbackSpeed;
+
+  /// How many seeks the player had handled when this was sampled.
+  ///
+  /// Pushes sampled before the latest seek carry a lower count.
+  int seekCount;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      position,
+      bufferedPosition,
+      playbackSpeed,
+      seekCount,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static PlaybackProgressEvent decode(Object result) {
+    result as List<Object?>;
+    return PlaybackProgressEvent(
+      position: result[0]! as int,
+      bufferedPosition: result[1]! as int,
+      playbackSpeed: result[2]! as double,
+      seekCount: result[3]! as int,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! PlaybackProgressEvent || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// Playback quality metrics collected since the player was created.
+class PlaybackMetricsMessage {
+  PlaybackMetricsMessage({
+    this.timeToFirstFrame,
+    this.joinLatency,
+    required this.rebufferCount,
+    required this.rebufferDuration,
+    required this.droppedFrames,
+    required this.bitrateSwitchCount,
+    this.videoBitrate,
+    this.bandwidthEstimate,
+    this.videoDecoderName,
+    this.audioDecoderName,
+  });
+
+  /// Milliseconds from creation to the first rendered video frame, if rendered yet.
+  int? timeToFirstFrame;
+
+  /// Milliseconds from the first play request until playback started, if it has.
+  int? joinLatency;
+
+  /// The number of stalls during playback, excluding seeks and startup.
+  int rebufferCount;
+
+  /// The total time spent stalled, in milliseconds.
+  int rebufferDuration;
+
+  /// The number of video frames dropped by the renderer.
+  int droppedFrames;
+
+  /// The number of video format switches after the first video format.
+  int bitrateSwitchCount;
+
+  /// The bitrate of the current video format in bits per second, if known.
+  int? videoBitrate;
+
+  /// The latest network bandwidth estimate in bits per second, if any.
+  int? bandwidthEstimate;
+
+  /// The name of the video decoder in use, if any.
+  String? videoDecoderName;
+
+  /// The name of the audio decoder in use, if any.
+  String? audioDecoderName;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      timeToFirstFrame,
+      joinLatency,
+      rebufferCount,
+      rebufferDuration,
+      droppedFrames,
+      bitrateSwitchCount,
+      videoBitrate,
+      bandwidthEstimate,
+      videoDecoderName,
+      audioDecoderName,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static PlaybackMetricsMessage decode(Object result) {
+    result as List<Object?>;
+    return PlaybackMetricsMessage(
+      timeToFirstFrame: result[0] as int?,
+      joinLatency: result[1] as int?,
+      rebufferCount: result[2]! as int,
+      rebufferDuration: result[3]! as int,
+      droppedFrames: result[4]! as int,
+      bitrateSwitchCount: result[5]! as int,
+      videoBitrate: result[6] as int?,
+      bandwidthEstimate: result[7] as int?,
+      videoDecoderName: result[8] as String?,
+      audioDecoderName: result[9] as String?,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! PlaybackMetricsMessage || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// Periodic summary of playback metrics, sent while a listener is attached.
+class PlaybackMetricsEvent extends PlatformVideoEvent {
+  PlaybackMetricsEvent({
+    required this.metrics,
+  });
+
+  PlaybackMetricsMessage metrics;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      metrics,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static PlaybackMetricsEvent decode(Object result) {
+    result as List<Object?>;
+    return PlaybackMetricsEvent(
+      metrics: result[0]! as PlaybackMetricsMessage,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! PlaybackMetricsEvent || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// Where to get seek preview thumbnails for the current media item.
+///
+/// A BIF file is used when [bifUrl] is set, otherwise tile sheets when
+/// [tileUrlTemplate] is set. Without either, or when they fail to load,
+/// frames are extracted from the media itself if [keyframeFallback] is set.
+class ThumbnailSourceMessage {
+  ThumbnailSourceMessage({
+    this.bifUrl,
+    this.tileUrlTemplate,
+    this.tileColumns,
+    this.tileRows,
+    this.thumbnailCount,
+    required this.intervalMs,
+    required this.maxWidth,
+    required this.keyframeFallback,
+    required this.httpHeaders,
+  });
+
+  /// URL of a BIF index file (Emby, Plex).
+  String? bifUrl;
+
+  /// URL of a tile sheet (Jellyfin trickplay), with `{index}` standing for the
+  /// sheet number.
+  String? tileUrlTemplate;
+
+  /// The number of thumbnails per row of a tile sheet.
+  int? tileColumns;
+
+  /// The number of thumbnail rows per tile sheet.
+  int? tileRows;
+
+  /// The total number of thumbnails in the tile sheets, if known.
+  int? thumbnailCount;
+
+  /// Milliseconds between thumbnails of tile sheets and extracted frames.
+  int intervalMs;
+
+  /// The width extracted frames are scaled down to, in pixels.
+  int maxWidth;
+
+  /// Whether to extract frames from the media when there is no other source.
+  bool keyframeFallback;
+
+  Map<String, String> httpHeaders;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      bifUrl,
+      tileUrlTemplate,
+      tileColumns,
+      tileRows,
+      thumbnailCount,
+      intervalMs,
+      maxWidth,
+      keyframeFallback,
+      httpHeaders,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static ThumbnailSourceMessage decode(Object result) {
+    result as List<Object?>;
+    return ThumbnailSourceMessage(
+      bifUrl: result[0] as String?,
+      tileUrlTemplate: result[1] as String?,
+      tileColumns: result[2] as int?,
+      tileRows: result[3] as int?,
+      thumbnailCount: result[4] as int?,
+      intervalMs: result[5]! as int,
+      maxWidth: result[6]! as int,
+      keyframeFallback: result[7]! as bool,
+      httpHeaders: (result[8] as Map<Object?, Object?>?)!.cast<String, String>(),
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! ThumbnailSourceMessage || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// How the player picks and drives video decoders.
+class RendererPolicyMessage {
+  RendererPolicyMessage({
+    required this.tunneling,
+    required this.preferHardwareDecoders,
+    required this.decoderFallback,
+    required this.asyncQueueing,
+  });
+
+  /// Requests tunneled playback, where the decoder renders straight to the
+  /// display in sync with audio. Only used with platform views on devices whose
+  /// decoders support it.
+  bool tunneling;
+
+  /// Ranks hardware decoders ahead of software ones for every format.
+  bool preferHardwareDecoders;
+
+  /// Tries the next decoder when the first one fails to initialize.
+  bool decoderFallback;
+
+  /// Feeds MediaCodec asynchronously from a dedicated thread.
+  bool asyncQueueing;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      tunneling,
+      preferHardwareDecoders,
+      decoderFallback,
+      asyncQueueing,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static RendererPolicyMessage decode(Object result) {
+    result as List<Object?>;
+    return RendererPolicyMessage(
+      tunneling: result[0]! as bool,
+      preferHardwareDecoders: result[1]! as bool,
+      decoderFallback: result[2]! as bool,
+      asyncQueueing: result[3]! as bool,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! RendererPolicyMessage || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
+/// Sent with every track change, carrying the full track lists.
+class TracksSnapshotEvent extends PlatformVideoEvent {
+  TracksSnapshotEvent({
+    required this.version,
+    required this.audioTracks,
+    required this.subtitleTracks,
+  });
+
+  /// Increases with every snapshot, so stale ones can be told apart.
+  int version;
+
+  /// The audio tracks, as returned by `getAudioTracks`.
+  NativeAudioTrackData audioTracks;
+
+  /// The subtitle tracks, as returned by `getSubtitleTracks`.
+  NativeSubtitleTrackData subtitleTracks;
+
+  List<Object?> _toList() {
+    return <Object?>[
+      version,
+      audioTracks,
+      subtitleTracks,
+    ];
+  }
+
+  Object encode() {
+    return _toList();  }
+
+  static TracksSnapshotEvent decode(Object result) {
+    result as List<Object?>;
+    return TracksSnapshotEvent(
+      version: result[0]! as int,
+      audioTracks: result[1]! as NativeAudioTrackData,
+      subtitleTracks: result[2]! as NativeSubtitleTrackData,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! TracksSnapshotEvent || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList())
+;
+}
+
 
 class _PigeonCodec extends StandardMessageCodec {
   const _PigeonCodec();
@@ -866,6 +1418,30 @@ class _PigeonCodec extends StandardMessageCodec {
     }    else if (value is NativeAudioTrackData) {
       buffer.putUint8(144);
       writeValue(buffer, value.encode());
+    }    else if (value is MemoryPressureEvent) {
+      buffer.putUint8(145);
+      writeValue(buffer, value.encode());
+    }    else if (value is MediaItemTransitionEvent) {
+      buffer.putUint8(146);
+      writeValue(buffer, value.encode());
+    }    else if (value is PlaybackProgressEvent) {
+      buffer.putUint8(147);
+      writeValue(buffer, value.encode());
+    }    else if (value is PlaybackMetricsMessage) {
+      buffer.putUint8(148);
+      writeValue(buffer, value.encode());
+    }    else if (value is PlaybackMetricsEvent) {
+      buffer.putUint8(149);
+      writeValue(buffer, value.encode());
+    }    else if (value is ThumbnailSourceMessage) {
+      buffer.putUint8(150);
+      writeValue(buffer, value.encode());
+    }    else if (value is RendererPolicyMessage) {
+      buffer.putUint8(151);
+      writeValue(buffer, value.encode());
+    }    else if (value is TracksSnapshotEvent) {
+      buffer.putUint8(152);
+      writeValue(buffer, value.encode());
     } else {
       super.writeValue(buffer, value);
     }
@@ -908,6 +1484,22 @@ class _PigeonCodec extends StandardMessageCodec {
         return ExoPlayerAudioTrackData.decode(readValue(buffer)!);
       case 144: 
         return NativeAudioTrackData.decode(readValue(buffer)!);
+      case 145: 
+        return MemoryPressureEvent.decode(readValue(buffer)!);
+      case 146: 
+        return MediaItemTransitionEvent.decode(readValue(buffer)!);
+      case 147: 
+        return PlaybackProgressEvent.decode(readValue(buffer)!);
+      case 148: 
+        return PlaybackMetricsMessage.decode(readValue(buffer)!);
+      case 149: 
+        return PlaybackMetricsEvent.decode(readValue(buffer)!);
+      case 150: 
+        return ThumbnailSourceMessage.decode(readValue(buffer)!);
+      case 151: 
+        return RendererPolicyMessage.decode(readValue(buffer)!);
+      case 152: 
+        return TracksSnapshotEvent.decode(readValue(buffer)!);
       default:
         return super.readValueOfType(type, buffer);
     }
@@ -1505,6 +2097,179 @@ class VideoPlayerInstanceApi {
       return;
     }
   }
+
+  /// Queues a media item to play after the current one.
+  ///
+  /// Queued items are preloaded in the background so the transition is near-gapless.
+  Future<void> enqueueMediaItem(CreationOptions options) async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.enqueueMediaItem$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(<Object?>[options]);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  /// Removes all queued media items after the current one.
+  Future<void> clearQueuedMediaItems() async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.clearQueuedMediaItems$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(null);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  /// Sets how often [PlaybackProgressEvent]s are sent, in milliseconds. 0 disables them.
+  Future<void> setProgressUpdateInterval(int intervalMs) async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.setProgressUpdateInterval$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(<Object?>[intervalMs]);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  /// Returns the playback metrics collected so far.
+  Future<PlaybackMetricsMessage> getPlaybackMetrics() async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.getPlaybackMetrics$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(null);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as PlaybackMetricsMessage?)!;
+    }
+  }
+
+  /// Sets where seek preview thumbnails come from, or clears them if null.
+  Future<void> setThumbnailSource(ThumbnailSourceMessage? source) async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.setThumbnailSource$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(<Object?>[source]);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  /// Returns the JPEG thumbnail for [positionMs] if it is loaded.
+  ///
+  /// Otherwise starts loading it and returns null; call again while scrubbing.
+  Future<Uint8List?> getThumbnail(int positionMs) async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.getThumbnail$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(<Object?>[positionMs]);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?);
+    }
+  }
+
+  /// Marks this player as a background preview, or as a foreground player again.
+  ///
+  /// Background players get a small share of the buffer budget, stop loading while
+  /// a foreground player is buffering, and are paused when no decoder is left for them.
+  Future<void> setBackground(bool background) async {
+    final pigeonVar_channelName = 'dev.flutter.pigeon.video_player_android.VideoPlayerInstanceApi.setBackground$pigeonVar_messageChannelSuffix';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(<Object?>[background]);
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
 }
 
 Stream<PlatformVideoEvent> videoEvents( {String instanceName = ''}) {
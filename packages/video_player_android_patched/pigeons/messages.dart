@@ -119,6 +119,46 @@ class CreationOptions {
   PlatformVideoFormat? formatHint;
   Map<String, String> httpHeaders;
   String? userAgent;
+
+  /// Identifies the media for resuming; the player records its position under
+  /// this key.
+  String? resumeKey;
+
+  /// Where to start playback, in milliseconds. The player is prepared there
+  /// directly instead of buffering from the start and seeking afterwards.
+  int? startPositionMs;
+
+  /// Decoder and renderer settings; defaults are used when absent.
+  RendererPolicyMessage? rendererPolicy;
+
+  /// Starts from the position recorded under [resumeKey] when
+  /// [startPositionMs] is absent. Only when true: a missing start otherwise
+  /// plays from the beginning.
+  bool? resumeFromStore;
+}
+
+/// How the player picks and drives video decoders.
+class RendererPolicyMessage {
+  RendererPolicyMessage({
+    required this.tunneling,
+    required this.preferHardwareDecoders,
+    required this.decoderFallback,
+    required this.asyncQueueing,
+  });
+
+  /// Requests tunneled playback, where the decoder renders straight to the
+  /// display in sync with audio. Only used with platform views on devices whose
+  /// decoders support it.
+  bool tunneling;
+
+  /// Ranks hardware decoders ahead of software ones for every format.
+  bool preferHardwareDecoders;
+
+  /// Tries the next decoder when the first one fails to initialize.
+  bool decoderFallback;
+
+  /// Feeds MediaCodec asynchronously from a dedicated thread.
+  bool asyncQueueing;
 }
 
 class TexturePlayerIds {
@@ -194,6 +234,158 @@ class NativeAudioTrackData {
   List<ExoPlayerAudioTrackData>? exoPlayerTracks;
 }
 
+/// Sent when the native memory governor changes the buffer budget.
+///
+/// [level] is 0 (normal), 1 (moderate) or 2 (critical).
+class MemoryPressureEvent extends PlatformVideoEvent {
+  late final int level;
+
+  /// The largest number of bytes a player may buffer at this level.
+  late final int targetBufferBytes;
+
+  /// Whether this player keeps a back buffer.
+  ///
+  /// This is decided when the player is built, so a live player keeps its
+  /// back buffer under pressure; players built while the level is not 0 do
+  /// not get one.
+  late final bool backBufferEnabled;
+}
+
+/// Sent when playback moves on to a queued media item.
+class MediaItemTransitionEvent extends PlatformVideoEvent {
+  /// The duration of the new item in milliseconds, or 0 if not yet known.
+  late final int duration;
+
+  /// The number of items still queued after the new item.
+  late final int queuedItemCount;
+}
+
+/// Periodic playback progress, sent while a listener is attached and something changed.
+class PlaybackProgressEvent extends PlatformVideoEvent {
+  /// The playback position in milliseconds.
+  late final int position;
+
+  /// The buffered position in milliseconds.
+  late final int bufferedPosition;
+
+  /// The current playback speed.
+  late final double playbackSpeed;
+
+  /// How many seeks the player had handled when this was sampled.
+  ///
+  /// Pushes sampled before the latest seek carry a lower count.
+  late final int seekCount;
+}
+
+/// Playback quality metrics collected since the player was created.
+class PlaybackMetricsMessage {
+  PlaybackMetricsMessage({
+    this.timeToFirstFrame,
+    this.joinLatency,
+    required this.rebufferCount,
+    required this.rebufferDuration,
+    required this.droppedFrames,
+    required this.bitrateSwitchCount,
+    this.videoBitrate,
+    this.bandwidthEstimate,
+    this.videoDecoderName,
+    this.audioDecoderName,
+  });
+
+  /// Milliseconds from creation to the first rendered video frame, if rendered yet.
+  int? timeToFirstFrame;
+
+  /// Milliseconds from the first play request until playback started, if it has.
+  int? joinLatency;
+
+  /// The number of stalls during playback, excluding seeks and startup.
+  int rebufferCount;
+
+  /// The total time spent stalled, in milliseconds.
+  int rebufferDuration;
+
+  /// The number of video frames dropped by the renderer.
+  int droppedFrames;
+
+  /// The number of video format switches after the first video format.
+  int bitrateSwitchCount;
+
+  /// The bitrate of the current video format in bits per second, if known.
+  int? videoBitrate;
+
+  /// The latest network bandwidth estimate in bits per second, if any.
+  int? bandwidthEstimate;
+
+  /// The name of the video decoder in use, if any.
+  String? videoDecoderName;
+
+  /// The name of the audio decoder in use, if any.
+  String? audioDecoderName;
+}
+
+/// Periodic summary of playback metrics, sent while a listener is attached.
+class PlaybackMetricsEvent extends PlatformVideoEvent {
+  late final PlaybackMetricsMessage metrics;
+}
+
+/// Sent with every track change, carrying the full track lists.
+class TracksSnapshotEvent extends PlatformVideoEvent {
+  /// Increases with every snapshot, so stale ones can be told apart.
+  late final int version;
+
+  /// The audio tracks, as returned by `getAudioTracks`.
+  late final NativeAudioTrackData audioTracks;
+
+  /// The subtitle tracks, as returned by `getSubtitleTracks`.
+  late final NativeSubtitleTrackData subtitleTracks;
+}
+
+/// Where to get seek preview thumbnails for the current media item.
+///
+/// A BIF file is used when [bifUrl] is set, otherwise tile sheets when
+/// [tileUrlTemplate] is set. Without either, or when they fail to load,
+/// frames are extracted from the media itself if [keyframeFallback] is set.
+class ThumbnailSourceMessage {
+  ThumbnailSourceMessage({
+    this.bifUrl,
+    this.tileUrlTemplate,
+    this.tileColumns,
+    this.tileRows,
+    this.thumbnailCount,
+    required this.intervalMs,
+    required this.maxWidth,
+    required this.keyframeFallback,
+    required this.httpHeaders,
+  });
+
+  /// URL of a BIF index file (Emby, Plex).
+  String? bifUrl;
+
+  /// URL of a tile sheet (Jellyfin trickplay), with `{index}` standing for the
+  /// sheet number.
+  String? tileUrlTemplate;
+
+  /// The number of thumbnails per row of a tile sheet.
+  int? tileColumns;
+
+  /// The number of thumbnail rows per tile sheet.
+  int? tileRows;
+
+  /// The total number of thumbnails in the tile sheets, if known.
+  int? thumbnailCount;
+
+  /// Milliseconds between thumbnails of tile sheets and extracted frames.
+  int intervalMs;
+
+  /// The width extracted frames are scaled down to, in pixels.
+  int maxWidth;
+
+  /// Whether to extract frames from the media when there is no other source.
+  bool keyframeFallback;
+
+  Map<String, String> httpHeaders;
+}
+
 @HostApi()
 abstract class AndroidVideoPlayerApi {
   void initialize();
@@ -259,6 +451,34 @@ abstract class VideoPlayerInstanceApi {
 
   /// Adds an external subtitle source (e.g. .srt/.ass/.vtt) to the current media item.
   void addSubtitleSource(String uri, String? mimeType, String? language, String? label);
+
+  /// Queues a media item to play after the current one.
+  ///
+  /// Queued items are preloaded in the background so the transition is near-gapless.
+  void enqueueMediaItem(CreationOptions options);
+
+  /// Removes all queued media items after the current one.
+  void clearQueuedMediaItems();
+
+  /// Sets how often [PlaybackProgressEvent]s are sent, in milliseconds. 0 disables them.
+  void setProgressUpdateInterval(int intervalMs);
+
+  /// Returns the playback metrics collected so far.
+  PlaybackMetricsMessage getPlaybackMetrics();
+
+  /// Sets where seek preview thumbnails come from, or clears them if null.
+  void setThumbnailSource(ThumbnailSourceMessage? source);
+
+  /// Returns the JPEG thumbnail for [positionMs] if it is loaded.
+  ///
+  /// Otherwise starts loading it and returns null; call again while scrubbing.
+  Uint8List? getThumbnail(int positionMs);
+
+  /// Marks this player as a background preview, or as a foreground player again.
+  ///
+  /// Background players get a small share of the buffer budget, stop loading while
+  /// a foreground player is buffering, and are paused when no decoder is left for them.
+  void setBackground(bool background);
 }
 
 @EventChannelApi()
@@ -374,6 +374,67 @@ void main() {
       expect(playerId, newPlayerId);
     });
 
+    test('createWithOptions with network uses start options once', () async {
+      final (AndroidVideoPlayer player, MockAndroidVideoPlayerApi api, _) =
+          setUpMockPlayer(playerId: 1, textureId: 100);
+      when(api.createForTextureView(any)).thenAnswer(
+        (_) async => TexturePlayerIds(playerId: 2, textureId: 100),
+      );
+
+      const uri = 'https://example.com/episode.mkv';
+      AndroidVideoPlayer.setStartOptions(
+        uri,
+        startPosition: const Duration(minutes: 1),
+        resumeKey: 'episode-1',
+      );
+      final options = VideoCreationOptions(
+        dataSource: DataSource(sourceType: DataSourceType.network, uri: uri),
+        viewType: VideoViewType.textureView,
+      );
+      await player.createWithOptions(options);
+      await player.createWithOptions(options);
+
+      final List<dynamic> captured = verify(
+        api.createForTextureView(captureAny),
+      ).captured;
+      final first = captured[0] as CreationOptions;
+      expect(first.resumeKey, 'episode-1');
+      expect(first.startPositionMs, 60000);
+      expect(first.resumeFromStore, isFalse);
+      final second = captured[1] as CreationOptions;
+      expect(second.resumeKey, isNull);
+      expect(second.startPositionMs, isNull);
+    });
+
+    test('createWithOptions passes the renderer policy', () async {
+      final (AndroidVideoPlayer player, MockAndroidVideoPlayerApi api, _) =
+          setUpMockPlayer(playerId: 1, textureId: 100);
+      when(api.createForPlatformView(any)).thenAnswer((_) async => 2);
+      addTearDown(() => AndroidVideoPlayer.rendererPolicy = null);
+
+      AndroidVideoPlayer.rendererPolicy = RendererPolicyMessage(
+        tunneling: true,
+        preferHardwareDecoders: true,
+        decoderFallback: true,
+        asyncQueueing: false,
+      );
+      await player.createWithOptions(
+        VideoCreationOptions(
+          dataSource: DataSource(
+            sourceType: DataSourceType.network,
+            uri: 'https://example.com/movie.mkv',
+          ),
+          viewType: VideoViewType.platformView,
+        ),
+      );
+
+      final creationOptions =
+          verify(api.createForPlatformView(captureAny)).captured[0]
+              as CreationOptions;
+      expect(creationOptions.rendererPolicy?.tunneling, isTrue);
+      expect(creationOptions.rendererPolicy?.asyncQueueing, isFalse);
+    });
+
     test('createWithOptions with file', () async {
       final (AndroidVideoPlayer player, MockAndroidVideoPlayerApi api, _) =
           setUpMockPlayer(playerId: 1, textureId: 100);
@@ -620,14 +681,52 @@ void main() {
         );
       });
 
-      test('initialization triggers buffer update polling', () async {
+      test('initialization enables pushed progress updates', () async {
+        const playerId = 1;
+        final (
+          AndroidVideoPlayer player,
+          _,
+          MockVideoPlayerInstanceApi api,
+          StreamController<PlatformVideoEvent> streamController,
+        ) = setUpMockPlayerWithStream(
+          playerId: playerId,
+        );
+
+        streamController.add(
+          InitializationEvent(
+            duration: 98765,
+            width: 1920,
+            height: 1080,
+            rotationCorrection: 90,
+          ),
+        );
+        await player.videoEventsFor(playerId).first;
+
+        verify(api.setProgressUpdateInterval(argThat(greaterThan(0))));
+        verifyNever(api.getBufferedPosition());
+      });
+
+      test('progress events trigger buffer updates', () async {
         final Stream<VideoEvent> eventStream =
             mockPlayerEmitingEvents(<PlatformVideoEvent>[
-              InitializationEvent(
-                duration: 98765,
-                width: 1920,
-                height: 1080,
-                rotationCorrection: 90,
+              PlaybackProgressEvent(
+                position: 1000,
+                bufferedPosition: 5000,
+                playbackSpeed: 1.0,
+                seekCount: 0,
+              ),
+              // Unchanged buffered positions are not reported again.
+              PlaybackProgressEvent(
+                position: 1250,
+                bufferedPosition: 5000,
+                playbackSpeed: 1.0,
+                seekCount: 0,
+              ),
+              PlaybackProgressEvent(
+                position: 1500,
+                bufferedPosition: 6000,
+                playbackSpeed: 1.0,
+                seekCount: 0,
               ),
             ]);
 
@@ -635,21 +734,82 @@ void main() {
           eventStream,
           emitsInOrder(<dynamic>[
             VideoEvent(
-              eventType: VideoEventType.initialized,
-              duration: const Duration(milliseconds: 98765),
-              size: const Size(1920, 1080),
-              rotationCorrection: 90,
+              eventType: VideoEventType.bufferingUpdate,
+              buffered: <DurationRange>[
+                DurationRange(
+                  Duration.zero,
+                  const Duration(milliseconds: 5000),
+                ),
+              ],
             ),
             VideoEvent(
               eventType: VideoEventType.bufferingUpdate,
               buffered: <DurationRange>[
-                DurationRange(Duration.zero, Duration.zero),
+                DurationRange(
+                  Duration.zero,
+                  const Duration(milliseconds: 6000),
+                ),
               ],
             ),
           ]),
         );
       });
 
+      test('getPosition uses the pushed position while paused', () async {
+        const playerId = 1;
+        final (
+          AndroidVideoPlayer player,
+          _,
+          MockVideoPlayerInstanceApi api,
+          StreamController<PlatformVideoEvent> streamController,
+        ) = setUpMockPlayerWithStream(
+          playerId: playerId,
+        );
+
+        streamController.add(
+          PlaybackProgressEvent(
+            position: 4321,
+            bufferedPosition: 9000,
+            playbackSpeed: 1.0,
+            seekCount: 0,
+          ),
+        );
+        await player.videoEventsFor(playerId).first;
+
+        expect(
+          await player.getPosition(playerId),
+          const Duration(milliseconds: 4321),
+        );
+        verifyNever(api.getCurrentPosition());
+      });
+
+      test('progress sampled before a seek is ignored', () async {
+        const playerId = 1;
+        final (
+          AndroidVideoPlayer player,
+          _,
+          MockVideoPlayerInstanceApi api,
+          StreamController<PlatformVideoEvent> streamController,
+        ) = setUpMockPlayerWithStream(
+          playerId: playerId,
+        );
+        when(api.getCurrentPosition()).thenAnswer((_) async => 60000);
+
+        await player.seekTo(playerId, const Duration(minutes: 1));
+        streamController.add(
+          PlaybackProgressEvent(
+            position: 4321,
+            bufferedPosition: 9000,
+            playbackSpeed: 1.0,
+            seekCount: 0,
+          ),
+        );
+        await Future<void>.delayed(Duration.zero);
+
+        expect(await player.getPosition(playerId), const Duration(minutes: 1));
+        verify(api.getCurrentPosition());
+      });
+
       test('completed', () async {
         final Stream<VideoEvent> eventStream = mockPlayerEmitingEvents(
           <PlatformVideoEvent>[
@@ -950,5 +1110,100 @@ void main() {
         verify(api.selectAudioTrack(0, 1));
       });
     });
+
+    test('setBackground', () async {
+      final (AndroidVideoPlayer player, _, MockVideoPlayerInstanceApi api) =
+          setUpMockPlayer(playerId: 1);
+
+      await player.setBackground(1, true);
+
+      verify(api.setBackground(true));
+    });
+
+    group('native events', () {
+      test('forwards LinPlayer events to nativeEventsFor', () async {
+        final (
+          AndroidVideoPlayer player,
+          _,
+          _,
+          StreamController<PlatformVideoEvent> streamController,
+        ) = setUpMockPlayerWithStream(
+          playerId: 1,
+        );
+        final Stream<PlatformVideoEvent> nativeEvents = player.nativeEventsFor(
+          1,
+        );
+
+        final memoryEvent = MemoryPressureEvent(
+          level: 1,
+          targetBufferBytes: 64 * 1024 * 1024,
+          backBufferEnabled: false,
+        );
+        final transitionEvent = MediaItemTransitionEvent(
+          duration: 1440000,
+          queuedItemCount: 2,
+        );
+        final metricsEvent = PlaybackMetricsEvent(
+          metrics: PlaybackMetricsMessage(
+            timeToFirstFrame: 800,
+            rebufferCount: 1,
+            rebufferDuration: 1200,
+            droppedFrames: 4,
+            bitrateSwitchCount: 2,
+          ),
+        );
+        streamController.add(memoryEvent);
+        streamController.add(transitionEvent);
+        streamController.add(metricsEvent);
+
+        expect(
+          nativeEvents,
+          emitsInOrder(<dynamic>[memoryEvent, transitionEvent, metricsEvent]),
+        );
+      });
+
+      test('getAudioTracks uses the pushed tracks snapshot', () async {
+        final (
+          AndroidVideoPlayer player,
+          _,
+          MockVideoPlayerInstanceApi api,
+          StreamController<PlatformVideoEvent> streamController,
+        ) = setUpMockPlayerWithStream(
+          playerId: 1,
+        );
+        final snapshot = TracksSnapshotEvent(
+          version: 1,
+          audioTracks: NativeAudioTrackData(
+            exoPlayerTracks: <ExoPlayerAudioTrackData>[
+              ExoPlayerAudioTrackData(
+                groupIndex: 1,
+                trackIndex: 0,
+                label: 'English',
+                language: 'en',
+                isSelected: true,
+              ),
+            ],
+          ),
+          subtitleTracks: NativeSubtitleTrackData(
+            exoPlayerTracks: <ExoPlayerSubtitleTrackData>[],
+          ),
+        );
+        streamController.add(snapshot);
+        await Future<void>.delayed(Duration.zero);
+
+        final List<VideoAudioTrack> tracks = await player.getAudioTracks(1);
+
+        expect(tracks.single.id, '1_0');
+        expect(player.tracksSnapshotFor(1), same(snapshot));
+        verifyNever(api.getAudioTracks());
+
+        // A new item's tracks are unknown until its own snapshot arrives.
+        streamController.add(
+          MediaItemTransitionEvent(duration: 1000, queuedItemCount: 0),
+        );
+        await Future<void>.delayed(Duration.zero);
+        expect(player.tracksSnapshotFor(1), isNull);
+      });
+    });
   });
 }
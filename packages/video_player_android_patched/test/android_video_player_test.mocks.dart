@@ -224,6 +224,24 @@ class MockVideoPlayerInstanceApi extends _i1.Mock
           )
           as _i4.Future<int>);
 
+  @override
+  _i4.Future<void> setBackground(bool? background) =>
+      (super.noSuchMethod(
+            Invocation.method(#setBackground, [background]),
+            returnValue: _i4.Future<void>.value(),
+            returnValueForMissingStub: _i4.Future<void>.value(),
+          )
+          as _i4.Future<void>);
+
+  @override
+  _i4.Future<void> setProgressUpdateInterval(int? intervalMs) =>
+      (super.noSuchMethod(
+            Invocation.method(#setProgressUpdateInterval, [intervalMs]),
+            returnValue: _i4.Future<void>.value(),
+            returnValueForMissingStub: _i4.Future<void>.value(),
+          )
+          as _i4.Future<void>);
+
   @override
   _i4.Future<_i2.NativeAudioTrackData> getAudioTracks() =>
       (super.noSuchMethod(
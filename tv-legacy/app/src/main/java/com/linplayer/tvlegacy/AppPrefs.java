@@ -21,6 +21,9 @@ public final class AppPrefs {
     private static final String KEY_REMOTE_TOKEN = "remote_token";
     private static final String KEY_REMOTE_PORT = "remote_port";
 
+    private static final String KEY_PARALLEL_RANGE = "parallel_range";
+    private static final String KEY_RESUME_PLAYBACK = "resume_playback";
+
     private AppPrefs() {}
 
     private static SharedPreferences prefs(Context context) {
@@ -136,4 +139,21 @@ public final class AppPrefs {
         int p = port > 0 ? port : 0;
         prefs(context).edit().putInt(KEY_REMOTE_PORT, p).apply();
     }
+
+    // Off by default: the chunks it reads ahead are held outside ExoPlayer's buffer budget.
+    public static boolean isParallelRangeEnabled(Context context) {
+        return prefs(context).getBoolean(KEY_PARALLEL_RANGE, false);
+    }
+
+    public static void setParallelRangeEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(KEY_PARALLEL_RANGE, enabled).apply();
+    }
+
+    public static boolean isResumePlaybackEnabled(Context context) {
+        return prefs(context).getBoolean(KEY_RESUME_PLAYBACK, true);
+    }
+
+    public static void setResumePlaybackEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(KEY_RESUME_PLAYBACK, enabled).apply();
+    }
 }
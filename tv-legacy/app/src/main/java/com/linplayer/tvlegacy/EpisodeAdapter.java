@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
 import java.util.List;
 
 final class EpisodeAdapter extends RecyclerView.Adapter<EpisodeAdapter.Vh> {
@@ -13,14 +14,42 @@ final class EpisodeAdapter extends RecyclerView.Adapter<EpisodeAdapter.Vh> {
         void onEpisodeClicked(Episode episode);
     }
 
+    // Rebinds a row in place, so the item animator keeps its view and the D-pad focus on it.
+    private static final Object PAYLOAD_REFRESH = new Object();
+
     private final List<Episode> episodes;
     private final Listener listener;
 
     EpisodeAdapter(List<Episode> episodes, Listener listener) {
-        this.episodes = episodes;
+        this.episodes = episodes != null ? new ArrayList<>(episodes) : new ArrayList<>();
         this.listener = listener;
     }
 
+    /**
+     * Replaces the episodes in place, notifying only the rows that look different, so a refresh
+     * keeps the focused row and the scroll position.
+     */
+    void setEpisodes(List<Episode> replacement) {
+        List<Episode> next = replacement != null ? replacement : new ArrayList<>();
+        int oldSize = episodes.size();
+        int newSize = next.size();
+        for (int i = 0; i < Math.min(oldSize, newSize); i++) {
+            Episode before = episodes.get(i);
+            Episode after = next.get(i);
+            episodes.set(i, after);
+            if (before.index != after.index || !before.title.equals(after.title)) {
+                notifyItemChanged(i, PAYLOAD_REFRESH);
+            }
+        }
+        if (newSize > oldSize) {
+            episodes.addAll(next.subList(oldSize, newSize));
+            notifyItemRangeInserted(oldSize, newSize - oldSize);
+        } else if (oldSize > newSize) {
+            episodes.subList(newSize, oldSize).clear();
+            notifyItemRangeRemoved(newSize, oldSize - newSize);
+        }
+    }
+
     @NonNull
     @Override
     public Vh onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -35,7 +64,13 @@ final class EpisodeAdapter extends RecyclerView.Adapter<EpisodeAdapter.Vh> {
         Episode episode = episodes.get(position);
         holder.index.setText(String.valueOf(episode.index));
         holder.title.setText(episode.title);
-        holder.itemView.setOnClickListener(v -> listener.onEpisodeClicked(episode));
+        // Looked up on click: setEpisodes may replace the episode without rebinding the row.
+        holder.itemView.setOnClickListener(
+                v -> {
+                    int pos = holder.getAdapterPosition();
+                    if (pos == RecyclerView.NO_POSITION) return;
+                    listener.onEpisodeClicked(episodes.get(pos));
+                });
     }
 
     @Override
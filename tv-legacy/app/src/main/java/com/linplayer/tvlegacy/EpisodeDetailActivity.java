@@ -10,11 +10,13 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import com.linplayer.tvlegacy.backend.Backends;
 import com.linplayer.tvlegacy.backend.Callback;
+import com.linplayer.tvlegacy.backend.RequestScope;
 
 public final class EpisodeDetailActivity extends AppCompatActivity {
     static final String EXTRA_SHOW_ID = "show_id";
     static final String EXTRA_EPISODE_INDEX = "episode_index";
 
+    private final RequestScope requests = RequestScope.bindTo(this);
     private String showId;
     private int episodeIndex;
     private String showTitle = "Unknown show";
@@ -60,69 +62,75 @@ public final class EpisodeDetailActivity extends AppCompatActivity {
                     Intent i = new Intent(this, PlayerActivity.class);
                     i.putExtra(PlayerActivity.EXTRA_TITLE, showTitle + " · " + current.title);
                     i.putExtra(PlayerActivity.EXTRA_URL, current.mediaUrl);
+                    i.putExtra(PlayerActivity.EXTRA_MEDIA_ID, current.id);
                     startActivity(i);
                 });
 
-        Backends.media(this)
-                .getShow(
-                        showId,
-                        new Callback<Show>() {
-                            @Override
-                            public void onSuccess(Show show) {
-                                if (isFinishing() || isDestroyed()) return;
-                                EpisodeDetailActivity.this.show = show;
-                                showTitle = show != null ? show.title : "Unknown show";
-                                metaText.setText(showTitle + " · EP " + episodeIndex);
-                                if (episode == null && show != null) {
-                                    ImageLoader.load(thumbView, show.backdropUrl, dpToPx(1280));
-                                }
-                            }
-
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                showTitle = "Unknown show";
-                                metaText.setText(showTitle + " · EP " + episodeIndex);
-                            }
-                        });
-
-        Backends.media(this)
-                .getEpisode(
-                        showId,
-                        episodeIndex,
-                        new Callback<Episode>() {
-                            @Override
-                            public void onSuccess(Episode v) {
-                                if (isFinishing() || isDestroyed()) return;
-                                episode = v;
-                                if (v != null && v.title != null && !v.title.trim().isEmpty()) {
-                                    titleText.setText(v.title);
-                                } else {
-                                    titleText.setText("Episode " + episodeIndex);
-                                }
-
-                                metaText.setText(buildEpisodeMeta(showTitle, v, episodeIndex));
-
-                                String desc = v != null ? v.overview : "";
-                                if (desc == null || desc.trim().isEmpty()) desc = "No overview";
-                                descText.setText(desc);
-
-                                String thumb = v != null ? v.thumbUrl : "";
-                                if ((thumb == null || thumb.trim().isEmpty()) && show != null) {
-                                    thumb = show.backdropUrl;
-                                }
-                                ImageLoader.load(thumbView, thumb, dpToPx(1280));
-                            }
-
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                episode = null;
-                                titleText.setText("Episode " + episodeIndex);
-                                descText.setText(
-                                        "Load episode failed: " + String.valueOf(error.getMessage()));
-                            }
-                        });
+        requests.add(
+                Backends.media(this)
+                        .getShow(
+                                showId,
+                                new Callback<Show>() {
+                                    @Override
+                                    public void onSuccess(Show show) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        EpisodeDetailActivity.this.show = show;
+                                        showTitle = show != null ? show.title : "Unknown show";
+                                        // The episode may have arrived first; keep its S/E line.
+                                        metaText.setText(
+                                                buildEpisodeMeta(showTitle, episode, episodeIndex));
+                                        if (episode == null && show != null) {
+                                            ImageLoader.load(thumbView, show.backdropUrl, dpToPx(1280));
+                                        }
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable error) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        showTitle = "Unknown show";
+                                        metaText.setText(
+                                                buildEpisodeMeta(showTitle, episode, episodeIndex));
+                                    }
+                                }));
+
+        requests.add(
+                Backends.media(this)
+                        .getEpisode(
+                                showId,
+                                episodeIndex,
+                                new Callback<Episode>() {
+                                    @Override
+                                    public void onSuccess(Episode v) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        episode = v;
+                                        if (v != null && v.title != null && !v.title.trim().isEmpty()) {
+                                            titleText.setText(v.title);
+                                        } else {
+                                            titleText.setText("Episode " + episodeIndex);
+                                        }
+
+                                        metaText.setText(buildEpisodeMeta(showTitle, v, episodeIndex));
+
+                                        String desc = v != null ? v.overview : "";
+                                        if (desc == null || desc.trim().isEmpty()) desc = "No overview";
+                                        descText.setText(desc);
+
+                                        String thumb = v != null ? v.thumbUrl : "";
+                                        if ((thumb == null || thumb.trim().isEmpty()) && show != null) {
+                                            thumb = show.backdropUrl;
+                                        }
+                                        ImageLoader.load(thumbView, thumb, dpToPx(1280));
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable error) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        episode = null;
+                                        titleText.setText("Episode " + episodeIndex);
+                                        descText.setText(
+                                                "Load episode failed: " + String.valueOf(error.getMessage()));
+                                    }
+                                }));
     }
 
     private int dpToPx(int dp) {
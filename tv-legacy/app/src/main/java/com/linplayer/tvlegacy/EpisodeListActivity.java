@@ -11,12 +11,15 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.linplayer.tvlegacy.backend.Backends;
 import com.linplayer.tvlegacy.backend.Callback;
+import com.linplayer.tvlegacy.backend.RequestScope;
 import java.util.Collections;
 import java.util.List;
 
 public final class EpisodeListActivity extends AppCompatActivity {
     static final String EXTRA_SHOW_ID = "show_id";
 
+    private final RequestScope requests = RequestScope.bindTo(this);
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -37,69 +40,63 @@ public final class EpisodeListActivity extends AppCompatActivity {
 
         RecyclerView list = findViewById(R.id.episode_list);
         list.setLayoutManager(new LinearLayoutManager(this));
+        // One adapter for the screen: a revalidated list is applied in place, keeping focus.
+        EpisodeAdapter adapter =
+                new EpisodeAdapter(
+                        Collections.emptyList(),
+                        episode -> {
+                            Intent i = new Intent(this, EpisodeDetailActivity.class);
+                            i.putExtra(EpisodeDetailActivity.EXTRA_SHOW_ID, showId);
+                            i.putExtra(EpisodeDetailActivity.EXTRA_EPISODE_INDEX, episode.index);
+                            startActivity(i);
+                        });
+        list.setAdapter(adapter);
 
-        Backends.media(this)
-                .getShow(
-                        showId,
-                        new Callback<Show>() {
-                            @Override
-                            public void onSuccess(Show show) {
-                                if (isFinishing() || isDestroyed()) return;
-                                String showTitle = show != null ? show.title : "Unknown show";
-                                title.setText(
-                                        showTitle
-                                                + " · "
-                                                + getString(R.string.episode_list_title));
-                            }
+        requests.add(
+                Backends.media(this)
+                        .getShow(
+                                showId,
+                                new Callback<Show>() {
+                                    @Override
+                                    public void onSuccess(Show show) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        String showTitle = show != null ? show.title : "Unknown show";
+                                        title.setText(
+                                                showTitle
+                                                        + " · "
+                                                        + getString(R.string.episode_list_title));
+                                    }
 
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                title.setText(getString(R.string.episode_list_title));
-                            }
-                        });
+                                    @Override
+                                    public void onError(Throwable error) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        title.setText(getString(R.string.episode_list_title));
+                                    }
+                                }));
 
-        Backends.media(this)
-                .listEpisodes(
-                        showId,
-                        new Callback<List<Episode>>() {
-                            @Override
-                            public void onSuccess(List<Episode> episodes) {
-                                if (isFinishing() || isDestroyed()) return;
-                                List<Episode> safe =
-                                        episodes != null ? episodes : Collections.emptyList();
-                                list.setAdapter(
-                                        new EpisodeAdapter(
-                                                safe,
-                                                episode -> {
-                                                    Intent i =
-                                                            new Intent(
-                                                                    EpisodeListActivity.this,
-                                                                    EpisodeDetailActivity.class);
-                                                    i.putExtra(
-                                                            EpisodeDetailActivity.EXTRA_SHOW_ID,
-                                                            showId);
-                                                    i.putExtra(
-                                                            EpisodeDetailActivity
-                                                                    .EXTRA_EPISODE_INDEX,
-                                                            episode.index);
-                                                    startActivity(i);
-                                                }));
-                            }
+        requests.add(
+                Backends.media(this)
+                        .listEpisodes(
+                                showId,
+                                new Callback<List<Episode>>() {
+                                    @Override
+                                    public void onSuccess(List<Episode> episodes) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        // May run again after a revalidation; see Callback.
+                                        adapter.setEpisodes(episodes);
+                                    }
 
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                Toast.makeText(
-                                                EpisodeListActivity.this,
-                                                "Load episodes failed: "
-                                                        + String.valueOf(error.getMessage()),
-                                                Toast.LENGTH_LONG)
-                                        .show();
-                                list.setAdapter(
-                                        new EpisodeAdapter(
-                                                Collections.emptyList(), episode -> {}));
-                            }
-                        });
+                                    @Override
+                                    public void onError(Throwable error) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        Toast.makeText(
+                                                        EpisodeListActivity.this,
+                                                        "Load episodes failed: "
+                                                                + String.valueOf(error.getMessage()),
+                                                        Toast.LENGTH_LONG)
+                                                .show();
+                                        adapter.setEpisodes(Collections.emptyList());
+                                    }
+                                }));
     }
 }
@@ -20,6 +20,10 @@ final class ExoNetwork {
         if (defaultRequestHeaders != null && !defaultRequestHeaders.isEmpty()) {
             httpFactory.setDefaultRequestProperties(defaultRequestHeaders);
         }
-        return new DefaultDataSource.Factory(context, httpFactory);
+        DataSource.Factory networkFactory =
+                AppPrefs.isParallelRangeEnabled(context)
+                        ? new ParallelRangeDataSource.Factory(httpFactory)
+                        : httpFactory;
+        return new DefaultDataSource.Factory(context, networkFactory);
     }
 }
@@ -87,7 +87,7 @@ public final class ImageLoader {
         }
     }
 
-    private static Bitmap decodeDownsampled(byte[] data, int maxSizePx) {
+    static Bitmap decodeDownsampled(byte[] data, int maxSizePx) {
         if (data == null || data.length == 0) return null;
         int max = maxSizePx > 0 ? maxSizePx : 0;
 
@@ -114,7 +114,7 @@ public final class ImageLoader {
         return BitmapFactory.decodeByteArray(data, 0, data.length, opts);
     }
 
-    private static int cacheSizeKb() {
+    static int cacheSizeKb() {
         long maxBytes = Runtime.getRuntime().maxMemory();
         long target = maxBytes / 8;
         if (target < 8L * 1024 * 1024) target = 8L * 1024 * 1024;
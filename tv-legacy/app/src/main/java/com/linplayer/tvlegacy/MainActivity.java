@@ -8,6 +8,7 @@ import android.os.Bundle;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
@@ -15,13 +16,29 @@ import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.linplayer.tvlegacy.backend.Backends;
 import com.linplayer.tvlegacy.backend.Callback;
+import com.linplayer.tvlegacy.backend.Cancellable;
+import com.linplayer.tvlegacy.backend.MediaBackend;
+import com.linplayer.tvlegacy.backend.Page;
+import com.linplayer.tvlegacy.backend.RequestScope;
 import com.linplayer.tvlegacy.servers.ServerStore;
-import java.util.List;
 
 public final class MainActivity extends AppCompatActivity {
+    private static final int SHOW_PAGE_SIZE = 60;
+    // Rows left below the viewport when the next page is requested.
+    private static final int PREFETCH_ROWS = 3;
+
     private TextView proxyStatusText;
     private RecyclerView showList;
 
+    private final RequestScope requests = RequestScope.bindTo(this);
+    private MediaBackend showsBackend;
+    private Cancellable showPageCall;
+    private ShowAdapter showAdapter;
+    private int showsGeneration;
+    private int nextShowIndex;
+    private boolean hasMoreShows;
+    private boolean loadingShows;
+
     private final BroadcastReceiver statusReceiver =
             new BroadcastReceiver() {
                 @Override
@@ -61,6 +78,13 @@ public final class MainActivity extends AppCompatActivity {
         showList.setLayoutManager(new GridLayoutManager(this, spanCount));
         int spacingPx = dpToPx(12);
         showList.addItemDecoration(new GridSpacingItemDecoration(spanCount, spacingPx, true));
+        showList.addOnScrollListener(
+                new RecyclerView.OnScrollListener() {
+                    @Override
+                    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                        maybeLoadMoreShows();
+                    }
+                });
 
         if (AppPrefs.isProxyEnabled(this)) {
             ProxyService.start(this);
@@ -87,7 +111,11 @@ public final class MainActivity extends AppCompatActivity {
         IntentFilter filter = new IntentFilter(ProxyService.ACTION_STATUS);
         ContextCompat.registerReceiver(
                 this, statusReceiver, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
-        loadShows();
+        MediaBackend backend = Backends.media(this);
+        // Keep the loaded pages and scroll position unless the active server changed.
+        if (backend != showsBackend || showAdapter == null) {
+            loadShows(backend);
+        }
     }
 
     @Override
@@ -96,39 +124,108 @@ public final class MainActivity extends AppCompatActivity {
         unregisterReceiver(statusReceiver);
     }
 
-    private void loadShows() {
+    private void loadShows(MediaBackend backend) {
+        if (showList == null) return;
+        if (showPageCall != null) showPageCall.cancel();
+        showsBackend = backend;
+        showAdapter = null;
+        showsGeneration++;
+        nextShowIndex = 0;
+        hasMoreShows = true;
+        loadingShows = false;
+        loadNextShowPage();
+    }
+
+    private void maybeLoadMoreShows() {
         RecyclerView list = showList;
-        if (list == null) return;
-        Backends.media(this)
-                .listShows(
-                        new Callback<List<Show>>() {
-                            @Override
-                            public void onSuccess(List<Show> shows) {
-                                if (isFinishing() || isDestroyed()) return;
-                                list.setAdapter(
-                                        new ShowAdapter(
-                                                shows,
-                                                show -> {
-                                                    Intent i =
-                                                            new Intent(
-                                                                    MainActivity.this,
-                                                                    ShowDetailActivity.class);
-                                                    i.putExtra(
-                                                            ShowDetailActivity.EXTRA_SHOW_ID,
-                                                            show.id);
-                                                    startActivity(i);
-                                                }));
-                            }
+        if (list == null || !(list.getLayoutManager() instanceof GridLayoutManager)) return;
+        GridLayoutManager lm = (GridLayoutManager) list.getLayoutManager();
+        int last = lm.findLastVisibleItemPosition();
+        if (last < 0) return;
+        if (last >= lm.getItemCount() - lm.getSpanCount() * PREFETCH_ROWS) {
+            loadNextShowPage();
+        }
+    }
 
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                Toast.makeText(
-                                                MainActivity.this,
-                                                String.valueOf(error.getMessage()),
-                                                Toast.LENGTH_LONG)
-                                        .show();
+    private void loadNextShowPage() {
+        RecyclerView list = showList;
+        MediaBackend backend = showsBackend;
+        if (list == null || backend == null || loadingShows || !hasMoreShows) return;
+        loadingShows = true;
+        int generation = showsGeneration;
+        int start = nextShowIndex;
+        Callback<Page<Show>> cb =
+                new Callback<Page<Show>>() {
+                    // Where this page landed in the adapter, once it has.
+                    private int appliedAt = -1;
+                    private int appliedCount;
+
+                    @Override
+                    public void onSuccess(Page<Show> page) {
+                        if (isFinishing() || isDestroyed()) return;
+                        if (generation != showsGeneration) return;
+                        if (appliedAt >= 0) {
+                            // The server's answer for a page first shown from the cache.
+                            if (page.items.size() == appliedCount && showAdapter != null) {
+                                showAdapter.replaceShows(appliedAt, page.items);
+                                // The last page decides whether there is more, e.g. when the
+                                // library grew since it was cached.
+                                if (appliedAt + appliedCount == showAdapter.getItemCount()
+                                        && !loadingShows) {
+                                    nextShowIndex = page.nextStartIndex();
+                                    hasMoreShows = page.hasMore();
+                                    list.post(MainActivity.this::maybeLoadMoreShows);
+                                }
+                            } else {
+                                loadShows(backend);
                             }
-                        });
+                            return;
+                        }
+                        appliedAt = showAdapter != null ? showAdapter.getItemCount() : 0;
+                        appliedCount = page.items.size();
+                        loadingShows = false;
+                        nextShowIndex = page.nextStartIndex();
+                        hasMoreShows = page.hasMore();
+                        if (showAdapter == null) {
+                            showAdapter =
+                                    new ShowAdapter(
+                                            page.items,
+                                            show -> {
+                                                Intent i =
+                                                        new Intent(
+                                                                MainActivity.this,
+                                                                ShowDetailActivity.class);
+                                                i.putExtra(ShowDetailActivity.EXTRA_SHOW_ID, show.id);
+                                                startActivity(i);
+                                            });
+                            list.setAdapter(showAdapter);
+                        } else {
+                            showAdapter.appendShows(page.items);
+                        }
+                        // A page that does not fill the screen never scrolls; check after layout.
+                        list.post(MainActivity.this::maybeLoadMoreShows);
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        if (isFinishing() || isDestroyed()) return;
+                        if (generation != showsGeneration) return;
+                        loadingShows = false;
+                        hasMoreShows = false;
+                        Toast.makeText(
+                                        MainActivity.this,
+                                        String.valueOf(error.getMessage()),
+                                        Toast.LENGTH_LONG)
+                                .show();
+                    }
+                };
+        if (start == 0) {
+            showPageCall = backend.listShowsPage(start, SHOW_PAGE_SIZE, cb);
+        } else {
+            // Later pages are fetched ahead of the user and should not delay other screens.
+            showPageCall =
+                    Backends.prefetch(() -> backend.listShowsPage(start, SHOW_PAGE_SIZE, cb));
+        }
+        requests.add(showPageCall);
     }
 }
@@ -0,0 +1,312 @@
+package com.linplayer.tvlegacy;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.TransferListener;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Reads large progressive files over several byte-range requests at once, so a per-connection
+ * throughput cap on the server or proxy does not cap playback. Requests the server cannot split,
+ * or that are smaller than {@link #MIN_PARALLEL_BYTES}, are passed through.
+ */
+final class ParallelRangeDataSource implements DataSource {
+    static final long MIN_PARALLEL_BYTES = 16L * 1024 * 1024;
+    static final int CHUNK_BYTES = 2 * 1024 * 1024;
+
+    private static final ExecutorService LOADER =
+            Executors.newCachedThreadPool(
+                    r -> {
+                        Thread t = new Thread(r, "RangeLoader");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    static final class Factory implements DataSource.Factory {
+        private final DataSource.Factory upstreamFactory;
+
+        Factory(DataSource.Factory upstreamFactory) {
+            this.upstreamFactory = upstreamFactory;
+        }
+
+        @Override
+        public DataSource createDataSource() {
+            return new ParallelRangeDataSource(
+                    upstreamFactory, LOADER, MIN_PARALLEL_BYTES, CHUNK_BYTES);
+        }
+    }
+
+    private final class Chunk implements Callable<byte[]> {
+        private final DataSpec spec;
+        final int length;
+        final FutureTask<byte[]> data = new FutureTask<>(this);
+        long downloadMs;
+        boolean consumerWaited;
+        int readOffset;
+
+        Chunk(DataSpec spec, int length) {
+            this.spec = spec;
+            this.length = length;
+        }
+
+        @Override
+        public byte[] call() throws IOException {
+            long startMs = SystemClock.elapsedRealtime();
+            byte[] bytes = new byte[length];
+            DataSource source = createUpstream();
+            try {
+                source.open(spec);
+                int filled = 0;
+                while (filled < length) {
+                    if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException();
+                    int read = source.read(bytes, filled, length - filled);
+                    if (read == C.RESULT_END_OF_INPUT) throw new EOFException();
+                    filled += read;
+                }
+            } finally {
+                source.close();
+            }
+            downloadMs = SystemClock.elapsedRealtime() - startMs;
+            return bytes;
+        }
+    }
+
+    private final DataSource.Factory upstreamFactory;
+    private final Executor loader;
+    private final long minParallelBytes;
+    private final int chunkBytes;
+    private final List<TransferListener> transferListeners = new ArrayList<>();
+    private final WindowController window = new WindowController();
+    private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+
+    @Nullable private DataSource primary;
+    @Nullable private Uri uri;
+    private Map<String, List<String>> responseHeaders = Collections.emptyMap();
+
+    private boolean parallel;
+    @Nullable private DataSpec rangeSpec;
+    private long primaryBytesRemaining;
+    private long nextChunkPosition;
+    private long endPosition;
+
+    ParallelRangeDataSource(
+            DataSource.Factory upstreamFactory,
+            Executor loader,
+            long minParallelBytes,
+            int chunkBytes) {
+        this.upstreamFactory = upstreamFactory;
+        this.loader = loader;
+        this.minParallelBytes = minParallelBytes;
+        this.chunkBytes = chunkBytes;
+    }
+
+    @Override
+    public void addTransferListener(TransferListener transferListener) {
+        transferListeners.add(transferListener);
+    }
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+        DataSource source = createUpstream();
+        primary = source;
+        long length = source.open(dataSpec);
+        uri = source.getUri();
+        responseHeaders = source.getResponseHeaders();
+
+        parallel =
+                dataSpec.httpMethod == DataSpec.HTTP_METHOD_GET
+                        && length != C.LENGTH_UNSET
+                        && length >= minParallelBytes
+                        && acceptsRanges(responseHeaders);
+        if (parallel) {
+            // Follow-up requests go straight to where any redirects led.
+            rangeSpec = uri != null ? dataSpec.withUri(uri) : dataSpec;
+            primaryBytesRemaining = Math.min(chunkBytes, length);
+            nextChunkPosition = dataSpec.position + primaryBytesRemaining;
+            endPosition = dataSpec.position + length;
+            fillWindow();
+        }
+        return length;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        if (primary != null && (!parallel || primaryBytesRemaining > 0)) {
+            if (!parallel) return primary.read(buffer, offset, length);
+            int read = primary.read(buffer, offset, (int) Math.min(length, primaryBytesRemaining));
+            if (read == C.RESULT_END_OF_INPUT) throw new EOFException();
+            primaryBytesRemaining -= read;
+            if (primaryBytesRemaining == 0) closePrimary();
+            return read;
+        }
+
+        Chunk chunk = chunks.peekFirst();
+        if (chunk == null) return C.RESULT_END_OF_INPUT;
+        if (chunk.readOffset == 0 && !chunk.data.isDone()) chunk.consumerWaited = true;
+        byte[] data = await(chunk.data);
+        int read = Math.min(length, chunk.length - chunk.readOffset);
+        System.arraycopy(data, chunk.readOffset, buffer, offset, read);
+        chunk.readOffset += read;
+        if (chunk.readOffset == chunk.length) {
+            chunks.removeFirst();
+            window.onChunkConsumed(chunk.consumerWaited, chunk.length, chunk.downloadMs);
+            fillWindow();
+        }
+        return read;
+    }
+
+    @Nullable
+    @Override
+    public Uri getUri() {
+        return uri;
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Chunk chunk : chunks) chunk.data.cancel(true);
+        chunks.clear();
+        parallel = false;
+        rangeSpec = null;
+        uri = null;
+        responseHeaders = Collections.emptyMap();
+        closePrimary();
+    }
+
+    private void closePrimary() throws IOException {
+        DataSource source = primary;
+        primary = null;
+        if (source != null) source.close();
+    }
+
+    private DataSource createUpstream() {
+        DataSource source = upstreamFactory.createDataSource();
+        for (TransferListener listener : transferListeners) source.addTransferListener(listener);
+        return source;
+    }
+
+    private void fillWindow() {
+        DataSpec spec = rangeSpec;
+        if (spec == null) return;
+        while (chunks.size() < window.size && nextChunkPosition < endPosition) {
+            long position = nextChunkPosition;
+            int length = (int) Math.min(chunkBytes, endPosition - position);
+            Chunk chunk = new Chunk(spec.subrange(position - spec.position, length), length);
+            chunks.addLast(chunk);
+            loader.execute(chunk.data);
+            nextChunkPosition += length;
+        }
+    }
+
+    private static byte[] await(FutureTask<byte[]> data) throws IOException {
+        try {
+            return data.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    static boolean acceptsRanges(Map<String, List<String>> headers) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            String name = header.getKey();
+            if (name == null) continue;
+            if (name.equalsIgnoreCase("Content-Range")) return true;
+            if (!name.equalsIgnoreCase("Accept-Ranges")) continue;
+            for (String value : header.getValue()) {
+                if (value != null && value.toLowerCase(Locale.ROOT).contains("bytes")) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a request while the reader keeps waiting and the extra request raises aggregate
+     * throughput, drops it again when it did not, and sheds one when the reader never waits.
+     */
+    static final class WindowController {
+        static final int MIN_SIZE = 1;
+        static final int MAX_SIZE = 4;
+        private static final double MIN_GAIN = 1.15;
+        private static final double THROUGHPUT_SMOOTHING = 0.3;
+        private static final int SHRINK_AFTER_UNSTARVED_CHUNKS = 8;
+        private static final int GROWTH_COOLDOWN_CHUNKS = 16;
+
+        int size = 2;
+        private double requestThroughput;
+        private double throughputBeforeGrowth;
+        private int chunksSinceResize;
+        private int unstarvedChunks;
+        private int growthCooldownChunks;
+
+        void onChunkConsumed(boolean consumerWaited, long bytes, long downloadMs) {
+            if (downloadMs > 0) {
+                double throughput = bytes * 1000.0 / downloadMs;
+                requestThroughput =
+                        requestThroughput == 0
+                                ? throughput
+                                : requestThroughput
+                                        + THROUGHPUT_SMOOTHING * (throughput - requestThroughput);
+            }
+            chunksSinceResize++;
+            if (growthCooldownChunks > 0) growthCooldownChunks--;
+            double aggregate = requestThroughput * size;
+
+            if (throughputBeforeGrowth > 0) {
+                if (chunksSinceResize < size) return;
+                if (aggregate < throughputBeforeGrowth * MIN_GAIN) {
+                    resize(size - 1);
+                    growthCooldownChunks = GROWTH_COOLDOWN_CHUNKS;
+                }
+                throughputBeforeGrowth = 0;
+                return;
+            }
+
+            if (consumerWaited) {
+                unstarvedChunks = 0;
+                if (size < MAX_SIZE
+                        && growthCooldownChunks == 0
+                        && chunksSinceResize >= size
+                        && aggregate > 0) {
+                    throughputBeforeGrowth = aggregate;
+                    resize(size + 1);
+                }
+            } else if (++unstarvedChunks >= SHRINK_AFTER_UNSTARVED_CHUNKS && size > MIN_SIZE) {
+                resize(size - 1);
+            }
+        }
+
+        private void resize(int newSize) {
+            size = newSize;
+            chunksSinceResize = 0;
+            unstarvedChunks = 0;
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.linplayer.tvlegacy;
 
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
 import android.view.WindowManager;
 import android.widget.Button;
+import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import com.google.android.exoplayer2.C;
 import com.google.android.exoplayer2.MediaItem;
+import com.google.android.exoplayer2.Player;
 import com.google.android.exoplayer2.SimpleExoPlayer;
 import com.google.android.exoplayer2.source.DefaultMediaSourceFactory;
 import com.google.android.exoplayer2.ui.PlayerView;
+import com.google.android.exoplayer2.ui.TimeBar;
 import com.google.android.exoplayer2.upstream.DataSource;
 import com.linplayer.tvlegacy.remote.PlaybackSession;
 import com.linplayer.tvlegacy.servers.ServerConfig;
@@ -23,8 +30,24 @@ import java.util.Map;
 public final class PlayerActivity extends AppCompatActivity {
     static final String EXTRA_URL = "url";
     static final String EXTRA_TITLE = "title";
+    static final String EXTRA_MEDIA_ID = "media_id";
+
+    private static final long RESUME_RECORD_INTERVAL_MS = 5_000;
+    private static final int THUMBNAIL_WIDTH_PX = 320;
 
     private SimpleExoPlayer player;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private ResumeStore resumeStore;
+    private String resumeKey;
+    private TrickplayThumbnails thumbnails;
+    private final Runnable resumeTicker =
+            new Runnable() {
+                @Override
+                public void run() {
+                    recordResumePosition();
+                    handler.postDelayed(this, RESUME_RECORD_INTERVAL_MS);
+                }
+            };
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -76,22 +99,108 @@ public final class PlayerActivity extends AppCompatActivity {
         playerView.setPlayer(player);
 
         MediaItem item = MediaItem.fromUri(Uri.parse(url.trim()));
-        player.setMediaItem(item);
+        long startMs = C.TIME_UNSET;
+        if (AppPrefs.isResumePlaybackEnabled(this)) {
+            String mediaId = getIntent().getStringExtra(EXTRA_MEDIA_ID);
+            resumeKey = mediaId != null && !mediaId.trim().isEmpty() ? mediaId.trim() : url.trim();
+            resumeStore = ResumeStore.get(this);
+            startMs = resumeStore.positionFor(resumeKey);
+            player.addListener(
+                    new Player.Listener() {
+                        @Override
+                        public void onPlaybackStateChanged(int state) {
+                            if (state == Player.STATE_ENDED && resumeStore != null) {
+                                recordResumePosition();
+                            }
+                        }
+                    });
+            handler.postDelayed(resumeTicker, RESUME_RECORD_INTERVAL_MS);
+        }
+        // Prepare straight at the resume position rather than seeking after the first frames.
+        if (startMs != C.TIME_UNSET) {
+            player.setMediaItem(item, startMs);
+        } else {
+            player.setMediaItem(item);
+        }
         player.prepare();
         player.play();
+        setUpSeekThumbnails(playerView, url.trim(), playbackHeaders);
         PlaybackSession.attach(player, titleText.getText() != null ? titleText.getText().toString() : "");
     }
 
     @Override
     protected void onStop() {
         super.onStop();
+        handler.removeCallbacks(resumeTicker);
+        if (thumbnails != null) {
+            thumbnails.release();
+            thumbnails = null;
+        }
         if (player != null) {
+            recordResumePosition();
+            if (resumeStore != null) resumeStore.flush();
             PlaybackSession.detach(player);
             player.release();
             player = null;
         }
     }
 
+    private void setUpSeekThumbnails(
+            PlayerView playerView, String url, @Nullable Map<String, String> headers) {
+        TimeBar timeBar = playerView.findViewById(com.google.android.exoplayer2.ui.R.id.exo_progress);
+        ImageView preview = findViewById(R.id.seek_thumbnail);
+        if (timeBar == null || preview == null) return;
+        thumbnails =
+                new TrickplayThumbnails(
+                        this, bifUrlFor(url), Uri.parse(url), headers, THUMBNAIL_WIDTH_PX);
+        TrickplayThumbnails.Callback show =
+                (positionMs, bitmap) -> {
+                    if (preview.getVisibility() == View.VISIBLE) preview.setImageBitmap(bitmap);
+                };
+        timeBar.addListener(
+                new TimeBar.OnScrubListener() {
+                    @Override
+                    public void onScrubStart(TimeBar bar, long position) {
+                        preview.setImageDrawable(null);
+                        preview.setVisibility(View.VISIBLE);
+                        if (thumbnails != null) thumbnails.request(position, show);
+                    }
+
+                    @Override
+                    public void onScrubMove(TimeBar bar, long position) {
+                        if (thumbnails != null) thumbnails.request(position, show);
+                    }
+
+                    @Override
+                    public void onScrubStop(TimeBar bar, long position, boolean canceled) {
+                        preview.setVisibility(View.GONE);
+                    }
+                });
+    }
+
+    // Emby-like servers publish BIF trick-play files next to the stream of the same item.
+    @Nullable
+    private static String bifUrlFor(String streamUrl) {
+        Uri uri = Uri.parse(streamUrl);
+        String path = uri.getPath();
+        if (path == null || !path.endsWith("/stream")) return null;
+        int videos = path.lastIndexOf("/Videos/");
+        if (videos < 0) return null;
+        Uri.Builder b =
+                uri.buildUpon()
+                        .encodedPath(path.substring(0, path.length() - "stream".length()) + "index.bif")
+                        .clearQuery()
+                        .appendQueryParameter("width", String.valueOf(THUMBNAIL_WIDTH_PX));
+        String apiKey = uri.getQueryParameter("api_key");
+        if (apiKey != null) b.appendQueryParameter("api_key", apiKey);
+        return b.build().toString();
+    }
+
+    private void recordResumePosition() {
+        if (player == null || resumeStore == null || resumeKey == null) return;
+        resumeStore.update(resumeKey, player.getCurrentPosition(), player.getDuration());
+    }
+
     private static String normalizeBaseUrl(String baseUrl) {
         String v = baseUrl != null ? baseUrl.trim() : "";
         while (v.endsWith("/")) v = v.substring(0, v.length() - 1);
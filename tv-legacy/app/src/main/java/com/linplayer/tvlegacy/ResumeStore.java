@@ -0,0 +1,136 @@
+package com.linplayer.tvlegacy;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import com.google.android.exoplayer2.C;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where playback of each media item stopped. Updates stay in memory and are written together a few
+ * seconds after the first unsaved change, or right away by {@link #flush()}.
+ */
+final class ResumeStore {
+    private static final String PREFS = "linplayer_tv_legacy_resume";
+    private static final int MAX_ENTRIES = 500;
+    private static final long FLUSH_DELAY_MS = 10_000;
+    private static final long MIN_RESUME_POSITION_MS = 10_000;
+    private static final long FINISHED_REMAINING_MS = 30_000;
+    private static final double FINISHED_FRACTION = 0.95;
+
+    private static ResumeStore instance;
+
+    static synchronized ResumeStore get(Context context) {
+        if (instance == null) instance = new ResumeStore(context.getApplicationContext());
+        return instance;
+    }
+
+    private static final class Entry {
+        final long positionMs;
+        final long savedAtMs;
+
+        Entry(long positionMs, long savedAtMs) {
+            this.positionMs = positionMs;
+            this.savedAtMs = savedAtMs;
+        }
+    }
+
+    private final SharedPreferences prefs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushTask = this::flush;
+    private final Map<String, Entry> entries = new HashMap<>();
+    // A null value marks a pending removal.
+    private final Map<String, Entry> unsaved = new HashMap<>();
+    private boolean flushScheduled;
+
+    private ResumeStore(Context context) {
+        prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        for (Map.Entry<String, ?> stored : prefs.getAll().entrySet()) {
+            Object v = stored.getValue();
+            if (!(v instanceof String)) continue;
+            String s = (String) v;
+            int at = s.indexOf('@');
+            try {
+                entries.put(
+                        stored.getKey(),
+                        new Entry(
+                                Long.parseLong(s.substring(0, at)),
+                                Long.parseLong(s.substring(at + 1))));
+            } catch (RuntimeException ignored) {
+                // Corrupt entry; it is overwritten or evicted eventually.
+            }
+        }
+    }
+
+    /** Returns the position to resume {@code key} from, or {@link C#TIME_UNSET}. */
+    synchronized long positionFor(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.positionMs : C.TIME_UNSET;
+    }
+
+    synchronized void update(String key, long positionMs, long durationMs) {
+        boolean finished =
+                durationMs != C.TIME_UNSET
+                        && durationMs > 0
+                        && (positionMs >= durationMs * FINISHED_FRACTION
+                                || durationMs - positionMs <= FINISHED_REMAINING_MS);
+        if (finished || positionMs < MIN_RESUME_POSITION_MS) {
+            if (entries.remove(key) != null) {
+                unsaved.put(key, null);
+                scheduleFlush();
+            }
+            return;
+        }
+        Entry current = entries.get(key);
+        if (current != null && current.positionMs == positionMs) return;
+        Entry entry = new Entry(positionMs, System.currentTimeMillis());
+        entries.put(key, entry);
+        unsaved.put(key, entry);
+        scheduleFlush();
+    }
+
+    void flush() {
+        Map<String, Entry> changes;
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            handler.removeCallbacks(flushTask);
+            flushScheduled = false;
+            if (unsaved.isEmpty()) return;
+            changes = new HashMap<>(unsaved);
+            unsaved.clear();
+            while (entries.size() > MAX_ENTRIES) {
+                String oldest = null;
+                long oldestAt = Long.MAX_VALUE;
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    if (e.getValue().savedAtMs < oldestAt) {
+                        oldestAt = e.getValue().savedAtMs;
+                        oldest = e.getKey();
+                    }
+                }
+                entries.remove(oldest);
+                evicted.add(oldest);
+            }
+        }
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, Entry> change : changes.entrySet()) {
+            Entry e = change.getValue();
+            if (e == null) {
+                editor.remove(change.getKey());
+            } else {
+                editor.putString(change.getKey(), e.positionMs + "@" + e.savedAtMs);
+            }
+        }
+        for (String key : evicted) editor.remove(key);
+        editor.apply();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        handler.postDelayed(flushTask, FLUSH_DELAY_MS);
+    }
+}
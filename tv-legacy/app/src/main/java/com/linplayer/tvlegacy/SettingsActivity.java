@@ -50,6 +50,15 @@ public final class SettingsActivity extends AppCompatActivity {
                     ProxyService.applyConfig(this);
                 });
 
+        Button parallelRangeBtn = findViewById(R.id.btn_parallel_range);
+        updateParallelRangeButton(parallelRangeBtn);
+        parallelRangeBtn.setOnClickListener(
+                v -> {
+                    // Applies to players opened from now on.
+                    AppPrefs.setParallelRangeEnabled(this, !AppPrefs.isParallelRangeEnabled(this));
+                    updateParallelRangeButton(parallelRangeBtn);
+                });
+
         Button startBtn = findViewById(R.id.btn_start);
         Button stopBtn = findViewById(R.id.btn_stop);
 
@@ -68,6 +77,13 @@ public final class SettingsActivity extends AppCompatActivity {
         statusText.setText(AppPrefs.getLastStatus(this));
     }
 
+    private void updateParallelRangeButton(Button button) {
+        button.setText(
+                AppPrefs.isParallelRangeEnabled(this)
+                        ? R.string.parallel_range_on
+                        : R.string.parallel_range_off);
+    }
+
     @Override
     protected void onStart() {
         super.onStart();
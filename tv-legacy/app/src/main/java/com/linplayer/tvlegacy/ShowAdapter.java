@@ -7,6 +7,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
 import java.util.List;
 
 final class ShowAdapter extends RecyclerView.Adapter<ShowAdapter.Vh> {
@@ -18,10 +19,27 @@ final class ShowAdapter extends RecyclerView.Adapter<ShowAdapter.Vh> {
     private final Listener listener;
 
     ShowAdapter(List<Show> shows, Listener listener) {
-        this.shows = shows;
+        this.shows = shows != null ? new ArrayList<>(shows) : new ArrayList<>();
         this.listener = listener;
     }
 
+    void appendShows(List<Show> more) {
+        if (more == null || more.isEmpty()) return;
+        int start = shows.size();
+        shows.addAll(more);
+        notifyItemRangeInserted(start, more.size());
+    }
+
+    void replaceShows(int start, List<Show> replacement) {
+        if (replacement == null) return;
+        int count = Math.min(replacement.size(), shows.size() - start);
+        if (start < 0 || count <= 0) return;
+        for (int i = 0; i < count; i++) {
+            shows.set(start + i, replacement.get(i));
+        }
+        notifyItemRangeChanged(start, count);
+    }
+
     @NonNull
     @Override
     public Vh onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -41,7 +59,7 @@ final class ShowAdapter extends RecyclerView.Adapter<ShowAdapter.Vh> {
 
     @Override
     public int getItemCount() {
-        return shows != null ? shows.size() : 0;
+        return shows.size();
     }
 
     static final class Vh extends RecyclerView.ViewHolder {
@@ -10,11 +10,13 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import com.linplayer.tvlegacy.backend.Backends;
 import com.linplayer.tvlegacy.backend.Callback;
+import com.linplayer.tvlegacy.backend.RequestScope;
 import java.util.List;
 
 public final class ShowDetailActivity extends AppCompatActivity {
     static final String EXTRA_SHOW_ID = "show_id";
 
+    private final RequestScope requests = RequestScope.bindTo(this);
     private String showId;
     private Show show;
     private Episode firstEpisode;
@@ -64,61 +66,74 @@ public final class ShowDetailActivity extends AppCompatActivity {
                     Intent i = new Intent(this, PlayerActivity.class);
                     i.putExtra(PlayerActivity.EXTRA_TITLE, (show != null ? show.title : "Show") + " · " + first.title);
                     i.putExtra(PlayerActivity.EXTRA_URL, first.mediaUrl);
+                    i.putExtra(PlayerActivity.EXTRA_MEDIA_ID, first.id);
                     startActivity(i);
                 });
 
-        Backends.media(this)
-                .getShow(
-                        showId,
-                        new Callback<Show>() {
-                            @Override
-                            public void onSuccess(Show v) {
-                                if (isFinishing() || isDestroyed()) return;
-                                show = v;
-                                if (v == null) {
-                                    titleText.setText("Unknown show");
-                                    metaText.setText("");
-                                    overviewText.setText("");
-                                    ImageLoader.load(posterView, "", 0);
-                                    ImageLoader.load(backdropView, "", 0);
-                                    return;
-                                }
-                                titleText.setText(v.title);
-                                overviewText.setText(v.overview);
-                                metaText.setText(buildMetaLine(v));
-                                ImageLoader.load(posterView, v.posterUrl, dpToPx(520));
-                                ImageLoader.load(backdropView, v.backdropUrl, dpToPx(1280));
-                            }
-
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                titleText.setText("Load failed");
-                                metaText.setText("");
-                                overviewText.setText(String.valueOf(error.getMessage()));
-                            }
-                        });
-
-        Backends.media(this)
-                .listEpisodes(
-                        showId,
-                        new Callback<List<Episode>>() {
-                            @Override
-                            public void onSuccess(List<Episode> episodes) {
-                                if (isFinishing() || isDestroyed()) return;
-                                if (episodes == null || episodes.isEmpty()) {
-                                    firstEpisode = null;
-                                    return;
-                                }
-                                firstEpisode = episodes.get(0);
-                            }
-
-                            @Override
-                            public void onError(Throwable error) {
-                                if (isFinishing() || isDestroyed()) return;
-                                firstEpisode = null;
-                            }
-                        });
+        requests.add(
+                Backends.media(this)
+                        .getShow(
+                                showId,
+                                new Callback<Show>() {
+                                    @Override
+                                    public void onSuccess(Show v) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        // May run again after a revalidation; see Callback.
+                                        Show previous = show;
+                                        show = v;
+                                        if (v == null) {
+                                            titleText.setText("Unknown show");
+                                            metaText.setText("");
+                                            overviewText.setText("");
+                                            ImageLoader.load(posterView, "", 0);
+                                            ImageLoader.load(backdropView, "", 0);
+                                            return;
+                                        }
+                                        titleText.setText(v.title);
+                                        overviewText.setText(v.overview);
+                                        metaText.setText(buildMetaLine(v));
+                                        // Reloading unchanged artwork would flash the placeholder.
+                                        if (previous == null
+                                                || !previous.posterUrl.equals(v.posterUrl)) {
+                                            ImageLoader.load(posterView, v.posterUrl, dpToPx(520));
+                                        }
+                                        if (previous == null
+                                                || !previous.backdropUrl.equals(v.backdropUrl)) {
+                                            ImageLoader.load(
+                                                    backdropView, v.backdropUrl, dpToPx(1280));
+                                        }
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable error) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        titleText.setText("Load failed");
+                                        metaText.setText("");
+                                        overviewText.setText(String.valueOf(error.getMessage()));
+                                    }
+                                }));
+
+        requests.add(
+                Backends.media(this)
+                        .listEpisodes(
+                                showId,
+                                new Callback<List<Episode>>() {
+                                    @Override
+                                    public void onSuccess(List<Episode> episodes) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        if (episodes == null || episodes.isEmpty()) {
+                                            firstEpisode = null;
+                                            return;
+                                        }
+                                        firstEpisode = episodes.get(0);
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable error) {
+                                        if (isFinishing() || isDestroyed()) return;
+                                        firstEpisode = null;
+                                    }
+                                }));
     }
 
     private int dpToPx(int dp) {
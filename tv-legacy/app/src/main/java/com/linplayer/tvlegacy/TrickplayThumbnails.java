@@ -0,0 +1,239 @@
+package com.linplayer.tvlegacy;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Seek preview thumbnails for one media item, from a BIF file when there is one and otherwise
+ * extracted from the media. Work happens on one background thread and only the latest requested
+ * position is served, so scrubbing quickly does not queue up stale frames.
+ */
+final class TrickplayThumbnails {
+    interface Callback {
+        void onThumbnail(long positionMs, Bitmap thumbnail);
+    }
+
+    private static final long INTERVAL_MS = 10_000;
+    private static final int MAX_BIF_BYTES = 32 * 1024 * 1024;
+    private static final byte[] BIF_MAGIC = {
+        (byte) 0x89, 0x42, 0x49, 0x46, 0x0d, 0x0a, 0x1a, 0x0a
+    };
+
+    private static final ExecutorService IO =
+            Executors.newSingleThreadExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "ThumbnailLoader");
+                        t.setDaemon(true);
+                        return t;
+                    });
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    // Decoded thumbnails share the sizing rule of the poster cache, at half its size.
+    private static final LruCache<String, Bitmap> CACHE =
+            new LruCache<String, Bitmap>(ImageLoader.cacheSizeKb() / 2) {
+                @Override
+                protected int sizeOf(String key, Bitmap value) {
+                    return Math.max(1, value.getByteCount() / 1024);
+                }
+            };
+
+    private final Context appContext;
+    private final String bifUrl;
+    private final Uri mediaUri;
+    private final Map<String, String> headers;
+    private final int maxSizePx;
+
+    // Only used on the IO thread.
+    private byte[] bif;
+    private int[] bifOffsets;
+    private long[] bifTimesMs;
+    private boolean bifFailed;
+    private MediaMetadataRetriever retriever;
+
+    // Guarded by this.
+    private long wantedMs;
+    private Callback wantedCallback;
+    private boolean queued;
+    private volatile boolean released;
+
+    TrickplayThumbnails(
+            Context context,
+            String bifUrl,
+            Uri mediaUri,
+            Map<String, String> headers,
+            int maxSizePx) {
+        this.appContext = context.getApplicationContext();
+        this.bifUrl = bifUrl;
+        this.mediaUri = mediaUri;
+        this.headers = headers != null ? headers : Collections.emptyMap();
+        this.maxSizePx = maxSizePx;
+    }
+
+    /** Delivers the thumbnail for {@code positionMs} to {@code cb} on the main thread. */
+    void request(long positionMs, Callback cb) {
+        long slot = Math.max(0, positionMs) / INTERVAL_MS;
+        Bitmap cached = CACHE.get(framesKey(slot));
+        if (cached != null) {
+            cb.onThumbnail(positionMs, cached);
+            return;
+        }
+        synchronized (this) {
+            wantedMs = positionMs;
+            wantedCallback = cb;
+            if (queued) return;
+            queued = true;
+        }
+        IO.execute(this::loadWanted);
+    }
+
+    void release() {
+        released = true;
+        IO.execute(
+                () -> {
+                    bif = null;
+                    if (retriever != null) {
+                        try {
+                            retriever.release();
+                        } catch (Exception ignored) {
+                            // Already unusable.
+                        }
+                        retriever = null;
+                    }
+                });
+    }
+
+    private void loadWanted() {
+        long positionMs;
+        Callback cb;
+        synchronized (this) {
+            positionMs = wantedMs;
+            cb = wantedCallback;
+            queued = false;
+        }
+        if (released) return;
+        Bitmap thumbnail = null;
+        try {
+            thumbnail = bifThumbnail(positionMs);
+            if (thumbnail == null) thumbnail = extractFrame(positionMs);
+        } catch (RuntimeException ignored) {
+            // No preview for this position.
+        }
+        if (thumbnail == null) return;
+        Bitmap result = thumbnail;
+        MAIN.post(
+                () -> {
+                    if (!released) cb.onThumbnail(positionMs, result);
+                });
+    }
+
+    private Bitmap bifThumbnail(long positionMs) {
+        if (bifUrl == null || bifFailed) return null;
+        if (bif == null) {
+            try {
+                parseBif(download(bifUrl));
+            } catch (IOException e) {
+                bifFailed = true;
+                return null;
+            }
+        }
+        int found = Arrays.binarySearch(bifTimesMs, positionMs);
+        int index = found >= 0 ? found : Math.max(0, -found - 2);
+        if (index >= bifTimesMs.length) return null;
+        String key = bifUrl + "#" + index;
+        Bitmap cached = CACHE.get(key);
+        if (cached != null) return cached;
+        byte[] frame = Arrays.copyOfRange(bif, bifOffsets[index], bifOffsets[index + 1]);
+        Bitmap decoded = ImageLoader.decodeDownsampled(frame, maxSizePx);
+        if (decoded != null) CACHE.put(key, decoded);
+        return decoded;
+    }
+
+    private byte[] download(String url) throws IOException {
+        Request.Builder req = new Request.Builder().url(url).get();
+        for (Map.Entry<String, String> h : headers.entrySet()) req.header(h.getKey(), h.getValue());
+        try (Response resp = NetworkClients.okHttp(appContext).newCall(req.build()).execute()) {
+            if (!resp.isSuccessful()) throw new IOException("HTTP " + resp.code());
+            ResponseBody body = resp.body();
+            if (body == null) throw new IOException("Empty body");
+            if (body.contentLength() > MAX_BIF_BYTES) throw new IOException("BIF too large");
+            return body.bytes();
+        }
+    }
+
+    // BIF: 64-byte header, then (timestamp, offset) pairs and a terminating pair.
+    private void parseBif(byte[] data) throws IOException {
+        if (data.length < 64 || !Arrays.equals(Arrays.copyOf(data, 8), BIF_MAGIC)) {
+            throw new IOException("Not a BIF file");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        long count = buffer.getInt(12) & 0xffffffffL;
+        long separationMs = buffer.getInt(16) & 0xffffffffL;
+        if (separationMs == 0) separationMs = 1000;
+        if (count > (data.length - 64) / 8 - 1) throw new IOException("Truncated BIF index");
+        int frames = (int) count;
+        int[] offsets = new int[frames + 1];
+        long[] timesMs = new long[frames];
+        for (int i = 0; i <= frames; i++) {
+            int entry = 64 + i * 8;
+            long offset = buffer.getInt(entry + 4) & 0xffffffffL;
+            if (offset > data.length || (i > 0 && offset < offsets[i - 1])) {
+                throw new IOException("Invalid BIF frame offset");
+            }
+            offsets[i] = (int) offset;
+            if (i < frames) timesMs[i] = (buffer.getInt(entry) & 0xffffffffL) * separationMs;
+        }
+        bif = data;
+        bifOffsets = offsets;
+        bifTimesMs = timesMs;
+    }
+
+    private Bitmap extractFrame(long positionMs) {
+        if (mediaUri == null) return null;
+        long slot = Math.max(0, positionMs) / INTERVAL_MS;
+        String key = framesKey(slot);
+        Bitmap cached = CACHE.get(key);
+        if (cached != null) return cached;
+        if (retriever == null) {
+            MediaMetadataRetriever created = new MediaMetadataRetriever();
+            String scheme = mediaUri.getScheme();
+            if ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) {
+                created.setDataSource(mediaUri.toString(), headers);
+            } else {
+                created.setDataSource(appContext, mediaUri);
+            }
+            retriever = created;
+        }
+        Bitmap frame =
+                retriever.getFrameAtTime(
+                        slot * INTERVAL_MS * 1000, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+        if (frame == null) return null;
+        Bitmap scaled = frame;
+        if (maxSizePx > 0 && frame.getWidth() > maxSizePx) {
+            int h = Math.max(1, frame.getHeight() * maxSizePx / frame.getWidth());
+            scaled = Bitmap.createScaledBitmap(frame, maxSizePx, h, true);
+            frame.recycle();
+        }
+        CACHE.put(key, scaled);
+        return scaled;
+    }
+
+    private String framesKey(long slot) {
+        return mediaUri + "@" + maxSizePx + "#" + slot;
+    }
+}
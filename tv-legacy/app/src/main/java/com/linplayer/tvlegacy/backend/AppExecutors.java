@@ -2,21 +2,256 @@ package com.linplayer.tvlegacy.backend;
 
 import android.os.Handler;
 import android.os.Looper;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import android.os.SystemClock;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Runs backend requests on a small pool, foreground requests ahead of prefetches.
+ *
+ * <p>Requests of the same priority start in submission order. A request cancelled before it starts
+ * is dropped from the queue.
+ */
 final class AppExecutors {
-    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    static final int PRIORITY_FOREGROUND = 0;
+    static final int PRIORITY_PREFETCH = 1;
+
+    // Enough for a detail screen's parallel requests plus a page prefetch, without flooding
+    // the server or the TV box's CPU.
+    private static final int THREADS = 4;
+
+    private static final ThreadPoolExecutor IO =
+            new ThreadPoolExecutor(
+                    THREADS,
+                    THREADS,
+                    30,
+                    TimeUnit.SECONDS,
+                    new PriorityBlockingQueue<Runnable>(),
+                    r -> {
+                        Thread t = new Thread(r, "BackendIo");
+                        t.setDaemon(true);
+                        return t;
+                    });
     private static final Handler MAIN = new Handler(Looper.getMainLooper());
 
+    private static final ThreadLocal<Integer> SUBMIT_PRIORITY = new ThreadLocal<>();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final AtomicLong COMPLETED = new AtomicLong();
+    private static final AtomicLong CANCELLED = new AtomicLong();
+    private static final AtomicLong TOTAL_WAIT_MS = new AtomicLong();
+    private static final AtomicLong MAX_WAIT_MS = new AtomicLong();
+    private static final AtomicLong TOTAL_RUN_MS = new AtomicLong();
+
+    static {
+        IO.allowCoreThreadTimeOut(true);
+    }
+
     private AppExecutors() {}
 
-    static void io(Runnable r) {
-        IO.execute(r);
+    /** Queues {@code r} at the priority of the enclosing {@link #withPriority} call, if any. */
+    static Task io(Runnable r) {
+        Integer p = SUBMIT_PRIORITY.get();
+        Task task = new Task(r, p != null ? p : PRIORITY_FOREGROUND, SEQUENCE.incrementAndGet());
+        IO.execute(task);
+        return task;
     }
 
     static void main(Runnable r) {
         MAIN.post(r);
     }
-}
 
+    interface Work<T> {
+        T run() throws Exception;
+    }
+
+    /** Runs {@code work} on the pool and delivers its result to {@code cb} on the main thread. */
+    static <T> Cancellable submit(Callback<T> cb, Work<T> work) {
+        CallHandle handle = new CallHandle();
+        handle.setTask(
+                io(
+                        () -> {
+                            if (handle.isCancelled()) return;
+                            runAndDeliver(handle, cb, work);
+                        }));
+        return handle;
+    }
+
+    /**
+     * Like {@link #submit}, but answers from {@link MetadataCache} first when it can.
+     *
+     * <p>The work runs once with the network off. If every response it needs is cached, its
+     * result is delivered right away and the work runs again at prefetch priority to revalidate.
+     * {@code cb.onSuccess} is called a second time only if a response changed; a failed
+     * revalidation is dropped, since the cached result is already shown. Otherwise the work runs
+     * against the network as usual.
+     */
+    static <T> Cancellable submitCached(Callback<T> cb, Work<T> work) {
+        CallHandle handle = new CallHandle();
+        handle.setTask(
+                io(
+                        () -> {
+                            if (handle.isCancelled()) return;
+                            T cached;
+                            handle.enter(true);
+                            try {
+                                cached = work.run();
+                            } catch (Exception e) {
+                                // A miss, or an entry that no longer parses.
+                                handle.exit();
+                                runAndDeliver(handle, cb, work);
+                                return;
+                            }
+                            handle.exit();
+                            deliver(handle, cb, cached, false);
+                            withPriority(
+                                    PRIORITY_PREFETCH,
+                                    () -> handle.setTask(io(() -> revalidate(handle, cb, work))));
+                        }));
+        return handle;
+    }
+
+    private static <T> void runAndDeliver(CallHandle handle, Callback<T> cb, Work<T> work) {
+        T value;
+        handle.enter(false);
+        try {
+            value = work.run();
+        } catch (Exception e) {
+            deliverError(handle, cb, e);
+            return;
+        } finally {
+            handle.exit();
+        }
+        deliver(handle, cb, value, true);
+    }
+
+    private static <T> void revalidate(CallHandle handle, Callback<T> cb, Work<T> work) {
+        if (handle.isCancelled()) return;
+        T value;
+        handle.enter(false);
+        try {
+            value = work.run();
+        } catch (Exception e) {
+            handle.markDone();
+            return;
+        } finally {
+            handle.exit();
+        }
+        if (handle.hasChanged()) {
+            deliver(handle, cb, value, true);
+        } else {
+            handle.markDone();
+        }
+    }
+
+    /** Delivers {@code value} to {@code cb} on the main thread, without touching the pool. */
+    static <T> Cancellable succeed(Callback<T> cb, T value) {
+        CallHandle handle = new CallHandle();
+        deliver(handle, cb, value, true);
+        return handle;
+    }
+
+    static <T> Cancellable fail(Callback<T> cb, Throwable error) {
+        CallHandle handle = new CallHandle();
+        deliverError(handle, cb, error);
+        return handle;
+    }
+
+    private static <T> void deliver(CallHandle handle, Callback<T> cb, T value, boolean last) {
+        main(
+                () -> {
+                    if (handle.isCancelled()) return;
+                    if (last) handle.markDone();
+                    cb.onSuccess(value);
+                });
+    }
+
+    private static <T> void deliverError(CallHandle handle, Callback<T> cb, Throwable error) {
+        main(
+                () -> {
+                    if (handle.isCancelled()) return;
+                    handle.markDone();
+                    cb.onError(error);
+                });
+    }
+
+    /** Runs {@code call} on this thread; backend work it queues gets {@code priority}. */
+    static void withPriority(int priority, Runnable call) {
+        Integer previous = SUBMIT_PRIORITY.get();
+        SUBMIT_PRIORITY.set(priority);
+        try {
+            call.run();
+        } finally {
+            if (previous != null) {
+                SUBMIT_PRIORITY.set(previous);
+            } else {
+                SUBMIT_PRIORITY.remove();
+            }
+        }
+    }
+
+    static ExecutorStats stats() {
+        long completed = COMPLETED.get();
+        return new ExecutorStats(
+                IO.getQueue().size(),
+                IO.getActiveCount(),
+                completed,
+                CANCELLED.get(),
+                completed > 0 ? TOTAL_WAIT_MS.get() / completed : 0,
+                MAX_WAIT_MS.get(),
+                completed > 0 ? TOTAL_RUN_MS.get() / completed : 0);
+    }
+
+    static final class Task implements Runnable, Comparable<Task> {
+        private final Runnable body;
+        private final int priority;
+        private final long sequence;
+        private final long queuedAtMs = SystemClock.elapsedRealtime();
+        private volatile boolean cancelled;
+
+        private Task(Runnable body, int priority, long sequence) {
+            this.body = body;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        /** Drops the request if it has not started yet. */
+        void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            if (IO.remove(this)) CANCELLED.incrementAndGet();
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                CANCELLED.incrementAndGet();
+                return;
+            }
+            long startMs = SystemClock.elapsedRealtime();
+            long waitMs = startMs - queuedAtMs;
+            try {
+                body.run();
+            } finally {
+                TOTAL_WAIT_MS.addAndGet(waitMs);
+                TOTAL_RUN_MS.addAndGet(SystemClock.elapsedRealtime() - startMs);
+                long max = MAX_WAIT_MS.get();
+                while (waitMs > max && !MAX_WAIT_MS.compareAndSet(max, waitMs)) {
+                    max = MAX_WAIT_MS.get();
+                }
+                COMPLETED.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) return priority < other.priority ? -1 : 1;
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
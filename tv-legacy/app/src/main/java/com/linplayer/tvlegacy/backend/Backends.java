@@ -51,6 +51,25 @@ public final class Backends {
         }
     }
 
+    public interface CallStarter {
+        Cancellable start();
+    }
+
+    /**
+     * Starts a backend call queued behind every foreground request. For work the user is not
+     * waiting on yet, such as the next page of a list.
+     */
+    public static Cancellable prefetch(CallStarter starter) {
+        Cancellable[] started = new Cancellable[1];
+        AppExecutors.withPriority(
+                AppExecutors.PRIORITY_PREFETCH, () -> started[0] = starter.start());
+        return started[0];
+    }
+
+    public static ExecutorStats executorStats() {
+        return AppExecutors.stats();
+    }
+
     private static String safe(String s) {
         return s != null ? s.trim() : "";
     }
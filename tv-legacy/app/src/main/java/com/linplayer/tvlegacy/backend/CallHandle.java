@@ -0,0 +1,105 @@
+package com.linplayer.tvlegacy.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.Call;
+
+/**
+ * The {@link Cancellable} behind each backend call.
+ *
+ * <p>HTTP calls made while the work runs register through {@link #track}, so cancelling aborts
+ * them instead of letting them finish for nobody.
+ */
+final class CallHandle implements Cancellable {
+    private static final ThreadLocal<CallHandle> CURRENT = new ThreadLocal<>();
+
+    private final List<Call> calls = new ArrayList<>();
+    private volatile AppExecutors.Task task;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    // Touched only by the thread running the work.
+    private boolean cacheOnly;
+    private boolean changed;
+
+    /** The backend call running on this thread, if any. */
+    static CallHandle current() {
+        return CURRENT.get();
+    }
+
+    /** Ties {@code call} to the backend call running on this thread, if any. */
+    static Call track(Call call) {
+        CallHandle handle = CURRENT.get();
+        if (handle != null) handle.add(call);
+        return call;
+    }
+
+    @Override
+    public void cancel() {
+        List<Call> inFlight;
+        synchronized (calls) {
+            if (cancelled) return;
+            cancelled = true;
+            inFlight = new ArrayList<>(calls);
+            calls.clear();
+        }
+        AppExecutors.Task t = task;
+        if (t != null) t.cancel();
+        for (Call c : inFlight) c.cancel();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done || cancelled;
+    }
+
+    void setTask(AppExecutors.Task task) {
+        this.task = task;
+        if (cancelled) task.cancel();
+    }
+
+    /** Marks this thread as running the call; a cache-only pass must not use the network. */
+    void enter(boolean cacheOnly) {
+        this.cacheOnly = cacheOnly;
+        changed = false;
+        CURRENT.set(this);
+    }
+
+    boolean isCacheOnly() {
+        return cacheOnly;
+    }
+
+    /** Records that a response differed from its cached copy during this pass. */
+    void markChanged() {
+        changed = true;
+    }
+
+    boolean hasChanged() {
+        return changed;
+    }
+
+    void exit() {
+        CURRENT.remove();
+        synchronized (calls) {
+            calls.clear();
+        }
+    }
+
+    void markDone() {
+        done = true;
+    }
+
+    private void add(Call call) {
+        synchronized (calls) {
+            if (!cancelled) {
+                calls.add(call);
+                return;
+            }
+        }
+        call.cancel();
+    }
+}
@@ -1,8 +1,11 @@
 package com.linplayer.tvlegacy.backend;
 
 public interface Callback<T> {
+    /**
+     * Delivers a result. When the first result came from the metadata cache, this runs once more
+     * if the server has since returned something different.
+     */
     void onSuccess(T value);
 
     void onError(Throwable error);
 }
-
@@ -0,0 +1,12 @@
+package com.linplayer.tvlegacy.backend;
+
+/** A backend call in flight. */
+public interface Cancellable {
+    /** Aborts the call's network requests; its callback will not run afterwards. */
+    void cancel();
+
+    boolean isCancelled();
+
+    /** Whether the callback has run or the call was cancelled. */
+    boolean isDone();
+}
@@ -7,62 +7,39 @@ import java.util.List;
 
 final class DemoMediaBackend implements MediaBackend {
     @Override
-    public void listShows(Callback<List<Show>> cb) {
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Show> v = DemoData.shows();
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+    public Cancellable listShows(Callback<List<Show>> cb) {
+        return AppExecutors.submit(cb, () -> DemoData.shows());
     }
 
     @Override
-    public void getShow(String showId, Callback<Show> cb) {
-        AppExecutors.io(
-                () -> {
-                    try {
-                        Show v = DemoData.findShow(showId);
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+    public Cancellable listShowsPage(int startIndex, int limit, Callback<Page<Show>> cb) {
+        return AppExecutors.submit(cb, () -> Page.slice(DemoData.shows(), startIndex, limit));
     }
 
     @Override
-    public void listEpisodes(String showId, Callback<List<Episode>> cb) {
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Episode> v = DemoData.episodes(showId);
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+    public Cancellable getShow(String showId, Callback<Show> cb) {
+        return AppExecutors.submit(cb, () -> DemoData.findShow(showId));
+    }
+
+    @Override
+    public Cancellable listEpisodes(String showId, Callback<List<Episode>> cb) {
+        return AppExecutors.submit(cb, () -> DemoData.episodes(showId));
     }
 
     @Override
-    public void getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
-        AppExecutors.io(
+    public Cancellable getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
+        return AppExecutors.submit(
+                cb,
                 () -> {
-                    try {
-                        Episode found = null;
-                        List<Episode> list = DemoData.episodes(showId);
-                        for (Episode e : list) {
-                            if (e.index == episodeIndex) {
-                                found = e;
-                                break;
-                            }
+                    Episode found = null;
+                    List<Episode> list = DemoData.episodes(showId);
+                    for (Episode e : list) {
+                        if (e.index == episodeIndex) {
+                            found = e;
+                            break;
                         }
-                        Episode v = found;
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
                     }
+                    return found;
                 });
     }
 }
@@ -11,13 +11,14 @@ import java.util.List;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.ResponseBody;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 final class EmbyLikeMediaBackend implements MediaBackend {
+    // Items per request when a whole list is wanted; large libraries are walked page by page.
+    private static final int PAGE_SIZE = 200;
+
     private final Context appContext;
     private final String serverName;
     private final String apiKey;
@@ -26,6 +27,8 @@ final class EmbyLikeMediaBackend implements MediaBackend {
     private final Object userLock = new Object();
     private String userId;
 
+    private final EpisodeIndex recentEpisodes = new EpisodeIndex();
+
     EmbyLikeMediaBackend(Context context, String baseUrl, String apiKey, String serverName) {
         this.appContext = context.getApplicationContext();
         this.serverName = serverName != null && !serverName.trim().isEmpty() ? serverName.trim() : "Server";
@@ -38,129 +41,99 @@ final class EmbyLikeMediaBackend implements MediaBackend {
     }
 
     @Override
-    public void listShows(Callback<List<Show>> cb) {
+    public Cancellable listShows(Callback<List<Show>> cb) {
         if (!isConfigured()) {
-            failNotConfigured(cb);
-            return;
+            return failNotConfigured(cb);
         }
 
-        AppExecutors.io(
+        return AppExecutors.submitCached(
+                cb,
                 () -> {
-                    try {
-                        String uid = requireUserId();
-                        HttpUrl url =
-                                apiUrl("Users/" + uid + "/Items")
-                                        .addQueryParameter("IncludeItemTypes", "Series")
-                                        .addQueryParameter("Recursive", "true")
-                                        .addQueryParameter(
-                                                "Fields", "Overview,ProductionYear,Genres,CommunityRating")
-                                        .addQueryParameter("SortBy", "SortName")
-                                        .addQueryParameter("SortOrder", "Ascending")
-                                        .addQueryParameter("Limit", "50")
-                                        .build();
-                        JSONObject root = getJsonObject(url);
-                        JSONArray items = root.optJSONArray("Items");
-                        List<Show> shows = parseShows(items);
-                        AppExecutors.main(() -> cb.onSuccess(shows));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
+                    List<Show> all = new ArrayList<>();
+                    int start = 0;
+                    while (true) {
+                        Page<Show> page = loadShowsPage(start, PAGE_SIZE);
+                        all.addAll(page.items);
+                        if (!page.hasMore()) break;
+                        start = page.nextStartIndex();
                     }
+                    return Collections.unmodifiableList(all);
                 });
     }
 
     @Override
-    public void getShow(String showId, Callback<Show> cb) {
+    public Cancellable listShowsPage(int startIndex, int limit, Callback<Page<Show>> cb) {
+        if (!isConfigured()) {
+            return failNotConfigured(cb);
+        }
+
+        return AppExecutors.submitCached(cb, () -> loadShowsPage(startIndex, limit));
+    }
+
+    @Override
+    public Cancellable getShow(String showId, Callback<Show> cb) {
         if (!isConfigured()) {
-            failNotConfigured(cb);
-            return;
+            return failNotConfigured(cb);
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(null));
-            return;
+            return AppExecutors.succeed(cb, null);
         }
 
-        AppExecutors.io(
+        return AppExecutors.submitCached(
+                cb,
                 () -> {
-                    try {
-                        String uid = requireUserId();
-                        HttpUrl url =
-                                apiUrl("Users/" + uid + "/Items/" + showId.trim())
-                                        .addQueryParameter(
-                                                "Fields", "Overview,ProductionYear,Genres,CommunityRating")
-                                        .build();
-                        JSONObject item = getJsonObject(url);
-                        Show show = parseShow(item);
-                        AppExecutors.main(() -> cb.onSuccess(show));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
+                    String uid = requireUserId();
+                    HttpUrl url =
+                            apiUrl("Users/" + uid + "/Items/" + showId.trim())
+                                    .addQueryParameter(
+                                            "Fields", "Overview,ProductionYear,Genres,CommunityRating")
+                                    .build();
+                    JSONObject item = getJsonObject(url);
+                    return parseShow(item);
                 });
     }
 
     @Override
-    public void listEpisodes(String showId, Callback<List<Episode>> cb) {
+    public Cancellable listEpisodes(String showId, Callback<List<Episode>> cb) {
         if (!isConfigured()) {
-            failNotConfigured(cb);
-            return;
+            return failNotConfigured(cb);
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(Collections.emptyList()));
-            return;
+            return AppExecutors.succeed(cb, Collections.emptyList());
         }
+        String id = showId.trim();
 
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Episode> episodes = loadEpisodes(showId.trim());
-                        AppExecutors.main(() -> cb.onSuccess(episodes));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        return AppExecutors.submitCached(
+                cb, () -> recentEpisodes.put(id, loadEpisodes(id)).episodes);
     }
 
     @Override
-    public void getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
+    public Cancellable getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
         if (!isConfigured()) {
-            failNotConfigured(cb);
-            return;
+            return failNotConfigured(cb);
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(null));
-            return;
+            return AppExecutors.succeed(cb, null);
         }
+        String id = showId.trim();
         int index = episodeIndex;
 
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Episode> episodes = loadEpisodes(showId.trim());
-                        Episode found = null;
-                        for (Episode e : episodes) {
-                            if (e != null && e.index == index) {
-                                found = e;
-                                break;
-                            }
-                        }
-                        Episode v = found;
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        EpisodeIndex.Entry indexed = recentEpisodes.lookup(id);
+        if (indexed != null) return AppExecutors.succeed(cb, indexed.get(index));
+        return AppExecutors.submitCached(
+                cb, () -> recentEpisodes.put(id, loadEpisodes(id)).get(index));
     }
 
     private boolean isConfigured() {
         return baseUrl != null && apiKey != null && !apiKey.isEmpty();
     }
 
-    private <T> void failNotConfigured(Callback<T> cb) {
-        AppExecutors.main(
-                () ->
-                        cb.onError(
-                                new IllegalStateException(
-                                        serverName
-                                                + " not configured. Open Settings and set Server URL + API key.")));
+    private <T> Cancellable failNotConfigured(Callback<T> cb) {
+        return AppExecutors.fail(
+                cb,
+                new IllegalStateException(
+                        serverName
+                                + " not configured. Open Settings and set Server URL + API key."));
     }
 
     private HttpUrl.Builder apiUrl(String path) {
@@ -191,39 +164,72 @@ final class EmbyLikeMediaBackend implements MediaBackend {
         }
     }
 
-    private List<Episode> loadEpisodes(String showId) throws IOException, JSONException {
+    private Page<Show> loadShowsPage(int startIndex, int limit) throws IOException, JSONException {
         String uid = requireUserId();
+        int start = Math.max(0, startIndex);
+        int size = Math.max(1, limit);
         HttpUrl url =
-                apiUrl("Shows/" + showId + "/Episodes")
-                        .addQueryParameter("UserId", uid)
-                        .addQueryParameter("SortBy", "IndexNumber")
+                apiUrl("Users/" + uid + "/Items")
+                        .addQueryParameter("IncludeItemTypes", "Series")
+                        .addQueryParameter("Recursive", "true")
+                        .addQueryParameter(
+                                "Fields", "Overview,ProductionYear,Genres,CommunityRating")
+                        .addQueryParameter("SortBy", "SortName")
                         .addQueryParameter("SortOrder", "Ascending")
-                        .addQueryParameter("Fields", "Overview")
-                        .addQueryParameter("Limit", "200")
+                        .addQueryParameter("StartIndex", String.valueOf(start))
+                        .addQueryParameter("Limit", String.valueOf(size))
+                        .addQueryParameter("EnableTotalRecordCount", "true")
                         .build();
         JSONObject root = getJsonObject(url);
         JSONArray items = root.optJSONArray("Items");
-        if (items == null) return Collections.emptyList();
-
-        List<Episode> list = new ArrayList<>(items.length());
-        for (int i = 0; i < items.length(); i++) {
-            JSONObject it = items.optJSONObject(i);
-            if (it == null) continue;
-
-            String id = it.optString("Id", "");
-            if (id == null || id.trim().isEmpty()) continue;
+        int total = root.optInt("TotalRecordCount", -1);
+        return new Page<>(parseShows(items), start, size, total);
+    }
 
-            String name = it.optString("Name", "");
-            int season = it.optInt("ParentIndexNumber", 0);
-            int ep = it.optInt("IndexNumber", 0);
+    private List<Episode> loadEpisodes(String showId) throws IOException, JSONException {
+        String uid = requireUserId();
+        List<Episode> list = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            HttpUrl url =
+                    apiUrl("Shows/" + showId + "/Episodes")
+                            .addQueryParameter("UserId", uid)
+                            .addQueryParameter("SortBy", "IndexNumber")
+                            .addQueryParameter("SortOrder", "Ascending")
+                            .addQueryParameter("Fields", "Overview")
+                            .addQueryParameter("StartIndex", String.valueOf(start))
+                            .addQueryParameter("Limit", String.valueOf(PAGE_SIZE))
+                            .build();
+            JSONObject root = getJsonObject(url);
+            JSONArray items = root.optJSONArray("Items");
+            if (items == null) break;
+
+            for (int i = 0; i < items.length(); i++) {
+                JSONObject it = items.optJSONObject(i);
+                if (it == null) continue;
+
+                String id = it.optString("Id", "");
+                if (id == null || id.trim().isEmpty()) continue;
+
+                String name = it.optString("Name", "");
+                int season = it.optInt("ParentIndexNumber", 0);
+                int ep = it.optInt("IndexNumber", 0);
+
+                int index = list.size() + 1;
+                String title =
+                        (name != null && !name.trim().isEmpty() ? name.trim() : "Episode " + index)
+                                .trim();
+                String mediaUrl = streamUrl(id.trim());
+                String overview = it.optString("Overview", "");
+                String thumbUrl = primaryImageUrl(id.trim(), 640);
+                list.add(
+                        new Episode(
+                                id.trim(), index, title, mediaUrl, season, ep, overview, thumbUrl));
+            }
 
-            int index = list.size() + 1;
-            String title =
-                    (name != null && !name.trim().isEmpty() ? name.trim() : "Episode " + index).trim();
-            String mediaUrl = streamUrl(id.trim());
-            String overview = it.optString("Overview", "");
-            String thumbUrl = primaryImageUrl(id.trim(), 640);
-            list.add(new Episode(id.trim(), index, title, mediaUrl, season, ep, overview, thumbUrl));
+            int total = root.optInt("TotalRecordCount", -1);
+            start += PAGE_SIZE;
+            if (items.length() < PAGE_SIZE || (total >= 0 && start >= total)) break;
         }
         return Collections.unmodifiableList(list);
     }
@@ -244,20 +250,18 @@ final class EmbyLikeMediaBackend implements MediaBackend {
                         .get()
                         .header("Accept", "application/json")
                         .build();
-        try (Response resp = client.newCall(req).execute()) {
-            if (!resp.isSuccessful()) {
+        try (MetadataCache.Body body = MetadataCache.get(appContext).fetch(client, req)) {
+            if (!body.isSuccessful()) {
                 throw new IOException(
                         serverName
                                 + ": HTTP "
-                                + resp.code()
+                                + body.code
                                 + " "
-                                + resp.message()
+                                + body.message
                                 + " for "
                                 + url);
             }
-            ResponseBody body = resp.body();
-            String s = body != null ? body.string() : "";
-            return new JSONObject(s);
+            return new JSONObject(body.string());
         }
     }
 
@@ -0,0 +1,63 @@
+package com.linplayer.tvlegacy.backend;
+
+import android.os.SystemClock;
+import com.linplayer.tvlegacy.Episode;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Episode lists a backend loaded recently, indexed by show and episode index.
+ *
+ * <p>Lets getEpisode answer next/previous navigation from memory instead of reloading and scanning
+ * the whole list. Entries expire after a few minutes, so edits on the server still show up.
+ */
+final class EpisodeIndex {
+    private static final int MAX_SHOWS = 32;
+    private static final long TTL_MS = 5 * 60_000;
+
+    static final class Entry {
+        final List<Episode> episodes;
+        private final Map<Integer, Episode> byIndex;
+        private final long loadedAtMs = SystemClock.elapsedRealtime();
+
+        private Entry(List<Episode> episodes) {
+            this.episodes = episodes;
+            this.byIndex = new HashMap<>(episodes.size() * 2);
+            for (Episode e : episodes) {
+                if (e != null && !byIndex.containsKey(e.index)) byIndex.put(e.index, e);
+            }
+        }
+
+        /** The episode with {@code index}, or null if the show has none. */
+        Episode get(int index) {
+            return byIndex.get(index);
+        }
+    }
+
+    private final Map<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_SHOWS;
+                }
+            };
+
+    synchronized Entry put(String showId, List<Episode> episodes) {
+        Entry entry = new Entry(episodes);
+        entries.put(showId, entry);
+        return entry;
+    }
+
+    /** The show's entry if it was loaded within the TTL, else null. */
+    synchronized Entry lookup(String showId) {
+        Entry entry = entries.get(showId);
+        if (entry == null) return null;
+        if (SystemClock.elapsedRealtime() - entry.loadedAtMs > TTL_MS) {
+            entries.remove(showId);
+            return null;
+        }
+        return entry;
+    }
+}
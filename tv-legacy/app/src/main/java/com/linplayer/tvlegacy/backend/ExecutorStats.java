@@ -0,0 +1,29 @@
+package com.linplayer.tvlegacy.backend;
+
+/** A snapshot of the backend request queue, for diagnostics. */
+public final class ExecutorStats {
+    public final int queued;
+    public final int active;
+    public final long completed;
+    public final long cancelled;
+    public final long averageWaitMs;
+    public final long maxWaitMs;
+    public final long averageRunMs;
+
+    ExecutorStats(
+            int queued,
+            int active,
+            long completed,
+            long cancelled,
+            long averageWaitMs,
+            long maxWaitMs,
+            long averageRunMs) {
+        this.queued = queued;
+        this.active = active;
+        this.completed = completed;
+        this.cancelled = cancelled;
+        this.averageWaitMs = averageWaitMs;
+        this.maxWaitMs = maxWaitMs;
+        this.averageRunMs = averageRunMs;
+    }
+}
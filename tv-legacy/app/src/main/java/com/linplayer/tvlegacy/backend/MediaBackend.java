@@ -4,13 +4,21 @@ import com.linplayer.tvlegacy.Episode;
 import com.linplayer.tvlegacy.Show;
 import java.util.List;
 
+/**
+ * A media server. Callbacks run on the main thread; each call returns a handle that aborts it.
+ */
 public interface MediaBackend {
-    void listShows(Callback<List<Show>> cb);
+    Cancellable listShows(Callback<List<Show>> cb);
 
-    void getShow(String showId, Callback<Show> cb);
+    /**
+     * Loads at most {@code limit} shows starting at {@code startIndex}, in listShows order. A
+     * server that cannot page may answer the first call with every show and no further pages.
+     */
+    Cancellable listShowsPage(int startIndex, int limit, Callback<Page<Show>> cb);
 
-    void listEpisodes(String showId, Callback<List<Episode>> cb);
+    Cancellable getShow(String showId, Callback<Show> cb);
 
-    void getEpisode(String showId, int episodeIndex, Callback<Episode> cb);
-}
+    Cancellable listEpisodes(String showId, Callback<List<Episode>> cb);
 
+    Cancellable getEpisode(String showId, int episodeIndex, Callback<Episode> cb);
+}
@@ -0,0 +1,287 @@
+package com.linplayer.tvlegacy.backend;
+
+import android.content.Context;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Server responses behind the media backends, kept on disk so that screens can render before the
+ * network answers.
+ *
+ * <p>Entries are keyed by method and URL, which carry the server address and credentials, so each
+ * server gets its own entries. A file holds the response's validators and a hash of its body,
+ * followed by the body itself. How an entry is used depends on the backend call on the current
+ * thread; see {@link AppExecutors#submitCached}.
+ */
+final class MetadataCache {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int FORMAT = 1;
+    private static final long MAX_BYTES = 24L * 1024 * 1024;
+
+    /** Thrown on a cache-only pass when a response is not cached. */
+    static final class MissException extends IOException {
+        MissException(String url) {
+            super("not cached: " + url);
+        }
+    }
+
+    private static MetadataCache instance;
+
+    static synchronized MetadataCache get(Context context) {
+        if (instance == null) {
+            instance =
+                    new MetadataCache(
+                            new File(context.getApplicationContext().getCacheDir(), "metadata"));
+        }
+        return instance;
+    }
+
+    private final File dir;
+
+    private MetadataCache(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * A response body, from the network or the cache. Read it with {@link #reader} or {@link
+     * #string} unless {@link #isSuccessful} is false.
+     */
+    static final class Body implements Closeable {
+        final int code;
+        final String message;
+        private final File file;
+        private InputStream in;
+
+        private Body(int code, String message, File file) {
+            this.code = code;
+            this.message = message != null ? message : "";
+            this.file = file;
+        }
+
+        boolean isSuccessful() {
+            return code >= 200 && code < 300;
+        }
+
+        Reader reader() throws IOException {
+            if (file == null) throw new IOException("HTTP " + code + " " + message);
+            if (in == null) {
+                DataInputStream data =
+                        new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                readHeader(data);
+                in = data;
+            }
+            return new InputStreamReader(in, UTF8);
+        }
+
+        String string() throws IOException {
+            Reader r = reader();
+            StringBuilder sb = new StringBuilder();
+            char[] buf = new char[8192];
+            int n;
+            while ((n = r.read(buf)) != -1) sb.append(buf, 0, n);
+            return sb.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) in.close();
+        }
+    }
+
+    private static final class Header {
+        final String etag;
+        final String lastModified;
+        final String bodyHash;
+
+        Header(String etag, String lastModified, String bodyHash) {
+            this.etag = etag != null ? etag : "";
+            this.lastModified = lastModified != null ? lastModified : "";
+            this.bodyHash = bodyHash != null ? bodyHash : "";
+        }
+    }
+
+    /**
+     * Runs {@code request} for the backend call on this thread.
+     *
+     * <p>On a cache-only pass this never touches the network and throws {@link MissException} for
+     * an uncached response. Otherwise the request is sent with the cached validators, and a
+     * successful response replaces the entry; the call is marked changed unless the body matches
+     * what was cached.
+     */
+    Body fetch(OkHttpClient client, Request request) throws IOException {
+        return fetch(client, request, "");
+    }
+
+    /**
+     * Like {@link #fetch(OkHttpClient, Request)}, for servers whose credentials are not in the URL;
+     * {@code credentials} keeps each account's entries apart.
+     */
+    Body fetch(OkHttpClient client, Request request, String credentials) throws IOException {
+        String key =
+                hash(
+                        request.method()
+                                + " "
+                                + request.url()
+                                + " "
+                                + request.header("Depth")
+                                + " "
+                                + credentials);
+        File file = new File(dir, key);
+        CallHandle handle = CallHandle.current();
+
+        Header cached = file.isFile() ? readHeaderQuietly(file) : null;
+        if (handle != null && handle.isCacheOnly()) {
+            if (cached == null) throw new MissException(request.url().toString());
+            file.setLastModified(System.currentTimeMillis());
+            return new Body(200, "OK (cached)", file);
+        }
+
+        Request.Builder b = request.newBuilder();
+        if (cached != null) {
+            if (!cached.etag.isEmpty()) b.header("If-None-Match", cached.etag);
+            if (!cached.lastModified.isEmpty()) b.header("If-Modified-Since", cached.lastModified);
+        }
+        try (Response resp = CallHandle.track(client.newCall(b.build())).execute()) {
+            if (resp.code() == 304 && cached != null) {
+                file.setLastModified(System.currentTimeMillis());
+                return new Body(200, "OK (not modified)", file);
+            }
+            if (!resp.isSuccessful()) {
+                return new Body(resp.code(), resp.message(), null);
+            }
+            String bodyHash = store(file, resp);
+            if (handle != null && (cached == null || !cached.bodyHash.equals(bodyHash))) {
+                handle.markChanged();
+            }
+            return new Body(resp.code(), resp.message(), file);
+        }
+    }
+
+    // Streams the body into a temporary file and swaps it in; returns the body's hash.
+    private String store(File file, Response resp) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("cannot create " + dir);
+        }
+        File tmp = new File(dir, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        ResponseBody body = resp.body();
+        MessageDigest digest = sha1();
+        try {
+            long hashOffset;
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(FORMAT);
+                out.writeUTF(safe(resp.header("ETag")));
+                out.writeUTF(safe(resp.header("Last-Modified")));
+                // The hash is only known once the body has been read; patched in below.
+                hashOffset = out.size();
+                out.writeUTF(hex(new byte[digest.getDigestLength()]));
+                if (body != null) {
+                    InputStream in = body.byteStream();
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) != -1) {
+                        digest.update(buf, 0, n);
+                        out.write(buf, 0, n);
+                    }
+                }
+            }
+            String bodyHash = hex(digest.digest());
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+                raf.seek(hashOffset);
+                raf.writeUTF(bodyHash);
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("cannot write " + file);
+            }
+            trim();
+            return bodyHash;
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    // Drops the least recently used entries once the cache outgrows its budget.
+    private synchronized void trim() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= MAX_BYTES) return;
+        Arrays.sort(
+                files,
+                new Comparator<File>() {
+                    @Override
+                    public int compare(File a, File b) {
+                        long la = a.lastModified();
+                        long lb = b.lastModified();
+                        return la < lb ? -1 : (la == lb ? 0 : 1);
+                    }
+                });
+        for (File f : files) {
+            if (total <= MAX_BYTES * 3 / 4) break;
+            if (f.getName().endsWith(".tmp")) continue;
+            long len = f.length();
+            if (f.delete()) total -= len;
+        }
+    }
+
+    private static Header readHeaderQuietly(File file) {
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readHeader(in);
+        } catch (IOException e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT) throw new IOException("unknown cache format");
+        return new Header(in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    private static String hash(String s) {
+        return hex(sha1().digest(s.getBytes(UTF8)));
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static String safe(String s) {
+        return s != null ? s : "";
+    }
+}
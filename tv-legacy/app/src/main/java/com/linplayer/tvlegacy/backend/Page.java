@@ -0,0 +1,54 @@
+package com.linplayer.tvlegacy.backend;
+
+import java.util.Collections;
+import java.util.List;
+
+/** One slice of a server-side list, starting at {@link #startIndex}. */
+public final class Page<T> {
+    public final List<T> items;
+    public final int startIndex;
+    /** Size of the whole list, or -1 when the server does not report it. */
+    public final int totalCount;
+
+    private final int requested;
+
+    Page(List<T> items, int startIndex, int requested, int totalCount) {
+        this.items = items != null ? items : Collections.<T>emptyList();
+        this.startIndex = Math.max(0, startIndex);
+        this.requested = requested;
+        this.totalCount = totalCount;
+    }
+
+    public int nextStartIndex() {
+        return startIndex + requested;
+    }
+
+    public boolean hasMore() {
+        if (totalCount >= 0) return nextStartIndex() < totalCount;
+        // Without a total, only a short page marks the end.
+        return items.size() >= requested && requested > 0;
+    }
+
+    /** The whole list as one page, for servers that cannot page it. */
+    static <T> Page<T> whole(List<T> all) {
+        List<T> items =
+                all != null ? Collections.unmodifiableList(all) : Collections.<T>emptyList();
+        return new Page<>(items, 0, items.size(), items.size());
+    }
+
+    /** An empty last page at {@code startIndex}, past the end of a list that fit in one page. */
+    static <T> Page<T> end(int startIndex) {
+        return new Page<>(Collections.<T>emptyList(), startIndex, 0, Math.max(0, startIndex));
+    }
+
+    static <T> Page<T> slice(List<T> all, int startIndex, int limit) {
+        int size = all != null ? all.size() : 0;
+        int from = Math.min(Math.max(0, startIndex), size);
+        int to = Math.min(size, from + Math.max(0, limit));
+        List<T> items =
+                from < to
+                        ? Collections.unmodifiableList(all.subList(from, to))
+                        : Collections.<T>emptyList();
+        return new Page<>(items, from, Math.max(0, limit), size);
+    }
+}
@@ -5,6 +5,7 @@ import com.linplayer.tvlegacy.Episode;
 import com.linplayer.tvlegacy.NetworkClients;
 import com.linplayer.tvlegacy.Show;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,12 +14,13 @@ import java.util.List;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.ResponseBody;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserFactory;
 
 final class PlexMediaBackend implements MediaBackend {
+    // Items per request when a whole list is wanted; large sections are walked page by page.
+    private static final int PAGE_SIZE = 200;
+
     private final Context appContext;
     private final String token;
     private final HttpUrl baseUrl;
@@ -27,6 +29,8 @@ final class PlexMediaBackend implements MediaBackend {
     private final Object sectionLock = new Object();
     private String tvSectionKey;
 
+    private final EpisodeIndex recentEpisodes = new EpisodeIndex();
+
     PlexMediaBackend(Context context, String baseUrl, String token) {
         this.appContext = context.getApplicationContext();
         this.token = token != null ? token.trim() : "";
@@ -36,104 +40,78 @@ final class PlexMediaBackend implements MediaBackend {
     }
 
     @Override
-    public void listShows(Callback<List<Show>> cb) {
+    public Cancellable listShows(Callback<List<Show>> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("Plex not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("Plex not configured"));
         }
-        AppExecutors.io(
+        return AppExecutors.submitCached(
+                cb,
                 () -> {
-                    try {
-                        String section = requireTvSectionKey();
-                        HttpUrl url =
-                                plexUrl("library/sections/" + section + "/all")
-                                        .addQueryParameter("type", "2")
-                                        .addQueryParameter("sort", "titleSort:asc")
-                                        .build();
-                        String xml = httpGet(url);
-                        List<Show> shows = parseShows(xml);
-                        AppExecutors.main(() -> cb.onSuccess(shows));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
+                    List<Show> all = new ArrayList<>();
+                    int start = 0;
+                    while (true) {
+                        Page<Show> page = loadShowsPage(start, PAGE_SIZE);
+                        all.addAll(page.items);
+                        if (!page.hasMore()) break;
+                        start = page.nextStartIndex();
                     }
+                    return Collections.unmodifiableList(all);
                 });
     }
 
     @Override
-    public void getShow(String showId, Callback<Show> cb) {
+    public Cancellable listShowsPage(int startIndex, int limit, Callback<Page<Show>> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("Plex not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("Plex not configured"));
+        }
+        return AppExecutors.submitCached(cb, () -> loadShowsPage(startIndex, limit));
+    }
+
+    @Override
+    public Cancellable getShow(String showId, Callback<Show> cb) {
+        if (!isConfigured()) {
+            return AppExecutors.fail(cb, new IllegalStateException("Plex not configured"));
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(null));
-            return;
+            return AppExecutors.succeed(cb, null);
         }
         String id = showId.trim();
-        AppExecutors.io(
+        return AppExecutors.submitCached(
+                cb,
                 () -> {
-                    try {
-                        HttpUrl url = plexUrl("library/metadata/" + id).build();
-                        String xml = httpGet(url);
-                        Show show = parseShow(xml);
-                        AppExecutors.main(() -> cb.onSuccess(show));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
+                    HttpUrl url = plexUrl("library/metadata/" + id).build();
+                    String xml = httpGet(url);
+                    return parseShow(xml);
                 });
     }
 
     @Override
-    public void listEpisodes(String showId, Callback<List<Episode>> cb) {
+    public Cancellable listEpisodes(String showId, Callback<List<Episode>> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("Plex not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("Plex not configured"));
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(Collections.emptyList()));
-            return;
+            return AppExecutors.succeed(cb, Collections.emptyList());
         }
         String id = showId.trim();
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Episode> episodes = loadEpisodes(id);
-                        AppExecutors.main(() -> cb.onSuccess(episodes));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        return AppExecutors.submitCached(
+                cb, () -> recentEpisodes.put(id, loadEpisodes(id)).episodes);
     }
 
     @Override
-    public void getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
+    public Cancellable getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("Plex not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("Plex not configured"));
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(null));
-            return;
+            return AppExecutors.succeed(cb, null);
         }
         String id = showId.trim();
         int index = episodeIndex;
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Episode> episodes = loadEpisodes(id);
-                        Episode found = null;
-                        for (Episode e : episodes) {
-                            if (e != null && e.index == index) {
-                                found = e;
-                                break;
-                            }
-                        }
-                        Episode v = found;
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        EpisodeIndex.Entry indexed = recentEpisodes.lookup(id);
+        if (indexed != null) return AppExecutors.succeed(cb, indexed.get(index));
+        return AppExecutors.submitCached(
+                cb, () -> recentEpisodes.put(id, loadEpisodes(id)).get(index));
     }
 
     private boolean isConfigured() {
@@ -167,10 +145,23 @@ final class PlexMediaBackend implements MediaBackend {
         }
     }
 
+    private Page<Show> loadShowsPage(int startIndex, int limit) throws Exception {
+        String section = requireTvSectionKey();
+        int start = Math.max(0, startIndex);
+        int size = Math.max(1, limit);
+        HttpUrl url =
+                plexUrl("library/sections/" + section + "/all")
+                        .addQueryParameter("type", "2")
+                        .addQueryParameter("sort", "titleSort:asc")
+                        .addQueryParameter("X-Plex-Container-Start", String.valueOf(start))
+                        .addQueryParameter("X-Plex-Container-Size", String.valueOf(size))
+                        .build();
+        return httpGetXml(url, p -> parseShowPage(p, start, size));
+    }
+
     private List<Episode> loadEpisodes(String showId) throws Exception {
         HttpUrl url = plexUrl("library/metadata/" + showId + "/allLeaves").build();
-        String xml = httpGet(url);
-        List<EpisodeItem> items = parseEpisodeItems(xml);
+        List<EpisodeItem> items = httpGetXml(url, PlexMediaBackend::parseEpisodeItems);
         Collections.sort(
                 items,
                 new Comparator<EpisodeItem>() {
@@ -227,24 +218,45 @@ final class PlexMediaBackend implements MediaBackend {
                         .get()
                         .header("Accept", "application/xml")
                         .build();
-        try (Response resp = client.newCall(req).execute()) {
-            if (!resp.isSuccessful()) {
-                throw new IOException("Plex: HTTP " + resp.code() + " " + resp.message());
+        try (MetadataCache.Body body = MetadataCache.get(appContext).fetch(client, req)) {
+            if (!body.isSuccessful()) {
+                throw new IOException("Plex: HTTP " + body.code + " " + body.message);
             }
-            ResponseBody body = resp.body();
-            return body != null ? body.string() : "";
+            return body.string();
         }
     }
 
-    private List<Show> parseShows(String xml) throws Exception {
+    // Parses the response from disk, so a large section is never held as one string.
+    private <T> T httpGetXml(HttpUrl url, XmlReader<T> reader) throws Exception {
+        Request req =
+                new Request.Builder()
+                        .url(url)
+                        .get()
+                        .header("Accept", "application/xml")
+                        .build();
+        try (MetadataCache.Body body = MetadataCache.get(appContext).fetch(client, req)) {
+            if (!body.isSuccessful()) {
+                throw new IOException("Plex: HTTP " + body.code + " " + body.message);
+            }
+            return reader.read(newParser(body.reader()));
+        }
+    }
+
+    private interface XmlReader<T> {
+        T read(XmlPullParser p) throws Exception;
+    }
+
+    private Page<Show> parseShowPage(XmlPullParser p, int startIndex, int limit) throws Exception {
         List<Show> out = new ArrayList<>();
-        XmlPullParser p = newParser(xml);
+        int total = -1;
         int e = p.getEventType();
         ShowItem cur = null;
         while (e != XmlPullParser.END_DOCUMENT) {
             if (e == XmlPullParser.START_TAG) {
                 String name = p.getName();
-                if ("Directory".equals(name)) {
+                if ("MediaContainer".equals(name)) {
+                    total = parseInt(attr(p, "totalSize"), -1);
+                } else if ("Directory".equals(name)) {
                     String id = attr(p, "ratingKey");
                     if (!id.isEmpty()) {
                         cur = new ShowItem();
@@ -288,7 +300,7 @@ final class PlexMediaBackend implements MediaBackend {
             }
             e = p.next();
         }
-        return Collections.unmodifiableList(out);
+        return new Page<>(Collections.unmodifiableList(out), startIndex, limit, total);
     }
 
     private Show parseShow(String xml) throws Exception {
@@ -357,9 +369,8 @@ final class PlexMediaBackend implements MediaBackend {
         return "";
     }
 
-    private static List<EpisodeItem> parseEpisodeItems(String xml) throws Exception {
+    private static List<EpisodeItem> parseEpisodeItems(XmlPullParser p) throws Exception {
         List<EpisodeItem> out = new ArrayList<>();
-        XmlPullParser p = newParser(xml);
         int e = p.getEventType();
         EpisodeItem cur = null;
         while (e != XmlPullParser.END_DOCUMENT) {
@@ -401,10 +412,14 @@ final class PlexMediaBackend implements MediaBackend {
     }
 
     private static XmlPullParser newParser(String xml) throws Exception {
+        return newParser(new StringReader(xml != null ? xml : ""));
+    }
+
+    private static XmlPullParser newParser(Reader reader) throws Exception {
         XmlPullParserFactory f = XmlPullParserFactory.newInstance();
         f.setNamespaceAware(true);
         XmlPullParser p = f.newPullParser();
-        p.setInput(new StringReader(xml != null ? xml : ""));
+        p.setInput(reader);
         return p;
     }
 
@@ -0,0 +1,56 @@
+package com.linplayer.tvlegacy.backend;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Backend calls made on behalf of one screen, cancelled together when it is destroyed.
+ *
+ * <p>Main thread only.
+ */
+public final class RequestScope implements LifecycleEventObserver {
+    private final List<Cancellable> calls = new ArrayList<>();
+    private boolean closed;
+
+    private RequestScope() {}
+
+    public static RequestScope bindTo(LifecycleOwner owner) {
+        RequestScope scope = new RequestScope();
+        owner.getLifecycle().addObserver(scope);
+        return scope;
+    }
+
+    /** Keeps {@code call} until it completes; cancels it at once if the scope has ended. */
+    public <T extends Cancellable> T add(T call) {
+        if (call == null) return null;
+        if (closed) {
+            call.cancel();
+            return call;
+        }
+        Iterator<Cancellable> it = calls.iterator();
+        while (it.hasNext()) {
+            if (it.next().isDone()) it.remove();
+        }
+        calls.add(call);
+        return call;
+    }
+
+    public void cancelAll() {
+        List<Cancellable> pending = new ArrayList<>(calls);
+        calls.clear();
+        for (Cancellable c : pending) c.cancel();
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event != Lifecycle.Event.ON_DESTROY) return;
+        closed = true;
+        source.getLifecycle().removeObserver(this);
+        cancelAll();
+    }
+}
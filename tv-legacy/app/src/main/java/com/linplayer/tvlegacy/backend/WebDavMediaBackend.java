@@ -19,7 +19,6 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
-import okhttp3.ResponseBody;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserFactory;
 
@@ -31,6 +30,8 @@ final class WebDavMediaBackend implements MediaBackend {
     private final String authHeader;
     private final OkHttpClient client;
 
+    private final EpisodeIndex recentEpisodes = new EpisodeIndex();
+
     WebDavMediaBackend(Context context, String baseUrl, String username, String password) {
         this.appContext = context.getApplicationContext();
         String raw = normalizeBaseUrl(baseUrl);
@@ -58,143 +59,93 @@ final class WebDavMediaBackend implements MediaBackend {
     }
 
     @Override
-    public void listShows(Callback<List<Show>> cb) {
+    public Cancellable listShows(Callback<List<Show>> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("WebDAV not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("WebDAV not configured"));
         }
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<DavEntry> entries = propfind(baseUrl, 1);
-                        List<Show> out = new ArrayList<>();
-                        String self = baseUrl.toString();
-                        for (DavEntry e : entries) {
-                            if (e == null || e.href == null) continue;
-                            if (!e.isCollection) continue;
-                            if (sameUrl(self, e.href)) continue;
-                            String title = e.displayName;
-                            if (title == null || title.trim().isEmpty()) {
-                                title = lastSegment(e.href);
-                            }
-                            out.add(new Show(e.href, title, ""));
-                        }
-                        AppExecutors.main(() -> cb.onSuccess(Collections.unmodifiableList(out)));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        return AppExecutors.submitCached(cb, () -> loadShows());
+    }
+
+    @Override
+    public Cancellable listShowsPage(int startIndex, int limit, Callback<Page<Show>> cb) {
+        if (!isConfigured()) {
+            return AppExecutors.fail(cb, new IllegalStateException("WebDAV not configured"));
+        }
+        // A depth-1 PROPFIND cannot be paged, and slicing it would list the folder again for
+        // every page; answer with the whole folder and no further pages instead.
+        if (startIndex > 0) {
+            return AppExecutors.succeed(cb, Page.<Show>end(startIndex));
+        }
+        return AppExecutors.submitCached(cb, () -> Page.whole(loadShows()));
+    }
+
+    private List<Show> loadShows() throws Exception {
+        List<DavEntry> entries = propfind(baseUrl, 1);
+        List<Show> out = new ArrayList<>();
+        String self = baseUrl.toString();
+        for (DavEntry e : entries) {
+            if (e == null || e.href == null) continue;
+            if (!e.isCollection) continue;
+            if (sameUrl(self, e.href)) continue;
+            String title = e.displayName;
+            if (title == null || title.trim().isEmpty()) {
+                title = lastSegment(e.href);
+            }
+            out.add(new Show(e.href, title, ""));
+        }
+        return Collections.unmodifiableList(out);
     }
 
     @Override
-    public void getShow(String showId, Callback<Show> cb) {
+    public Cancellable getShow(String showId, Callback<Show> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("WebDAV not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("WebDAV not configured"));
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(null));
-            return;
+            return AppExecutors.succeed(cb, null);
         }
         String id = showId.trim();
-        AppExecutors.io(
+        // Derived from the folder URL; there is nothing to fetch or cache.
+        return AppExecutors.submit(
+                cb,
                 () -> {
-                    try {
-                        String title = lastSegment(id);
-                        Show show = new Show(id, title.isEmpty() ? id : title, "");
-                        AppExecutors.main(() -> cb.onSuccess(show));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
+                    String title = lastSegment(id);
+                    return new Show(id, title.isEmpty() ? id : title, "");
                 });
     }
 
     @Override
-    public void listEpisodes(String showId, Callback<List<Episode>> cb) {
+    public Cancellable listEpisodes(String showId, Callback<List<Episode>> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("WebDAV not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("WebDAV not configured"));
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(Collections.emptyList()));
-            return;
+            return AppExecutors.succeed(cb, Collections.emptyList());
         }
         String id = showId.trim();
-        AppExecutors.io(
-                () -> {
-                    try {
-                        HttpUrl folder = HttpUrl.parse(ensureSlash(id));
-                        if (folder == null) throw new IOException("invalid WebDAV folder url");
-                        List<DavEntry> entries = propfind(folder, 1);
-                        List<DavEntry> files = new ArrayList<>();
-                        String self = folder.toString();
-                        for (DavEntry e : entries) {
-                            if (e == null || e.href == null) continue;
-                            if (sameUrl(self, e.href)) continue;
-                            if (e.isCollection) continue;
-                            if (!isVideoFile(e.href)) continue;
-                            files.add(e);
-                        }
-                        Collections.sort(
-                                files,
-                                new Comparator<DavEntry>() {
-                                    @Override
-                                    public int compare(DavEntry a, DavEntry b) {
-                                        String ta = a != null ? safe(a.displayName) : "";
-                                        String tb = b != null ? safe(b.displayName) : "";
-                                        return ta.compareToIgnoreCase(tb);
-                                    }
-                                });
-
-                        List<Episode> out = new ArrayList<>(files.size());
-                        int idx = 1;
-                        for (DavEntry e : files) {
-                            String title = safe(e.displayName);
-                            if (title.isEmpty()) title = lastSegment(e.href);
-                            out.add(new Episode(e.href, idx, title, e.href));
-                            idx++;
-                        }
-                        AppExecutors.main(() -> cb.onSuccess(Collections.unmodifiableList(out)));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        return AppExecutors.submitCached(
+                cb, () -> recentEpisodes.put(id, loadEpisodes(id)).episodes);
     }
 
     @Override
-    public void getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
+    public Cancellable getEpisode(String showId, int episodeIndex, Callback<Episode> cb) {
         if (!isConfigured()) {
-            AppExecutors.main(() -> cb.onError(new IllegalStateException("WebDAV not configured")));
-            return;
+            return AppExecutors.fail(cb, new IllegalStateException("WebDAV not configured"));
         }
         if (showId == null || showId.trim().isEmpty()) {
-            AppExecutors.main(() -> cb.onSuccess(null));
-            return;
+            return AppExecutors.succeed(cb, null);
         }
         String id = showId.trim();
         int index = episodeIndex;
-        AppExecutors.io(
-                () -> {
-                    try {
-                        List<Episode> list = loadEpisodes(id);
-                        Episode found = null;
-                        for (Episode e : list) {
-                            if (e != null && e.index == index) {
-                                found = e;
-                                break;
-                            }
-                        }
-                        Episode v = found;
-                        AppExecutors.main(() -> cb.onSuccess(v));
-                    } catch (Exception e) {
-                        AppExecutors.main(() -> cb.onError(e));
-                    }
-                });
+        EpisodeIndex.Entry indexed = recentEpisodes.lookup(id);
+        if (indexed != null) return AppExecutors.succeed(cb, indexed.get(index));
+        return AppExecutors.submitCached(
+                cb, () -> recentEpisodes.put(id, loadEpisodes(id)).get(index));
     }
 
     private List<Episode> loadEpisodes(String folderUrl) throws Exception {
         HttpUrl folder = HttpUrl.parse(ensureSlash(folderUrl));
-        if (folder == null) return Collections.emptyList();
+        if (folder == null) throw new IOException("invalid WebDAV folder url");
         List<DavEntry> entries = propfind(folder, 1);
         List<DavEntry> files = new ArrayList<>();
         String self = folder.toString();
@@ -247,12 +198,11 @@ final class WebDavMediaBackend implements MediaBackend {
                         .header("Depth", String.valueOf(depth))
                         .header("Accept", "application/xml")
                         .build();
-        try (Response resp = client.newCall(req).execute()) {
-            if (!resp.isSuccessful()) {
-                throw new IOException("WebDAV: HTTP " + resp.code() + " " + resp.message());
+        try (MetadataCache.Body rb = MetadataCache.get(appContext).fetch(client, req, authHeader)) {
+            if (!rb.isSuccessful()) {
+                throw new IOException("WebDAV: HTTP " + rb.code + " " + rb.message);
             }
-            ResponseBody rb = resp.body();
-            String xml = rb != null ? rb.string() : "";
+            String xml = rb.string();
             List<DavEntry> parsed = parsePropfind(xml);
             // Normalize href to absolute URL for later navigation/playback.
             for (DavEntry d : parsed) {
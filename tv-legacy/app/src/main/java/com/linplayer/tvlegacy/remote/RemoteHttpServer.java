@@ -5,6 +5,8 @@ import com.linplayer.tvlegacy.AppPrefs;
 import com.linplayer.tvlegacy.BuildConfig;
 import com.linplayer.tvlegacy.ProxyService;
 import com.linplayer.tvlegacy.R;
+import com.linplayer.tvlegacy.backend.Backends;
+import com.linplayer.tvlegacy.backend.ExecutorStats;
 import com.linplayer.tvlegacy.servers.ServerConfig;
 import com.linplayer.tvlegacy.servers.ServerStore;
 import java.io.BufferedInputStream;
@@ -218,6 +220,17 @@ final class RemoteHttpServer {
                 proxy.put("status", AppPrefs.getLastStatus(appContext));
                 resp.put("proxy", proxy);
 
+                ExecutorStats stats = Backends.executorStats();
+                JSONObject requests = new JSONObject();
+                requests.put("queued", stats.queued);
+                requests.put("active", stats.active);
+                requests.put("completed", stats.completed);
+                requests.put("cancelled", stats.cancelled);
+                requests.put("avgWaitMs", stats.averageWaitMs);
+                requests.put("maxWaitMs", stats.maxWaitMs);
+                requests.put("avgRunMs", stats.averageRunMs);
+                resp.put("backendRequests", requests);
+
                 writeBytes(out, 200, "application/json; charset=utf-8", resp.toString().getBytes(UTF8));
             } catch (JSONException e) {
                 writePlain(out, 500, "json error");
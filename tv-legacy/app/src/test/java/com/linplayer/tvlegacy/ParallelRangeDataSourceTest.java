@@ -0,0 +1,173 @@
+package com.linplayer.tvlegacy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.net.Uri;
+import com.google.android.exoplayer2.testutil.FakeDataSet;
+import com.google.android.exoplayer2.testutil.FakeDataSource;
+import com.google.android.exoplayer2.testutil.TestUtil;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSourceUtil;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.linplayer.tvlegacy.ParallelRangeDataSource.WindowController;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public final class ParallelRangeDataSourceTest {
+    private static final Uri URI = Uri.parse("https://media.example.com/movie.mkv");
+    private static final int MIN_PARALLEL_BYTES = 1000;
+    private static final int CHUNK_BYTES = 100;
+
+    private final byte[] content = TestUtil.buildTestData(2500);
+    private final FakeDataSet dataSet = new FakeDataSet().setData(URI, content);
+    private final AtomicInteger upstreamCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private DataSource.Factory upstream(Map<String, List<String>> headers) {
+        return () -> {
+            upstreamCount.incrementAndGet();
+            return new FakeDataSource(dataSet) {
+                @Override
+                public Map<String, List<String>> getResponseHeaders() {
+                    return headers;
+                }
+            };
+        };
+    }
+
+    private ParallelRangeDataSource parallelSource(Map<String, List<String>> headers) {
+        return new ParallelRangeDataSource(
+                upstream(headers), executor, MIN_PARALLEL_BYTES, CHUNK_BYTES);
+    }
+
+    private static Map<String, List<String>> acceptRanges() {
+        return Collections.singletonMap("accept-ranges", Collections.singletonList("bytes"));
+    }
+
+    @Test
+    public void readsLargeFilesOverSeveralRequestsInOrder() throws Exception {
+        ParallelRangeDataSource source = parallelSource(acceptRanges());
+
+        assertEquals(content.length, source.open(new DataSpec(URI)));
+        byte[] read = DataSourceUtil.readToEnd(source);
+        source.close();
+
+        assertArrayEquals(content, read);
+        // The first chunk comes from the initial request, every other chunk from its own request.
+        assertEquals(content.length / CHUNK_BYTES, upstreamCount.get());
+    }
+
+    @Test
+    public void readsFromAnOffset() throws Exception {
+        ParallelRangeDataSource source = parallelSource(acceptRanges());
+
+        source.open(new DataSpec.Builder().setUri(URI).setPosition(1234).build());
+        byte[] read = DataSourceUtil.readToEnd(source);
+        source.close();
+
+        assertArrayEquals(Arrays.copyOfRange(content, 1234, content.length), read);
+        assertTrue(upstreamCount.get() > 1);
+    }
+
+    @Test
+    public void passesThroughWhenRangesAreNotAdvertised() throws Exception {
+        ParallelRangeDataSource source =
+                parallelSource(Collections.<String, List<String>>emptyMap());
+
+        source.open(new DataSpec(URI));
+        byte[] read = DataSourceUtil.readToEnd(source);
+        source.close();
+
+        assertArrayEquals(content, read);
+        assertEquals(1, upstreamCount.get());
+    }
+
+    @Test
+    public void passesThroughSmallRequests() throws Exception {
+        ParallelRangeDataSource source = parallelSource(acceptRanges());
+
+        source.open(new DataSpec.Builder().setUri(URI).setPosition(2000).build());
+        byte[] read = DataSourceUtil.readToEnd(source);
+        source.close();
+
+        assertArrayEquals(Arrays.copyOfRange(content, 2000, content.length), read);
+        assertEquals(1, upstreamCount.get());
+    }
+
+    @Test
+    public void acceptsRangesFromEitherHeader() {
+        Map<String, List<String>> contentRange = new HashMap<>();
+        contentRange.put(null, Collections.singletonList("HTTP/1.1 206 Partial Content"));
+        contentRange.put("Content-Range", Collections.singletonList("bytes 0-99/2500"));
+
+        assertTrue(ParallelRangeDataSource.acceptsRanges(contentRange));
+        assertTrue(
+                ParallelRangeDataSource.acceptsRanges(
+                        Collections.singletonMap(
+                                "Accept-Ranges", Collections.singletonList("bytes"))));
+        assertFalse(
+                ParallelRangeDataSource.acceptsRanges(
+                        Collections.singletonMap(
+                                "Accept-Ranges", Collections.singletonList("none"))));
+    }
+
+    @Test
+    public void windowGrowsWhileExtraRequestsAddThroughput() {
+        WindowController window = new WindowController();
+        int initial = window.size;
+
+        // The reader is starved and each request keeps its speed as more are added.
+        for (int i = 0; i < 20; i++) {
+            window.onChunkConsumed(true, CHUNK_BYTES, 100);
+        }
+
+        assertTrue(window.size > initial);
+        assertEquals(WindowController.MAX_SIZE, window.size);
+    }
+
+    @Test
+    public void windowDropsARequestThatDidNotHelp() {
+        WindowController window = new WindowController();
+        int initial = window.size;
+        window.onChunkConsumed(true, CHUNK_BYTES, 100);
+        window.onChunkConsumed(true, CHUNK_BYTES, 100);
+        assertEquals(initial + 1, window.size);
+
+        // The link is saturated: the extra request only slows the others down.
+        for (int i = 0; i < initial + 1; i++) {
+            window.onChunkConsumed(true, CHUNK_BYTES, 400);
+        }
+
+        assertEquals(initial, window.size);
+    }
+
+    @Test
+    public void windowShrinksWhenTheReaderNeverWaits() {
+        WindowController window = new WindowController();
+
+        for (int i = 0; i < 100; i++) {
+            window.onChunkConsumed(false, CHUNK_BYTES, 100);
+        }
+
+        assertEquals(WindowController.MIN_SIZE, window.size);
+    }
+}
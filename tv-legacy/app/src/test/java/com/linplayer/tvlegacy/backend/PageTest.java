@@ -0,0 +1,40 @@
+package com.linplayer.tvlegacy.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public final class PageTest {
+    @Test
+    public void wholeListIsTheOnlyPage() {
+        Page<String> page = Page.whole(Arrays.asList("a", "b", "c"));
+
+        assertEquals(3, page.items.size());
+        assertEquals(3, page.nextStartIndex());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void endIsAnEmptyLastPage() {
+        Page<String> page = Page.end(3);
+
+        assertTrue(page.items.isEmpty());
+        assertEquals(3, page.startIndex);
+        assertEquals(3, page.nextStartIndex());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void sliceReportsWhetherMoreFollow() {
+        Page<String> first = Page.slice(Arrays.asList("a", "b", "c"), 0, 2);
+        Page<String> last = Page.slice(Arrays.asList("a", "b", "c"), 2, 2);
+
+        assertEquals(Arrays.asList("a", "b"), first.items);
+        assertTrue(first.hasMore());
+        assertEquals(Arrays.asList("c"), last.items);
+        assertFalse(last.hasMore());
+    }
+}